@@ -0,0 +1,128 @@
+package com.example.analysis.config;
+
+import com.example.analysis.pipeline.TickPipeline;
+import com.example.analysis.service.cache.ResultCacheStats;
+import com.example.analysis.service.fft.FftPlanCache;
+import com.example.analysis.service.fft.WindowTableCache;
+import com.example.analysis.service.filter.ButterworthFilterCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public MeterBinder fftPlanCacheMetrics() {
+        FftPlanCache cache = FftPlanCache.shared();
+        return registry -> {
+            FunctionCounter.builder("analysis.fft.plan.cache.requests", cache, FftPlanCache::getHitCount)
+                    .tag("result", "hit")
+                    .description("FFT plan lookups served from the cache")
+                    .register(registry);
+            FunctionCounter.builder("analysis.fft.plan.cache.requests", cache, FftPlanCache::getMissCount)
+                    .tag("result", "miss")
+                    .description("FFT plan lookups that had to build a plan")
+                    .register(registry);
+            FunctionCounter.builder("analysis.fft.plan.cache.evictions", cache, FftPlanCache::getEvictionCount)
+                    .description("FFT plans evicted as least recently used")
+                    .register(registry);
+            Gauge.builder("analysis.fft.plan.cache.size", cache, FftPlanCache::size)
+                    .description("Number of cached FFT plans")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder butterworthFilterCacheMetrics() {
+        ButterworthFilterCache cache = ButterworthFilterCache.shared();
+        return registry -> {
+            FunctionCounter.builder("analysis.filter.cache.requests", cache, ButterworthFilterCache::getHitCount)
+                    .tag("result", "hit")
+                    .description("Butterworth filter lookups served from the cache")
+                    .register(registry);
+            FunctionCounter.builder("analysis.filter.cache.requests", cache, ButterworthFilterCache::getMissCount)
+                    .tag("result", "miss")
+                    .description("Butterworth filter lookups that had to compile a filter")
+                    .register(registry);
+            FunctionCounter.builder("analysis.filter.cache.evictions", cache, ButterworthFilterCache::getEvictionCount)
+                    .description("Compiled Butterworth filters evicted as least recently used")
+                    .register(registry);
+            Gauge.builder("analysis.filter.cache.size", cache, ButterworthFilterCache::size)
+                    .description("Number of cached compiled Butterworth filters")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder windowTableCacheMetrics() {
+        WindowTableCache cache = WindowTableCache.shared();
+        return registry -> {
+            FunctionCounter.builder("analysis.fft.window.cache.requests", cache, WindowTableCache::getHitCount)
+                    .tag("result", "hit")
+                    .description("Window table lookups served from the cache")
+                    .register(registry);
+            FunctionCounter.builder("analysis.fft.window.cache.requests", cache, WindowTableCache::getMissCount)
+                    .tag("result", "miss")
+                    .description("Window table lookups that had to compute a table")
+                    .register(registry);
+            FunctionCounter.builder("analysis.fft.window.cache.evictions", cache, WindowTableCache::getEvictionCount)
+                    .description("Window tables evicted as least recently used")
+                    .register(registry);
+            Gauge.builder("analysis.fft.window.cache.size", cache, WindowTableCache::size)
+                    .description("Number of cached window tables")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder resultCacheMetrics() {
+        ResultCacheStats stats = ResultCacheStats.shared();
+        return registry -> {
+            FunctionCounter.builder("analysis.result.cache.requests", stats, ResultCacheStats::getHitCount)
+                    .tag("result", "hit")
+                    .description("Spectrum and filter requests served from a symbol's result cache")
+                    .register(registry);
+            FunctionCounter.builder("analysis.result.cache.requests", stats, ResultCacheStats::getMissCount)
+                    .tag("result", "miss")
+                    .description("Spectrum and filter requests that had to be computed")
+                    .register(registry);
+            FunctionCounter.builder("analysis.result.cache.evictions", stats, ResultCacheStats::getEvictionCount)
+                    .description("Current results evicted to stay within a symbol's entry budget")
+                    .register(registry);
+            Gauge.builder("analysis.result.cache.size", stats, ResultCacheStats::getEntryCount)
+                    .description("Number of results cached across all symbols")
+                    .register(registry);
+            Gauge.builder("analysis.result.cache.hit.ratio", stats, ResultCacheStats::getHitRatio)
+                    .description("Fraction of spectrum and filter requests served from a result cache")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder tickPipelineMetrics(TickPipeline pipeline) {
+        return registry -> {
+            FunctionCounter.builder("analysis.pipeline.ticks", pipeline, TickPipeline::getProcessedCount)
+                    .description("Ticks that have passed every stage of the in-process pipeline")
+                    .register(registry);
+            FunctionCounter.builder("analysis.pipeline.rejected", pipeline, TickPipeline::getRejectedCount)
+                    .description("Ticks rejected by the pipeline's normalization stage")
+                    .register(registry);
+            FunctionCounter.builder("analysis.pipeline.errors", pipeline, TickPipeline::getErrorCount)
+                    .description("Ticks a pipeline stage failed on")
+                    .register(registry);
+            Gauge.builder("analysis.pipeline.remaining.capacity", pipeline, TickPipeline::getRemainingCapacity)
+                    .description("Slots producers can claim in the pipeline's ring without waiting")
+                    .register(registry);
+            for (double percentile : new double[]{50, 99, 99.9}) {
+                Gauge.builder("analysis.pipeline.latency", pipeline, p -> p.getLatency().getPercentile(percentile))
+                        .tag("percentile", Double.toString(percentile))
+                        .baseUnit("nanoseconds")
+                        .description("End-to-end latency of ticks through the pipeline")
+                        .register(registry);
+            }
+        };
+    }
+}
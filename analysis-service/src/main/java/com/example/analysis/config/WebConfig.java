@@ -1,5 +1,9 @@
 package com.example.analysis.config;
 
+import com.example.shared.codec.ColumnarHttpMessageConverter;
+import com.example.shared.codec.DoubleEncoding;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
@@ -13,4 +17,14 @@ public class WebConfig implements WebMvcConfigurer {
                 .allowedMethods("GET", "POST", "PUT", "DELETE")
                 .allowedHeaders("*");
     }
-}
\ No newline at end of file
+
+    /**
+     * Serves the shared time series and Fourier analysis DTOs in the binary columnar format to
+     * clients that accept it, alongside JSON.
+     */
+    @Bean
+    public ColumnarHttpMessageConverter columnarHttpMessageConverter(
+            @Value("${timeseries.columnar.value-encoding:XOR}") DoubleEncoding valueEncoding) {
+        return new ColumnarHttpMessageConverter(valueEncoding);
+    }
+}
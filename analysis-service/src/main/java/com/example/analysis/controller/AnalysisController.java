@@ -1,49 +1,146 @@
 package com.example.analysis.controller;
 
+import com.example.analysis.model.FrequencySpectrum;
+import com.example.analysis.model.TimeSeriesData;
 import com.example.analysis.service.TimeSeriesAnalysis;
-import lombok.RequiredArgsConstructor;
+import com.example.analysis.service.fft.WindowFunction;
+import com.example.shared.codec.ColumnarCodec;
+import com.example.shared.codec.ColumnarHttpMessageConverter;
+import com.example.shared.codec.DoubleEncoding;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.MimeTypeUtils;
 import org.springframework.web.bind.annotation.*;
-import java.util.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.util.List;
+
+/**
+ * Time series and spectrum of the default analysis. Both are streamed from primitive snapshots as
+ * a JSON array, as newline-delimited JSON when the client accepts
+ * {@value MediaType#APPLICATION_NDJSON_VALUE}, or in the binary {@link ColumnarCodec} format when
+ * it accepts {@value ColumnarCodec#MEDIA_TYPE_VALUE}; any other {@code Accept} gets JSON. Both can
+ * be narrowed with range and limit parameters so that clients only pay for the points they use.
+ */
 @Slf4j
 @RestController
 @RequestMapping("/api/v1/analysis")
-@RequiredArgsConstructor
 @CrossOrigin(origins = "http://localhost:3000")
 public class AnalysisController {
     private final TimeSeriesAnalysis timeSeriesAnalysis;
+    private final DoubleEncoding columnarValueEncoding;
+    private final WindowFunction defaultWindow;
 
-    @GetMapping("/timeseries")
-    public List<Map<String, Object>> getTimeSeriesData() {
-        List<Double> values = timeSeriesAnalysis.getValues();
-        List<Long> timestamps = timeSeriesAnalysis.getTimestamps();
-        List<Map<String, Object>> result = new ArrayList<>();
+    private enum Format {
+        JSON(MediaType.APPLICATION_JSON),
+        NDJSON(MediaType.APPLICATION_NDJSON),
+        COLUMNAR(ColumnarHttpMessageConverter.MEDIA_TYPE);
+
+        final MediaType mediaType;
 
-        for (int i = 0; i < values.size(); i++) {
-            Map<String, Object> dataPoint = new HashMap<>();
-            dataPoint.put("timestamp", timestamps.get(i));
-            dataPoint.put("value", values.get(i));
-            result.add(dataPoint);
+        Format(MediaType mediaType) {
+            this.mediaType = mediaType;
         }
+    }
 
-        return result;
+    /**
+     * @param columnarValueEncoding How columnar responses encode values.
+     * @param defaultWindow The window of {@code /frequency} requests that name none.
+     */
+    @Autowired
+    public AnalysisController(
+            TimeSeriesAnalysis timeSeriesAnalysis,
+            @Value("${timeseries.columnar.value-encoding:XOR}") DoubleEncoding columnarValueEncoding,
+            @Value("${timeseries.fft.window:RECTANGULAR}") WindowFunction defaultWindow
+    ) {
+        this.timeSeriesAnalysis = timeSeriesAnalysis;
+        this.columnarValueEncoding = columnarValueEncoding;
+        this.defaultWindow = defaultWindow;
     }
 
-    @GetMapping("/frequency")
-    public List<Map<String, Object>> getFrequencyData() {
-        List<Double[]> frequencyData = timeSeriesAnalysis.getFrequencyMagnitudePairs();
-        List<Map<String, Object>> result = new ArrayList<>();
+    /**
+     * A controller with the default settings.
+     */
+    public AnalysisController(TimeSeriesAnalysis timeSeriesAnalysis) {
+        this(timeSeriesAnalysis, DoubleEncoding.XOR, WindowFunction.RECTANGULAR);
+    }
 
-        for (Double[] pair : frequencyData) {
-            Map<String, Object> dataPoint = new HashMap<>();
-            dataPoint.put("frequency", pair[0]);
-            dataPoint.put("magnitude", pair[1]);
-            result.add(dataPoint);
+    /**
+     * @param from The earliest timestamp to include, in milliseconds.
+     * @param to The latest timestamp to include, in milliseconds.
+     * @param limit The maximum number of points, keeping the most recent.
+     */
+    @GetMapping("/timeseries")
+    public ResponseEntity<StreamingResponseBody> getTimeSeriesData(
+            @RequestParam(required = false) Long from,
+            @RequestParam(required = false) Long to,
+            @RequestParam(required = false) Integer limit,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        long fromTimestamp = from != null ? from : Long.MIN_VALUE;
+        long toTimestamp = to != null ? to : Long.MAX_VALUE;
+        if (fromTimestamp > toTimestamp || (limit != null && limit < 0)) {
+            log.warn("Rejected time series request with from={}, to={} and limit={}", from, to, limit);
+            return ResponseEntity.badRequest().build();
         }
+        Format format = negotiate(accept);
 
-        return result;
+        // One snapshot, so values and timestamps are always from the same tick
+        TimeSeriesData series = timeSeriesAnalysis.getTimeSeriesData();
+        if (from != null || to != null) {
+            series = series.between(fromTimestamp, toTimestamp);
+        }
+        if (limit != null) {
+            series = series.last(limit);
+        }
+        TimeSeriesData selected = series;
+        return respond(format, out -> {
+            if (format == Format.COLUMNAR) {
+                selected.encode(columnarValueEncoding, out);
+            } else {
+                AnalysisJsonWriter.writeTimeSeries(selected, format == Format.NDJSON, out);
+            }
+        });
+    }
+
+    /**
+     * @param minFrequency The lowest frequency to include, in Hz.
+     * @param maxFrequency The highest frequency to include, in Hz.
+     * @param limit The maximum number of bins, keeping the lowest frequencies.
+     * @param window The window applied before the transform, the configured one by default.
+     */
+    @GetMapping("/frequency")
+    public ResponseEntity<StreamingResponseBody> getFrequencyData(
+            @RequestParam(required = false) Double minFrequency,
+            @RequestParam(required = false) Double maxFrequency,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) WindowFunction window,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        double min = minFrequency != null ? minFrequency : Double.NEGATIVE_INFINITY;
+        double max = maxFrequency != null ? maxFrequency : Double.POSITIVE_INFINITY;
+        if (!(min <= max) || (limit != null && limit < 0)) {
+            log.warn("Rejected frequency request with minFrequency={}, maxFrequency={} and limit={}",
+                    minFrequency, maxFrequency, limit);
+            return ResponseEntity.badRequest().build();
+        }
+        Format format = negotiate(accept);
+
+        FrequencySpectrum spectrum = timeSeriesAnalysis.getFrequencySpectrum(window != null ? window : defaultWindow)
+                .between(min, max);
+        if (limit != null) {
+            spectrum = spectrum.first(limit);
+        }
+        FrequencySpectrum selected = spectrum;
+        return respond(format, out -> {
+            if (format == Format.COLUMNAR) {
+                selected.encode(columnarValueEncoding, out);
+            } else {
+                AnalysisJsonWriter.writeSpectrum(selected, format == Format.NDJSON, out);
+            }
+        });
     }
 
     @GetMapping("/sample")
@@ -51,4 +148,29 @@ public class AnalysisController {
         timeSeriesAnalysis.generateSampleData();
         return ResponseEntity.ok("Sample data generated");
     }
-}
\ No newline at end of file
+
+    private static ResponseEntity<StreamingResponseBody> respond(Format format, StreamingResponseBody body) {
+        return ResponseEntity.ok().contentType(format.mediaType).body(body);
+    }
+
+    // The format the client prefers by quality, then by order. Mappings declare no produces, so a
+    // client that names none of them gets JSON rather than a 406, as before formats were added.
+    private static Format negotiate(String accept) {
+        if (accept == null) {
+            return Format.JSON;
+        }
+        List<MediaType> accepted = MediaType.parseMediaTypes(accept);
+        MimeTypeUtils.sortBySpecificity(accepted);
+        for (MediaType mediaType : accepted) {
+            if (mediaType.getQualityValue() == 0) {
+                continue;
+            }
+            for (Format format : Format.values()) {
+                if (mediaType.includes(format.mediaType)) {
+                    return format;
+                }
+            }
+        }
+        return Format.JSON;
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.analysis.controller;
+
+import com.example.analysis.model.FrequencySpectrum;
+import com.example.analysis.model.TimeSeriesData;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.StreamWriteFeature;
+import com.fasterxml.jackson.core.io.SerializedString;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Renders time series and spectra straight from their primitive arrays with a Jackson
+ * {@link JsonGenerator}, either as one JSON array or as newline-delimited JSON (one object per
+ * line). Memory use is the generator's buffer, whatever the number of points; the response is
+ * flushed to the client as that buffer fills up.
+ * <p>
+ * Each point is rendered as {@code {"timestamp":...,"value":...}} or
+ * {@code {"frequency":...,"magnitude":...}}, as the monitoring service and dashboard read them.
+ */
+final class AnalysisJsonWriter {
+    private static final JsonFactory JSON_FACTORY = JsonFactory.builder()
+            .disable(StreamWriteFeature.AUTO_CLOSE_TARGET)
+            .build();
+
+    private static final SerializableString TIMESTAMP = new SerializedString("timestamp");
+    private static final SerializableString VALUE = new SerializedString("value");
+    private static final SerializableString FREQUENCY = new SerializedString("frequency");
+    private static final SerializableString MAGNITUDE = new SerializedString("magnitude");
+
+    private AnalysisJsonWriter() {
+    }
+
+    static void writeTimeSeries(TimeSeriesData series, boolean ndjson, OutputStream out) throws IOException {
+        try (JsonGenerator generator = open(out, ndjson)) {
+            for (int i = 0; i < series.size(); i++) {
+                generator.writeStartObject();
+                generator.writeFieldName(TIMESTAMP);
+                generator.writeNumber(series.getTimestamp(i));
+                generator.writeFieldName(VALUE);
+                generator.writeNumber(series.getValue(i));
+                generator.writeEndObject();
+                endPoint(generator, ndjson);
+            }
+            finish(generator, ndjson);
+        }
+    }
+
+    static void writeSpectrum(FrequencySpectrum spectrum, boolean ndjson, OutputStream out) throws IOException {
+        try (JsonGenerator generator = open(out, ndjson)) {
+            for (int k = 0; k < spectrum.size(); k++) {
+                generator.writeStartObject();
+                generator.writeFieldName(FREQUENCY);
+                generator.writeNumber(spectrum.getFrequency(k));
+                generator.writeFieldName(MAGNITUDE);
+                generator.writeNumber(spectrum.getMagnitude(k));
+                generator.writeEndObject();
+                endPoint(generator, ndjson);
+            }
+            finish(generator, ndjson);
+        }
+    }
+
+    private static JsonGenerator open(OutputStream out, boolean ndjson) throws IOException {
+        JsonGenerator generator = JSON_FACTORY.createGenerator(out);
+        if (ndjson) {
+            // Objects are separated by the newline written after each of them
+            generator.setRootValueSeparator(null);
+        } else {
+            generator.writeStartArray();
+        }
+        return generator;
+    }
+
+    private static void endPoint(JsonGenerator generator, boolean ndjson) throws IOException {
+        if (ndjson) {
+            generator.writeRaw('\n');
+        }
+    }
+
+    private static void finish(JsonGenerator generator, boolean ndjson) throws IOException {
+        if (!ndjson) {
+            generator.writeEndArray();
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.analysis.controller;
+
+import com.example.analysis.dto.BatchAnalysisRequest;
+import com.example.analysis.service.BatchAnalysisService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+
+import java.io.IOException;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/v1/analysis")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "http://localhost:3000")
+public class BatchAnalysisController {
+    private final BatchAnalysisService batchAnalysisService;
+    private final ObjectMapper objectMapper;
+
+    @Value("${timeseries.batch.timeout-ms:30000}")
+    private long timeoutMs;
+
+    /**
+     * Run the requested analyses for every symbol and stream one JSON object per symbol
+     * (newline-delimited) in the order the symbols finish.
+     */
+    @PostMapping(value = "/batch", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<ResponseBodyEmitter> analyzeBatch(@RequestBody BatchAnalysisRequest request) {
+        ResponseBodyEmitter emitter = new ResponseBodyEmitter(timeoutMs);
+        try {
+            batchAnalysisService.analyze(request, result -> {
+                try {
+                    emitter.send(objectMapper.writeValueAsString(result) + "\n", MediaType.APPLICATION_JSON);
+                } catch (JsonProcessingException e) {
+                    log.error("Could not serialize batch result for symbol {}", result.getSymbol(), e);
+                } catch (IOException | IllegalStateException e) {
+                    log.debug("Client went away before the result for symbol {} was sent", result.getSymbol());
+                }
+            }).whenComplete((ignored, error) -> {
+                if (error != null) {
+                    emitter.completeWithError(error);
+                } else {
+                    emitter.complete();
+                }
+            });
+        } catch (IllegalArgumentException e) {
+            log.warn("Rejected batch analysis request: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(emitter);
+    }
+}
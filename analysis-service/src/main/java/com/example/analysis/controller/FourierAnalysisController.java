@@ -2,6 +2,7 @@ package com.example.analysis.controller;
 
 import com.example.analysis.model.TimeSeriesData;
 import com.example.analysis.service.TimeSeriesAnalysisService;
+import com.example.analysis.service.fft.WindowFunction;
 import com.example.shared.dto.FourierAnalysisDTO;
 import com.example.shared.dto.FrequencyComponentDTO;
 import com.example.shared.dto.TimeSeriesDataDTO;
@@ -22,12 +23,13 @@ public class FourierAnalysisController {
     private final TimeSeriesAnalysisService analysisService;
 
     @GetMapping("/analyze")
-    public ResponseEntity<FourierAnalysisDTO> analyzeFourier() {
+    public ResponseEntity<FourierAnalysisDTO> analyzeFourier(
+            @RequestParam(defaultValue = "RECTANGULAR") WindowFunction window) {
         try {
             logger.info("Starting Fourier analysis");
 
             // Get frequency-magnitude pairs from the analysis service
-            List<Double[]> frequencyMagnitudePairs = analysisService.getFourierAnalysis("DEFAULT");
+            List<Double[]> frequencyMagnitudePairs = analysisService.getFourierAnalysis("DEFAULT", window);
 
             // Convert to DTOs
             List<FrequencyComponentDTO> components = new ArrayList<>();
@@ -0,0 +1,71 @@
+package com.example.analysis.controller;
+
+import com.example.analysis.service.TimeSeriesAnalysis;
+import com.example.analysis.service.TimeSeriesAnalysisService;
+import com.example.analysis.service.indicator.IndicatorSpec;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The streaming indicators of each symbol: their current values, and the indicators a symbol
+ * maintains, written like {@code RSI(14)} or {@code MACD(12,26,9)}.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/v1/analysis/symbols/{symbol}/indicators")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "http://localhost:3000")
+public class IndicatorController {
+    private final TimeSeriesAnalysisService analysisService;
+
+    @GetMapping
+    public ResponseEntity<Map<String, Double>> getIndicators(@PathVariable String symbol) {
+        TimeSeriesAnalysis analysis = analysisService.findAnalysis(symbol);
+        if (analysis == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(analysis.getIndicatorValues());
+    }
+
+    @GetMapping("/config")
+    public ResponseEntity<List<String>> getIndicatorConfig(@PathVariable String symbol) {
+        TimeSeriesAnalysis analysis = analysisService.findAnalysis(symbol);
+        if (analysis == null) {
+            return ResponseEntity.notFound().build();
+        }
+        List<String> specs = new ArrayList<>();
+        for (IndicatorSpec spec : analysis.getIndicatorSpecs()) {
+            specs.add(spec.toString());
+        }
+        return ResponseEntity.ok(specs);
+    }
+
+    /**
+     * Replace a symbol's indicators, primed from its retained history.
+     *
+     * @param indicators The indicators, e.g. {@code ["RSI(14)", "BOLLINGER(20,2)"]}.
+     * @return The values of the new indicators.
+     */
+    @PutMapping("/config")
+    public ResponseEntity<Map<String, Double>> configureIndicators(
+            @PathVariable String symbol,
+            @RequestBody List<String> indicators) {
+        try {
+            List<IndicatorSpec> specs = new ArrayList<>(indicators.size());
+            for (String indicator : indicators) {
+                specs.add(IndicatorSpec.parse(indicator));
+            }
+            analysisService.configureIndicators(symbol, specs);
+        } catch (IllegalArgumentException e) {
+            log.warn("Rejected indicators {} for symbol {}: {}", indicators, symbol, e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(analysisService.getIndicatorValues(symbol));
+    }
+}
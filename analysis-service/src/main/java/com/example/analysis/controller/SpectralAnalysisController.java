@@ -0,0 +1,116 @@
+package com.example.analysis.controller;
+
+import com.example.analysis.dto.PowerSpectralDensityDTO;
+import com.example.analysis.dto.SpectrogramDTO;
+import com.example.analysis.model.FrequencySpectrum;
+import com.example.analysis.model.Spectrogram;
+import com.example.analysis.service.TimeSeriesAnalysis;
+import com.example.analysis.service.TimeSeriesAnalysisService;
+import com.example.analysis.service.fft.WindowFunction;
+import com.example.analysis.service.spectrogram.SpectrogramSpec;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Welch PSD and spectrogram of each symbol. Segment length, overlap and window default to the
+ * configured ones and can be overridden per request.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/v1/analysis/symbols/{symbol}")
+@CrossOrigin(origins = "http://localhost:3000")
+public class SpectralAnalysisController {
+    private final TimeSeriesAnalysisService analysisService;
+    private final int defaultSegmentLength;
+    private final int defaultOverlap;
+    private final WindowFunction defaultWindow;
+
+    @Autowired
+    public SpectralAnalysisController(
+            TimeSeriesAnalysisService analysisService,
+            @Value("${timeseries.spectrogram.segment-length:256}") int defaultSegmentLength,
+            @Value("${timeseries.spectrogram.overlap:128}") int defaultOverlap,
+            @Value("${timeseries.spectrogram.window:HANN}") WindowFunction defaultWindow
+    ) {
+        this.analysisService = analysisService;
+        this.defaultSegmentLength = defaultSegmentLength;
+        this.defaultOverlap = defaultOverlap;
+        this.defaultWindow = defaultWindow;
+    }
+
+    @GetMapping("/psd")
+    public ResponseEntity<PowerSpectralDensityDTO> getWelchPsd(
+            @PathVariable String symbol,
+            @RequestParam(required = false) Integer segmentLength,
+            @RequestParam(required = false) Integer overlap,
+            @RequestParam(required = false) WindowFunction window) {
+        SpectrogramSpec spec;
+        try {
+            spec = spec(segmentLength, overlap, window);
+        } catch (IllegalArgumentException e) {
+            log.warn("Rejected PSD request for symbol {}: {}", symbol, e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+        TimeSeriesAnalysis analysis = analysisService.findAnalysis(symbol);
+        if (analysis == null) {
+            return ResponseEntity.notFound().build();
+        }
+
+        Spectrogram spectrogram = analysis.getSpectrogram(spec);
+        FrequencySpectrum psd = spectrogram.welch();
+        double[] frequencies = new double[psd.size()];
+        double[] density = new double[psd.size()];
+        for (int k = 0; k < psd.size(); k++) {
+            frequencies[k] = psd.getFrequency(k);
+            density[k] = psd.getMagnitude(k);
+        }
+        return ResponseEntity.ok(new PowerSpectralDensityDTO(symbol, spectrogram.getSamplingFrequency(),
+                spectrogram.getSegmentCount(), frequencies, density));
+    }
+
+    @GetMapping("/spectrogram")
+    public ResponseEntity<SpectrogramDTO> getSpectrogram(
+            @PathVariable String symbol,
+            @RequestParam(required = false) Integer segmentLength,
+            @RequestParam(required = false) Integer overlap,
+            @RequestParam(required = false) WindowFunction window) {
+        SpectrogramSpec spec;
+        try {
+            spec = spec(segmentLength, overlap, window);
+        } catch (IllegalArgumentException e) {
+            log.warn("Rejected spectrogram request for symbol {}: {}", symbol, e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+        TimeSeriesAnalysis analysis = analysisService.findAnalysis(symbol);
+        if (analysis == null) {
+            return ResponseEntity.notFound().build();
+        }
+
+        Spectrogram spectrogram = analysis.getSpectrogram(spec);
+        double[] frequencies = new double[spectrogram.getBinCount()];
+        for (int k = 0; k < frequencies.length; k++) {
+            frequencies[k] = spectrogram.getFrequency(k);
+        }
+        long[] timestamps = new long[spectrogram.getSegmentCount()];
+        double[][] density = new double[timestamps.length][frequencies.length];
+        for (int s = 0; s < timestamps.length; s++) {
+            timestamps[s] = spectrogram.getTimestamp(s);
+            for (int k = 0; k < frequencies.length; k++) {
+                density[s][k] = spectrogram.getDensity(s, k);
+            }
+        }
+        return ResponseEntity.ok(new SpectrogramDTO(symbol, spectrogram.getSamplingFrequency(), frequencies,
+                timestamps, density));
+    }
+
+    private SpectrogramSpec spec(Integer segmentLength, Integer overlap, WindowFunction window) {
+        int length = segmentLength != null ? segmentLength : defaultSegmentLength;
+        // Without an explicit overlap, keep the configured proportion of the segment
+        int shared = overlap != null ? overlap
+                : (int) ((long) length * defaultOverlap / defaultSegmentLength);
+        return new SpectrogramSpec(length, shared, window != null ? window : defaultWindow);
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.analysis.dto;
+
+import com.example.analysis.service.AnalysisType;
+import com.example.analysis.service.fft.WindowFunction;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Set;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchAnalysisRequest {
+    private List<String> symbols;
+    private Set<AnalysisType> analyses;
+
+    // Filter settings, used when FILTERED is requested
+    private double lowCutoff;
+    private double highCutoff;
+    private int filterOrder = 4;
+    private String filterType = "lowpass";
+    // Run the filter forwards and backwards in the time domain (IIR, no phase delay) instead of in the spectrum
+    private boolean zeroPhase;
+
+    // Bollinger band width in standard deviations, used when VOLATILITY is requested
+    private double bollingerWidth = 2.0;
+
+    // Window applied before the transform, used when SPECTRUM is requested
+    private WindowFunction window = WindowFunction.RECTANGULAR;
+
+    public BatchAnalysisRequest(List<String> symbols, Set<AnalysisType> analyses) {
+        this.symbols = symbols;
+        this.analyses = analyses;
+    }
+}
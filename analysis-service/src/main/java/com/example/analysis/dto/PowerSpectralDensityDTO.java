@@ -0,0 +1,20 @@
+package com.example.analysis.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A Welch PSD estimate: the one-sided power spectral density of each frequency, averaged over
+ * {@code segmentCount} segments.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PowerSpectralDensityDTO {
+    private String symbol;
+    private double samplingFrequency;
+    private int segmentCount;
+    private double[] frequencies;
+    private double[] density;
+}
@@ -0,0 +1,20 @@
+package com.example.analysis.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A time-frequency matrix: {@code density[s][k]} is the one-sided power spectral density of
+ * {@code frequencies[k]} in the segment centred on {@code timestamps[s]}, oldest segment first.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SpectrogramDTO {
+    private String symbol;
+    private double samplingFrequency;
+    private double[] frequencies;
+    private long[] timestamps;
+    private double[][] density;
+}
@@ -0,0 +1,40 @@
+package com.example.analysis.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.example.analysis.model.BollingerBands;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The analyses computed for one symbol of a batch request. Analyses that were not requested
+ * are left {@code null} and omitted from the JSON.
+ */
+@Data
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class SymbolAnalysisResult {
+    private String symbol;
+    private Double sma;
+    private Double ema;
+    // Configured indicator outputs by key, null for those not ready
+    private Map<String, Double> indicators;
+    // Rolling statistics of the SMA window
+    private Double stdDev;
+    @JsonProperty("zScore")
+    private Double zScore;
+    private BollingerBands bollinger;
+    private List<FrequencyComponentDTO> spectrum;
+    private TimeSeriesDataDTO filtered;
+    private String error;
+
+    // Time spent computing this symbol's analyses, excluding time queued behind other symbols
+    private long elapsedMicros;
+
+    public SymbolAnalysisResult(String symbol) {
+        this.symbol = symbol;
+    }
+}
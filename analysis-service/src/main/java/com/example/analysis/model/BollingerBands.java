@@ -0,0 +1,17 @@
+package com.example.analysis.model;
+
+/**
+ * Bollinger bands of a rolling window: its mean, and the bands {@code width} standard deviations
+ * above and below it.
+ *
+ * @param middle The mean of the window.
+ * @param upper The mean plus {@code width} standard deviations.
+ * @param lower The mean minus {@code width} standard deviations.
+ * @param width The band width in standard deviations.
+ */
+public record BollingerBands(double middle, double upper, double lower, double width) {
+
+    public static BollingerBands of(double mean, double stdDev, double width) {
+        return new BollingerBands(mean, mean + width * stdDev, mean - width * stdDev, width);
+    }
+}
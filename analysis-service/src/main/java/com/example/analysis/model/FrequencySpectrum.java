@@ -0,0 +1,103 @@
+package com.example.analysis.model;
+
+import com.example.shared.codec.ColumnarCodec;
+import com.example.shared.codec.DoubleEncoding;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Objects;
+
+/**
+ * An immutable one-sided magnitude spectrum, in ascending frequency order, held in primitive
+ * arrays so that it can be rendered without boxing each bin.
+ */
+public final class FrequencySpectrum {
+    public static final FrequencySpectrum EMPTY = new FrequencySpectrum(new double[0], new double[0], 0, 0, 0.0);
+
+    private final double[] frequencies;
+    private final double[] magnitudes;
+    private final int offset;
+    private final int size;
+    private final double samplingFrequency;
+
+    private FrequencySpectrum(double[] frequencies, double[] magnitudes, int offset, int size,
+                              double samplingFrequency) {
+        Objects.checkFromIndexSize(offset, size, frequencies.length);
+        Objects.checkFromIndexSize(offset, size, magnitudes.length);
+        this.frequencies = frequencies;
+        this.magnitudes = magnitudes;
+        this.offset = offset;
+        this.size = size;
+        this.samplingFrequency = samplingFrequency;
+    }
+
+    /**
+     * A spectrum backed by the first {@code size} bins of the given arrays, without copying them.
+     * The caller hands that range over and must not modify it afterwards.
+     *
+     * @param samplingFrequency The sampling frequency of the transformed series, in Hz.
+     */
+    public static FrequencySpectrum wrap(double[] frequencies, double[] magnitudes, int size,
+                                         double samplingFrequency) {
+        return new FrequencySpectrum(frequencies, magnitudes, 0, size, samplingFrequency);
+    }
+
+    /**
+     * @return The bins with frequencies in {@code [minFrequency, maxFrequency]}, sharing this
+     * spectrum's storage.
+     */
+    public FrequencySpectrum between(double minFrequency, double maxFrequency) {
+        int first = offset;
+        while (first < offset + size && !(frequencies[first] >= minFrequency)) {
+            first++;
+        }
+        int end = first;
+        while (end < offset + size && frequencies[end] <= maxFrequency) {
+            end++;
+        }
+        return new FrequencySpectrum(frequencies, magnitudes, first, end - first, samplingFrequency);
+    }
+
+    /**
+     * @return The {@code count} lowest-frequency bins, sharing this spectrum's storage.
+     */
+    public FrequencySpectrum first(int count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("Count must not be negative, got " + count);
+        }
+        if (count >= size) {
+            return this;
+        }
+        return new FrequencySpectrum(frequencies, magnitudes, offset, count, samplingFrequency);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return The frequency of a bin, in Hz.
+     */
+    public double getFrequency(int index) {
+        return frequencies[offset + Objects.checkIndex(index, size)];
+    }
+
+    public double getMagnitude(int index) {
+        return magnitudes[offset + Objects.checkIndex(index, size)];
+    }
+
+    /**
+     * @return The sampling frequency of the transformed series, in Hz.
+     */
+    public double getSamplingFrequency() {
+        return samplingFrequency;
+    }
+
+    /**
+     * Encode the bins in the columnar format of {@link ColumnarCodec}.
+     */
+    public void encode(DoubleEncoding encoding, OutputStream out) throws IOException {
+        ColumnarCodec.encodeFourierAnalysis(frequencies, magnitudes, offset, size,
+                samplingFrequency, encoding, out);
+    }
+}
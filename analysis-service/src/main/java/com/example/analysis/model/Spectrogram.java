@@ -0,0 +1,100 @@
+package com.example.analysis.model;
+
+import java.util.Objects;
+
+/**
+ * An immutable time-frequency matrix: the one-sided power spectral density of consecutive,
+ * possibly overlapping segments of a series, oldest segment first, in primitive arrays.
+ */
+public final class Spectrogram {
+    public static final Spectrogram EMPTY = new Spectrogram(new double[0], new long[0], new double[0], 0.0);
+
+    private final double[] frequencies;
+    private final long[] timestamps;
+    private final double[] density;
+    private final double samplingFrequency;
+
+    private Spectrogram(double[] frequencies, long[] timestamps, double[] density, double samplingFrequency) {
+        if (density.length != frequencies.length * timestamps.length) {
+            throw new IllegalArgumentException("Density must hold one row of " + frequencies.length
+                    + " bins for each of the " + timestamps.length + " segments");
+        }
+        this.frequencies = frequencies;
+        this.timestamps = timestamps;
+        this.density = density;
+        this.samplingFrequency = samplingFrequency;
+    }
+
+    /**
+     * A spectrogram backed by the given arrays, without copying them. The caller hands them over
+     * and must not modify them afterwards.
+     *
+     * @param frequencies The frequency of each bin, in Hz.
+     * @param timestamps The timestamp of the middle tick of each segment.
+     * @param density The power spectral density of each segment and bin, one row per segment.
+     * @param samplingFrequency The sampling frequency of the series, in Hz.
+     */
+    public static Spectrogram wrap(double[] frequencies, long[] timestamps, double[] density,
+                                   double samplingFrequency) {
+        return new Spectrogram(frequencies, timestamps, density, samplingFrequency);
+    }
+
+    public int getSegmentCount() {
+        return timestamps.length;
+    }
+
+    public int getBinCount() {
+        return frequencies.length;
+    }
+
+    /**
+     * @return The frequency of a bin, in Hz.
+     */
+    public double getFrequency(int bin) {
+        return frequencies[bin];
+    }
+
+    /**
+     * @return The timestamp of the middle tick of a segment.
+     */
+    public long getTimestamp(int segment) {
+        return timestamps[segment];
+    }
+
+    /**
+     * @return The power spectral density of a bin of a segment, in squared units per Hz.
+     */
+    public double getDensity(int segment, int bin) {
+        Objects.checkIndex(bin, frequencies.length);
+        return density[Objects.checkIndex(segment, timestamps.length) * frequencies.length + bin];
+    }
+
+    public double getSamplingFrequency() {
+        return samplingFrequency;
+    }
+
+    /**
+     * Average the segments into a Welch PSD estimate, which trades the time axis for a much lower
+     * variance than the periodogram of the whole series.
+     *
+     * @return The averaged density of each bin, as the magnitudes of the spectrum.
+     */
+    public FrequencySpectrum welch() {
+        int bins = frequencies.length;
+        int segments = timestamps.length;
+        if (segments == 0) {
+            return FrequencySpectrum.EMPTY;
+        }
+        double[] average = new double[bins];
+        for (int s = 0; s < segments; s++) {
+            int row = s * bins;
+            for (int k = 0; k < bins; k++) {
+                average[k] += density[row + k];
+            }
+        }
+        for (int k = 0; k < bins; k++) {
+            average[k] /= segments;
+        }
+        return FrequencySpectrum.wrap(frequencies, average, bins, samplingFrequency);
+    }
+}
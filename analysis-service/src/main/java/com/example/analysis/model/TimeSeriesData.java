@@ -1,25 +1,175 @@
 package com.example.analysis.model;
 
+import com.example.shared.codec.ColumnarCodec;
+import com.example.shared.codec.DoubleEncoding;
+import com.example.shared.codec.PrimitiveLists;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.DoubleBuffer;
+import java.nio.LongBuffer;
 import java.util.List;
-import java.util.ArrayList;
+import java.util.Objects;
 
+/**
+ * An immutable time series of values and their timestamps.
+ * <p>
+ * The series is held in primitive arrays, and the getters return read-only views of them rather
+ * than copies, so an instance can be shared freely between threads and read repeatedly without
+ * allocating. The list views box each element as it is read; hot paths should use
+ * {@link #getValue(int)}, {@link #getTimestamp(int)} or the buffer views instead.
+ */
 public class TimeSeriesData {
-    private final List<Double> values;
-    private final List<Long> timestamps;
+    private final double[] values;
+    private final long[] timestamps;
+    private final int offset;
+    private final int size;
+    private final List<Double> valueView;
+    private final List<Long> timestampView;
 
+    /**
+     * Copy the given lists into a new series.
+     */
     public TimeSeriesData(List<Double> values, List<Long> timestamps) {
         if (values.size() != timestamps.size()) {
             throw new IllegalArgumentException("Values and timestamps must have the same size");
         }
-        this.values = new ArrayList<>(values);
-        this.timestamps = new ArrayList<>(timestamps);
+        this.size = values.size();
+        this.offset = 0;
+        this.values = new double[size];
+        this.timestamps = new long[size];
+        for (int i = 0; i < size; i++) {
+            this.values[i] = values.get(i);
+            this.timestamps[i] = timestamps.get(i);
+        }
+        this.valueView = PrimitiveLists.ofDoubles(this.values, offset, size);
+        this.timestampView = PrimitiveLists.ofLongs(this.timestamps, offset, size);
     }
 
+    private TimeSeriesData(double[] values, long[] timestamps, int offset, int size) {
+        Objects.checkFromIndexSize(offset, size, values.length);
+        Objects.checkFromIndexSize(offset, size, timestamps.length);
+        this.values = values;
+        this.timestamps = timestamps;
+        this.offset = offset;
+        this.size = size;
+        this.valueView = PrimitiveLists.ofDoubles(this.values, offset, size);
+        this.timestampView = PrimitiveLists.ofLongs(this.timestamps, offset, size);
+    }
+
+    /**
+     * A series backed by the given arrays, without copying them. The caller hands the arrays over
+     * and must not modify them afterwards.
+     */
+    public static TimeSeriesData wrap(double[] values, long[] timestamps) {
+        if (values.length != timestamps.length) {
+            throw new IllegalArgumentException("Values and timestamps must have the same size");
+        }
+        return new TimeSeriesData(values, timestamps, 0, values.length);
+    }
+
+    /**
+     * A series backed by {@code size} elements of the given arrays starting at {@code offset},
+     * without copying them. The caller hands that range over and must not modify it afterwards.
+     */
+    public static TimeSeriesData wrap(double[] values, long[] timestamps, int offset, int size) {
+        return new TimeSeriesData(values, timestamps, offset, size);
+    }
+
+    /**
+     * @return A read-only view of the values.
+     */
     public List<Double> getValues() {
-        return new ArrayList<>(values);
+        return valueView;
     }
 
+    /**
+     * @return A read-only view of the timestamps.
+     */
     public List<Long> getTimestamps() {
-        return new ArrayList<>(timestamps);
+        return timestampView;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public double getValue(int index) {
+        return values[offset + Objects.checkIndex(index, size)];
+    }
+
+    public long getTimestamp(int index) {
+        return timestamps[offset + Objects.checkIndex(index, size)];
+    }
+
+    /**
+     * Select the points with timestamps in {@code [from, to]}. In a series recorded in time order
+     * they are contiguous, and the selection shares this series' storage; otherwise they are copied.
+     */
+    public TimeSeriesData between(long from, long to) {
+        int first = -1;
+        int last = -1;
+        int matching = 0;
+        for (int i = offset; i < offset + size; i++) {
+            if (timestamps[i] >= from && timestamps[i] <= to) {
+                if (first < 0) {
+                    first = i;
+                }
+                last = i;
+                matching++;
+            }
+        }
+        if (matching == 0) {
+            return new TimeSeriesData(values, timestamps, offset, 0);
+        }
+        if (matching == last - first + 1) {
+            return new TimeSeriesData(values, timestamps, first, matching);
+        }
+
+        double[] selectedValues = new double[matching];
+        long[] selectedTimestamps = new long[matching];
+        int j = 0;
+        for (int i = first; i <= last; i++) {
+            if (timestamps[i] >= from && timestamps[i] <= to) {
+                selectedValues[j] = values[i];
+                selectedTimestamps[j] = timestamps[i];
+                j++;
+            }
+        }
+        return wrap(selectedValues, selectedTimestamps);
+    }
+
+    /**
+     * @return The last {@code count} points, sharing this series' storage.
+     */
+    public TimeSeriesData last(int count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("Count must not be negative, got " + count);
+        }
+        if (count >= size) {
+            return this;
+        }
+        return new TimeSeriesData(values, timestamps, offset + size - count, count);
+    }
+
+    /**
+     * Encode the series in the columnar format of {@link ColumnarCodec}.
+     */
+    public void encode(DoubleEncoding encoding, OutputStream out) throws IOException {
+        ColumnarCodec.encodeTimeSeries(timestamps, values, offset, size, encoding, out);
+    }
+
+    /**
+     * @return A read-only buffer view of the values, positioned at the first one.
+     */
+    public DoubleBuffer valuesBuffer() {
+        return DoubleBuffer.wrap(values, offset, size).slice().asReadOnlyBuffer();
+    }
+
+    /**
+     * @return A read-only buffer view of the timestamps, positioned at the first one.
+     */
+    public LongBuffer timestampsBuffer() {
+        return LongBuffer.wrap(timestamps, offset, size).slice().asReadOnlyBuffer();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,12 @@
+package com.example.analysis.pipeline;
+
+/**
+ * Thrown to a stage waiting on a {@link SequenceBarrier} when the pipeline is stopping.
+ */
+final class AlertException extends Exception {
+    static final AlertException INSTANCE = new AlertException();
+
+    private AlertException() {
+        super("Pipeline stopping", null, false, false);
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.analysis.pipeline;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs one stage: waits on its barrier, hands every slot that has become available to the handler
+ * in one pass, then advances its sequence once for the whole batch. Under load the batches grow,
+ * so the cost of coordinating with the other threads is spread over more slots.
+ * <p>
+ * An exception from the handler is logged and counted, and the stage moves on to the next slot.
+ * <p>
+ * A stage runs once. Halting it before its thread gets going makes {@link #run()} return at once.
+ */
+final class BatchEventProcessor<E> implements Runnable {
+    private static final Logger logger = LoggerFactory.getLogger(BatchEventProcessor.class);
+
+    private final String name;
+    private final RingBuffer<E> ringBuffer;
+    private final SequenceBarrier barrier;
+    private final EventHandler<E> handler;
+    private final Sequence sequence = new Sequence();
+    private static final int IDLE = 0;
+    private static final int RUNNING = 1;
+    private static final int HALTED = 2;
+
+    private final AtomicInteger state = new AtomicInteger(IDLE);
+    private volatile long errorCount;
+
+    BatchEventProcessor(String name, RingBuffer<E> ringBuffer, SequenceBarrier barrier, EventHandler<E> handler) {
+        this.name = name;
+        this.ringBuffer = ringBuffer;
+        this.barrier = barrier;
+        this.handler = handler;
+    }
+
+    /**
+     * @return The last slot this stage has finished with.
+     */
+    Sequence getSequence() {
+        return sequence;
+    }
+
+    @Override
+    public void run() {
+        if (!state.compareAndSet(IDLE, RUNNING)) {
+            if (state.get() == HALTED) {
+                return;
+            }
+            throw new IllegalStateException("Pipeline stage " + name + " is already running");
+        }
+        long next = sequence.get() + 1;
+        while (true) {
+            long available;
+            try {
+                available = barrier.waitFor(next);
+            } catch (AlertException e) {
+                if (state.get() == HALTED) {
+                    break;
+                }
+                continue;
+            }
+            for (; next <= available; next++) {
+                try {
+                    handler.onEvent(ringBuffer.get(next), next, next == available);
+                } catch (RuntimeException e) {
+                    errorCount++;
+                    logger.warn("Pipeline stage {} failed on sequence {}: {}", name, next, e.toString());
+                }
+            }
+            sequence.set(available);
+        }
+    }
+
+    /**
+     * Stop once the current batch is done, or before the first one if the stage has not started.
+     */
+    void halt() {
+        state.set(HALTED);
+        barrier.alert();
+    }
+
+    long getErrorCount() {
+        return errorCount;
+    }
+
+    String getName() {
+        return name;
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.analysis.pipeline;
+
+/**
+ * What a symbol's ticks since the last drain of a {@link Conflator} add up to. Each drainer passes
+ * its own instance, which is reused from one symbol to the next, so a handler must copy whatever it
+ * keeps.
+ * <p>
+ * With {@link ConflationMode#LATEST}, open, high and low equal the close, and the volume is the last
+ * tick's.
+ */
+public final class ConflatedTick {
+    String symbol;
+    double open;
+    double high;
+    double low;
+    double close;
+    double volume;
+    long tickCount;
+    long firstTimestamp;
+    long lastTimestamp;
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    public double getOpen() {
+        return open;
+    }
+
+    public double getHigh() {
+        return high;
+    }
+
+    public double getLow() {
+        return low;
+    }
+
+    /**
+     * @return The latest price.
+     */
+    public double getClose() {
+        return close;
+    }
+
+    public double getVolume() {
+        return volume;
+    }
+
+    /**
+     * @return The number of ticks conflated into this update, at least 1.
+     */
+    public long getTickCount() {
+        return tickCount;
+    }
+
+    /**
+     * @return The time of the first conflated tick, in epoch milliseconds.
+     */
+    public long getFirstTimestamp() {
+        return firstTimestamp;
+    }
+
+    /**
+     * @return The time of the latest tick, in epoch milliseconds.
+     */
+    public long getLastTimestamp() {
+        return lastTimestamp;
+    }
+
+    @Override
+    public String toString() {
+        return symbol + "[open=" + open + ", high=" + high + ", low=" + low + ", close=" + close
+                + ", volume=" + volume + ", ticks=" + tickCount + "]";
+    }
+}
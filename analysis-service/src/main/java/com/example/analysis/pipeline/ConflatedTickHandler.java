@@ -0,0 +1,13 @@
+package com.example.analysis.pipeline;
+
+/**
+ * Receives the updates drained from a {@link Conflator}, one per dirty symbol.
+ */
+@FunctionalInterface
+public interface ConflatedTickHandler {
+    /**
+     * @param tick       Reused for the next symbol once this returns.
+     * @param endOfDrain Whether this is the last update of the drain; flush buffered output here.
+     */
+    void onUpdate(ConflatedTick tick, boolean endOfDrain);
+}
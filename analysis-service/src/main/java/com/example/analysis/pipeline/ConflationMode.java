@@ -0,0 +1,15 @@
+package com.example.analysis.pipeline;
+
+/**
+ * What a {@link Conflator} keeps of the ticks a symbol receives between two drains.
+ */
+public enum ConflationMode {
+    /**
+     * The last tick only: its price, volume and time.
+     */
+    LATEST,
+    /**
+     * An open, high, low, close bar of the ticks, with their total volume.
+     */
+    OHLC
+}
@@ -0,0 +1,188 @@
+package com.example.analysis.pipeline;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Coalesces a stream of ticks into at most one pending update per symbol, for consumers that only
+ * need each symbol's current state, such as a display, and would waste work on every intermediate
+ * tick of a burst.
+ * <p>
+ * Each symbol has a slot that the writer updates in place, and a symbol is queued as dirty on its
+ * first tick since it was last drained, so {@link #drain} visits only symbols that changed, each
+ * once. Neither side locks: a slot carries a version word holding its dirty bit, so a drain takes a
+ * slot's aggregate and clears the bit in one CAS, and the writer's next tick starts a fresh
+ * aggregate. No tick is counted twice or lost between two drains.
+ * <p>
+ * There must be a single writer, e.g. the publish stage of a {@link TickPipeline}. Any number of
+ * threads may drain, each into a {@link ConflatedTick} of its own.
+ */
+public final class Conflator implements TickListener {
+    private static final long DIRTY = 1L;
+    private static final long WRITING = 2L;
+    private static final long VERSION_INCREMENT = 4L;
+    private static final VarHandle STATE;
+
+    static {
+        try {
+            STATE = MethodHandles.lookup().findVarHandle(Slot.class, "state", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final ConflationMode mode;
+    private final ConcurrentHashMap<String, Slot> slots = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Slot> dirty = new ConcurrentLinkedQueue<>();
+    // Written by the writer only
+    private volatile long tickCount;
+
+    private static final class Slot {
+        final String symbol;
+        // Version, WRITING and DIRTY bits; see update and read
+        volatile long state;
+        double open;
+        double high;
+        double low;
+        double close;
+        double volume;
+        long tickCount;
+        long firstTimestamp;
+        long lastTimestamp;
+
+        Slot(String symbol) {
+            this.symbol = symbol;
+        }
+    }
+
+    public Conflator(ConflationMode mode) {
+        this.mode = mode;
+    }
+
+    @Override
+    public void onTick(TickEvent event, boolean endOfBatch) {
+        if (!event.rejected) {
+            update(event.symbol, event.price, event.volume, event.timestamp);
+        }
+    }
+
+    /**
+     * Fold a tick into its symbol's pending update. Only ever call from one thread.
+     */
+    public void update(String symbol, double price, double volume, long timestamp) {
+        Slot slot = slots.get(symbol);
+        if (slot == null) {
+            slot = slots.computeIfAbsent(symbol, Slot::new);
+        }
+
+        // Mark the slot as being written; a drain may clear DIRTY concurrently, so CAS
+        long state;
+        do {
+            state = slot.state;
+        } while (!STATE.compareAndSet(slot, state, state | WRITING));
+        boolean first = (state & DIRTY) == 0;
+
+        if (first) {
+            slot.open = price;
+            slot.high = price;
+            slot.low = price;
+            slot.volume = volume;
+            slot.tickCount = 1;
+            slot.firstTimestamp = timestamp;
+        } else {
+            if (mode == ConflationMode.OHLC) {
+                slot.high = Math.max(slot.high, price);
+                slot.low = Math.min(slot.low, price);
+                slot.volume += volume;
+            } else {
+                slot.open = price;
+                slot.high = price;
+                slot.low = price;
+                slot.volume = volume;
+            }
+            slot.tickCount++;
+        }
+        slot.close = price;
+        slot.lastTimestamp = timestamp;
+
+        // Publish the fields; no drain can have changed the state while WRITING was set
+        slot.state = ((state & ~(WRITING | DIRTY)) + VERSION_INCREMENT) | DIRTY;
+        tickCount = tickCount + 1;
+        if (first) {
+            dirty.offer(slot);
+        }
+    }
+
+    /**
+     * Hand the pending update of every dirty symbol to {@code handler}, clearing it.
+     *
+     * @param view       Receives each update in turn; owned by the calling drainer.
+     * @param maxSymbols The most symbols to drain, so one call cannot run indefinitely under load.
+     * @return The number of symbols drained.
+     */
+    public int drain(ConflatedTick view, ConflatedTickHandler handler, int maxSymbols) {
+        int drained = 0;
+        Slot next = drained < maxSymbols ? dirty.poll() : null;
+        while (next != null) {
+            Slot slot = next;
+            drained++;
+            next = drained < maxSymbols ? dirty.poll() : null;
+            if (read(slot, view)) {
+                handler.onUpdate(view, next == null);
+            }
+        }
+        return drained;
+    }
+
+    /**
+     * Copy a dirty slot's aggregate into the view and clear its DIRTY bit, atomically with respect
+     * to the writer.
+     *
+     * @return {@code false} if the slot turned out not to be dirty.
+     */
+    private static boolean read(Slot slot, ConflatedTick view) {
+        while (true) {
+            long state = slot.state;
+            if ((state & DIRTY) == 0) {
+                return false;
+            }
+            if ((state & WRITING) != 0) {
+                Thread.onSpinWait();
+                continue;
+            }
+            view.symbol = slot.symbol;
+            view.open = slot.open;
+            view.high = slot.high;
+            view.low = slot.low;
+            view.close = slot.close;
+            view.volume = slot.volume;
+            view.tickCount = slot.tickCount;
+            view.firstTimestamp = slot.firstTimestamp;
+            view.lastTimestamp = slot.lastTimestamp;
+            // Only succeeds if no write started since the state was read, so the copy is whole
+            if (STATE.compareAndSet(slot, state, state & ~DIRTY)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * @return The number of symbols with an update pending, approximately.
+     */
+    public int getDirtyCount() {
+        return dirty.size();
+    }
+
+    /**
+     * @return The number of ticks folded in so far.
+     */
+    public long getTickCount() {
+        return tickCount;
+    }
+
+    public ConflationMode getMode() {
+        return mode;
+    }
+}
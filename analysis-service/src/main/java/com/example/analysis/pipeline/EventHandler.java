@@ -0,0 +1,15 @@
+package com.example.analysis.pipeline;
+
+/**
+ * The work of one pipeline stage, called for every slot in sequence order on the stage's thread.
+ *
+ * @param <E> The type of the slots.
+ */
+@FunctionalInterface
+interface EventHandler<E> {
+    /**
+     * @param endOfBatch Whether this is the last slot available right now, the point at which a
+     *                   stage that buffers work, e.g. writes to a socket, should flush it.
+     */
+    void onEvent(E event, long sequence, boolean endOfBatch);
+}
@@ -0,0 +1,191 @@
+package com.example.analysis.pipeline;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * A fixed ring of preallocated, mutable slots that producers claim, fill and publish, and that
+ * stages read in sequence order, in the style of the LMAX Disruptor. Nothing is allocated per
+ * event, and no locks are taken: producers coordinate with a CAS on the cursor, or not at all with
+ * a single producer, and never overtake the slowest of the {@link #addGatingSequences gating}
+ * stages.
+ * <p>
+ * With several producers, slots can be published out of order; each slot's availability is kept
+ * in a flag array, so stages only see a contiguous run of published slots.
+ *
+ * @param <E> The type of the slots.
+ */
+public final class RingBuffer<E> {
+    public enum ProducerType {
+        /**
+         * One thread publishes; claiming a slot is a plain increment.
+         */
+        SINGLE,
+        /**
+         * Any number of threads publish; claiming a slot is a CAS.
+         */
+        MULTI
+    }
+
+    private static final VarHandle AVAILABLE = MethodHandles.arrayElementVarHandle(int[].class);
+
+    private final Object[] entries;
+    private final int mask;
+    private final int indexShift;
+    private final ProducerType producerType;
+    private final WaitStrategy waitStrategy;
+    // The last claimed slot with several producers, the last published with one
+    private final Sequence cursor = new Sequence();
+    private final Sequence gatingCache = new Sequence();
+    private final int[] available;
+    private volatile Sequence[] gatingSequences = new Sequence[0];
+
+    // Single producer only: touched by the producing thread alone
+    private long nextValue = Sequence.INITIAL_VALUE;
+    private long cachedGating = Sequence.INITIAL_VALUE;
+
+    /**
+     * @param bufferSize The number of slots, a power of two.
+     * @param factory Creates every slot up front.
+     */
+    RingBuffer(int bufferSize, Supplier<E> factory, ProducerType producerType, WaitStrategy waitStrategy) {
+        if (bufferSize < 1 || Integer.bitCount(bufferSize) != 1) {
+            throw new IllegalArgumentException("Ring buffer size must be a power of two, got " + bufferSize);
+        }
+        this.entries = new Object[bufferSize];
+        for (int i = 0; i < bufferSize; i++) {
+            entries[i] = factory.get();
+        }
+        this.mask = bufferSize - 1;
+        this.indexShift = Integer.numberOfTrailingZeros(bufferSize);
+        this.producerType = producerType;
+        this.waitStrategy = waitStrategy;
+        if (producerType == ProducerType.MULTI) {
+            this.available = new int[bufferSize];
+            Arrays.fill(available, -1);
+        } else {
+            this.available = null;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public E get(long sequence) {
+        return (E) entries[(int) sequence & mask];
+    }
+
+    public int getBufferSize() {
+        return entries.length;
+    }
+
+    /**
+     * Stop producers from overtaking these stages; normally the last stages of the pipeline.
+     */
+    synchronized void addGatingSequences(Sequence... sequences) {
+        Sequence[] gating = Arrays.copyOf(gatingSequences, gatingSequences.length + sequences.length);
+        System.arraycopy(sequences, 0, gating, gatingSequences.length, sequences.length);
+        gatingSequences = gating;
+    }
+
+    SequenceBarrier newBarrier(Sequence... dependents) {
+        return new SequenceBarrier(this, waitStrategy, cursor, dependents);
+    }
+
+    /**
+     * @return The last claimed sequence.
+     */
+    public long getCursor() {
+        return cursor.get();
+    }
+
+    /**
+     * Claim the next {@code n} slots, waiting while the ring is full.
+     *
+     * @return The last claimed sequence; the claimed slots end there.
+     */
+    long next(int n) {
+        if (n < 1 || n > entries.length) {
+            throw new IllegalArgumentException("Can claim 1 to " + entries.length + " slots, not " + n);
+        }
+        return producerType == ProducerType.SINGLE ? nextSingle(n) : nextMulti(n);
+    }
+
+    private long nextSingle(int n) {
+        long current = nextValue;
+        long next = current + n;
+        long wrapPoint = next - entries.length;
+        if (wrapPoint > cachedGating || cachedGating > current) {
+            long minimum;
+            while (wrapPoint > (minimum = Sequence.minimum(gatingSequences, current))) {
+                // Full: the slowest stage has yet to free the slot
+                LockSupport.parkNanos(1);
+            }
+            cachedGating = minimum;
+        }
+        nextValue = next;
+        return next;
+    }
+
+    private long nextMulti(int n) {
+        while (true) {
+            long current = cursor.get();
+            long next = current + n;
+            long wrapPoint = next - entries.length;
+            long cached = gatingCache.get();
+            if (wrapPoint > cached || cached > current) {
+                long minimum = Sequence.minimum(gatingSequences, current);
+                if (wrapPoint > minimum) {
+                    LockSupport.parkNanos(1);
+                    continue;
+                }
+                gatingCache.set(minimum);
+            } else if (cursor.compareAndSet(current, next)) {
+                return next;
+            }
+        }
+    }
+
+    /**
+     * Publish the claimed slots {@code low} to {@code high}, making them visible to the stages.
+     */
+    void publish(long low, long high) {
+        if (producerType == ProducerType.SINGLE) {
+            cursor.set(high);
+        } else {
+            for (long sequence = low; sequence <= high; sequence++) {
+                AVAILABLE.setRelease(available, (int) sequence & mask, (int) (sequence >>> indexShift));
+            }
+        }
+        waitStrategy.signalAllWhenBlocking();
+    }
+
+    private boolean isAvailable(long sequence) {
+        return (int) AVAILABLE.getAcquire(available, (int) sequence & mask) == (int) (sequence >>> indexShift);
+    }
+
+    /**
+     * @return The highest sequence from {@code low} up to {@code available} before the first
+     * unpublished slot, or {@code low - 1} if {@code low} is itself unpublished.
+     */
+    long getHighestPublishedSequence(long low, long available) {
+        if (producerType == ProducerType.SINGLE) {
+            return available;
+        }
+        for (long sequence = low; sequence <= available; sequence++) {
+            if (!isAvailable(sequence)) {
+                return sequence - 1;
+            }
+        }
+        return available;
+    }
+
+    /**
+     * @return The number of slots producers can claim without waiting.
+     */
+    public long remainingCapacity() {
+        long produced = cursor.get();
+        return entries.length - (produced - Sequence.minimum(gatingSequences, produced));
+    }
+}
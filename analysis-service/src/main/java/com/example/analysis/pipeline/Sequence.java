@@ -0,0 +1,71 @@
+package com.example.analysis.pipeline;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+// Padding on both sides keeps each sequence on a cache line of its own, so a producer and the
+// stages advancing their sequences on other cores do not invalidate each other's lines
+abstract class LeftPadding {
+    protected long p1, p2, p3, p4, p5, p6, p7;
+}
+
+abstract class SequenceValue extends LeftPadding {
+    protected volatile long value;
+}
+
+abstract class RightPadding extends SequenceValue {
+    protected long p9, p10, p11, p12, p13, p14, p15;
+}
+
+/**
+ * A position in the {@link RingBuffer}: the last slot claimed or published by producers, or the
+ * last slot a stage has finished with. Written by one thread with release semantics and read by
+ * others with acquire semantics.
+ */
+public class Sequence extends RightPadding {
+    static final long INITIAL_VALUE = -1L;
+    private static final VarHandle VALUE;
+
+    static {
+        try {
+            VALUE = MethodHandles.lookup().findVarHandle(SequenceValue.class, "value", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    public Sequence() {
+        this(INITIAL_VALUE);
+    }
+
+    public Sequence(long initialValue) {
+        VALUE.setRelease(this, initialValue);
+    }
+
+    public long get() {
+        return (long) VALUE.getAcquire(this);
+    }
+
+    public void set(long value) {
+        VALUE.setRelease(this, value);
+    }
+
+    boolean compareAndSet(long expected, long value) {
+        return VALUE.compareAndSet(this, expected, value);
+    }
+
+    /**
+     * @return The lowest of the sequences, or {@code minimum} if it is lower or there are none.
+     */
+    static long minimum(Sequence[] sequences, long minimum) {
+        for (Sequence sequence : sequences) {
+            minimum = Math.min(minimum, sequence.get());
+        }
+        return minimum;
+    }
+
+    @Override
+    public String toString() {
+        return Long.toString(get());
+    }
+}
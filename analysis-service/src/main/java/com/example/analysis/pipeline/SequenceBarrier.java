@@ -0,0 +1,51 @@
+package com.example.analysis.pipeline;
+
+/**
+ * What a stage waits on before it may process a slot: the producers' cursor and the stages it
+ * follows.
+ */
+final class SequenceBarrier {
+    private final RingBuffer<?> ringBuffer;
+    private final WaitStrategy waitStrategy;
+    private final Sequence cursor;
+    private final Sequence dependent;
+    private volatile boolean alerted;
+
+    SequenceBarrier(RingBuffer<?> ringBuffer, WaitStrategy waitStrategy, Sequence cursor, Sequence[] dependents) {
+        this.ringBuffer = ringBuffer;
+        this.waitStrategy = waitStrategy;
+        this.cursor = cursor;
+        this.dependent = switch (dependents.length) {
+            case 0 -> cursor;
+            case 1 -> dependents[0];
+            default -> new SequenceGroup(dependents);
+        };
+    }
+
+    /**
+     * Wait until {@code sequence} may be processed.
+     *
+     * @return The highest sequence that may be processed, at least {@code sequence}: everything up
+     * to it can be handled as one batch.
+     * @throws AlertException If the pipeline is stopping.
+     */
+    long waitFor(long sequence) throws AlertException {
+        checkAlert();
+        long available = waitStrategy.waitFor(sequence, cursor, dependent, this);
+        if (available < sequence) {
+            return available;
+        }
+        return ringBuffer.getHighestPublishedSequence(sequence, available);
+    }
+
+    void checkAlert() throws AlertException {
+        if (alerted) {
+            throw AlertException.INSTANCE;
+        }
+    }
+
+    void alert() {
+        alerted = true;
+        waitStrategy.signalAllWhenBlocking();
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.analysis.pipeline;
+
+/**
+ * The slowest of several sequences, for a stage that waits on more than one stage before it.
+ */
+final class SequenceGroup extends Sequence {
+    private final Sequence[] sequences;
+
+    SequenceGroup(Sequence[] sequences) {
+        this.sequences = sequences.clone();
+    }
+
+    @Override
+    public long get() {
+        return minimum(sequences, Long.MAX_VALUE);
+    }
+
+    @Override
+    public void set(long value) {
+        throw new UnsupportedOperationException();
+    }
+}
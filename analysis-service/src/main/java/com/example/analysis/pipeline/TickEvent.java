@@ -0,0 +1,63 @@
+package com.example.analysis.pipeline;
+
+import com.example.analysis.service.TimeSeriesAnalysis;
+
+/**
+ * A slot of the {@link TickPipeline} ring: one tick on its way to its symbol's analysis. Slots are
+ * reused, so a {@link TickListener} must copy whatever it keeps.
+ */
+public final class TickEvent {
+    String symbol;
+    double price;
+    double volume;
+    long timestamp;
+    // When the tick entered the pipeline, for end-to-end latency
+    long publishedNanos;
+    // Set by normalization
+    TimeSeriesAnalysis analysis;
+    int partition;
+    boolean rejected;
+
+    void set(String symbol, double price, double volume, long timestamp, long publishedNanos) {
+        this.symbol = symbol;
+        this.price = price;
+        this.volume = volume;
+        this.timestamp = timestamp;
+        this.publishedNanos = publishedNanos;
+        this.analysis = null;
+        this.rejected = false;
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    public double getPrice() {
+        return price;
+    }
+
+    public double getVolume() {
+        return volume;
+    }
+
+    /**
+     * @return The time of the tick, in epoch milliseconds.
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * @return The symbol's analysis, updated with this tick, or {@code null} if the tick was rejected.
+     */
+    public TimeSeriesAnalysis getAnalysis() {
+        return analysis;
+    }
+
+    /**
+     * @return Whether normalization rejected the tick, which then reached no analysis.
+     */
+    public boolean isRejected() {
+        return rejected;
+    }
+}
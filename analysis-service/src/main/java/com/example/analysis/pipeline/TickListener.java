@@ -0,0 +1,13 @@
+package com.example.analysis.pipeline;
+
+/**
+ * The publish stage of a {@link TickPipeline}: called on the stage's thread for every tick once
+ * its symbol's analysis has been updated, in sequence order.
+ */
+@FunctionalInterface
+public interface TickListener {
+    /**
+     * @param endOfBatch Whether this is the last tick available right now; flush buffered output here.
+     */
+    void onTick(TickEvent event, boolean endOfBatch);
+}
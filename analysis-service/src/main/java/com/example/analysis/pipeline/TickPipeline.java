@@ -0,0 +1,341 @@
+package com.example.analysis.pipeline;
+
+import com.example.analysis.pipeline.RingBuffer.ProducerType;
+import com.example.analysis.service.TimeSeriesAnalysisService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * An in-process path for ticks to reach {@link TimeSeriesAnalysisService} without HTTP: producers
+ * publish into a preallocated {@link RingBuffer} of {@link TickEvent} slots, and stages, each on a
+ * thread of its own, pass every tick along in order:
+ * <ol>
+ *     <li>normalization rejects malformed ticks and resolves each symbol's analysis;</li>
+ *     <li>{@code analysis-threads} analysis stages update the analyses, each owning the symbols
+ *     that hash to it, so a symbol's ticks are applied in order and its writers never contend;</li>
+ *     <li>publish records end-to-end latency and hands every tick to the {@link TickListener}s.</li>
+ * </ol>
+ * Nothing is allocated per tick, and stages hand over with ordered writes rather than locks or
+ * queues. Producers wait when the ring is full, so a slow stage pushes back on ingestion instead of
+ * dropping ticks.
+ * <p>
+ * Analyses and listeners see every tick. Consumers that only need each symbol's current state, such
+ * as displays, can take a {@link Conflator} from {@link #addConflator} instead and drain one update
+ * per changed symbol whenever they are ready, however many ticks arrived in between.
+ * <p>
+ * A pipeline runs once: {@link #start()} it, publish, then {@link #stop()} it. Stopping refuses new
+ * ticks first, then waits for publishes already under way and lets the stages finish every tick
+ * they published before halting them, so no accepted tick is dropped.
+ */
+@Component
+public class TickPipeline {
+    private static final Logger logger = LoggerFactory.getLogger(TickPipeline.class);
+    private static final int AWAIT_SPINS = 10_000;
+
+    private final TimeSeriesAnalysisService analysisService;
+    private final boolean enabled;
+    private final WaitStrategyType waitStrategyType;
+    private final int analysisThreads;
+    private final RingBuffer<TickEvent> ringBuffer;
+    private final List<BatchEventProcessor<TickEvent>> processors = new ArrayList<>();
+    private final BatchEventProcessor<TickEvent> publishStage;
+    private final List<Thread> threads = new ArrayList<>();
+    private final List<TickListener> listeners = new CopyOnWriteArrayList<>();
+    private final LatencyHistogram latency = new LatencyHistogram();
+    // Written by the publish stage only
+    private volatile long rejectedCount;
+    private volatile boolean running;
+    private volatile boolean accepting;
+    // Publish calls that got past the accepting check and may still claim slots
+    private final AtomicInteger activePublishers = new AtomicInteger();
+    private boolean stopped;
+
+    /**
+     * @param enabled         Whether to start the pipeline with the application.
+     * @param bufferSize      The number of slots in the ring, a power of two.
+     * @param waitStrategy    How idle stages wait for ticks.
+     * @param producerType    {@code SINGLE} if only one thread will ever publish, else {@code MULTI}.
+     * @param analysisThreads The number of stages updating analyses in parallel.
+     */
+    @Autowired
+    public TickPipeline(
+            TimeSeriesAnalysisService analysisService,
+            @Value("${timeseries.pipeline.enabled:false}") boolean enabled,
+            @Value("${timeseries.pipeline.buffer-size:65536}") int bufferSize,
+            @Value("${timeseries.pipeline.wait-strategy:BLOCKING}") WaitStrategyType waitStrategy,
+            @Value("${timeseries.pipeline.producer:MULTI}") ProducerType producerType,
+            @Value("${timeseries.pipeline.analysis-threads:1}") int analysisThreads
+    ) {
+        if (analysisThreads < 1) {
+            throw new IllegalArgumentException("Analysis threads must be positive, got " + analysisThreads);
+        }
+        this.analysisService = analysisService;
+        this.enabled = enabled;
+        this.waitStrategyType = waitStrategy;
+        this.analysisThreads = analysisThreads;
+        this.ringBuffer = new RingBuffer<>(bufferSize, TickEvent::new, producerType, waitStrategy.create());
+
+        BatchEventProcessor<TickEvent> normalize = new BatchEventProcessor<>("normalize", ringBuffer,
+                ringBuffer.newBarrier(), (event, sequence, endOfBatch) -> normalize(event));
+        processors.add(normalize);
+
+        Sequence[] analyzed = new Sequence[analysisThreads];
+        for (int i = 0; i < analysisThreads; i++) {
+            int partition = i;
+            BatchEventProcessor<TickEvent> analyze = new BatchEventProcessor<>("analysis-" + i, ringBuffer,
+                    ringBuffer.newBarrier(normalize.getSequence()), (event, sequence, endOfBatch) -> {
+                if (!event.rejected && event.partition == partition) {
+                    event.analysis.addPrice(event.price, event.volume, event.timestamp);
+                }
+            });
+            processors.add(analyze);
+            analyzed[i] = analyze.getSequence();
+        }
+
+        this.publishStage = new BatchEventProcessor<>("publish", ringBuffer, ringBuffer.newBarrier(analyzed),
+                (event, sequence, endOfBatch) -> publish(event, endOfBatch));
+        processors.add(publishStage);
+        ringBuffer.addGatingSequences(publishStage.getSequence());
+    }
+
+    /**
+     * A pipeline that is not started with the application.
+     */
+    public TickPipeline(TimeSeriesAnalysisService analysisService, int bufferSize, WaitStrategyType waitStrategy,
+                        ProducerType producerType, int analysisThreads) {
+        this(analysisService, false, bufferSize, waitStrategy, producerType, analysisThreads);
+    }
+
+    private void normalize(TickEvent event) {
+        if (event.symbol == null || event.symbol.isEmpty()
+                || !(event.price > 0) || Double.isInfinite(event.price)
+                || !(event.volume >= 0) || Double.isInfinite(event.volume)) {
+            event.rejected = true;
+            return;
+        }
+        event.analysis = analysisService.getOrCreateAnalysis(event.symbol);
+        event.partition = analysisThreads == 1 ? 0 : Math.floorMod(event.symbol.hashCode(), analysisThreads);
+    }
+
+    private void publish(TickEvent event, boolean endOfBatch) {
+        latency.record(System.nanoTime() - event.publishedNanos);
+        if (event.rejected) {
+            rejectedCount++;
+        }
+        for (TickListener listener : listeners) {
+            listener.onTick(event, endOfBatch);
+        }
+    }
+
+    @PostConstruct
+    void startIfEnabled() {
+        if (enabled) {
+            start();
+        }
+    }
+
+    /**
+     * Start a thread for every stage.
+     *
+     * @throws IllegalStateException If the pipeline has been stopped.
+     */
+    public synchronized void start() {
+        if (stopped) {
+            throw new IllegalStateException("A stopped pipeline cannot be restarted");
+        }
+        if (running) {
+            return;
+        }
+        for (BatchEventProcessor<TickEvent> processor : processors) {
+            Thread thread = new Thread(processor, "tick-pipeline-" + processor.getName());
+            thread.setDaemon(true);
+            threads.add(thread);
+            thread.start();
+        }
+        running = true;
+        accepting = true;
+        logger.info("Started tick pipeline with {} slots, {} wait strategy and {} analysis threads",
+                ringBuffer.getBufferSize(), waitStrategyType, analysisThreads);
+    }
+
+    /**
+     * Refuse new ticks, let the stages finish every tick already published or being published,
+     * then stop them.
+     */
+    @PreDestroy
+    public synchronized void stop() {
+        if (!running) {
+            stopped = true;
+            return;
+        }
+        stopped = true;
+        accepting = false;
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (activePublishers.get() > 0 && System.nanoTime() - deadline < 0) {
+            LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(10));
+        }
+        if (!awaitProcessed(ringBuffer.getCursor(), Math.max(0, deadline - System.nanoTime()))) {
+            logger.warn("Stopping tick pipeline with {} ticks unprocessed",
+                    ringBuffer.getCursor() - publishStage.getSequence().get());
+        }
+        processors.forEach(BatchEventProcessor::halt);
+        running = false;
+        for (Thread thread : threads) {
+            try {
+                thread.join(TimeUnit.SECONDS.toMillis(1));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        logger.info("Stopped tick pipeline after {} ticks", getProcessedCount());
+    }
+
+    /**
+     * Publish one tick.
+     *
+     * @throws IllegalStateException If the pipeline has not started or is stopping.
+     */
+    public void publish(String symbol, double price, double volume, long timestamp) {
+        enterPublish();
+        try {
+            long sequence = ringBuffer.next(1);
+            ringBuffer.get(sequence).set(symbol, price, volume, timestamp, System.nanoTime());
+            ringBuffer.publish(sequence, sequence);
+        } finally {
+            activePublishers.decrementAndGet();
+        }
+    }
+
+    /**
+     * Publish ticks in batches as large as the ring allows, claiming each batch's slots at once.
+     *
+     * @throws IllegalStateException If the pipeline has not started or is stopping.
+     */
+    public void publish(String[] symbols, double[] prices, double[] volumes, long[] timestamps, int offset, int length) {
+        enterPublish();
+        try {
+            int end = offset + length;
+            int maxBatch = ringBuffer.getBufferSize();
+            for (int start = offset; start < end; start += maxBatch) {
+                int n = Math.min(maxBatch, end - start);
+                long high = ringBuffer.next(n);
+                long low = high - n + 1;
+                long now = System.nanoTime();
+                for (int i = 0; i < n; i++) {
+                    ringBuffer.get(low + i).set(symbols[start + i], prices[start + i], volumes[start + i],
+                            timestamps[start + i], now);
+                }
+                ringBuffer.publish(low, high);
+            }
+        } finally {
+            activePublishers.decrementAndGet();
+        }
+    }
+
+    // Register first, then check: stop() clears the flag first, then waits for the registrations
+    private void enterPublish() {
+        activePublishers.incrementAndGet();
+        if (!accepting) {
+            activePublishers.decrementAndGet();
+            throw new IllegalStateException("Tick pipeline is not running");
+        }
+    }
+
+    /**
+     * Wait until every stage is done with {@code sequence}.
+     *
+     * @return {@code false} on timeout.
+     */
+    public boolean awaitProcessed(long sequence, long timeoutNanos) {
+        long deadline = System.nanoTime() + timeoutNanos;
+        int spins = AWAIT_SPINS;
+        while (publishStage.getSequence().get() < sequence) {
+            if (System.nanoTime() - deadline > 0) {
+                return false;
+            }
+            // Spin first: a tick usually gets through in microseconds, far less than a park
+            if (spins > 0) {
+                spins--;
+                Thread.onSpinWait();
+            } else {
+                LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(10));
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Add a publish stage listener; safe while running.
+     */
+    public void addListener(TickListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Add a publish stage listener that conflates ticks per symbol for one consumer, which drains it
+     * at its own pace; safe while running.
+     */
+    public Conflator addConflator(ConflationMode mode) {
+        Conflator conflator = new Conflator(mode);
+        listeners.add(conflator);
+        return conflator;
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * @return The sequence of the last tick published; ticks are numbered from 0.
+     */
+    public long getPublishedSequence() {
+        return ringBuffer.getCursor();
+    }
+
+    /**
+     * @return The number of ticks that have passed every stage, rejected ones included.
+     */
+    public long getProcessedCount() {
+        return publishStage.getSequence().get() + 1;
+    }
+
+    public long getRejectedCount() {
+        return rejectedCount;
+    }
+
+    public long getErrorCount() {
+        long errors = 0;
+        for (BatchEventProcessor<TickEvent> processor : processors) {
+            errors += processor.getErrorCount();
+        }
+        return errors;
+    }
+
+    /**
+     * @return The time from publishing each tick to the end of the publish stage.
+     */
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+
+    public int getBufferSize() {
+        return ringBuffer.getBufferSize();
+    }
+
+    public long getRemainingCapacity() {
+        return ringBuffer.remainingCapacity();
+    }
+}
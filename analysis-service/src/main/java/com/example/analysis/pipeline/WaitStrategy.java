@@ -0,0 +1,20 @@
+package com.example.analysis.pipeline;
+
+/**
+ * How a stage waits for slots to become available: the trade between latency and the CPU a
+ * waiting stage burns. See {@link WaitStrategyType}.
+ */
+interface WaitStrategy {
+    /**
+     * Wait until the producers have published {@code sequence} and {@code dependent} has reached it.
+     *
+     * @return The highest sequence {@code dependent} has reached, which may be beyond {@code sequence}.
+     * @throws AlertException If the barrier is alerted while waiting.
+     */
+    long waitFor(long sequence, Sequence cursor, Sequence dependent, SequenceBarrier barrier) throws AlertException;
+
+    /**
+     * Wake stages blocked waiting for the cursor; called by producers after every publish.
+     */
+    void signalAllWhenBlocking();
+}
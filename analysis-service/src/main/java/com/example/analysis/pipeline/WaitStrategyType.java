@@ -0,0 +1,183 @@
+package com.example.analysis.pipeline;
+
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * How the stages of a {@link TickPipeline} wait for ticks, from lowest latency and most CPU to
+ * highest latency and least.
+ */
+public enum WaitStrategyType {
+    /**
+     * Spin on the sequences. The lowest latency, but every stage keeps a core busy even when idle,
+     * so only for machines with a core to spare per stage.
+     */
+    BUSY_SPIN {
+        @Override
+        WaitStrategy create() {
+            return new BusySpinWaitStrategy();
+        }
+    },
+    /**
+     * Spin briefly, then yield the core between checks. Close to busy-spin latency while leaving
+     * the core to other runnable threads.
+     */
+    YIELDING {
+        @Override
+        WaitStrategy create() {
+            return new YieldingWaitStrategy();
+        }
+    },
+    /**
+     * Spin briefly, then park for short periods. Little CPU when idle, at the cost of tens of
+     * microseconds of latency after a quiet spell.
+     */
+    SLEEPING {
+        @Override
+        WaitStrategy create() {
+            return new SleepingWaitStrategy();
+        }
+    },
+    /**
+     * Block on a condition until a producer publishes. No CPU when idle, and producers only take
+     * the lock when a stage is actually blocked.
+     */
+    BLOCKING {
+        @Override
+        WaitStrategy create() {
+            return new BlockingWaitStrategy();
+        }
+    };
+
+    abstract WaitStrategy create();
+
+    private static final int SPIN_TRIES = 100;
+
+    static final class BusySpinWaitStrategy implements WaitStrategy {
+        @Override
+        public long waitFor(long sequence, Sequence cursor, Sequence dependent, SequenceBarrier barrier)
+                throws AlertException {
+            long available;
+            while ((available = dependent.get()) < sequence) {
+                barrier.checkAlert();
+                Thread.onSpinWait();
+            }
+            return available;
+        }
+
+        @Override
+        public void signalAllWhenBlocking() {
+        }
+    }
+
+    static final class YieldingWaitStrategy implements WaitStrategy {
+        @Override
+        public long waitFor(long sequence, Sequence cursor, Sequence dependent, SequenceBarrier barrier)
+                throws AlertException {
+            long available;
+            int tries = SPIN_TRIES;
+            while ((available = dependent.get()) < sequence) {
+                barrier.checkAlert();
+                if (tries > 0) {
+                    tries--;
+                    Thread.onSpinWait();
+                } else {
+                    Thread.yield();
+                }
+            }
+            return available;
+        }
+
+        @Override
+        public void signalAllWhenBlocking() {
+        }
+    }
+
+    static final class SleepingWaitStrategy implements WaitStrategy {
+        private static final long PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+        @Override
+        public long waitFor(long sequence, Sequence cursor, Sequence dependent, SequenceBarrier barrier)
+                throws AlertException {
+            long available;
+            int tries = 2 * SPIN_TRIES;
+            while ((available = dependent.get()) < sequence) {
+                barrier.checkAlert();
+                if (tries > SPIN_TRIES) {
+                    tries--;
+                    Thread.onSpinWait();
+                } else if (tries > 0) {
+                    tries--;
+                    Thread.yield();
+                } else {
+                    LockSupport.parkNanos(PARK_NANOS);
+                }
+            }
+            return available;
+        }
+
+        @Override
+        public void signalAllWhenBlocking() {
+        }
+    }
+
+    static final class BlockingWaitStrategy implements WaitStrategy {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition published = lock.newCondition();
+        private final AtomicBoolean signalNeeded = new AtomicBoolean();
+
+        @Override
+        public long waitFor(long sequence, Sequence cursor, Sequence dependent, SequenceBarrier barrier)
+                throws AlertException {
+            if (cursor.get() < sequence) {
+                lock.lock();
+                try {
+                    while (cursor.get() < sequence) {
+                        signalNeeded.set(true);
+                        // Re-check after announcing the wait, so a publish in between is not missed
+                        VarHandle.fullFence();
+                        if (cursor.get() >= sequence) {
+                            break;
+                        }
+                        barrier.checkAlert();
+                        published.awaitUninterruptibly();
+                    }
+                } finally {
+                    lock.unlock();
+                }
+            }
+
+            // The producers are past the sequence; the stages before this one are close behind
+            long available;
+            int tries = SPIN_TRIES;
+            while ((available = dependent.get()) < sequence) {
+                barrier.checkAlert();
+                if (tries > 0) {
+                    tries--;
+                    Thread.onSpinWait();
+                } else {
+                    Thread.yield();
+                }
+            }
+            return available;
+        }
+
+        @Override
+        public void signalAllWhenBlocking() {
+            // Order the publish before the check, pairing with the fence in waitFor
+            VarHandle.fullFence();
+            if (signalNeeded.getAndSet(false)) {
+                lock.lock();
+                try {
+                    published.signalAll();
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+    }
+}
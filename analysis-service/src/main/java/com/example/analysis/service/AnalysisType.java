@@ -0,0 +1,13 @@
+package com.example.analysis.service;
+
+/**
+ * The per-symbol analyses that can be requested from {@link BatchAnalysisService}.
+ */
+public enum AnalysisType {
+    SPECTRUM,
+    SMA,
+    EMA,
+    FILTERED,
+    INDICATORS,
+    VOLATILITY
+}
@@ -0,0 +1,227 @@
+package com.example.analysis.service;
+
+import com.example.analysis.dto.BatchAnalysisRequest;
+import com.example.analysis.dto.FrequencyComponentDTO;
+import com.example.analysis.dto.SymbolAnalysisResult;
+import com.example.analysis.dto.TimeSeriesDataDTO;
+import com.example.analysis.model.TimeSeriesData;
+import com.example.analysis.service.fft.WindowFunction;
+import com.example.analysis.service.filter.FilterType;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Runs the requested analyses for many symbols in parallel.
+ * <p>
+ * Each symbol is one task on a work-stealing pool bounded to the number of cores, and its result
+ * is handed to the caller as soon as it is ready, so a slow symbol does not hold back the rest.
+ * Results are handed over on separate threads, one request at a time each, so a caller that blocks
+ * on a slow client never holds a compute thread that other requests need.
+ */
+@Service
+public class BatchAnalysisService {
+    private static final Logger logger = LoggerFactory.getLogger(BatchAnalysisService.class);
+
+    private final TimeSeriesAnalysisService analysisService;
+    private final ForkJoinPool pool;
+    private final ExecutorService resultExecutor;
+
+    /**
+     * @param parallelism The number of worker threads, or 0 to use one per available core.
+     */
+    public BatchAnalysisService(
+            TimeSeriesAnalysisService analysisService,
+            @Value("${timeseries.batch.parallelism:0}") int parallelism
+    ) {
+        this.analysisService = analysisService;
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.pool = new ForkJoinPool(threads, BatchAnalysisService::newWorker, null, false);
+        AtomicInteger resultThreads = new AtomicInteger();
+        this.resultExecutor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "batch-result-" + resultThreads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        logger.info("Initialized BatchAnalysisService with parallelism: {}", threads);
+    }
+
+    private static ForkJoinWorkerThread newWorker(ForkJoinPool pool) {
+        ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+        thread.setName("batch-analysis-" + thread.getPoolIndex());
+        return thread;
+    }
+
+    /**
+     * Analyze every requested symbol in parallel.
+     *
+     * @param request The symbols and the analyses to run for each.
+     * @param onResult Called once per symbol, as soon as that symbol is done, one call at a time and
+     *                 never on a compute thread, so it may block.
+     * @return A future that completes once every symbol has been handed to {@code onResult}.
+     */
+    public CompletableFuture<Void> analyze(BatchAnalysisRequest request, Consumer<SymbolAnalysisResult> onResult) {
+        List<String> symbols = request.getSymbols();
+        if (symbols == null || symbols.isEmpty()) {
+            throw new IllegalArgumentException("At least one symbol is required");
+        }
+        if (request.getAnalyses() == null || request.getAnalyses().isEmpty()) {
+            throw new IllegalArgumentException("At least one analysis is required");
+        }
+        FilterType filterType = null;
+        if (request.getAnalyses().contains(AnalysisType.FILTERED)) {
+            filterType = FilterType.parse(request.getFilterType());
+            if (filterType == null) {
+                throw new IllegalArgumentException("Unknown filter type: " + request.getFilterType());
+            }
+        }
+
+        long start = System.nanoTime();
+        AtomicLong slowestMicros = new AtomicLong();
+        FilterType resolvedFilterType = filterType;
+        CompletableFuture<?>[] tasks = new CompletableFuture<?>[symbols.size()];
+        ResultDelivery delivery = new ResultDelivery(onResult, resultExecutor, tasks.length);
+        for (int i = 0; i < tasks.length; i++) {
+            String symbol = symbols.get(i);
+            tasks[i] = CompletableFuture
+                    .supplyAsync(() -> analyzeSymbol(symbol, request, resolvedFilterType), pool)
+                    .thenAccept(result -> {
+                        slowestMicros.accumulateAndGet(result.getElapsedMicros(), Math::max);
+                        delivery.offer(result);
+                    });
+        }
+
+        return CompletableFuture.allOf(tasks).thenCompose(ignored -> delivery.done).whenComplete((ignored, error) ->
+                logger.info("Batch analysis of {} symbols finished in {} ms; slowest symbol took {} ms",
+                tasks.length, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start),
+                TimeUnit.MICROSECONDS.toMillis(slowestMicros.get())));
+    }
+
+    private SymbolAnalysisResult analyzeSymbol(String symbol, BatchAnalysisRequest request, FilterType filterType) {
+        long start = System.nanoTime();
+        SymbolAnalysisResult result = new SymbolAnalysisResult(symbol);
+        try {
+            TimeSeriesAnalysis analysis = analysisService.findAnalysis(symbol);
+            if (analysis == null) {
+                result.setError("No data for symbol " + symbol);
+                return result;
+            }
+
+            Set<AnalysisType> analyses = request.getAnalyses();
+            if (analyses.contains(AnalysisType.SMA)) {
+                result.setSma(analysis.getLastSMA());
+            }
+            if (analyses.contains(AnalysisType.EMA)) {
+                result.setEma(analysis.getLastEMA());
+            }
+            if (analyses.contains(AnalysisType.INDICATORS)) {
+                result.setIndicators(analysis.getIndicatorValues());
+            }
+            if (analyses.contains(AnalysisType.VOLATILITY)) {
+                result.setStdDev(analysis.getRollingStdDev());
+                result.setZScore(analysis.getZScore());
+                result.setBollinger(analysis.getBollingerBands(request.getBollingerWidth()));
+            }
+            if (analyses.contains(AnalysisType.SPECTRUM)) {
+                WindowFunction window = request.getWindow() != null ? request.getWindow() : WindowFunction.RECTANGULAR;
+                List<Double[]> pairs = analysis.getFrequencyMagnitudePairs(window);
+                List<FrequencyComponentDTO> spectrum = new ArrayList<>(pairs.size());
+                for (Double[] pair : pairs) {
+                    spectrum.add(new FrequencyComponentDTO(pair[0], pair[1]));
+                }
+                result.setSpectrum(spectrum);
+            }
+            if (analyses.contains(AnalysisType.FILTERED)) {
+                TimeSeriesData filtered = request.isZeroPhase()
+                        ? analysis.applyZeroPhaseFilter(request.getLowCutoff(), request.getHighCutoff(),
+                                request.getFilterOrder(), filterType)
+                        : analysis.applyFilter(request.getLowCutoff(), request.getHighCutoff(),
+                                request.getFilterOrder(), filterType);
+                result.setFiltered(new TimeSeriesDataDTO(filtered.getValues(), filtered.getTimestamps()));
+            }
+        } catch (RuntimeException e) {
+            logger.error("Batch analysis failed for symbol {}: {}", symbol, e.getMessage(), e);
+            result.setError(e.getMessage());
+        } finally {
+            result.setElapsedMicros(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+        }
+        logger.debug("Analyzed symbol {} in {} us", symbol, result.getElapsedMicros());
+        return result;
+    }
+
+    /**
+     * Hands one request's results to its consumer on the result executor, one at a time, in the
+     * order they are offered.
+     */
+    private static final class ResultDelivery {
+        private final Consumer<SymbolAnalysisResult> onResult;
+        private final Executor executor;
+        private final int expected;
+        private final ConcurrentLinkedQueue<SymbolAnalysisResult> pending = new ConcurrentLinkedQueue<>();
+        // Offers a drain has not caught up with yet; only the offer that raises it from 0 starts one
+        private final AtomicInteger wip = new AtomicInteger();
+        // Written by the drain only
+        private int delivered;
+        final CompletableFuture<Void> done = new CompletableFuture<>();
+
+        ResultDelivery(Consumer<SymbolAnalysisResult> onResult, Executor executor, int expected) {
+            this.onResult = onResult;
+            this.executor = executor;
+            this.expected = expected;
+        }
+
+        void offer(SymbolAnalysisResult result) {
+            pending.add(result);
+            if (wip.getAndIncrement() == 0) {
+                try {
+                    executor.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    done.completeExceptionally(e);
+                }
+            }
+        }
+
+        private void drain() {
+            int missed = 1;
+            while (missed != 0) {
+                SymbolAnalysisResult result;
+                while ((result = pending.poll()) != null) {
+                    try {
+                        onResult.accept(result);
+                    } catch (RuntimeException e) {
+                        // Fail the batch, but keep handing over the remaining results
+                        done.completeExceptionally(e);
+                    }
+                    if (++delivered == expected) {
+                        done.complete(null);
+                    }
+                }
+                missed = wip.addAndGet(-missed);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdown();
+        resultExecutor.shutdown();
+    }
+}
@@ -1,17 +1,61 @@
 package com.example.analysis.service;
 
+import com.example.analysis.service.fft.PaddingPolicy;
+import com.example.analysis.service.fft.RealFft;
+import com.example.analysis.service.fft.WindowFunction;
+import com.example.analysis.service.fft.WindowTableCache;
+import com.example.analysis.service.filter.ButterworthFilter;
+import com.example.analysis.service.filter.ButterworthFilterCache;
+import com.example.analysis.service.filter.FilterType;
 import org.apache.commons.math3.complex.Complex;
-import org.apache.commons.math3.transform.DftNormalization;
-import org.apache.commons.math3.transform.FastFourierTransformer;
-import org.apache.commons.math3.transform.TransformType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import java.nio.DoubleBuffer;
+import java.nio.LongBuffer;
 import java.util.ArrayList;
 import java.util.List;
 
+/**
+ * FFT-based spectral analysis and filtering of time series data.
+ * <p>
+ * The primitive methods take {@code double[]}/{@code long[]} input and write into caller-owned
+ * output buffers so that the hot path does no boxing and no per-call result allocation. Because
+ * the input is real, spectra are computed with {@link RealFft} and held as the non-redundant
+ * half only: bins {@code 0 .. size / 2} in split real/imaginary buffers of
+ * {@link #spectrumSize(int)} elements. The {@code List}/{@link Complex} methods are thin adapters
+ * over the primitive ones and expose the full, Hermitian-symmetric spectrum. The
+ * {@link DoubleBuffer}/{@link LongBuffer} methods read the remaining elements of their input
+ * buffers in place, so off-heap history is analyzed without copying it first.
+ * <p>
+ * The transform handles any length, so zero-padding is governed by a {@link PaddingPolicy}.
+ * The default pads to the next power of two, as this class always has.
+ * <p>
+ * Spectra can be tapered by a {@link WindowFunction} to reduce leakage. Its coefficients come from
+ * {@link WindowTableCache} and are multiplied in while the input is packed for the transform.
+ * <p>
+ * Butterworth filters are compiled into per-bin gain vectors once per spec and shared through
+ * {@link ButterworthFilterCache}, so filtering a spectrum is one multiply per bin.
+ */
 public class FourierTransformer {
     private static final Logger logger = LoggerFactory.getLogger(FourierTransformer.class);
 
+    private final PaddingPolicy paddingPolicy;
+
+    public FourierTransformer() {
+        this(PaddingPolicy.NEXT_POWER_OF_TWO);
+    }
+
+    public FourierTransformer(PaddingPolicy paddingPolicy) {
+        if (paddingPolicy == null) {
+            throw new IllegalArgumentException("Padding policy must not be null");
+        }
+        this.paddingPolicy = paddingPolicy;
+    }
+
+    public PaddingPolicy getPaddingPolicy() {
+        return paddingPolicy;
+    }
+
     /**
      * Calculate the FFT of the input values. There is no magnitude normalization.
      *
@@ -31,25 +75,197 @@ public class FourierTransformer {
             return new Complex[0];
         }
 
-        // Find the next power of two for padding
-        int nextPowerOfTwo = 1;
-        while (nextPowerOfTwo < n) {
-            nextPowerOfTwo <<= 1;
+        double[] primitiveValues = new double[n];
+        for (int i = 0; i < n; i++) {
+            primitiveValues[i] = values.get(i);
         }
-        logger.info("Zero-padding input values to the next power of two: {}", nextPowerOfTwo);
 
-        // Create a padded array for FFT (zero-padding)
-        double[] paddedValues = new double[nextPowerOfTwo];
-        for (int i = 0; i < n; i++) {
-            paddedValues[i] = values.get(i);
+        double[] real = new double[spectrumSize(n)];
+        double[] imag = new double[spectrumSize(n)];
+        int size = calculateFourierTransform(primitiveValues, n, real, imag);
+        return toFullSpectrum(real, imag, size);
+    }
+
+    /**
+     * Calculate the FFT of the remaining values of a buffer, without copying them first. There is
+     * no magnitude normalization.
+     *
+     * @param values The time series values, from the buffer's position to its limit.
+     * @return The complex FFT result.
+     */
+    public Complex[] calculateFourierTransform(DoubleBuffer values) {
+        int n = values.remaining();
+        if (n == 0) {
+            logger.warn("No values provided for Fourier Transform calculation.");
+            return new Complex[0];
+        }
+
+        double[] real = new double[spectrumSize(n)];
+        double[] imag = new double[spectrumSize(n)];
+        int size = calculateFourierTransform(values, real, imag);
+        return toFullSpectrum(real, imag, size);
+    }
+
+    /**
+     * Get the length of the transform used for a series of {@code n} values, as given by the
+     * padding policy.
+     *
+     * @param n The number of values in the series.
+     * @return The transform length, or 0 if there are no values.
+     */
+    public int transformSize(int n) {
+        if (n <= 0) {
+            return 0;
+        }
+        return paddingPolicy.transformSize(n);
+    }
+
+    /**
+     * Get the minimum length of the spectrum buffers for a series of {@code n} values, i.e. the
+     * number of non-redundant bins of its transform.
+     *
+     * @param n The number of values in the series.
+     * @return The spectrum buffer length, or 0 if there are no values.
+     */
+    public int spectrumSize(int n) {
+        return RealFft.spectrumSize(transformSize(n));
+    }
+
+    /**
+     * Calculate the FFT of the first {@code n} input values into caller-owned buffers.
+     * There is no magnitude normalization.
+     *
+     * @param values The time series values.
+     * @param n The number of values to transform.
+     * @param real Output buffer for the real parts, at least {@link #spectrumSize(int)} long.
+     * @param imag Output buffer for the imaginary parts, at least {@link #spectrumSize(int)} long.
+     * @return The transform length, or 0 if there was nothing to transform.
+     */
+    public int calculateFourierTransform(double[] values, int n, double[] real, double[] imag) {
+        return calculateFourierTransform(values, 0, n, real, imag);
+    }
+
+    /**
+     * Calculate the FFT of {@code n} input values starting at {@code offset} into caller-owned
+     * buffers. There is no magnitude normalization.
+     *
+     * @param values The time series values.
+     * @param offset The index of the first value to transform.
+     * @param n The number of values to transform.
+     * @param real Output buffer for the real parts, at least {@link #spectrumSize(int)} long.
+     * @param imag Output buffer for the imaginary parts, at least {@link #spectrumSize(int)} long.
+     * @return The transform length, or 0 if there was nothing to transform.
+     */
+    public int calculateFourierTransform(double[] values, int offset, int n, double[] real, double[] imag) {
+        if (n == 0) {
+            logger.warn("No values provided for Fourier Transform calculation.");
+            return 0;
         }
 
-        // Calculate the FFT
-        FastFourierTransformer fft = new FastFourierTransformer(DftNormalization.STANDARD);
-        Complex[] fftResult = fft.transform(paddedValues, TransformType.FORWARD);
+        int size = transformSize(n);
+        requireBufferLength(real, RealFft.spectrumSize(size));
+        requireBufferLength(imag, RealFft.spectrumSize(size));
+        logger.debug("Transforming {} values with length {} ({})", n, size, paddingPolicy);
+
+        RealFft.forward(values, offset, n, size, real, imag);
+
+        logger.debug("Completed Fourier Transform calculation.");
+        return size;
+    }
 
-        logger.info("Completed Fourier Transform calculation.");
-        return fftResult;
+    /**
+     * Calculate the FFT of the remaining values of a buffer into caller-owned buffers, without
+     * copying them. There is no magnitude normalization.
+     *
+     * @param values The time series values, from the buffer's position to its limit.
+     * @param real Output buffer for the real parts, at least {@link #spectrumSize(int)} long.
+     * @param imag Output buffer for the imaginary parts, at least {@link #spectrumSize(int)} long.
+     * @return The transform length, or 0 if there was nothing to transform.
+     */
+    public int calculateFourierTransform(DoubleBuffer values, double[] real, double[] imag) {
+        int n = values.remaining();
+        if (n == 0) {
+            logger.warn("No values provided for Fourier Transform calculation.");
+            return 0;
+        }
+
+        int size = transformSize(n);
+        requireBufferLength(real, RealFft.spectrumSize(size));
+        requireBufferLength(imag, RealFft.spectrumSize(size));
+        logger.debug("Transforming {} buffered values with length {} ({})", n, size, paddingPolicy);
+
+        RealFft.forward(values, n, size, real, imag);
+        return size;
+    }
+
+    /**
+     * Calculate the FFT of {@code n} input values starting at {@code offset}, tapered by a window,
+     * into caller-owned buffers. The window is applied while the input is packed for the transform,
+     * from a table cached per window and length. There is no magnitude normalization; divide
+     * magnitudes by {@link #coherentGain(WindowFunction, int)} to undo the window's attenuation.
+     *
+     * @param values The time series values.
+     * @param offset The index of the first value to transform.
+     * @param n The number of values to transform.
+     * @param window The window applied to the {@code n} values, before any zero-padding.
+     * @param real Output buffer for the real parts, at least {@link #spectrumSize(int)} long.
+     * @param imag Output buffer for the imaginary parts, at least {@link #spectrumSize(int)} long.
+     * @return The transform length, or 0 if there was nothing to transform.
+     */
+    public int calculateFourierTransform(double[] values, int offset, int n, WindowFunction window,
+                                         double[] real, double[] imag) {
+        if (window == WindowFunction.RECTANGULAR || n == 0) {
+            return calculateFourierTransform(values, offset, n, real, imag);
+        }
+
+        int size = transformSize(n);
+        requireBufferLength(real, RealFft.spectrumSize(size));
+        requireBufferLength(imag, RealFft.spectrumSize(size));
+        logger.debug("Transforming {} values with a {} window and length {} ({})", n, window, size, paddingPolicy);
+
+        RealFft.forward(values, offset, n, size, WindowTableCache.shared().getTable(window, n), real, imag);
+        return size;
+    }
+
+    /**
+     * Calculate the FFT of the remaining values of a buffer, tapered by a window, into caller-owned
+     * buffers, without copying them. There is no magnitude normalization.
+     *
+     * @param values The time series values, from the buffer's position to its limit.
+     * @param window The window applied to the values, before any zero-padding.
+     * @param real Output buffer for the real parts, at least {@link #spectrumSize(int)} long.
+     * @param imag Output buffer for the imaginary parts, at least {@link #spectrumSize(int)} long.
+     * @return The transform length, or 0 if there was nothing to transform.
+     */
+    public int calculateFourierTransform(DoubleBuffer values, WindowFunction window, double[] real, double[] imag) {
+        int n = values.remaining();
+        if (window == WindowFunction.RECTANGULAR || n == 0) {
+            return calculateFourierTransform(values, real, imag);
+        }
+
+        int size = transformSize(n);
+        requireBufferLength(real, RealFft.spectrumSize(size));
+        requireBufferLength(imag, RealFft.spectrumSize(size));
+        logger.debug("Transforming {} buffered values with a {} window and length {} ({})", n, window, size,
+                paddingPolicy);
+
+        RealFft.forward(values, n, size, WindowTableCache.shared().getTable(window, n), real, imag);
+        return size;
+    }
+
+    /**
+     * Get the coherent gain of a window over {@code n} values: the factor by which it scales the
+     * magnitude of a sinusoid.
+     *
+     * @param window The window function.
+     * @param n The number of values the window was applied to.
+     * @return The mean window coefficient, 1 for the rectangular window.
+     */
+    public double coherentGain(WindowFunction window, int n) {
+        if (window == WindowFunction.RECTANGULAR || n <= 0) {
+            return 1.0;
+        }
+        return WindowTableCache.shared().getTable(window, n).getCoherentGain();
     }
 
     /**
@@ -72,6 +288,53 @@ public class FourierTransformer {
         return samplingFrequency;
     }
 
+    /**
+     * Calculate the sampling frequency from the first {@code n} timestamps.
+     *
+     * @param timestamps The timestamps for the time series data.
+     * @param n The number of timestamps to use.
+     * @return The sampling frequency in Hz.
+     */
+    public double calculateSamplingFrequency(long[] timestamps, int n) {
+        return calculateSamplingFrequency(timestamps, 0, n);
+    }
+
+    /**
+     * Calculate the sampling frequency from {@code n} timestamps starting at {@code offset}.
+     *
+     * @param timestamps The timestamps for the time series data.
+     * @param offset The index of the first timestamp to use.
+     * @param n The number of timestamps to use.
+     * @return The sampling frequency in Hz.
+     */
+    public double calculateSamplingFrequency(long[] timestamps, int offset, int n) {
+        if (n < 2) {
+            logger.error("Not enough timestamps to calculate sampling frequency.");
+            return 0.0;
+        }
+
+        double samplingInterval = (timestamps[offset + n - 1] - timestamps[offset]) / (double) (n - 1);
+        return 1000.0 / samplingInterval; // Convert to Hz
+    }
+
+    /**
+     * Calculate the sampling frequency from the remaining timestamps of a buffer.
+     *
+     * @param timestamps The timestamps, from the buffer's position to its limit.
+     * @return The sampling frequency in Hz.
+     */
+    public double calculateSamplingFrequency(LongBuffer timestamps) {
+        int n = timestamps.remaining();
+        if (n < 2) {
+            logger.error("Not enough timestamps to calculate sampling frequency.");
+            return 0.0;
+        }
+
+        int first = timestamps.position();
+        double samplingInterval = (timestamps.get(first + n - 1) - timestamps.get(first)) / (double) (n - 1);
+        return 1000.0 / samplingInterval; // Convert to Hz
+    }
+
     /**
      * Get frequency-magnitude pairs from the complex FFT result.
      *
@@ -85,19 +348,72 @@ public class FourierTransformer {
             return new ArrayList<>();
         }
 
-        List<Double[]> fmPairs = new ArrayList<>();
-        int halfLength = fftResult.length / 2; // Only get the first half
+        int size = fftResult.length;
+        double[] real = new double[RealFft.spectrumSize(size)];
+        double[] imag = new double[RealFft.spectrumSize(size)];
+        fromComplex(fftResult, real, imag, real.length);
 
-        for (int k = 0; k < halfLength; k++) {
-            double magnitude = fftResult[k].abs(); // Magnitude
-            double frequency = k * samplingFrequency / fftResult.length; // Frequency for each bin
-            fmPairs.add(new Double[]{frequency, magnitude});
+        double[] frequencies = new double[(size + 1) / 2];
+        double[] magnitudes = new double[(size + 1) / 2];
+        int count = getFrequencyMagnitudePairs(real, imag, size, samplingFrequency, frequencies, magnitudes);
+
+        List<Double[]> fmPairs = new ArrayList<>(count);
+        for (int k = 0; k < count; k++) {
+            fmPairs.add(new Double[]{frequencies[k], magnitudes[k]});
         }
 
         logger.info("Got {} frequency-magnitude pairs.", fmPairs.size());
         return fmPairs;
     }
 
+    /**
+     * Get frequencies and magnitudes for the first half of a spectrum into caller-owned buffers:
+     * the bins below the Nyquist frequency, {@code (size + 1) / 2} of them.
+     *
+     * @param real The real parts of the FFT result.
+     * @param imag The imaginary parts of the FFT result.
+     * @param size The transform length.
+     * @param samplingFrequency The sampling frequency of the original data.
+     * @param frequencies Output buffer for the bin frequencies, at least {@code (size + 1) / 2} long.
+     * @param magnitudes Output buffer for the bin magnitudes, at least {@code (size + 1) / 2} long.
+     * @return The number of pairs written, 0 if the sampling frequency is invalid.
+     */
+    public int getFrequencyMagnitudePairs(double[] real, double[] imag, int size, double samplingFrequency,
+                                          double[] frequencies, double[] magnitudes) {
+        return getFrequencyMagnitudePairs(real, imag, size, samplingFrequency, 1.0, frequencies, magnitudes);
+    }
+
+    /**
+     * Get frequencies and magnitudes for the first half of a windowed spectrum into caller-owned
+     * buffers, with the magnitudes divided by the window's coherent gain so that they are on the
+     * scale of an unwindowed transform.
+     *
+     * @param real The real parts of the FFT result.
+     * @param imag The imaginary parts of the FFT result.
+     * @param size The transform length.
+     * @param samplingFrequency The sampling frequency of the original data.
+     * @param coherentGain The coherent gain of the window, see {@link #coherentGain(WindowFunction, int)}.
+     * @param frequencies Output buffer for the bin frequencies, at least {@code (size + 1) / 2} long.
+     * @param magnitudes Output buffer for the bin magnitudes, at least {@code (size + 1) / 2} long.
+     * @return The number of pairs written, 0 if the sampling frequency is invalid.
+     */
+    public int getFrequencyMagnitudePairs(double[] real, double[] imag, int size, double samplingFrequency,
+                                          double coherentGain, double[] frequencies, double[] magnitudes) {
+        if (samplingFrequency == 0) {
+            logger.error("Invalid sampling frequency. Sampling frequency must not be 0.");
+            return 0;
+        }
+
+        int halfLength = (size + 1) / 2; // Only get the first half
+        double binWidth = samplingFrequency / size;
+        double gainCorrection = 1.0 / coherentGain;
+        for (int k = 0; k < halfLength; k++) {
+            frequencies[k] = k * binWidth;
+            magnitudes[k] = Math.sqrt(real[k] * real[k] + imag[k] * imag[k]) * gainCorrection;
+        }
+        return halfLength;
+    }
+
     /**
      * Calculate the inverse FFT of a complex array to reconstruct the time series data.
      *
@@ -111,29 +427,81 @@ public class FourierTransformer {
             return List.of(new ArrayList<>(), new ArrayList<>());
         }
 
-        // Calculate inverse FFT
-        FastFourierTransformer fft = new FastFourierTransformer(DftNormalization.STANDARD);
-        Complex[] ifftResult = fft.transform(fftResult, TransformType.INVERSE);
+        // The real part of the inverse of any spectrum equals the inverse of its Hermitian part
+        int size = fftResult.length;
+        double[] real = new double[RealFft.spectrumSize(size)];
+        double[] imag = new double[RealFft.spectrumSize(size)];
+        for (int k = 0; k < real.length; k++) {
+            Complex mirror = fftResult[(size - k) % size];
+            real[k] = 0.5 * (fftResult[k].getReal() + mirror.getReal());
+            imag[k] = 0.5 * (fftResult[k].getImaginary() - mirror.getImaginary());
+        }
 
-        // Calculate sampling interval
-        double samplingInterval = (originalTimestamps.get(originalTimestamps.size() - 1) - originalTimestamps.get(0))
-                / (double) (originalTimestamps.size() - 1);
+        long[] timestamps = toLongArray(originalTimestamps);
+        double[] values = new double[timestamps.length];
+        double[] reconstructedTimes = new double[timestamps.length];
+        int count = calculateInverseFFT(real, imag, size, timestamps, timestamps.length, values, reconstructedTimes);
+
+        logger.info("Completed inverse FFT calculation. Reconstructed {} data points.", count);
+        return List.of(toList(values, count), toList(reconstructedTimes, count));
+    }
 
-        // Reconstruct the time series data
-        List<Double> reconstructedValues = new ArrayList<>();
-        List<Double> reconstructedTimestamps = new ArrayList<>();
-        long startTime = originalTimestamps.get(0);
-        int originalSize = originalTimestamps.size();
+    /**
+     * Calculate the inverse FFT of a half spectrum to reconstruct the first {@code n} time series
+     * values. The spectrum buffers are used as scratch space and are overwritten.
+     *
+     * @param real The real parts of bins {@code 0 .. size / 2} of a forward FFT result.
+     * @param imag The imaginary parts of bins {@code 0 .. size / 2} of a forward FFT result.
+     * @param size The transform length.
+     * @param originalTimestamps The original timestamps of the input time series data.
+     * @param n The number of original data points.
+     * @param valuesOut Output buffer for the reconstructed values, at least {@code n} long.
+     * @param timestampsOut Output buffer for the reconstructed timestamps, at least {@code n} long.
+     * @return The number of reconstructed data points.
+     */
+    public int calculateInverseFFT(double[] real, double[] imag, int size, long[] originalTimestamps, int n,
+                                   double[] valuesOut, double[] timestampsOut) {
+        return calculateInverseFFT(real, imag, size, originalTimestamps, 0, n, valuesOut, timestampsOut);
+    }
 
-        for (int i = 0; i < originalSize; i++) {
-            double value = ifftResult[i].getReal();
-            double timestamp = startTime + (i * samplingInterval);
-            reconstructedValues.add(value);
-            reconstructedTimestamps.add(timestamp);
+    /**
+     * Calculate the inverse FFT of a half spectrum to reconstruct {@code n} time series values whose
+     * timestamps start at {@code offset}. The spectrum buffers are used as scratch space and are overwritten.
+     *
+     * @param real The real parts of bins {@code 0 .. size / 2} of a forward FFT result.
+     * @param imag The imaginary parts of bins {@code 0 .. size / 2} of a forward FFT result.
+     * @param size The transform length.
+     * @param originalTimestamps The original timestamps of the input time series data.
+     * @param offset The index of the first original timestamp.
+     * @param n The number of original data points.
+     * @param valuesOut Output buffer for the reconstructed values, at least {@code n} long.
+     * @param timestampsOut Output buffer for the reconstructed timestamps, at least {@code n} long.
+     * @return The number of reconstructed data points.
+     */
+    public int calculateInverseFFT(double[] real, double[] imag, int size, long[] originalTimestamps, int offset,
+                                   int n, double[] valuesOut, double[] timestampsOut) {
+        if (size == 0 || n == 0) {
+            logger.warn("Invalid input for Inverse FFT calculation.");
+            return 0;
         }
+        return calculateInverseFFT(real, imag, size, originalTimestamps[offset], originalTimestamps[offset + n - 1],
+                n, valuesOut, timestampsOut);
+    }
 
-        logger.info("Completed inverse FFT calculation. Reconstructed {} data points.", reconstructedValues.size());
-        return List.of(reconstructedValues, reconstructedTimestamps);
+    private int calculateInverseFFT(double[] real, double[] imag, int size, long startTime, long endTime, int n,
+                                    double[] valuesOut, double[] timestampsOut) {
+        requireBufferLength(real, RealFft.spectrumSize(size));
+        requireBufferLength(imag, RealFft.spectrumSize(size));
+
+        int count = Math.min(n, size);
+        RealFft.inverse(real, imag, size, valuesOut, count);
+
+        // Reconstruct the timestamps
+        double samplingInterval = (endTime - startTime) / (double) (n - 1);
+        for (int i = 0; i < count; i++) {
+            timestampsOut[i] = startTime + (i * samplingInterval);
+        }
+        return count;
     }
 
     /**
@@ -153,21 +521,14 @@ public class FourierTransformer {
             return new Complex[0];
         }
 
-        Complex[] filteredData = new Complex[fftResult.length];
-        int halfLength = fftResult.length / 2;
-
-        for (int i = 0; i < fftResult.length; i++) {
-            double frequency = i * samplingFrequency / fftResult.length;
-            if (i > halfLength) {
-                // Copy the frequencies for the second half
-                frequency = samplingFrequency - frequency;
-            }
-
-            // Form filter response based on filter type
-            double response = calculateFilterResponse(frequency, lowCutoff, highCutoff, order, filterType);
+        int size = fftResult.length;
+        FilterType type = parseFilterType(filterType);
+        ButterworthFilter filter = type == null ? null
+                : compileFilter(type, size, samplingFrequency, lowCutoff, highCutoff, order);
 
-            // Filter the FFT output
-            filteredData[i] = fftResult[i].multiply(response);
+        Complex[] filteredData = new Complex[size];
+        for (int i = 0; i < size; i++) {
+            filteredData[i] = filter == null ? fftResult[i] : fftResult[i].multiply(filter.gain(i));
         }
 
         logger.info("Applied Butterworth {} filter to FFT result. Order: {}", filterType, order);
@@ -175,29 +536,79 @@ public class FourierTransformer {
     }
 
     /**
-     * Calculates the filter response for given frequency(s).
+     * Apply a Butterworth filter in place to a half spectrum held in split real/imaginary buffers.
      *
-     * @param frequency The frequency to calculate the response for.
+     * @param real The real parts of bins {@code 0 .. size / 2}, filtered in place.
+     * @param imag The imaginary parts of bins {@code 0 .. size / 2}, filtered in place.
+     * @param size The transform length.
+     * @param samplingFrequency The sampling frequency of the original data.
+     * @param lowCutoff The lower cutoff frequency for the filter.
+     * @param highCutoff The higher cutoff frequency for the filter.
+     * @param order The order of the Butterworth filter (higher order forms a sharper cutoff).
+     * @param filterType The type of filter to apply: "lowpass", "highpass", or "bandpass".
+     * @return {@code true} if the filter was applied, {@code false} if the input was invalid.
+     */
+    public boolean applyButterworthFilter(double[] real, double[] imag, int size, double samplingFrequency,
+                                          double lowCutoff, double highCutoff, int order, String filterType) {
+        FilterType type = parseFilterType(filterType);
+        if (type == null) {
+            return size != 0 && samplingFrequency > 0;
+        }
+        return applyButterworthFilter(real, imag, size, samplingFrequency, lowCutoff, highCutoff, order, type);
+    }
+
+    /**
+     * Apply a Butterworth filter in place to a half spectrum held in split real/imaginary buffers.
+     *
+     * @param real The real parts of bins {@code 0 .. size / 2}, filtered in place.
+     * @param imag The imaginary parts of bins {@code 0 .. size / 2}, filtered in place.
+     * @param size The transform length.
+     * @param samplingFrequency The sampling frequency of the original data.
+     * @param lowCutoff The lower cutoff frequency for the filter.
+     * @param highCutoff The higher cutoff frequency for the filter.
+     * @param order The order of the Butterworth filter (higher order forms a sharper cutoff).
+     * @param filterType The type of filter to apply.
+     * @return {@code true} if the filter was applied, {@code false} if the input was invalid.
+     */
+    public boolean applyButterworthFilter(double[] real, double[] imag, int size, double samplingFrequency,
+                                          double lowCutoff, double highCutoff, int order, FilterType filterType) {
+        if (size == 0 || samplingFrequency <= 0) {
+            logger.error("Cannot apply Butterworth filter due to invalid input.");
+            return false;
+        }
+
+        compileFilter(filterType, size, samplingFrequency, lowCutoff, highCutoff, order).apply(real, imag);
+        return true;
+    }
+
+    /**
+     * Get the compiled Butterworth filter for a spec from the shared filter cache.
+     *
+     * @param filterType The type of filter.
+     * @param size The transform length the filter is applied to.
+     * @param samplingFrequency The sampling frequency of the original data.
      * @param lowCutoff The lower cutoff frequency for the filter.
      * @param highCutoff The higher cutoff frequency for the filter.
      * @param order The order of the Butterworth filter.
+     * @return The compiled filter.
+     */
+    public ButterworthFilter compileFilter(FilterType filterType, int size, double samplingFrequency,
+                                           double lowCutoff, double highCutoff, int order) {
+        return ButterworthFilterCache.shared().getFilter(filterType, size, samplingFrequency, lowCutoff, highCutoff, order);
+    }
+
+    /**
+     * Parse a filter type name, warning if it is not recognised.
+     *
      * @param filterType The type of filter: "lowpass", "highpass", or "bandpass".
-     * @return The filter response between 0 and 1.
+     * @return The filter type, or {@code null} if no filtering should be applied.
      */
-    private double calculateFilterResponse(double frequency, double lowCutoff, double highCutoff, int order, String filterType) {
-        switch (filterType.toLowerCase()) {
-            case "lowpass":
-                return 1.0 / Math.sqrt(1.0 + Math.pow(frequency / highCutoff, 2 * order));
-            case "highpass":
-                return 1.0 / Math.sqrt(1.0 + Math.pow(lowCutoff / frequency, 2 * order));
-            case "bandpass":
-                double lowPassResponse = 1.0 / Math.sqrt(1.0 + Math.pow(frequency / highCutoff, 2 * order));
-                double highPassResponse = 1.0 / Math.sqrt(1.0 + Math.pow(lowCutoff / frequency, 2 * order));
-                return lowPassResponse * highPassResponse;
-            default:
-                logger.warn("Invalid choice for filter type '{}'. No filtering was applied.", filterType);
-                return 1.0; // No filter
+    private FilterType parseFilterType(String filterType) {
+        FilterType type = FilterType.parse(filterType);
+        if (type == null) {
+            logger.warn("Invalid choice for filter type '{}'. No filtering was applied.", filterType);
         }
+        return type;
     }
 
     /**
@@ -213,9 +624,321 @@ public class FourierTransformer {
      * @return A pair of lists: the first list is the filtered values, the second list is the timestamps for the values.
      */
     public List<List<Double>> filterTimeSeries(List<Double> values, List<Long> timestamps, double lowCutoff, double highCutoff, int order, String filterType) {
-        Complex[] fftResult = calculateFourierTransform(values, timestamps); // calculate FFT
-        double samplingFrequency = calculateSamplingFrequency(timestamps);  // calculate sampling frequency
-        Complex[] filteredFFT = applyButterworthFilter(fftResult, samplingFrequency, lowCutoff, highCutoff, order, filterType);
-        return calculateInverseFFT(filteredFFT, timestamps); // obtain filtered time-series data
+        if (values.size() != timestamps.size()) {
+            logger.error("Number of values and timestamps must be equal.");
+            return List.of(new ArrayList<>(), new ArrayList<>());
+        }
+
+        int n = values.size();
+        double[] primitiveValues = new double[n];
+        for (int i = 0; i < n; i++) {
+            primitiveValues[i] = values.get(i);
+        }
+        long[] primitiveTimestamps = toLongArray(timestamps);
+
+        double[] filteredValues = new double[n];
+        double[] filteredTimestamps = new double[n];
+        int count = filterTimeSeries(primitiveValues, primitiveTimestamps, n, lowCutoff, highCutoff, order, filterType,
+                filteredValues, filteredTimestamps);
+        return List.of(toList(filteredValues, count), toList(filteredTimestamps, count));
+    }
+
+    /**
+     * Performs an FFT, applies a Butterworth filter, and then performs an inverse
+     * FFT on the first {@code n} values, writing the filtered series into caller-owned buffers.
+     *
+     * @param values The time series data values.
+     * @param timestamps The time series data timestamps.
+     * @param n The number of data points to filter.
+     * @param lowCutoff The lower cutoff frequency.
+     * @param highCutoff The higher cutoff frequency.
+     * @param order The Butterworth filter order (higher forms sharper cutoff).
+     * @param filterType The type of filter to use: "lowpass", "highpass", or "bandpass".
+     * @param valuesOut Output buffer for the filtered values, at least {@code n} long.
+     * @param timestampsOut Output buffer for the filtered values' timestamps, at least {@code n} long.
+     * @return The number of filtered data points written, 0 if the input could not be filtered.
+     */
+    public int filterTimeSeries(double[] values, long[] timestamps, int n, double lowCutoff, double highCutoff,
+                                int order, String filterType, double[] valuesOut, double[] timestampsOut) {
+        double[] real = new double[spectrumSize(n)];
+        double[] imag = new double[spectrumSize(n)];
+        return filterTimeSeries(values, timestamps, 0, n, lowCutoff, highCutoff, order, parseFilterType(filterType),
+                real, imag, valuesOut, timestampsOut);
+    }
+
+    /**
+     * Performs an FFT, applies a Butterworth filter, and then performs an inverse FFT on {@code n}
+     * values starting at {@code offset}, writing the filtered series into caller-owned buffers.
+     *
+     * @param values The time series data values.
+     * @param timestamps The time series data timestamps, aligned with {@code values}.
+     * @param offset The index of the first data point to filter.
+     * @param n The number of data points to filter.
+     * @param lowCutoff The lower cutoff frequency.
+     * @param highCutoff The higher cutoff frequency.
+     * @param order The Butterworth filter order (higher forms sharper cutoff).
+     * @param filterType The type of filter to use: "lowpass", "highpass", or "bandpass".
+     * @param valuesOut Output buffer for the filtered values, at least {@code n} long.
+     * @param timestampsOut Output buffer for the filtered values' timestamps, at least {@code n} long.
+     * @return The number of filtered data points written, 0 if the input could not be filtered.
+     */
+    public int filterTimeSeries(double[] values, long[] timestamps, int offset, int n, double lowCutoff,
+                                double highCutoff, int order, String filterType,
+                                double[] valuesOut, double[] timestampsOut) {
+        double[] real = new double[spectrumSize(n)];
+        double[] imag = new double[spectrumSize(n)];
+        return filterTimeSeries(values, timestamps, offset, n, lowCutoff, highCutoff, order,
+                parseFilterType(filterType), real, imag, valuesOut, timestampsOut);
+    }
+
+    /**
+     * Performs an FFT, applies a Butterworth filter, and then performs an inverse
+     * FFT on the first {@code n} values, writing the filtered series into caller-owned buffers.
+     *
+     * @param values The time series data values.
+     * @param timestamps The time series data timestamps.
+     * @param n The number of data points to filter.
+     * @param lowCutoff The lower cutoff frequency.
+     * @param highCutoff The higher cutoff frequency.
+     * @param order The Butterworth filter order (higher forms sharper cutoff).
+     * @param filterType The type of filter to use.
+     * @param valuesOut Output buffer for the filtered values, at least {@code n} long.
+     * @param timestampsOut Output buffer for the filtered values' timestamps, at least {@code n} long.
+     * @return The number of filtered data points written, 0 if the input could not be filtered.
+     */
+    public int filterTimeSeries(double[] values, long[] timestamps, int n, double lowCutoff, double highCutoff,
+                                int order, FilterType filterType, double[] valuesOut, double[] timestampsOut) {
+        double[] real = new double[spectrumSize(n)];
+        double[] imag = new double[spectrumSize(n)];
+        return filterTimeSeries(values, timestamps, 0, n, lowCutoff, highCutoff, order, filterType,
+                real, imag, valuesOut, timestampsOut);
+    }
+
+    /**
+     * Performs an FFT, applies a Butterworth filter, and then performs an inverse FFT on {@code n}
+     * values starting at {@code offset}, writing the filtered series into caller-owned buffers.
+     *
+     * @param values The time series data values.
+     * @param timestamps The time series data timestamps, aligned with {@code values}.
+     * @param offset The index of the first data point to filter.
+     * @param n The number of data points to filter.
+     * @param lowCutoff The lower cutoff frequency.
+     * @param highCutoff The higher cutoff frequency.
+     * @param order The Butterworth filter order (higher forms sharper cutoff).
+     * @param filterType The type of filter to use.
+     * @param valuesOut Output buffer for the filtered values, at least {@code n} long.
+     * @param timestampsOut Output buffer for the filtered values' timestamps, at least {@code n} long.
+     * @return The number of filtered data points written, 0 if the input could not be filtered.
+     */
+    public int filterTimeSeries(double[] values, long[] timestamps, int offset, int n, double lowCutoff,
+                                double highCutoff, int order, FilterType filterType,
+                                double[] valuesOut, double[] timestampsOut) {
+        double[] real = new double[spectrumSize(n)];
+        double[] imag = new double[spectrumSize(n)];
+        return filterTimeSeries(values, timestamps, offset, n, lowCutoff, highCutoff, order, filterType,
+                real, imag, valuesOut, timestampsOut);
+    }
+
+    /**
+     * Performs an FFT, applies a Butterworth filter, and then performs an inverse FFT on the
+     * remaining elements of the input buffers, reading them in place.
+     *
+     * @param values The time series data values, from the buffer's position to its limit.
+     * @param timestamps The time series data timestamps, aligned with {@code values}.
+     * @param lowCutoff The lower cutoff frequency.
+     * @param highCutoff The higher cutoff frequency.
+     * @param order The Butterworth filter order (higher forms sharper cutoff).
+     * @param filterType The type of filter to use: "lowpass", "highpass", or "bandpass".
+     * @param valuesOut Output buffer for the filtered values, at least {@code values.remaining()} long.
+     * @param timestampsOut Output buffer for the filtered values' timestamps, at least {@code values.remaining()} long.
+     * @return The number of filtered data points written, 0 if the input could not be filtered.
+     */
+    public int filterTimeSeries(DoubleBuffer values, LongBuffer timestamps, double lowCutoff, double highCutoff,
+                                int order, String filterType, double[] valuesOut, double[] timestampsOut) {
+        return filterTimeSeries(values, timestamps, lowCutoff, highCutoff, order, parseFilterType(filterType),
+                valuesOut, timestampsOut);
+    }
+
+    /**
+     * Performs an FFT, applies a Butterworth filter, and then performs an inverse FFT on the
+     * remaining elements of the input buffers, reading them in place.
+     *
+     * @param values The time series data values, from the buffer's position to its limit.
+     * @param timestamps The time series data timestamps, aligned with {@code values}.
+     * @param lowCutoff The lower cutoff frequency.
+     * @param highCutoff The higher cutoff frequency.
+     * @param order The Butterworth filter order (higher forms sharper cutoff).
+     * @param filterType The type of filter to use.
+     * @param valuesOut Output buffer for the filtered values, at least {@code values.remaining()} long.
+     * @param timestampsOut Output buffer for the filtered values' timestamps, at least {@code values.remaining()} long.
+     * @return The number of filtered data points written, 0 if the input could not be filtered.
+     */
+    public int filterTimeSeries(DoubleBuffer values, LongBuffer timestamps, double lowCutoff, double highCutoff,
+                                int order, FilterType filterType, double[] valuesOut, double[] timestampsOut) {
+        if (values.remaining() != timestamps.remaining()) {
+            throw new IllegalArgumentException("Values and timestamps must have the same size");
+        }
+        double[] real = new double[spectrumSize(values.remaining())];
+        double[] imag = new double[spectrumSize(values.remaining())];
+        return filterTimeSeries(values, timestamps, lowCutoff, highCutoff, order, filterType,
+                real, imag, valuesOut, timestampsOut);
+    }
+
+    /**
+     * Filters many time series with the same Butterworth filter settings. Series of equal length
+     * and sampling frequency share one compiled filter, and the spectrum buffers are allocated
+     * once for the whole batch.
+     *
+     * @param values The values of each series.
+     * @param timestamps The timestamps of each series.
+     * @param counts The number of data points to filter in each series.
+     * @param lowCutoff The lower cutoff frequency.
+     * @param highCutoff The higher cutoff frequency.
+     * @param order The Butterworth filter order (higher forms sharper cutoff).
+     * @param filterType The type of filter to use.
+     * @param valuesOut Output buffers for the filtered values of each series, each at least {@code counts[i]} long.
+     * @param timestampsOut Output buffers for the filtered timestamps of each series, each at least {@code counts[i]} long.
+     * @return The number of filtered data points written for each series, 0 where a series could not be filtered.
+     */
+    public int[] filterTimeSeries(double[][] values, long[][] timestamps, int[] counts, double lowCutoff,
+                                  double highCutoff, int order, FilterType filterType,
+                                  double[][] valuesOut, double[][] timestampsOut) {
+        if (values.length != timestamps.length || values.length != counts.length
+                || values.length != valuesOut.length || values.length != timestampsOut.length) {
+            throw new IllegalArgumentException("Batch arrays must all have one entry per series");
+        }
+
+        int maxSpectrumSize = 0;
+        for (int count : counts) {
+            maxSpectrumSize = Math.max(maxSpectrumSize, spectrumSize(count));
+        }
+        double[] real = new double[maxSpectrumSize];
+        double[] imag = new double[maxSpectrumSize];
+
+        int[] written = new int[values.length];
+        for (int i = 0; i < values.length; i++) {
+            written[i] = filterTimeSeries(values[i], timestamps[i], 0, counts[i], lowCutoff, highCutoff, order,
+                    filterType, real, imag, valuesOut[i], timestampsOut[i]);
+        }
+        logger.debug("Applied Butterworth {} filter to a batch of {} series", filterType, values.length);
+        return written;
+    }
+
+    /**
+     * Filters many time series held in buffers with the same Butterworth filter settings, reading
+     * each from its position to its limit without copying it.
+     *
+     * @param values The values of each series.
+     * @param timestamps The timestamps of each series, as many as its values.
+     * @param lowCutoff The lower cutoff frequency.
+     * @param highCutoff The higher cutoff frequency.
+     * @param order The Butterworth filter order (higher forms sharper cutoff).
+     * @param filterType The type of filter to use.
+     * @param valuesOut Output buffers for the filtered values of each series, each at least as long as the series.
+     * @param timestampsOut Output buffers for the filtered timestamps of each series, each at least as long as the series.
+     * @return The number of filtered data points written for each series, 0 where a series could not be filtered.
+     */
+    public int[] filterTimeSeries(DoubleBuffer[] values, LongBuffer[] timestamps, double lowCutoff,
+                                  double highCutoff, int order, FilterType filterType,
+                                  double[][] valuesOut, double[][] timestampsOut) {
+        if (values.length != timestamps.length || values.length != valuesOut.length
+                || values.length != timestampsOut.length) {
+            throw new IllegalArgumentException("Batch arrays must all have one entry per series");
+        }
+
+        int maxSpectrumSize = 0;
+        for (int i = 0; i < values.length; i++) {
+            if (values[i].remaining() != timestamps[i].remaining()) {
+                throw new IllegalArgumentException("Values and timestamps must have the same size");
+            }
+            maxSpectrumSize = Math.max(maxSpectrumSize, spectrumSize(values[i].remaining()));
+        }
+        double[] real = new double[maxSpectrumSize];
+        double[] imag = new double[maxSpectrumSize];
+
+        int[] written = new int[values.length];
+        for (int i = 0; i < values.length; i++) {
+            written[i] = filterTimeSeries(values[i], timestamps[i], lowCutoff, highCutoff, order, filterType,
+                    real, imag, valuesOut[i], timestampsOut[i]);
+        }
+        logger.debug("Applied Butterworth {} filter to a batch of {} buffered series", filterType, values.length);
+        return written;
+    }
+
+    /**
+     * Filters one series using caller-owned spectrum buffers. A {@code null} filter type
+     * round-trips the series without filtering.
+     */
+    private int filterTimeSeries(double[] values, long[] timestamps, int offset, int n, double lowCutoff,
+                                 double highCutoff, int order, FilterType filterType, double[] real, double[] imag,
+                                 double[] valuesOut, double[] timestampsOut) {
+        return filterTimeSeries(DoubleBuffer.wrap(values, offset, n), LongBuffer.wrap(timestamps, offset, n),
+                lowCutoff, highCutoff, order, filterType, real, imag, valuesOut, timestampsOut);
+    }
+
+    private int filterTimeSeries(DoubleBuffer values, LongBuffer timestamps, double lowCutoff, double highCutoff,
+                                 int order, FilterType filterType, double[] real, double[] imag,
+                                 double[] valuesOut, double[] timestampsOut) {
+        int size = calculateFourierTransform(values, real, imag);
+        if (size == 0) {
+            return 0;
+        }
+
+        int n = values.remaining();
+        double samplingFrequency = calculateSamplingFrequency(timestamps);
+        if (samplingFrequency <= 0) {
+            logger.error("Cannot apply Butterworth filter due to invalid input.");
+            return 0;
+        }
+        if (filterType != null) {
+            compileFilter(filterType, size, samplingFrequency, lowCutoff, highCutoff, order).apply(real, imag);
+        }
+        int first = timestamps.position();
+        return calculateInverseFFT(real, imag, size, timestamps.get(first), timestamps.get(first + n - 1), n,
+                valuesOut, timestampsOut);
+    }
+
+    private static void requireBufferLength(double[] buffer, int length) {
+        if (buffer.length < length) {
+            throw new IllegalArgumentException("Spectrum buffer length " + buffer.length
+                    + " is shorter than the required " + length);
+        }
+    }
+
+    /**
+     * Expand a half spectrum into the full Hermitian-symmetric spectrum of a real input.
+     */
+    private static Complex[] toFullSpectrum(double[] real, double[] imag, int size) {
+        Complex[] result = new Complex[size];
+        for (int k = 0; k <= size / 2; k++) {
+            result[k] = new Complex(real[k], imag[k]);
+        }
+        for (int k = size / 2 + 1; k < size; k++) {
+            result[k] = result[size - k].conjugate();
+        }
+        return result;
+    }
+
+    private static void fromComplex(Complex[] values, double[] real, double[] imag, int count) {
+        for (int i = 0; i < count; i++) {
+            real[i] = values[i].getReal();
+            imag[i] = values[i].getImaginary();
+        }
+    }
+
+    private static long[] toLongArray(List<Long> values) {
+        long[] result = new long[values.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = values.get(i);
+        }
+        return result;
+    }
+
+    private static List<Double> toList(double[] values, int count) {
+        List<Double> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            result.add(values[i]);
+        }
+        return result;
     }
-}
\ No newline at end of file
+}
@@ -2,50 +2,152 @@ package com.example.analysis.service;
 
 import com.example.analysis.model.TimeSeriesData;
 import com.example.analysis.service.FourierTransformer;
+import com.example.analysis.service.fft.PaddingPolicy;
+import com.example.analysis.service.filter.FilterType;
 import org.apache.commons.math3.complex.Complex;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import java.nio.DoubleBuffer;
+import java.nio.LongBuffer;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.ArrayList;
-import java.util.stream.Collectors;
+import java.util.Map;
 
 @Service
 public class FourierTransformerService {
     private final FourierTransformer fourierTransformer;
 
     public FourierTransformerService() {
-        this.fourierTransformer = new FourierTransformer();
+        this(PaddingPolicy.NEXT_POWER_OF_TWO);
+    }
+
+    @Autowired
+    public FourierTransformerService(@Value("${timeseries.fft.padding:NEXT_POWER_OF_TWO}") PaddingPolicy paddingPolicy) {
+        this.fourierTransformer = new FourierTransformer(paddingPolicy);
+    }
+
+    public PaddingPolicy getPaddingPolicy() {
+        return fourierTransformer.getPaddingPolicy();
     }
 
     public Complex[] calculateFourierTransform(List<Double> values, List<Long> timestamps) {
         return fourierTransformer.calculateFourierTransform(values, timestamps);
     }
 
+    public int transformSize(int n) {
+        return fourierTransformer.transformSize(n);
+    }
+
+    public int spectrumSize(int n) {
+        return fourierTransformer.spectrumSize(n);
+    }
+
+    public int calculateFourierTransform(double[] values, int n, double[] real, double[] imag) {
+        return fourierTransformer.calculateFourierTransform(values, n, real, imag);
+    }
+
     public double calculateSamplingFrequency(List<Long> timestamps) {
         return fourierTransformer.calculateSamplingFrequency(timestamps);
     }
 
+    public double calculateSamplingFrequency(long[] timestamps, int n) {
+        return fourierTransformer.calculateSamplingFrequency(timestamps, n);
+    }
+
     public List<Double[]> getFrequencyMagnitudePairs(Complex[] fftResult, double samplingFrequency) {
         return fourierTransformer.getFrequencyMagnitudePairs(fftResult, samplingFrequency);
     }
 
+    public int getFrequencyMagnitudePairs(double[] real, double[] imag, int size, double samplingFrequency,
+                                          double[] frequencies, double[] magnitudes) {
+        return fourierTransformer.getFrequencyMagnitudePairs(real, imag, size, samplingFrequency, frequencies, magnitudes);
+    }
+
     public TimeSeriesData calculateInverseFFT(Complex[] fftResult, List<Long> originalTimestamps) {
         List<List<Double>> result = fourierTransformer.calculateInverseFFT(fftResult, originalTimestamps);
-        List<Long> reconstructedTimestamps = result.get(1).stream()
-                .mapToLong(Math::round)
-                .boxed()
-                .collect(Collectors.toList());
-        return new TimeSeriesData(result.get(0), reconstructedTimestamps);
+        return toTimeSeriesData(result.get(0), result.get(1));
     }
 
     public TimeSeriesData filterTimeSeries(TimeSeriesData input, double lowCutoff,
                                            double highCutoff, int order, String filterType) {
-        List<List<Double>> result = fourierTransformer.filterTimeSeries(
-                input.getValues(), input.getTimestamps(),
-                lowCutoff, highCutoff, order, filterType);
-        List<Long> filteredTimestamps = result.get(1).stream()
-                .mapToLong(Math::round)
-                .boxed()
-                .collect(Collectors.toList());
-        return new TimeSeriesData(result.get(0), filteredTimestamps);
-    }
-}
\ No newline at end of file
+        int n = input.size();
+        double[] filteredValues = new double[n];
+        double[] filteredTimestamps = new double[n];
+        int count = fourierTransformer.filterTimeSeries(input.valuesBuffer(), input.timestampsBuffer(), lowCutoff,
+                highCutoff, order, filterType, filteredValues, filteredTimestamps);
+        return toTimeSeriesData(filteredValues, filteredTimestamps, count);
+    }
+
+    /**
+     * Filter the series of many symbols with one filter configuration. Series of the same length
+     * and sampling frequency share one compiled filter.
+     *
+     * @return The filtered series by symbol, in the iteration order of the input.
+     */
+    public Map<String, TimeSeriesData> filterTimeSeries(Map<String, TimeSeriesData> seriesBySymbol, double lowCutoff,
+                                                        double highCutoff, int order, FilterType filterType) {
+        int seriesCount = seriesBySymbol.size();
+        DoubleBuffer[] values = new DoubleBuffer[seriesCount];
+        LongBuffer[] timestamps = new LongBuffer[seriesCount];
+        double[][] filteredValues = new double[seriesCount][];
+        double[][] filteredTimestamps = new double[seriesCount][];
+
+        int i = 0;
+        for (TimeSeriesData series : seriesBySymbol.values()) {
+            values[i] = series.valuesBuffer();
+            timestamps[i] = series.timestampsBuffer();
+            filteredValues[i] = new double[series.size()];
+            filteredTimestamps[i] = new double[series.size()];
+            i++;
+        }
+
+        int[] written = fourierTransformer.filterTimeSeries(values, timestamps, lowCutoff, highCutoff, order,
+                filterType, filteredValues, filteredTimestamps);
+
+        Map<String, TimeSeriesData> result = new LinkedHashMap<>();
+        i = 0;
+        for (String symbol : seriesBySymbol.keySet()) {
+            result.put(symbol, toTimeSeriesData(filteredValues[i], filteredTimestamps[i], written[i]));
+            i++;
+        }
+        return result;
+    }
+
+    public int filterTimeSeries(double[] values, long[] timestamps, int n, double lowCutoff, double highCutoff,
+                                int order, String filterType, double[] valuesOut, double[] timestampsOut) {
+        return fourierTransformer.filterTimeSeries(values, timestamps, n, lowCutoff, highCutoff, order, filterType,
+                valuesOut, timestampsOut);
+    }
+
+    public int filterTimeSeries(double[] values, long[] timestamps, int n, double lowCutoff, double highCutoff,
+                                int order, FilterType filterType, double[] valuesOut, double[] timestampsOut) {
+        return fourierTransformer.filterTimeSeries(values, timestamps, n, lowCutoff, highCutoff, order, filterType,
+                valuesOut, timestampsOut);
+    }
+
+    public int[] filterTimeSeries(double[][] values, long[][] timestamps, int[] counts, double lowCutoff,
+                                  double highCutoff, int order, FilterType filterType,
+                                  double[][] valuesOut, double[][] timestampsOut) {
+        return fourierTransformer.filterTimeSeries(values, timestamps, counts, lowCutoff, highCutoff, order,
+                filterType, valuesOut, timestampsOut);
+    }
+
+    // Hands the filtered values over to the result instead of copying them
+    private TimeSeriesData toTimeSeriesData(double[] values, double[] timestamps, int count) {
+        long[] roundedTimestamps = new long[count];
+        for (int i = 0; i < count; i++) {
+            roundedTimestamps[i] = Math.round(timestamps[i]);
+        }
+        return TimeSeriesData.wrap(values, roundedTimestamps, 0, count);
+    }
+
+    private TimeSeriesData toTimeSeriesData(List<Double> values, List<Double> timestamps) {
+        List<Long> roundedTimestamps = new ArrayList<>(timestamps.size());
+        for (Double timestamp : timestamps) {
+            roundedTimestamps.add(Math.round(timestamp));
+        }
+        return new TimeSeriesData(values, roundedTimestamps);
+    }
+}
@@ -0,0 +1,220 @@
+package com.example.analysis.service;
+
+import com.example.analysis.service.fft.PaddingPolicy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+
+/**
+ * Maintains the DFT of the most recent {@code windowSize} samples incrementally.
+ * <p>
+ * Each new sample updates every tracked bin with the sliding DFT recurrence
+ * {@code X_k <- (X_k - x_oldest + x_new) * e^(j*2*pi*k/N)}, so an update costs O(K) for K tracked
+ * bins instead of a full O(N log N) transform. The recurrence accumulates rounding error, so the
+ * tracked bins are recomputed exactly once every {@code windowSize} updates, which keeps the
+ * amortized cost per update at O(K).
+ * <p>
+ * Until the window has been filled the missing samples are treated as zeros.
+ * This class is not thread-safe.
+ */
+public class SlidingDftSpectrum {
+    private static final Logger logger = LoggerFactory.getLogger(SlidingDftSpectrum.class);
+
+    private final int windowSize;
+    private final int[] bins;
+    private final double[] real;
+    private final double[] imag;
+    private final double[] cosTable;
+    private final double[] sinTable;
+    private final double[] window;
+    private final FourierTransformer fourierTransformer;
+    private final double[] chronological;
+    private final double[] fftReal;
+    private final double[] fftImag;
+    private int head;
+    private int count;
+    private int updatesSinceResync;
+
+    /**
+     * Creates a spectrum that tracks the non-redundant bins {@code 0 .. windowSize / 2 - 1}.
+     *
+     * @param windowSize The number of most recent samples covered by the spectrum.
+     */
+    public SlidingDftSpectrum(int windowSize) {
+        this(windowSize, halfSpectrumBins(windowSize));
+    }
+
+    /**
+     * Creates a spectrum that tracks only the given bins.
+     *
+     * @param windowSize The number of most recent samples covered by the spectrum.
+     * @param bins The bin indices to track, each in {@code [0, windowSize / 2]}, in any order. They
+     *             are tracked and reported in ascending order, each once.
+     */
+    public SlidingDftSpectrum(int windowSize, int[] bins) {
+        if (windowSize < 2) {
+            throw new IllegalArgumentException("Window size must be at least 2");
+        }
+        for (int bin : bins) {
+            // Bins above N/2 mirror lower ones for real input
+            if (bin < 0 || bin > windowSize / 2) {
+                throw new IllegalArgumentException("Bin " + bin + " is outside the half spectrum of a window of size "
+                        + windowSize);
+            }
+        }
+
+        this.windowSize = windowSize;
+        // Spectrum lookups by frequency assume ascending, distinct bins
+        this.bins = Arrays.stream(bins).sorted().distinct().toArray();
+        this.real = new double[this.bins.length];
+        this.imag = new double[this.bins.length];
+        this.window = new double[windowSize];
+        this.fourierTransformer = new FourierTransformer(PaddingPolicy.NONE);
+
+        // Tracking the whole half spectrum: resync with an unpadded FFT of the window
+        boolean fftResync = this.bins.length == windowSize / 2;
+        this.chronological = fftResync ? new double[windowSize] : null;
+        this.fftReal = fftResync ? new double[fourierTransformer.spectrumSize(windowSize)] : null;
+        this.fftImag = fftResync ? new double[fourierTransformer.spectrumSize(windowSize)] : null;
+
+        // e^(j*2*pi*m/N) for every m; bin k rotates by m = k and DFT terms index (k * n) mod N
+        this.cosTable = new double[windowSize];
+        this.sinTable = new double[windowSize];
+        for (int m = 0; m < windowSize; m++) {
+            double angle = 2 * Math.PI * m / windowSize;
+            cosTable[m] = Math.cos(angle);
+            sinTable[m] = Math.sin(angle);
+        }
+        logger.debug("Initialized sliding DFT with window size {} tracking {} bins", windowSize, this.bins.length);
+    }
+
+    private static int[] halfSpectrumBins(int windowSize) {
+        int[] bins = new int[Math.max(0, windowSize / 2)];
+        for (int k = 0; k < bins.length; k++) {
+            bins[k] = k;
+        }
+        return bins;
+    }
+
+    /**
+     * Slides the window forward by one sample.
+     *
+     * @param value The newest sample.
+     */
+    public void update(double value) {
+        double oldest = window[head];
+        window[head] = value;
+        head = head + 1 == windowSize ? 0 : head + 1;
+        if (count < windowSize) {
+            count++;
+        }
+
+        if (++updatesSinceResync >= windowSize) {
+            resync();
+            return;
+        }
+
+        double delta = value - oldest;
+        for (int i = 0; i < bins.length; i++) {
+            int k = bins[i];
+            double re = real[i] + delta;
+            double im = imag[i];
+            real[i] = re * cosTable[k] - im * sinTable[k];
+            imag[i] = re * sinTable[k] + im * cosTable[k];
+        }
+    }
+
+    /**
+     * Recomputes the tracked bins exactly from the current window contents.
+     */
+    public void resync() {
+        updatesSinceResync = 0;
+
+        if (fftReal != null) {
+            copyChronological(chronological);
+            fourierTransformer.calculateFourierTransform(chronological, windowSize, fftReal, fftImag);
+            for (int i = 0; i < bins.length; i++) {
+                real[i] = fftReal[bins[i]];
+                imag[i] = fftImag[bins[i]];
+            }
+            return;
+        }
+
+        // Direct DFT of the tracked bins, using the twiddle tables for e^(-j*2*pi*k*n/N)
+        for (int i = 0; i < bins.length; i++) {
+            int k = bins[i];
+            double re = 0.0;
+            double im = 0.0;
+            int index = head;
+            int m = 0;
+            for (int n = 0; n < windowSize; n++) {
+                double x = window[index];
+                re += x * cosTable[m];
+                im -= x * sinTable[m];
+                index = index + 1 == windowSize ? 0 : index + 1;
+                m += k;
+                if (m >= windowSize) {
+                    m -= windowSize;
+                }
+            }
+            real[i] = re;
+            imag[i] = im;
+        }
+    }
+
+    /**
+     * Clears the window and the spectrum.
+     */
+    public void reset() {
+        Arrays.fill(window, 0.0);
+        Arrays.fill(real, 0.0);
+        Arrays.fill(imag, 0.0);
+        head = 0;
+        count = 0;
+        updatesSinceResync = 0;
+    }
+
+    /**
+     * Get frequencies and magnitudes of the tracked bins into caller-owned buffers.
+     *
+     * @param samplingFrequency The sampling frequency of the samples in the window.
+     * @param frequencies Output buffer for the bin frequencies, at least {@link #getBinCount()} long.
+     * @param magnitudes Output buffer for the bin magnitudes, at least {@link #getBinCount()} long.
+     * @return The number of pairs written, 0 if the sampling frequency is invalid.
+     */
+    public int getFrequencyMagnitudePairs(double samplingFrequency, double[] frequencies, double[] magnitudes) {
+        if (samplingFrequency == 0) {
+            logger.error("Invalid sampling frequency. Sampling frequency must not be 0.");
+            return 0;
+        }
+
+        double binWidth = samplingFrequency / windowSize;
+        for (int i = 0; i < bins.length; i++) {
+            frequencies[i] = bins[i] * binWidth;
+            magnitudes[i] = Math.sqrt(real[i] * real[i] + imag[i] * imag[i]);
+        }
+        return bins.length;
+    }
+
+    private void copyChronological(double[] target) {
+        int tail = windowSize - head;
+        System.arraycopy(window, head, target, 0, tail);
+        System.arraycopy(window, 0, target, tail, head);
+    }
+
+    public int getWindowSize() {
+        return windowSize;
+    }
+
+    public int getBinCount() {
+        return bins.length;
+    }
+
+    /**
+     * @return The number of samples currently in the window, at most the window size.
+     */
+    public int getSampleCount() {
+        return count;
+    }
+}
@@ -1,6 +1,23 @@
 package com.example.analysis.service;
 
+import com.example.analysis.model.BollingerBands;
+import com.example.analysis.model.FrequencySpectrum;
+import com.example.analysis.model.Spectrogram;
 import com.example.analysis.model.TimeSeriesData;
+import com.example.analysis.service.cache.VersionedResultCache;
+import com.example.analysis.service.fft.PaddingPolicy;
+import com.example.analysis.service.fft.WindowFunction;
+import com.example.analysis.service.filter.BiquadCascade;
+import com.example.analysis.service.filter.FilterType;
+import com.example.analysis.service.filter.StreamingIirFilter;
+import com.example.analysis.service.history.TickHistory;
+import com.example.analysis.service.indicator.IndicatorSet;
+import com.example.analysis.service.indicator.IndicatorSpec;
+import com.example.analysis.service.indicator.RollingStatistics;
+import com.example.analysis.service.history.TickRingBuffer;
+import com.example.analysis.service.history.TickWindow;
+import com.example.analysis.service.spectrogram.SpectrogramEngine;
+import com.example.analysis.service.spectrogram.SpectrogramSpec;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.math3.complex.Complex;
 import org.springframework.beans.factory.annotation.Value;
@@ -8,143 +25,681 @@ import org.springframework.stereotype.Service;
 import org.springframework.beans.factory.annotation.Autowired;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 /**
  * Stores data on and performs analyses on a particular set of timeseries data.
+ * <p>
+ * Prices are kept in a {@link TickHistory}: by default a bounded on-heap {@link TickRingBuffer}
+ * holding the most recent {@code historyCapacity} prices, or an off-heap memory-mapped store that
+ * keeps the whole history across restarts. Either way only the most recent
+ * {@code historyCapacity} prices are analyzed, appends are O(1), and SMA and EMA are maintained
+ * incrementally and stay exact as old prices drop out. The SMA window also yields the rolling
+ * standard deviation, z-score and Bollinger bands, accumulated with compensated sums that are
+ * periodically recomputed, so they do not drift however long a symbol trades. Further
+ * indicators, such as RSI or MACD, can be configured per symbol; they are updated in the same
+ * pass, each in O(1). An optional streaming IIR filter keeps a filtered copy of the history up to
+ * date in O(order) per price, so reading it costs no filtering.
+ * <p>
+ * Spectra and filtered series are cached per set of parameters against a modification version
+ * that every change to the history bumps, so symbols polled more often than they trade transform
+ * once per price rather than once per request.
+ * <p>
+ * Thread-safe. Writers ({@link #addPrice(double, long)} and the other mutators) are serialized by a
+ * {@link StampedLock}. Readers take a {@link TickWindow} of the history instead of locking and run
+ * their analysis directly on its storage, then check that the writer has not overwritten that
+ * window in the meantime. A reader only falls back to the read lock, to copy the window, if it
+ * keeps losing races with a writer; that copy is the only time a reader holds up a writer.
  */
 @Slf4j
 @Service
 public class TimeSeriesAnalysis {
-    private final List<Double> values;
-    private final List<Long> timestamps;
+    public static final int DEFAULT_HISTORY_CAPACITY = 8192;
+    public static final int DEFAULT_RESULT_CACHE_ENTRIES = 16;
+    private static final int OPTIMISTIC_READ_ATTEMPTS = 8;
+    private static final int MAX_SPECTROGRAM_ENGINES = 8;
+    private static final TickWindow EMPTY_WINDOW = TickWindow.of(new double[0], new long[0]);
+
+    private final StampedLock lock = new StampedLock();
+
+    private TickHistory history;
     private final FourierTransformer fourierTransformer;
     private Double lastSMA;
     private Double lastEMA;
     private final int smaPeriod;
     private final int emaPeriod;
-    private double smaSum;
+    private final RollingStatistics smaWindow;
+    private IndicatorSet indicators = IndicatorSet.EMPTY;
+    private SlidingDftSpectrum streamingSpectrum;
+    private StreamingIirFilter streamingFilter;
+    private TickHistory filteredHistory;
+    private volatile long modVersion;
+    private volatile Snapshot snapshot;
+    private volatile Snapshot filteredSnapshot;
+    // Replaced on reset, so that segments cached from the old history are never reused
+    private volatile Map<SpectrogramSpec, SpectrogramEngine> spectrogramEngines = new ConcurrentHashMap<>();
+    private volatile VersionedResultCache resultCache = new VersionedResultCache(DEFAULT_RESULT_CACHE_ENTRIES);
+
+    // Cache keys of the derived results, holding every parameter a result depends on
+    private record SpectrumKey(WindowFunction window) {
+    }
+
+    private record FilterKey(boolean zeroPhase, FilterType filterType, double lowCutoff, double highCutoff,
+                             int order) {
+    }
+
+    private static final class Snapshot {
+        final long version;
+        final TimeSeriesData data;
+
+        Snapshot(long version, TimeSeriesData data) {
+            this.version = version;
+            this.data = data;
+        }
+    }
+
+    public TimeSeriesAnalysis(int smaPeriod, int emaPeriod) {
+        this(smaPeriod, emaPeriod, PaddingPolicy.NEXT_POWER_OF_TWO, DEFAULT_HISTORY_CAPACITY);
+    }
 
+    /**
+     * @param historyCapacity The number of most recent prices retained; older prices are evicted.
+     *                        Must exceed the SMA period and be at least the EMA period.
+     */
     @Autowired
     public TimeSeriesAnalysis(
             @Value("${timeseries.sma.period:10}") int smaPeriod,
-            @Value("${timeseries.ema.period:20}") int emaPeriod
+            @Value("${timeseries.ema.period:20}") int emaPeriod,
+            @Value("${timeseries.fft.padding:NEXT_POWER_OF_TWO}") PaddingPolicy paddingPolicy,
+            @Value("${timeseries.history.capacity:8192}") int historyCapacity
     ) {
+        this(smaPeriod, emaPeriod, paddingPolicy, new TickRingBuffer(historyCapacity));
+    }
+
+    /**
+     * Analyze an existing history. Indicators are initialized from the prices it already holds, so
+     * a reopened persistent history carries on where it left off.
+     *
+     * @param history The price history; its capacity must exceed the SMA period and be at least
+     *                the EMA period.
+     */
+    public TimeSeriesAnalysis(int smaPeriod, int emaPeriod, PaddingPolicy paddingPolicy, TickHistory history) {
+        validateHistoryCapacity(smaPeriod, emaPeriod, history.getCapacity());
         this.smaPeriod = smaPeriod;
         this.emaPeriod = emaPeriod;
-        this.values = new ArrayList<>();
-        this.timestamps = new ArrayList<>();
-        this.fourierTransformer = new FourierTransformer();
+        this.history = history;
+        this.fourierTransformer = new FourierTransformer(paddingPolicy);
         this.lastSMA = null;
         this.lastEMA = null;
-        this.smaSum = 0.0;
-        log.info("Initialized TimeSeriesAnalysis with SMA period: {} and EMA period: {}",
-                smaPeriod, emaPeriod);
+        this.smaWindow = new RollingStatistics(smaPeriod);
+
+        initializeIndicators();
+        log.info("Initialized TimeSeriesAnalysis with SMA period: {}, EMA period: {} and history capacity: {}",
+                smaPeriod, emaPeriod, history.getCapacity());
     }
 
     // Constructor for testing and manual creation
     protected TimeSeriesAnalysis(int smaPeriod, int emaPeriod, List<Double> initialValues, List<Long> initialTimestamps) {
+        this(smaPeriod, emaPeriod, initialValues, initialTimestamps, PaddingPolicy.NEXT_POWER_OF_TWO);
+    }
+
+    protected TimeSeriesAnalysis(int smaPeriod, int emaPeriod, List<Double> initialValues, List<Long> initialTimestamps,
+                                 PaddingPolicy paddingPolicy) {
+        this(smaPeriod, emaPeriod, initialValues, initialTimestamps, paddingPolicy, DEFAULT_HISTORY_CAPACITY);
+    }
+
+    protected TimeSeriesAnalysis(int smaPeriod, int emaPeriod, List<Double> initialValues, List<Long> initialTimestamps,
+                                 PaddingPolicy paddingPolicy, int historyCapacity) {
+        this(smaPeriod, emaPeriod, paddingPolicy, prefill(initialValues, initialTimestamps, historyCapacity));
+    }
+
+    private static TickHistory prefill(List<Double> initialValues, List<Long> initialTimestamps, int historyCapacity) {
         if (initialValues.size() != initialTimestamps.size()) {
             throw new IllegalArgumentException("Values and timestamps must have the same size");
         }
-        this.smaPeriod = smaPeriod;
-        this.emaPeriod = emaPeriod;
-        this.values = new ArrayList<>(initialValues);
-        this.timestamps = new ArrayList<>(initialTimestamps);
-        this.fourierTransformer = new FourierTransformer();
-        this.lastSMA = null;
-        this.lastEMA = null;
-        this.smaSum = 0.0;
+        TickRingBuffer history = new TickRingBuffer(historyCapacity);
+        for (int i = Math.max(0, initialValues.size() - historyCapacity); i < initialValues.size(); i++) {
+            history.append(initialTimestamps.get(i), initialValues.get(i));
+        }
+        return history;
+    }
 
-        initializeIndicators();
-        log.info("Initialized TimeSeriesAnalysis with SMA period: {} and EMA period: {}",
-                smaPeriod, emaPeriod);
+    private static void validateHistoryCapacity(int smaPeriod, int emaPeriod, int historyCapacity) {
+        // Reopened and reset histories prime the SMA and EMA, so they must hold their full windows
+        if (historyCapacity <= smaPeriod || historyCapacity < emaPeriod) {
+            throw new IllegalArgumentException("History capacity " + historyCapacity
+                    + " must exceed the SMA period " + smaPeriod + " and be at least the EMA period " + emaPeriod);
+        }
     }
 
     private void initializeIndicators() {
-        if (values.isEmpty()) return;
+        int size = history.size();
+        if (size == 0) return;
 
         // Initialize SMA
-        int smaStartIndex = Math.max(0, values.size() - smaPeriod);
-        for (int i = smaStartIndex; i < values.size(); i++) {
-            smaSum += values.get(i);
+        for (int back = Math.min(size, smaPeriod) - 1; back >= 0; back--) {
+            smaWindow.add(history.valueFromEnd(back));
         }
-        if (values.size() >= smaPeriod) {
-            lastSMA = smaSum / smaPeriod;
+        if (smaWindow.isFull()) {
+            lastSMA = smaWindow.getMean();
         }
 
         // Initialize EMA
-        if (values.size() >= emaPeriod) {
-            double sum = 0.0;
-            for (int i = values.size() - emaPeriod; i < values.size(); i++) {
-                sum += values.get(i);
-            }
-            lastEMA = sum / emaPeriod;
+        if (size >= emaPeriod) {
+            lastEMA = seedEMA();
         }
 
         log.debug("Indicators initialized. Initial SMA: {}, Initial EMA: {}", lastSMA, lastEMA);
     }
 
     public void addPrice(double price, long timestamp) {
-        values.add(price);
-        timestamps.add(timestamp);
+        addPrice(price, 0.0, timestamp);
+    }
+
+    /**
+     * Add a price together with its traded volume, for volume-weighted indicators such as VWAP.
+     *
+     * @param volume The traded volume, or 0 if unknown.
+     */
+    public void addPrice(double price, double volume, long timestamp) {
+        long stamp = lock.writeLock();
+        try {
+            appendPrice(price, volume, timestamp);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+        log.debug("Added new price: {} at timestamp: {}", price, timestamp);
+    }
+
+    private void appendPrice(double price, double volume, long timestamp) {
+        history.append(timestamp, price);
         updateSMA(price);
         updateEMA(price);
-        log.debug("Added new price: {} at timestamp: {}. Updated SMA: {}, EMA: {}",
-                price, timestamp, lastSMA, lastEMA);
+        indicators.update(price, volume, timestamp);
+        if (streamingSpectrum != null) {
+            streamingSpectrum.update(price);
+        }
+        if (streamingFilter != null) {
+            filteredHistory.append(timestamp, streamingFilter.update(price));
+        }
+        modVersion++;
     }
 
     private void updateSMA(double newPrice) {
-        if (values.size() <= smaPeriod) {
-            smaSum += newPrice;
-            if (values.size() == smaPeriod) {
-                lastSMA = smaSum / smaPeriod;
-            } else {
-                lastSMA = null;
-            }
-        } else {
-            smaSum = smaSum - values.get(values.size() - smaPeriod - 1) + newPrice;
-            lastSMA = smaSum / smaPeriod;
-        }
+        smaWindow.add(newPrice);
+        lastSMA = smaWindow.isFull() ? smaWindow.getMean() : null;
     }
 
     private void updateEMA(double newPrice) {
-        if (values.size() < emaPeriod) {
+        if (history.getAppendedCount() < emaPeriod) {
             lastEMA = null;
             return;
         }
 
         if (lastEMA == null) {
-            double sum = 0.0;
-            for (int i = values.size() - emaPeriod; i < values.size(); i++) {
-                sum += values.get(i);
-            }
-            lastEMA = sum / emaPeriod;
+            lastEMA = seedEMA();
         } else {
             double multiplier = 2.0 / (emaPeriod + 1);
             lastEMA = ((newPrice - lastEMA) * multiplier) + lastEMA;
         }
     }
 
+    private double seedEMA() {
+        double sum = 0.0;
+        for (int back = emaPeriod - 1; back >= 0; back--) {
+            sum += history.valueFromEnd(back);
+        }
+        return sum / emaPeriod;
+    }
+
+    /**
+     * Switch to streaming spectrum mode: the spectrum of the most recent {@code windowSize} values
+     * is maintained incrementally on every {@link #addPrice(double, long)}, and
+     * {@link #getFrequencyMagnitudePairs()} reads it instead of transforming the whole history.
+     *
+     * @param windowSize The number of most recent values covered by the spectrum.
+     */
+    public void enableStreamingSpectrum(int windowSize) {
+        enableStreamingSpectrum(new SlidingDftSpectrum(windowSize));
+    }
+
+    /**
+     * Switch to streaming spectrum mode, tracking only the given frequency bins of the window.
+     * Each {@link #addPrice(double, long)} then costs O(bins) for the spectrum update.
+     *
+     * @param windowSize The number of most recent values covered by the spectrum.
+     * @param bins The bin indices to track, each in {@code [0, windowSize / 2]}, in any order.
+     */
+    public void enableStreamingSpectrum(int windowSize, int[] bins) {
+        enableStreamingSpectrum(new SlidingDftSpectrum(windowSize, bins));
+    }
+
+    private void enableStreamingSpectrum(SlidingDftSpectrum spectrum) {
+        long stamp = lock.writeLock();
+        try {
+            // Prime the window with the most recent history
+            for (int back = Math.min(history.size(), spectrum.getWindowSize()) - 1; back >= 0; back--) {
+                spectrum.update(history.valueFromEnd(back));
+            }
+            spectrum.resync();
+            this.streamingSpectrum = spectrum;
+            modVersion++;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+        log.info("Enabled streaming spectrum with window size: {} and {} tracked bins",
+                spectrum.getWindowSize(), spectrum.getBinCount());
+    }
+
+    public void disableStreamingSpectrum() {
+        long stamp = lock.writeLock();
+        try {
+            this.streamingSpectrum = null;
+            modVersion++;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Keep the history filtered by {@code cascade} as prices arrive: each
+     * {@link #addPrice(double, long)} filters the new price in O(order), and
+     * {@link #getFilteredTimeSeriesData()} reads the result. The retained history is filtered
+     * right away, oldest first.
+     *
+     * @param cascade The filter, designed for the nominal rate of this symbol's prices.
+     */
+    public void enableStreamingFilter(BiquadCascade cascade) {
+        StreamingIirFilter filter = new StreamingIirFilter(cascade);
+        long stamp = lock.writeLock();
+        try {
+            TickHistory filtered = new TickRingBuffer(history.getCapacity());
+            TickWindow retained = history.window(Integer.MAX_VALUE);
+            for (int i = 0; i < retained.size(); i++) {
+                filtered.append(retained.timestamps().get(i), filter.update(retained.values().get(i)));
+            }
+            this.streamingFilter = filter;
+            this.filteredHistory = filtered;
+            modVersion++;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+        log.info("Enabled streaming {} filter of order {} with {} sections", cascade.getType(), cascade.getOrder(),
+                cascade.getSectionCount());
+    }
+
+    /**
+     * Design a Butterworth filter and keep the history filtered by it, see
+     * {@link #enableStreamingFilter(BiquadCascade)}.
+     *
+     * @param samplingFrequency The nominal rate of this symbol's prices, in Hz.
+     */
+    public void enableStreamingFilter(FilterType filterType, double lowCutoff, double highCutoff, int order,
+                                      double samplingFrequency) {
+        enableStreamingFilter(BiquadCascade.butterworth(filterType, samplingFrequency, lowCutoff, highCutoff, order));
+    }
+
+    public void disableStreamingFilter() {
+        long stamp = lock.writeLock();
+        try {
+            this.streamingFilter = null;
+            this.filteredHistory = null;
+            modVersion++;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public boolean isStreamingFilterEnabled() {
+        return readField(() -> streamingFilter) != null;
+    }
+
+    /**
+     * @return The most recent output of the streaming filter, or {@code null} if it is disabled or
+     * no price has arrived yet.
+     */
+    public Double getLastFilteredValue() {
+        return readField(() -> {
+            StreamingIirFilter filter = streamingFilter;
+            return filter == null || Double.isNaN(filter.getLastOutput()) ? null : filter.getLastOutput();
+        });
+    }
+
+    public boolean isStreamingSpectrumEnabled() {
+        return streamingWindowSize() > 0;
+    }
+
+    // The window size of the streaming spectrum, 0 if it is disabled
+    private int streamingWindowSize() {
+        for (int attempt = 0; attempt < OPTIMISTIC_READ_ATTEMPTS; attempt++) {
+            long stamp = lock.tryOptimisticRead();
+            SlidingDftSpectrum spectrum = streamingSpectrum;
+            if (lock.validate(stamp)) {
+                return spectrum != null ? spectrum.getWindowSize() : 0;
+            }
+            Thread.onSpinWait();
+        }
+        long stamp = lock.readLock();
+        try {
+            return streamingSpectrum != null ? streamingSpectrum.getWindowSize() : 0;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
     public Double getLastSMA() {
-        return lastSMA;
+        for (int attempt = 0; attempt < OPTIMISTIC_READ_ATTEMPTS; attempt++) {
+            long stamp = lock.tryOptimisticRead();
+            Double sma = lastSMA;
+            if (lock.validate(stamp)) {
+                return sma;
+            }
+            Thread.onSpinWait();
+        }
+        long stamp = lock.readLock();
+        try {
+            return lastSMA;
+        } finally {
+            lock.unlockRead(stamp);
+        }
     }
 
     public Double getLastEMA() {
-        return lastEMA;
+        for (int attempt = 0; attempt < OPTIMISTIC_READ_ATTEMPTS; attempt++) {
+            long stamp = lock.tryOptimisticRead();
+            Double ema = lastEMA;
+            if (lock.validate(stamp)) {
+                return ema;
+            }
+            Thread.onSpinWait();
+        }
+        long stamp = lock.readLock();
+        try {
+            return lastEMA;
+        } finally {
+            lock.unlockRead(stamp);
+        }
     }
 
+    /**
+     * @return The population standard deviation of the prices in the SMA window, or {@code null}
+     * until the window is full.
+     */
+    public Double getRollingStdDev() {
+        return readField(() -> smaWindow.isFull() ? smaWindow.getStdDev() : null);
+    }
+
+    /**
+     * @return How many standard deviations the latest price lies from the SMA, or {@code null}
+     * until the SMA window is full; 0 while the prices in the window do not vary.
+     */
+    public Double getZScore() {
+        return readField(() -> smaWindow.isFull() ? smaWindow.zScore(smaWindow.getLatest()) : null);
+    }
+
+    /**
+     * @param width The band width in standard deviations, typically 2.
+     * @return The Bollinger bands around the SMA, or {@code null} until the SMA window is full.
+     */
+    public BollingerBands getBollingerBands(double width) {
+        return readField(() -> smaWindow.isFull()
+                ? BollingerBands.of(smaWindow.getMean(), smaWindow.getStdDev(), width) : null);
+    }
+
+    /**
+     * Replace this symbol's indicators. The new ones are primed from the retained history, oldest
+     * price first; its volumes are not retained, so volume-weighted indicators start with the
+     * next price.
+     *
+     * @throws IllegalArgumentException If a spec's parameters are out of range.
+     */
+    public void setIndicators(List<IndicatorSpec> specs) {
+        IndicatorSet replacement = new IndicatorSet(specs);
+        long stamp = lock.writeLock();
+        try {
+            TickWindow retained = history.window(Integer.MAX_VALUE);
+            for (int i = 0; i < retained.size(); i++) {
+                replacement.update(retained.values().get(i), 0.0, retained.timestamps().get(i));
+            }
+            this.indicators = replacement;
+            modVersion++;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+        log.info("Configured indicators: {}", replacement.getKeys());
+    }
+
+    public List<IndicatorSpec> getIndicatorSpecs() {
+        return readField(() -> indicators).getSpecs();
+    }
+
+    /**
+     * Read every output of the configured indicators at once, consistent with one another.
+     *
+     * @return The current value of each output by key (see {@link IndicatorSet}), in the order the
+     * indicators were configured; {@code null} for indicators that are not ready yet.
+     */
+    public Map<String, Double> getIndicatorValues() {
+        IndicatorSet set = null;
+        double[] values = null;
+        boolean valid = false;
+        for (int attempt = 0; attempt < OPTIMISTIC_READ_ATTEMPTS && !valid; attempt++) {
+            long stamp = lock.tryOptimisticRead();
+            set = indicators;
+            if (values == null || values.length < set.getOutputCount()) {
+                values = new double[set.getOutputCount()];
+            }
+            set.read(values);
+            valid = lock.validate(stamp);
+            if (!valid) {
+                Thread.onSpinWait();
+            }
+        }
+        if (!valid) {
+            long stamp = lock.readLock();
+            try {
+                set = indicators;
+                values = new double[set.getOutputCount()];
+                set.read(values);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        Map<String, Double> result = new LinkedHashMap<>();
+        List<String> keys = set.getKeys();
+        for (int i = 0; i < keys.size(); i++) {
+            result.put(keys.get(i), Double.isNaN(values[i]) ? null : values[i]);
+        }
+        return result;
+    }
+
+    /**
+     * @return The number of prices currently held, at most the history capacity.
+     */
+    public int size() {
+        return currentHistory().size();
+    }
+
+    public int getHistoryCapacity() {
+        return currentHistory().getCapacity();
+    }
+
+    private TickHistory currentHistory() {
+        return readField(() -> history);
+    }
+
+    // Read state guarded by the writer lock, optimistically at first
+    private <T> T readField(Supplier<T> field) {
+        for (int attempt = 0; attempt < OPTIMISTIC_READ_ATTEMPTS; attempt++) {
+            long stamp = lock.tryOptimisticRead();
+            T value = field.get();
+            if (lock.validate(stamp)) {
+                return value;
+            }
+            Thread.onSpinWait();
+        }
+        long stamp = lock.readLock();
+        try {
+            return field.get();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Run {@code reader} on a view of the most recent {@code maxCount} prices and return its result
+     * if the view was not overwritten while it ran. A run that throws on a view that was overwritten
+     * is retried like any other. After {@value #OPTIMISTIC_READ_ATTEMPTS} overwrites the view is
+     * copied under the read lock instead, which is the one case where a reader holds up a writer,
+     * for the length of the copy but not of the analysis. {@code reader} must not keep references
+     * to the buffers.
+     */
+    private <T> T readHistory(int maxCount, Function<TickWindow, T> reader) {
+        return read(() -> history, maxCount, reader);
+    }
+
+    /**
+     * {@link #readHistory(int, Function)} over the history held in {@code field}, which may be
+     * {@code null}: that reads as an empty window.
+     */
+    private <T> T read(Supplier<TickHistory> field, int maxCount, Function<TickWindow, T> reader) {
+        for (int attempt = 0; attempt < OPTIMISTIC_READ_ATTEMPTS; attempt++) {
+            TickHistory source = readField(field);
+            TickWindow view = source != null ? source.window(maxCount) : EMPTY_WINDOW;
+            T result;
+            try {
+                result = reader.apply(view);
+            } catch (RuntimeException e) {
+                // A torn view can make the reader fail; only a failure on intact prices is real
+                if (view.isIntact()) {
+                    throw e;
+                }
+                Thread.onSpinWait();
+                continue;
+            }
+            if (view.isIntact()) {
+                return result;
+            }
+            Thread.onSpinWait();
+        }
+        // Still losing to the writer: hold it off only for as long as the copy takes
+        TickWindow copy;
+        long stamp = lock.readLock();
+        try {
+            TickHistory source = field.get();
+            copy = source != null ? source.window(maxCount).copy() : EMPTY_WINDOW;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+        return reader.apply(copy);
+    }
+
+    private <T> T readHistory(Function<TickWindow, T> reader) {
+        return readHistory(Integer.MAX_VALUE, reader);
+    }
+
+    /**
+     * @return A read-only view of the retained prices, shared with {@link #getTimeSeriesData()}.
+     */
     public List<Double> getValues() {
-        return new ArrayList<>(values);
+        return getTimeSeriesData().getValues();
     }
 
+    /**
+     * @return A read-only view of the retained timestamps, shared with {@link #getTimeSeriesData()}.
+     */
     public List<Long> getTimestamps() {
-        return new ArrayList<>(timestamps);
+        return getTimeSeriesData().getTimestamps();
     }
 
+    /**
+     * Get an immutable snapshot of the retained history. The history is copied once per
+     * modification: until the next price arrives, every caller gets the same snapshot, and its
+     * getters are views rather than copies.
+     *
+     * @return The retained prices and their timestamps.
+     */
     public TimeSeriesData getTimeSeriesData() {
-        return new TimeSeriesData(values, timestamps);
+        long version = modVersion;
+        Snapshot snapshot = this.snapshot;
+        if (snapshot != null && snapshot.version == version) {
+            return snapshot.data;
+        }
+
+        TimeSeriesData data = readHistory(TimeSeriesAnalysis::copyWindow);
+        // Writers bump the version after appending, so a snapshot taken while it stayed unchanged
+        // holds at least everything up to that version
+        if (modVersion == version) {
+            this.snapshot = new Snapshot(version, data);
+        }
+        return data;
+    }
+
+    /**
+     * Get an immutable snapshot of the streaming filter's output for the retained history, shared
+     * between callers until the next price like {@link #getTimeSeriesData()}. No filtering happens
+     * here; the output was computed as the prices arrived.
+     *
+     * @return The filtered prices and their timestamps, or {@code null} if the streaming filter is disabled.
+     */
+    public TimeSeriesData getFilteredTimeSeriesData() {
+        long version = modVersion;
+        Snapshot snapshot = this.filteredSnapshot;
+        if (snapshot != null && snapshot.version == version) {
+            return snapshot.data;
+        }
+        if (!isStreamingFilterEnabled()) {
+            return null;
+        }
+
+        TimeSeriesData data = read(() -> filteredHistory, Integer.MAX_VALUE, TimeSeriesAnalysis::copyWindow);
+        if (modVersion == version) {
+            this.filteredSnapshot = new Snapshot(version, data);
+        }
+        return data;
+    }
+
+    private static TimeSeriesData copyWindow(TickWindow window) {
+        double[] values = new double[window.size()];
+        long[] timestamps = new long[window.size()];
+        window.values().get(0, values);
+        window.timestamps().get(0, timestamps);
+        return TimeSeriesData.wrap(values, timestamps);
+    }
+
+    /**
+     * @return A counter that changes whenever the retained history does.
+     */
+    public long getModVersion() {
+        return modVersion;
+    }
+
+    /**
+     * Keep at most {@code maxEntries} derived results, such as spectra and filtered series, for
+     * repeated requests between two prices. Results already cached are dropped.
+     *
+     * @param maxEntries The number of results kept, 0 to recompute every request.
+     */
+    public void setResultCacheSize(int maxEntries) {
+        VersionedResultCache previous = resultCache;
+        resultCache = new VersionedResultCache(maxEntries);
+        previous.clear();
+    }
+
+    public int getResultCacheSize() {
+        return resultCache.getMaxEntries();
+    }
+
+    // The result of the current version, computed at most once while no price arrives
+    private <T> T cached(Object key, Supplier<T> compute) {
+        return resultCache.get(key, modVersion, () -> modVersion, compute);
     }
 
     /**
@@ -153,7 +708,7 @@ public class TimeSeriesAnalysis {
      * @return The complex FFT result.
      */
     public Complex[] calculateFourierTransform() {
-        return fourierTransformer.calculateFourierTransform(values, timestamps);
+        return readHistory(history -> fourierTransformer.calculateFourierTransform(history.values()));
     }
 
     /**
@@ -162,7 +717,8 @@ public class TimeSeriesAnalysis {
      * @return The sampling frequency in Hz.
      */
     public double calculateSamplingFrequency() {
-        return fourierTransformer.calculateSamplingFrequency(timestamps);
+        return readHistory(history ->
+                fourierTransformer.calculateSamplingFrequency(history.timestamps()));
     }
 
     /**
@@ -171,9 +727,169 @@ public class TimeSeriesAnalysis {
      * @return A list of Fourier Transform magnitudes and frequencies.
      */
     public List<Double[]> getFrequencyMagnitudePairs() {
-        Complex[] fftResult = calculateFourierTransform();
-        double samplingFrequency = calculateSamplingFrequency();
-        return fourierTransformer.getFrequencyMagnitudePairs(fftResult, samplingFrequency);
+        return getFrequencyMagnitudePairs(WindowFunction.RECTANGULAR);
+    }
+
+    /**
+     * Get frequency-magnitude pairs of the spectrum tapered by a window, see
+     * {@link #getFrequencySpectrum(WindowFunction)}.
+     *
+     * @return A list of Fourier Transform magnitudes and frequencies.
+     */
+    public List<Double[]> getFrequencyMagnitudePairs(WindowFunction window) {
+        FrequencySpectrum spectrum = getFrequencySpectrum(window);
+        List<Double[]> fmPairs = new ArrayList<>(spectrum.size());
+        for (int k = 0; k < spectrum.size(); k++) {
+            fmPairs.add(new Double[]{spectrum.getFrequency(k), spectrum.getMagnitude(k)});
+        }
+        return fmPairs;
+    }
+
+    /**
+     * Get the magnitude spectrum of the retained history, or of the streaming window when the
+     * streaming spectrum is enabled, without boxing its bins.
+     *
+     * @return The frequencies in Hz and their magnitudes.
+     */
+    public FrequencySpectrum getFrequencySpectrum() {
+        return getFrequencySpectrum(WindowFunction.RECTANGULAR);
+    }
+
+    /**
+     * Get the magnitude spectrum of the retained history tapered by a window, with the magnitudes
+     * corrected for the window's coherent gain. When the streaming spectrum is enabled, the
+     * rectangular window reads it, and other windows transform the same most recent values.
+     * Repeated calls before the next price share one result.
+     *
+     * @param window The window applied to the values before their transform.
+     * @return The frequencies in Hz and their magnitudes.
+     */
+    public FrequencySpectrum getFrequencySpectrum(WindowFunction window) {
+        return cached(new SpectrumKey(window), () -> computeFrequencySpectrum(window));
+    }
+
+    private FrequencySpectrum computeFrequencySpectrum(WindowFunction window) {
+        int streamingWindow = streamingWindowSize();
+        if (streamingWindow > 0 && window == WindowFunction.RECTANGULAR) {
+            return getStreamingFrequencySpectrum();
+        }
+
+        return readHistory(streamingWindow > 0 ? streamingWindow : Integer.MAX_VALUE, history -> {
+            double[] real = new double[fourierTransformer.spectrumSize(history.size())];
+            double[] imag = new double[fourierTransformer.spectrumSize(history.size())];
+            int transformSize = fourierTransformer.calculateFourierTransform(history.values(), window, real, imag);
+            if (transformSize == 0) {
+                return FrequencySpectrum.EMPTY;
+            }
+
+            double[] frequencies = new double[(transformSize + 1) / 2];
+            double[] magnitudes = new double[(transformSize + 1) / 2];
+            double samplingFrequency = fourierTransformer.calculateSamplingFrequency(history.timestamps());
+            int count = fourierTransformer.getFrequencyMagnitudePairs(real, imag, transformSize, samplingFrequency,
+                    fourierTransformer.coherentGain(window, history.size()), frequencies, magnitudes);
+            return FrequencySpectrum.wrap(frequencies, magnitudes, count, samplingFrequency);
+        });
+    }
+
+    private FrequencySpectrum getStreamingFrequencySpectrum() {
+        double[] frequencies = null;
+        double[] magnitudes = null;
+        int windowCount = 0;
+        int count = 0;
+        boolean valid = false;
+
+        // The spectrum bins change on every tick, so they are copied inside the optimistic read;
+        // frequencies come back in cycles per sample and are scaled to Hz once the copy is valid
+        for (int attempt = 0; attempt < OPTIMISTIC_READ_ATTEMPTS && !valid; attempt++) {
+            long stamp = lock.tryOptimisticRead();
+            SlidingDftSpectrum spectrum = streamingSpectrum;
+            if (spectrum != null) {
+                if (frequencies == null || frequencies.length < spectrum.getBinCount()) {
+                    frequencies = new double[spectrum.getBinCount()];
+                    magnitudes = new double[spectrum.getBinCount()];
+                }
+                windowCount = spectrum.getSampleCount();
+                count = spectrum.getFrequencyMagnitudePairs(1.0, frequencies, magnitudes);
+            }
+            valid = lock.validate(stamp);
+            if (valid && spectrum == null) {
+                // Disabled since the caller checked
+                return getFrequencySpectrum();
+            }
+            if (!valid) {
+                Thread.onSpinWait();
+            }
+        }
+        if (!valid) {
+            boolean disabled;
+            long stamp = lock.readLock();
+            try {
+                SlidingDftSpectrum spectrum = streamingSpectrum;
+                disabled = spectrum == null;
+                if (!disabled) {
+                    frequencies = new double[spectrum.getBinCount()];
+                    magnitudes = new double[spectrum.getBinCount()];
+                    windowCount = spectrum.getSampleCount();
+                    count = spectrum.getFrequencyMagnitudePairs(1.0, frequencies, magnitudes);
+                }
+            } finally {
+                lock.unlockRead(stamp);
+            }
+            if (disabled) {
+                return getFrequencySpectrum();
+            }
+        }
+        if (windowCount == 0) {
+            return FrequencySpectrum.EMPTY;
+        }
+
+        // Sampling frequency of the values currently inside the window, as far as they are retained
+        double samplingFrequency = readHistory(windowCount, history ->
+                fourierTransformer.calculateSamplingFrequency(history.timestamps()));
+        if (samplingFrequency == 0) {
+            log.error("Invalid sampling frequency. Sampling frequency must not be 0.");
+            return FrequencySpectrum.EMPTY;
+        }
+
+        for (int k = 0; k < count; k++) {
+            frequencies[k] *= samplingFrequency;
+        }
+        return FrequencySpectrum.wrap(frequencies, magnitudes, count, samplingFrequency);
+    }
+
+    /**
+     * Get the spectrogram of the retained history: the power spectral density of each whole
+     * segment, as cut by {@code spec}. Segments transformed by earlier calls with the same spec
+     * are reused, so after new prices arrive only the segments they complete are transformed.
+     *
+     * @return The density of each segment, oldest first.
+     */
+    public Spectrogram getSpectrogram(SpectrogramSpec spec) {
+        SpectrogramEngine engine = spectrogramEngine(spec);
+        return readHistory(history -> engine.compute(history,
+                fourierTransformer.calculateSamplingFrequency(history.timestamps())));
+    }
+
+    /**
+     * Get the Welch PSD estimate of the retained history: the average of its spectrogram segments.
+     *
+     * @return The frequencies in Hz and their power spectral densities, as magnitudes.
+     */
+    public FrequencySpectrum getWelchPsd(SpectrogramSpec spec) {
+        return getSpectrogram(spec).welch();
+    }
+
+    private SpectrogramEngine spectrogramEngine(SpectrogramSpec spec) {
+        Map<SpectrogramSpec, SpectrogramEngine> engines = spectrogramEngines;
+        SpectrogramEngine engine = engines.get(spec);
+        if (engine != null) {
+            return engine;
+        }
+        if (engines.size() >= MAX_SPECTROGRAM_ENGINES) {
+            // Too many specs in use to cache them all; transform every segment of this one
+            return new SpectrogramEngine(spec);
+        }
+        return engines.computeIfAbsent(spec, SpectrogramEngine::new);
     }
 
     /**
@@ -186,23 +902,109 @@ public class TimeSeriesAnalysis {
      * @return The filtered time series data
      */
     public TimeSeriesData applyFilter(double lowCutoff, double highCutoff, int order, String filterType) {
-        List<List<Double>> filtered = fourierTransformer.filterTimeSeries(values, timestamps,
-                lowCutoff, highCutoff, order, filterType);
+        FilterType type = FilterType.parse(filterType);
+        if (type != null) {
+            return applyFilter(lowCutoff, highCutoff, order, type);
+        }
+        return readHistory(history -> {
+            double[] filteredValues = new double[history.size()];
+            double[] filteredTimes = new double[history.size()];
+            int count = fourierTransformer.filterTimeSeries(history.values(), history.timestamps(),
+                    lowCutoff, highCutoff, order, filterType, filteredValues, filteredTimes);
+            return toTimeSeriesData(filteredValues, filteredTimes, count);
+        });
+    }
+
+    /**
+     * Apply filtering to the current time series data. Repeated calls with the same parameters
+     * before the next price share one result.
+     *
+     * @return The filtered time series data
+     */
+    public TimeSeriesData applyFilter(double lowCutoff, double highCutoff, int order, FilterType filterType) {
+        return cached(new FilterKey(false, filterType, lowCutoff, highCutoff, order), () -> readHistory(history -> {
+            double[] filteredValues = new double[history.size()];
+            double[] filteredTimes = new double[history.size()];
+            int count = fourierTransformer.filterTimeSeries(history.values(), history.timestamps(),
+                    lowCutoff, highCutoff, order, filterType, filteredValues, filteredTimes);
+            return toTimeSeriesData(filteredValues, filteredTimes, count);
+        }));
+    }
 
-        // Convert doubles to longs using collect instead of toList()
-        List<Long> filteredTimestamps = filtered.get(1).stream()
-                .mapToLong(Math::round)
-                .boxed()
-                .collect(Collectors.toList());
+    /**
+     * Filter the current time series with an IIR Butterworth filter run forwards and then
+     * backwards: no phase delay, and O(order) per price instead of an FFT round trip. The
+     * magnitude response is that of the filter squared. Repeated calls with the same parameters
+     * before the next price share one result.
+     *
+     * @param lowCutoff The lower cutoff frequency, used by high-pass and band-pass filters
+     * @param highCutoff The higher cutoff frequency, used by low-pass and band-pass filters
+     * @param order The filter order
+     * @param filterType The filter type
+     * @return The filtered time series data, with the original timestamps
+     */
+    public TimeSeriesData applyZeroPhaseFilter(double lowCutoff, double highCutoff, int order, FilterType filterType) {
+        return cached(new FilterKey(true, filterType, lowCutoff, highCutoff, order), () -> readHistory(history -> {
+            if (history.size() < 2) {
+                return copyWindow(history);
+            }
+            double samplingFrequency = fourierTransformer.calculateSamplingFrequency(history.timestamps());
+            BiquadCascade cascade = BiquadCascade.butterworth(filterType, samplingFrequency, lowCutoff, highCutoff,
+                    order);
+            double[] filteredValues = new double[history.size()];
+            long[] timestamps = new long[history.size()];
+            cascade.filtfilt(history.values(), filteredValues);
+            history.timestamps().get(0, timestamps);
+            return TimeSeriesData.wrap(filteredValues, timestamps);
+        }));
+    }
 
-        return new TimeSeriesData(filtered.get(0), filteredTimestamps);
+    private static TimeSeriesData toTimeSeriesData(double[] filteredValues, double[] filteredTimes, int count) {
+        long[] timestamps = new long[count];
+        for (int i = 0; i < count; i++) {
+            timestamps[i] = Math.round(filteredTimes[i]);
+        }
+        return TimeSeriesData.wrap(filteredValues, timestamps, 0, count);
+    }
+
+    /**
+     * Release the history's storage, flushing a persistent history to disk.
+     */
+    public void close() {
+        long stamp = lock.writeLock();
+        try {
+            history.close();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+        resultCache.clear();
     }
 
     public void generateSampleData() {
-        // Clear existing data
-        values.clear();
-        timestamps.clear();
+        long stamp = lock.writeLock();
+        try {
+            // Clear existing data; views taken by readers stay readable
+            history = history.reset();
+            smaWindow.reset();
+            lastSMA = null;
+            lastEMA = null;
+            indicators.reset();
+            if (streamingSpectrum != null) {
+                streamingSpectrum.reset();
+            }
+            spectrogramEngines = new ConcurrentHashMap<>();
+            if (streamingFilter != null) {
+                streamingFilter.reset();
+                filteredHistory = filteredHistory.reset();
+            }
+            modVersion++;
+            appendSampleData();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
 
+    private void appendSampleData() {
         // Generate 100 data points of a composite signal
         double frequency1 = 0.1;  // Hz
         double frequency2 = 0.5;  // Hz
@@ -217,7 +1019,7 @@ public class TimeSeriesAnalysis {
                     + 0.2 * Math.random();  // Random noise
 
             long timestamp = System.currentTimeMillis() - (numPoints - i) * 1000; // timestamps in past
-            addPrice(value, timestamp);
+            appendPrice(value, 0.0, timestamp);
         }
     }
 }
\ No newline at end of file
@@ -1,43 +1,149 @@
 package com.example.analysis.service;
 
+import jakarta.annotation.PreDestroy;
 import org.springframework.stereotype.Service;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import com.example.analysis.model.TimeSeriesData;
+import com.example.analysis.service.fft.PaddingPolicy;
+import com.example.analysis.service.fft.WindowFunction;
+import com.example.analysis.service.filter.FilterType;
+import com.example.analysis.service.filter.StreamingFilterFactory;
+import com.example.analysis.service.history.TickHistoryFactory;
+import com.example.analysis.service.indicator.IndicatorSpec;
 
-import java.util.HashMap;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.List;
-import java.util.ArrayList;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Per-symbol time series analyses.
+ * <p>
+ * Safe for concurrent use: symbols live in a {@link ConcurrentHashMap}, and each
+ * {@link TimeSeriesAnalysis} serializes its own writers while readers work on lock-free snapshots,
+ * so ingestion for different symbols runs in parallel and queries never hold up ingestion.
+ */
 @Service
 public class TimeSeriesAnalysisService {
     private static final Logger logger = LoggerFactory.getLogger(TimeSeriesAnalysisService.class);
 
     private final FourierTransformerService fourierTransformer;
     private final Map<String, TimeSeriesAnalysis> analysisBySymbol;
+    private final int streamingSpectrumWindow;
+    private final PaddingPolicy paddingPolicy;
+    private final TickHistoryFactory historyFactory;
+    private final StreamingFilterFactory filterFactory;
+    private final int resultCacheEntries;
+    private final List<IndicatorSpec> defaultIndicators;
 
-    @Autowired
     public TimeSeriesAnalysisService(FourierTransformerService fourierTransformer) {
+        this(fourierTransformer, 0);
+    }
+
+    public TimeSeriesAnalysisService(FourierTransformerService fourierTransformer, int streamingSpectrumWindow) {
+        this(fourierTransformer, streamingSpectrumWindow, PaddingPolicy.NEXT_POWER_OF_TWO,
+                TickHistoryFactory.heap(TimeSeriesAnalysis.DEFAULT_HISTORY_CAPACITY), StreamingFilterFactory.disabled(),
+                TimeSeriesAnalysis.DEFAULT_RESULT_CACHE_ENTRIES, "");
+    }
+
+    /**
+     * @param streamingSpectrumWindow If positive, every symbol maintains a streaming spectrum over
+     *                                this many of its most recent prices instead of transforming its
+     *                                whole history on each Fourier analysis request.
+     * @param paddingPolicy How each symbol's history is padded before its FFT.
+     * @param historyFactory Creates each symbol's price history. Symbols that already have a
+     *                       persistent history are opened right away.
+     * @param filterFactory The streaming filter each symbol keeps its prices filtered by, if any.
+     * @param resultCacheEntries The number of spectra and filtered series each symbol keeps for
+     *                           repeated requests between two prices, 0 to disable.
+     * @param defaultIndicators The indicators every new symbol starts with, e.g.
+     *                          {@code "RSI(14), MACD(12,26,9)"}; see {@link IndicatorSpec#parseList(String)}.
+     */
+    @Autowired
+    public TimeSeriesAnalysisService(
+            FourierTransformerService fourierTransformer,
+            @Value("${timeseries.spectrum.streaming-window:0}") int streamingSpectrumWindow,
+            @Value("${timeseries.fft.padding:NEXT_POWER_OF_TWO}") PaddingPolicy paddingPolicy,
+            TickHistoryFactory historyFactory,
+            StreamingFilterFactory filterFactory,
+            @Value("${timeseries.cache.max-entries:16}") int resultCacheEntries,
+            @Value("${timeseries.indicators:}") String defaultIndicators
+    ) {
         this.fourierTransformer = fourierTransformer;
-        this.analysisBySymbol = new HashMap<>();
-        logger.info("Initialized TimeSeriesAnalysisService");
+        this.analysisBySymbol = new ConcurrentHashMap<>();
+        this.streamingSpectrumWindow = streamingSpectrumWindow;
+        this.paddingPolicy = paddingPolicy;
+        this.historyFactory = historyFactory;
+        this.filterFactory = filterFactory;
+        this.resultCacheEntries = resultCacheEntries;
+        this.defaultIndicators = IndicatorSpec.parseList(defaultIndicators);
+        logger.info("Initialized TimeSeriesAnalysisService with streaming spectrum window: {}, FFT padding: {} "
+                + "history capacity: {}, result cache entries: {} and indicators: {}", streamingSpectrumWindow,
+                paddingPolicy, historyFactory.getCapacity(), resultCacheEntries, this.defaultIndicators);
+        for (String symbol : historyFactory.storedSymbols()) {
+            getOrCreateAnalysis(symbol);
+        }
     }
 
     public TimeSeriesAnalysis getOrCreateAnalysis(String symbol) {
         return analysisBySymbol.computeIfAbsent(symbol, k -> {
             logger.info("Creating new time series analysis for symbol: {}", symbol);
-            return new TimeSeriesAnalysis(20, 50, new ArrayList<>(), new ArrayList<>());
+            TimeSeriesAnalysis analysis = new TimeSeriesAnalysis(20, 50, paddingPolicy,
+                    historyFactory.create(symbol));
+            if (resultCacheEntries != analysis.getResultCacheSize()) {
+                analysis.setResultCacheSize(resultCacheEntries);
+            }
+            if (streamingSpectrumWindow > 0) {
+                analysis.enableStreamingSpectrum(streamingSpectrumWindow);
+            }
+            if (filterFactory.isEnabled()) {
+                analysis.enableStreamingFilter(filterFactory.getCascade());
+            }
+            if (!defaultIndicators.isEmpty()) {
+                analysis.setIndicators(defaultIndicators);
+            }
+            return analysis;
         });
     }
 
+    /**
+     * Look up the analysis for a symbol without creating one.
+     *
+     * @return The symbol's analysis, or {@code null} if no data has been seen for it.
+     */
+    public TimeSeriesAnalysis findAnalysis(String symbol) {
+        return analysisBySymbol.get(symbol);
+    }
+
     public void addPrice(String symbol, double price, long timestamp) {
         TimeSeriesAnalysis analysis = getOrCreateAnalysis(symbol);
         analysis.addPrice(price, timestamp);
         logger.debug("Added price {} for symbol {} at timestamp {}", price, symbol, timestamp);
     }
 
+    public void addPrice(String symbol, double price, double volume, long timestamp) {
+        getOrCreateAnalysis(symbol).addPrice(price, volume, timestamp);
+        logger.debug("Added price {} with volume {} for symbol {} at timestamp {}", price, volume, symbol, timestamp);
+    }
+
+    /**
+     * Replace the indicators of one symbol, creating the symbol if it has no data yet.
+     *
+     * @throws IllegalArgumentException If a spec's parameters are out of range.
+     */
+    public void configureIndicators(String symbol, List<IndicatorSpec> specs) {
+        getOrCreateAnalysis(symbol).setIndicators(specs);
+        logger.info("Configured indicators {} for symbol {}", specs, symbol);
+    }
+
+    public Map<String, Double> getIndicatorValues(String symbol) {
+        return getOrCreateAnalysis(symbol).getIndicatorValues();
+    }
+
     public Double getLastSMA(String symbol) {
         return getOrCreateAnalysis(symbol).getLastSMA();
     }
@@ -47,8 +153,15 @@ public class TimeSeriesAnalysisService {
     }
 
     public List<Double[]> getFourierAnalysis(String symbol) {
-        logger.info("Performing Fourier analysis for symbol: {}", symbol);
-        return getOrCreateAnalysis(symbol).getFrequencyMagnitudePairs();
+        return getFourierAnalysis(symbol, WindowFunction.RECTANGULAR);
+    }
+
+    /**
+     * @param window The window applied before the transform; magnitudes are corrected for its gain.
+     */
+    public List<Double[]> getFourierAnalysis(String symbol, WindowFunction window) {
+        logger.info("Performing Fourier analysis for symbol: {} with {} window", symbol, window);
+        return getOrCreateAnalysis(symbol).getFrequencyMagnitudePairs(window);
     }
 
     public TimeSeriesData getTimeSeriesData(String symbol) {
@@ -59,4 +172,28 @@ public class TimeSeriesAnalysisService {
                                       int order, String filterType) {
         return getOrCreateAnalysis(symbol).applyFilter(lowCutoff, highCutoff, order, filterType);
     }
-}
\ No newline at end of file
+
+    /**
+     * Apply one filter configuration to many symbols. The filter is compiled once per series
+     * length and sampling frequency and shared by every symbol that matches.
+     *
+     * @return The filtered series by symbol, in the iteration order of {@code symbols}.
+     */
+    public Map<String, TimeSeriesData> applyFilter(Collection<String> symbols, double lowCutoff, double highCutoff,
+                                                   int order, FilterType filterType) {
+        Map<String, TimeSeriesData> result = new LinkedHashMap<>();
+        for (String symbol : symbols) {
+            result.put(symbol, getOrCreateAnalysis(symbol).applyFilter(lowCutoff, highCutoff, order, filterType));
+        }
+        logger.info("Applied {} filter to {} symbols", filterType, result.size());
+        return result;
+    }
+
+    /**
+     * Close every symbol's history, flushing persistent ones to disk.
+     */
+    @PreDestroy
+    public void close() {
+        analysisBySymbol.values().forEach(TimeSeriesAnalysis::close);
+    }
+}
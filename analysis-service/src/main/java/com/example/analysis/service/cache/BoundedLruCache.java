@@ -0,0 +1,133 @@
+package com.example.analysis.service.cache;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * A thread-safe cache of immutable values derived from small keys, such as FFT plans, window tables
+ * and compiled filters, that holds at most {@code maxEntries} values and evicts the least recently
+ * used one to make room for a new key.
+ * <p>
+ * Hits do not lock: each entry records when it was last used, and the eviction that follows a miss
+ * scans for the oldest entry. Values are computed outside the map, so a slow computation holds up
+ * no other key and may itself use the cache. Callers missing the same key at once may each compute
+ * it, but all of them get the value that was stored first. A budget of 0 disables caching.
+ *
+ * @param <K> The key type; must implement equals and hashCode.
+ * @param <V> The value type; values are shared between callers and must be immutable.
+ */
+public class BoundedLruCache<K, V> {
+    private final Map<K, Node<V>> entries = new ConcurrentHashMap<>();
+    private final int maxEntries;
+    private final AtomicLong clock = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    private static final class Node<V> {
+        final V value;
+        volatile long lastUsed;
+
+        Node(V value) {
+            this.value = value;
+        }
+    }
+
+    /**
+     * @param maxEntries The number of values kept, 0 to cache nothing.
+     */
+    public BoundedLruCache(int maxEntries) {
+        if (maxEntries < 0) {
+            throw new IllegalArgumentException("Cache size must not be negative, got " + maxEntries);
+        }
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Get the value for {@code key}, computing it on a miss.
+     *
+     * @param compute Computes the value of a key; called without holding any lock of the cache.
+     * @return The cached or computed value.
+     */
+    public V get(K key, Function<? super K, ? extends V> compute) {
+        Node<V> node = entries.get(key);
+        if (node != null) {
+            hits.increment();
+            node.lastUsed = clock.incrementAndGet();
+            return node.value;
+        }
+
+        misses.increment();
+        if (maxEntries == 0) {
+            return compute.apply(key);
+        }
+        Node<V> computed = new Node<>(compute.apply(key));
+        computed.lastUsed = clock.incrementAndGet();
+        node = entries.putIfAbsent(key, computed);
+        if (node != null) {
+            // Another caller stored it first; share that value
+            node.lastUsed = clock.incrementAndGet();
+            return node.value;
+        }
+        if (entries.size() > maxEntries) {
+            evict();
+        }
+        return computed.value;
+    }
+
+    private synchronized void evict() {
+        while (entries.size() > maxEntries) {
+            K eldestKey = null;
+            Node<V> eldest = null;
+            for (Map.Entry<K, Node<V>> entry : entries.entrySet()) {
+                Node<V> node = entry.getValue();
+                if (eldest == null || node.lastUsed < eldest.lastUsed) {
+                    eldestKey = entry.getKey();
+                    eldest = node;
+                }
+            }
+            if (eldest == null) {
+                return;
+            }
+            if (entries.remove(eldestKey, eldest)) {
+                evictions.increment();
+            }
+        }
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * @return The number of values dropped to stay within the cache's entry budget.
+     */
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    /**
+     * Drop every value and reset the counters.
+     */
+    public void clear() {
+        entries.clear();
+        hits.reset();
+        misses.reset();
+        evictions.reset();
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.analysis.service.cache;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters shared by every symbol's {@link VersionedResultCache}, so that the hit ratio of cached
+ * analysis results can be reported process-wide through {@link #shared()}.
+ */
+public class ResultCacheStats {
+    private static final ResultCacheStats SHARED = new ResultCacheStats();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder entries = new LongAdder();
+
+    /**
+     * @return The process-wide statistics.
+     */
+    public static ResultCacheStats shared() {
+        return SHARED;
+    }
+
+    void recordHit() {
+        hits.increment();
+    }
+
+    void recordMiss() {
+        misses.increment();
+    }
+
+    void recordEviction() {
+        evictions.increment();
+    }
+
+    void addEntries(int count) {
+        entries.add(count);
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * @return The number of current results dropped to stay within a cache's entry budget.
+     */
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * @return The number of results currently held across all caches.
+     */
+    public long getEntryCount() {
+        return entries.sum();
+    }
+
+    /**
+     * @return The fraction of lookups served from a cache, or 0 before the first lookup.
+     */
+    public double getHitRatio() {
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+        return total == 0 ? 0.0 : (double) hitCount / total;
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.analysis.service.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * A small LRU cache of results derived from one symbol's history, each stored with the
+ * modification version of the history it was computed from.
+ * <p>
+ * A lookup only hits if the result was computed at the version the caller asks for, so a new
+ * price invalidates every entry without the writer touching the cache: stale entries are dropped
+ * as soon as a result for a newer version is stored. At most {@code maxEntries} results are kept;
+ * beyond that the least recently used one is evicted. A budget of 0 disables caching.
+ * <p>
+ * Thread-safe. Results are computed outside the cache's lock, so two callers missing the same key
+ * at once may both compute it. Cached results are shared between callers and must be immutable.
+ */
+public class VersionedResultCache {
+    private final int maxEntries;
+    private final ResultCacheStats stats;
+    private final LinkedHashMap<Object, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private record Entry(long version, Object value) {
+    }
+
+    public VersionedResultCache(int maxEntries) {
+        this(maxEntries, ResultCacheStats.shared());
+    }
+
+    /**
+     * @param maxEntries The number of results kept, 0 to cache nothing.
+     * @param stats Where hits, misses and evictions are counted.
+     */
+    public VersionedResultCache(int maxEntries, ResultCacheStats stats) {
+        if (maxEntries < 0) {
+            throw new IllegalArgumentException("Result cache size must not be negative, got " + maxEntries);
+        }
+        this.maxEntries = maxEntries;
+        this.stats = stats;
+    }
+
+    /**
+     * Get the result for {@code key} at the given version, computing it on a miss.
+     *
+     * @param key Identifies the result and every parameter it depends on; must implement equals and hashCode.
+     * @param version The modification version the result must reflect.
+     * @param versionAfter Reads the version again once a result has been computed; the result is
+     *                     only cached if it has not moved on, since the computation may otherwise
+     *                     have seen prices of a later version.
+     * @param compute Computes the result.
+     * @return The cached or computed result.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, long version, LongSupplier versionAfter, Supplier<T> compute) {
+        if (maxEntries == 0) {
+            stats.recordMiss();
+            return compute.get();
+        }
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.version == version) {
+                stats.recordHit();
+                return (T) entry.value;
+            }
+        }
+
+        stats.recordMiss();
+        T result = compute.get();
+        if (result != null && versionAfter.getAsLong() == version) {
+            put(key, version, result);
+        }
+        return result;
+    }
+
+    private synchronized void put(Object key, long version, Object value) {
+        int before = entries.size();
+        // Versions only move forward, so results of an older one will never be read again
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().version < version) {
+                iterator.remove();
+            }
+        }
+        Entry previous = entries.get(key);
+        if (previous != null && previous.version > version) {
+            stats.addEntries(entries.size() - before);
+            return;
+        }
+        entries.put(key, new Entry(version, value));
+        if (entries.size() > maxEntries) {
+            Iterator<Map.Entry<Object, Entry>> eldest = entries.entrySet().iterator();
+            eldest.next();
+            eldest.remove();
+            stats.recordEviction();
+        }
+        stats.addEntries(entries.size() - before);
+    }
+
+    /**
+     * Drop every cached result.
+     */
+    public synchronized void clear() {
+        stats.addEntries(-entries.size());
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+}
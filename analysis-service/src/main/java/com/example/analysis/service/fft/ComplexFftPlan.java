@@ -0,0 +1,502 @@
+package com.example.analysis.service.fft;
+
+/**
+ * Complex FFT of one length and direction over split real/imaginary arrays.
+ * <p>
+ * The algorithm is chosen from the length when the plan is built:
+ * <ul>
+ *     <li>powers of two use an in-place iterative radix-2 transform;</li>
+ *     <li>lengths whose only prime factors are 2, 3 and 5 use a Stockham autosort transform with
+ *     radix-4, 2, 3 and 5 passes;</li>
+ *     <li>any other length uses Bluestein's chirp-z algorithm, which rewrites the DFT as a
+ *     convolution evaluated with power-of-two transforms.</li>
+ * </ul>
+ * No normalization is applied in either direction; callers scale the inverse as needed.
+ * Plans are immutable apart from per-thread scratch buffers and are safe to share between threads.
+ */
+final class ComplexFftPlan {
+
+    enum Algorithm {
+        RADIX_2,
+        MIXED_RADIX,
+        BLUESTEIN
+    }
+
+    private static final double SIN_PI_3 = Math.sin(Math.PI / 3);
+    private static final double COS_2PI_5 = Math.cos(2 * Math.PI / 5);
+    private static final double COS_4PI_5 = Math.cos(4 * Math.PI / 5);
+    private static final double SIN_2PI_5 = Math.sin(2 * Math.PI / 5);
+    private static final double SIN_4PI_5 = Math.sin(4 * Math.PI / 5);
+
+    final int size;
+    final boolean inverse;
+    final Algorithm algorithm;
+    private final double sign;
+
+    // Radix-2: bit-reversal permutation and twiddles e^(-/+ j*2*pi*i/size) for i < size/2
+    private int[] bitReversal;
+    private double[] twiddleCos;
+    private double[] twiddleSin;
+
+    // Mixed radix: factorization and roots of unity e^(-/+ j*2*pi*t/size) for all t
+    private int[] factors;
+    private double[] rootCos;
+    private double[] rootSin;
+
+    // Bluestein: chirp c_n = e^(-/+ j*pi*n^2/size), transformed kernel and the convolution plans
+    private double[] chirpCos;
+    private double[] chirpSin;
+    private double[] kernelReal;
+    private double[] kernelImag;
+    private ComplexFftPlan convolutionForward;
+    private ComplexFftPlan convolutionInverse;
+
+    private final ThreadLocal<double[][]> scratch;
+
+    ComplexFftPlan(int size, boolean inverse) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Transform length must be positive, got " + size);
+        }
+        this.size = size;
+        this.inverse = inverse;
+        this.sign = inverse ? 1.0 : -1.0;
+
+        if ((size & (size - 1)) == 0) {
+            this.algorithm = Algorithm.RADIX_2;
+            this.scratch = null;
+            buildRadix2();
+        } else if (isFiveSmooth(size)) {
+            this.algorithm = Algorithm.MIXED_RADIX;
+            this.scratch = ThreadLocal.withInitial(() -> new double[][]{new double[size], new double[size]});
+            buildMixedRadix();
+        } else {
+            this.algorithm = Algorithm.BLUESTEIN;
+            int convolutionSize = Integer.highestOneBit(2 * size - 1);
+            if (convolutionSize < 2 * size - 1) {
+                convolutionSize <<= 1;
+            }
+            int length = convolutionSize;
+            this.scratch = ThreadLocal.withInitial(() -> new double[][]{new double[length], new double[length]});
+            buildBluestein(length);
+        }
+    }
+
+    /**
+     * @return {@code true} if {@code n} has no prime factors other than 2, 3 and 5.
+     */
+    static boolean isFiveSmooth(int n) {
+        if (n <= 0) {
+            return false;
+        }
+        for (int p : new int[]{2, 3, 5}) {
+            while (n % p == 0) {
+                n /= p;
+            }
+        }
+        return n == 1;
+    }
+
+    private void buildRadix2() {
+        bitReversal = new int[size];
+        for (int i = 1, j = 0; i < size; i++) {
+            int bit = size >> 1;
+            for (; (j & bit) != 0; bit >>= 1) {
+                j ^= bit;
+            }
+            j ^= bit;
+            bitReversal[i] = j;
+        }
+
+        twiddleCos = new double[size >> 1];
+        twiddleSin = new double[size >> 1];
+        for (int i = 0; i < twiddleCos.length; i++) {
+            double angle = 2 * Math.PI * i / size;
+            twiddleCos[i] = Math.cos(angle);
+            twiddleSin[i] = sign * Math.sin(angle);
+        }
+    }
+
+    private void buildMixedRadix() {
+        int[] buffer = new int[32];
+        int count = 0;
+        int n = size;
+        while (n % 4 == 0) {
+            buffer[count++] = 4;
+            n /= 4;
+        }
+        for (int p : new int[]{2, 3, 5}) {
+            while (n % p == 0) {
+                buffer[count++] = p;
+                n /= p;
+            }
+        }
+        factors = java.util.Arrays.copyOf(buffer, count);
+
+        rootCos = new double[size];
+        rootSin = new double[size];
+        for (int t = 0; t < size; t++) {
+            double angle = 2 * Math.PI * t / size;
+            rootCos[t] = Math.cos(angle);
+            rootSin[t] = sign * Math.sin(angle);
+        }
+    }
+
+    private void buildBluestein(int length) {
+        chirpCos = new double[size];
+        chirpSin = new double[size];
+        long period = 2L * size;
+        for (int n = 0; n < size; n++) {
+            // n^2 mod 2*size keeps the angle small and exact for large n
+            long square = ((long) n * n) % period;
+            double angle = Math.PI * square / size;
+            chirpCos[n] = Math.cos(angle);
+            chirpSin[n] = sign * Math.sin(angle);
+        }
+
+        convolutionForward = new ComplexFftPlan(length, false);
+        convolutionInverse = new ComplexFftPlan(length, true);
+
+        // Kernel b_n = conj(c_n), wrapped so that b_(-n) sits at length - n
+        kernelReal = new double[length];
+        kernelImag = new double[length];
+        kernelReal[0] = chirpCos[0];
+        kernelImag[0] = -chirpSin[0];
+        for (int n = 1; n < size; n++) {
+            kernelReal[n] = chirpCos[n];
+            kernelImag[n] = -chirpSin[n];
+            kernelReal[length - n] = chirpCos[n];
+            kernelImag[length - n] = -chirpSin[n];
+        }
+        convolutionForward.transform(kernelReal, kernelImag);
+    }
+
+    /**
+     * Transform the first {@link #size} elements of {@code real}/{@code imag} in place.
+     *
+     * @param real The real parts, transformed in place.
+     * @param imag The imaginary parts, transformed in place.
+     */
+    void transform(double[] real, double[] imag) {
+        switch (algorithm) {
+            case RADIX_2:
+                transformRadix2(real, imag);
+                break;
+            case MIXED_RADIX:
+                transformMixedRadix(real, imag);
+                break;
+            default:
+                transformBluestein(real, imag);
+                break;
+        }
+    }
+
+    private void transformRadix2(double[] real, double[] imag) {
+        int n = size;
+        if (n < 2) {
+            return;
+        }
+
+        // Bit-reversal permutation
+        for (int i = 1; i < n; i++) {
+            int j = bitReversal[i];
+            if (i < j) {
+                double tmp = real[i];
+                real[i] = real[j];
+                real[j] = tmp;
+                tmp = imag[i];
+                imag[i] = imag[j];
+                imag[j] = tmp;
+            }
+        }
+
+        // Butterflies
+        double[] cos = twiddleCos;
+        double[] sin = twiddleSin;
+        for (int len = 2; len <= n; len <<= 1) {
+            int halfLen = len >> 1;
+            int stride = n / len;
+            for (int start = 0; start < n; start += len) {
+                for (int k = 0, t = 0; k < halfLen; k++, t += stride) {
+                    int a = start + k;
+                    int b = a + halfLen;
+                    double wr = cos[t];
+                    double wi = sin[t];
+                    double br = real[b] * wr - imag[b] * wi;
+                    double bi = real[b] * wi + imag[b] * wr;
+                    real[b] = real[a] - br;
+                    imag[b] = imag[a] - bi;
+                    real[a] += br;
+                    imag[a] += bi;
+                }
+            }
+        }
+    }
+
+    /**
+     * Stockham autosort decimation in frequency. A pass of radix {@code p} over sub-transforms of
+     * length {@code n = p * m} with stride {@code s} reads {@code x[q + s*(i + r*m)]}, takes the
+     * p-point DFT over r, twiddles output u by {@code W_n^(i*u)} and writes it to
+     * {@code y[q + s*(p*i + u)]}. The result comes out in natural order.
+     */
+    private void transformMixedRadix(double[] real, double[] imag) {
+        double[][] work = scratch.get();
+        double[] xr = real;
+        double[] xi = imag;
+        double[] yr = work[0];
+        double[] yi = work[1];
+
+        int n = size;
+        int s = 1;
+        for (int p : factors) {
+            int m = n / p;
+            int rootStride = size / n;
+            switch (p) {
+                case 2:
+                    pass2(xr, xi, yr, yi, m, s, rootStride);
+                    break;
+                case 3:
+                    pass3(xr, xi, yr, yi, m, s, rootStride);
+                    break;
+                case 4:
+                    pass4(xr, xi, yr, yi, m, s, rootStride);
+                    break;
+                default:
+                    pass5(xr, xi, yr, yi, m, s, rootStride);
+                    break;
+            }
+            double[] tmp = xr;
+            xr = yr;
+            yr = tmp;
+            tmp = xi;
+            xi = yi;
+            yi = tmp;
+            s *= p;
+            n = m;
+        }
+
+        if (xr != real) {
+            System.arraycopy(xr, 0, real, 0, size);
+            System.arraycopy(xi, 0, imag, 0, size);
+        }
+    }
+
+    private void pass2(double[] xr, double[] xi, double[] yr, double[] yi, int m, int s, int rootStride) {
+        for (int i = 0; i < m; i++) {
+            int t = i * rootStride;
+            double w1r = rootCos[t];
+            double w1i = rootSin[t];
+            for (int q = 0; q < s; q++) {
+                int in = q + s * i;
+                double a0r = xr[in];
+                double a0i = xi[in];
+                double a1r = xr[in + s * m];
+                double a1i = xi[in + s * m];
+
+                int out = q + s * 2 * i;
+                yr[out] = a0r + a1r;
+                yi[out] = a0i + a1i;
+                double br = a0r - a1r;
+                double bi = a0i - a1i;
+                yr[out + s] = br * w1r - bi * w1i;
+                yi[out + s] = br * w1i + bi * w1r;
+            }
+        }
+    }
+
+    private void pass3(double[] xr, double[] xi, double[] yr, double[] yi, int m, int s, int rootStride) {
+        double sn = sign * SIN_PI_3;
+        for (int i = 0; i < m; i++) {
+            int t = i * rootStride;
+            double w1r = rootCos[t];
+            double w1i = rootSin[t];
+            double w2r = rootCos[2 * t];
+            double w2i = rootSin[2 * t];
+            for (int q = 0; q < s; q++) {
+                int in = q + s * i;
+                int sm = s * m;
+                double a0r = xr[in];
+                double a0i = xi[in];
+                double a1r = xr[in + sm];
+                double a1i = xi[in + sm];
+                double a2r = xr[in + 2 * sm];
+                double a2i = xi[in + 2 * sm];
+
+                double t1r = a1r + a2r;
+                double t1i = a1i + a2i;
+                double mr = a0r - 0.5 * t1r;
+                double mi = a0i - 0.5 * t1i;
+                // j * sn * (a1 - a2)
+                double dr = -sn * (a1i - a2i);
+                double di = sn * (a1r - a2r);
+
+                int out = q + s * 3 * i;
+                yr[out] = a0r + t1r;
+                yi[out] = a0i + t1i;
+                double b1r = mr + dr;
+                double b1i = mi + di;
+                double b2r = mr - dr;
+                double b2i = mi - di;
+                yr[out + s] = b1r * w1r - b1i * w1i;
+                yi[out + s] = b1r * w1i + b1i * w1r;
+                yr[out + 2 * s] = b2r * w2r - b2i * w2i;
+                yi[out + 2 * s] = b2r * w2i + b2i * w2r;
+            }
+        }
+    }
+
+    private void pass4(double[] xr, double[] xi, double[] yr, double[] yi, int m, int s, int rootStride) {
+        for (int i = 0; i < m; i++) {
+            int t = i * rootStride;
+            double w1r = rootCos[t];
+            double w1i = rootSin[t];
+            double w2r = rootCos[2 * t];
+            double w2i = rootSin[2 * t];
+            double w3r = rootCos[3 * t];
+            double w3i = rootSin[3 * t];
+            for (int q = 0; q < s; q++) {
+                int in = q + s * i;
+                int sm = s * m;
+                double a0r = xr[in];
+                double a0i = xi[in];
+                double a1r = xr[in + sm];
+                double a1i = xi[in + sm];
+                double a2r = xr[in + 2 * sm];
+                double a2i = xi[in + 2 * sm];
+                double a3r = xr[in + 3 * sm];
+                double a3i = xi[in + 3 * sm];
+
+                double s02r = a0r + a2r;
+                double s02i = a0i + a2i;
+                double d02r = a0r - a2r;
+                double d02i = a0i - a2i;
+                double s13r = a1r + a3r;
+                double s13i = a1i + a3i;
+                // sign * j * (a1 - a3)
+                double d13r = -sign * (a1i - a3i);
+                double d13i = sign * (a1r - a3r);
+
+                int out = q + s * 4 * i;
+                yr[out] = s02r + s13r;
+                yi[out] = s02i + s13i;
+                double b1r = d02r + d13r;
+                double b1i = d02i + d13i;
+                double b2r = s02r - s13r;
+                double b2i = s02i - s13i;
+                double b3r = d02r - d13r;
+                double b3i = d02i - d13i;
+                yr[out + s] = b1r * w1r - b1i * w1i;
+                yi[out + s] = b1r * w1i + b1i * w1r;
+                yr[out + 2 * s] = b2r * w2r - b2i * w2i;
+                yi[out + 2 * s] = b2r * w2i + b2i * w2r;
+                yr[out + 3 * s] = b3r * w3r - b3i * w3i;
+                yi[out + 3 * s] = b3r * w3i + b3i * w3r;
+            }
+        }
+    }
+
+    private void pass5(double[] xr, double[] xi, double[] yr, double[] yi, int m, int s, int rootStride) {
+        double s1 = sign * SIN_2PI_5;
+        double s2 = sign * SIN_4PI_5;
+        for (int i = 0; i < m; i++) {
+            int t = i * rootStride;
+            double w1r = rootCos[t];
+            double w1i = rootSin[t];
+            double w2r = rootCos[2 * t];
+            double w2i = rootSin[2 * t];
+            double w3r = rootCos[3 * t];
+            double w3i = rootSin[3 * t];
+            double w4r = rootCos[4 * t];
+            double w4i = rootSin[4 * t];
+            for (int q = 0; q < s; q++) {
+                int in = q + s * i;
+                int sm = s * m;
+                double a0r = xr[in];
+                double a0i = xi[in];
+                double a1r = xr[in + sm];
+                double a1i = xi[in + sm];
+                double a2r = xr[in + 2 * sm];
+                double a2i = xi[in + 2 * sm];
+                double a3r = xr[in + 3 * sm];
+                double a3i = xi[in + 3 * sm];
+                double a4r = xr[in + 4 * sm];
+                double a4i = xi[in + 4 * sm];
+
+                double t1r = a1r + a4r;
+                double t1i = a1i + a4i;
+                double t2r = a2r + a3r;
+                double t2i = a2i + a3i;
+                double t3r = a1r - a4r;
+                double t3i = a1i - a4i;
+                double t4r = a2r - a3r;
+                double t4i = a2i - a3i;
+
+                double c1r = a0r + COS_2PI_5 * t1r + COS_4PI_5 * t2r;
+                double c1i = a0i + COS_2PI_5 * t1i + COS_4PI_5 * t2i;
+                double c2r = a0r + COS_4PI_5 * t1r + COS_2PI_5 * t2r;
+                double c2i = a0i + COS_4PI_5 * t1i + COS_2PI_5 * t2i;
+                // j * (s1*t3 + s2*t4) and j * (s2*t3 - s1*t4)
+                double e1r = -(s1 * t3i + s2 * t4i);
+                double e1i = s1 * t3r + s2 * t4r;
+                double e2r = -(s2 * t3i - s1 * t4i);
+                double e2i = s2 * t3r - s1 * t4r;
+
+                int out = q + s * 5 * i;
+                yr[out] = a0r + t1r + t2r;
+                yi[out] = a0i + t1i + t2i;
+                double b1r = c1r + e1r;
+                double b1i = c1i + e1i;
+                double b4r = c1r - e1r;
+                double b4i = c1i - e1i;
+                double b2r = c2r + e2r;
+                double b2i = c2i + e2i;
+                double b3r = c2r - e2r;
+                double b3i = c2i - e2i;
+                yr[out + s] = b1r * w1r - b1i * w1i;
+                yi[out + s] = b1r * w1i + b1i * w1r;
+                yr[out + 2 * s] = b2r * w2r - b2i * w2i;
+                yi[out + 2 * s] = b2r * w2i + b2i * w2r;
+                yr[out + 3 * s] = b3r * w3r - b3i * w3i;
+                yi[out + 3 * s] = b3r * w3i + b3i * w3r;
+                yr[out + 4 * s] = b4r * w4r - b4i * w4i;
+                yi[out + 4 * s] = b4r * w4i + b4i * w4r;
+            }
+        }
+    }
+
+    /**
+     * X[k] = c_k * sum_n (x_n * c_n) * conj(c_(k-n)), evaluated as a circular convolution of
+     * power-of-two length.
+     */
+    private void transformBluestein(double[] real, double[] imag) {
+        double[][] work = scratch.get();
+        double[] ar = work[0];
+        double[] ai = work[1];
+        int length = ar.length;
+
+        for (int n = 0; n < size; n++) {
+            double xr = real[n];
+            double xi = imag[n];
+            ar[n] = xr * chirpCos[n] - xi * chirpSin[n];
+            ai[n] = xr * chirpSin[n] + xi * chirpCos[n];
+        }
+        java.util.Arrays.fill(ar, size, length, 0.0);
+        java.util.Arrays.fill(ai, size, length, 0.0);
+
+        convolutionForward.transform(ar, ai);
+        for (int k = 0; k < length; k++) {
+            double xr = ar[k];
+            double xi = ai[k];
+            ar[k] = xr * kernelReal[k] - xi * kernelImag[k];
+            ai[k] = xr * kernelImag[k] + xi * kernelReal[k];
+        }
+        convolutionInverse.transform(ar, ai);
+
+        double scale = 1.0 / length;
+        for (int k = 0; k < size; k++) {
+            double yr = ar[k] * scale;
+            double yi = ai[k] * scale;
+            real[k] = yr * chirpCos[k] - yi * chirpSin[k];
+            imag[k] = yr * chirpSin[k] + yi * chirpCos[k];
+        }
+    }
+}
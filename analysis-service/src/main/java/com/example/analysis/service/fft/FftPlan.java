@@ -0,0 +1,65 @@
+package com.example.analysis.service.fft;
+
+/**
+ * Precomputed tables for a real FFT of one length and direction.
+ * <p>
+ * An even real length {@code n} is packed into an {@code n / 2}-point complex transform; the plan
+ * holds that complex plan and the twiddles {@code e^(-/+ j*2*pi*k/n)} used to split and recombine
+ * the packed input. An odd length cannot be packed and runs as a full {@code n}-point complex
+ * transform. Any positive length is supported: see {@link ComplexFftPlan} for how the complex
+ * transform is chosen. Plans are safe to share between threads; obtain them from {@link FftPlanCache}.
+ */
+public final class FftPlan {
+
+    public enum Direction {
+        FORWARD,
+        INVERSE
+    }
+
+    private final int size;
+    private final Direction direction;
+    final boolean packed;
+    final ComplexFftPlan complexPlan;
+    final double[] splitCos;
+    final double[] splitSin;
+    final ThreadLocal<double[][]> unpackedScratch;
+
+    FftPlan(int size, Direction direction) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Transform length must be positive, got " + size);
+        }
+        this.size = size;
+        this.direction = direction;
+        this.packed = size % 2 == 0;
+        boolean inverse = direction == Direction.INVERSE;
+
+        if (packed) {
+            int m = size >> 1;
+            this.complexPlan = new ComplexFftPlan(m, inverse);
+            this.unpackedScratch = null;
+
+            double sign = inverse ? 1.0 : -1.0;
+            int splitLength = (m >> 1) + 1;
+            this.splitCos = new double[splitLength];
+            this.splitSin = new double[splitLength];
+            for (int k = 0; k < splitLength; k++) {
+                double angle = 2 * Math.PI * k / size;
+                splitCos[k] = Math.cos(angle);
+                splitSin[k] = sign * Math.sin(angle);
+            }
+        } else {
+            this.complexPlan = new ComplexFftPlan(size, inverse);
+            this.unpackedScratch = ThreadLocal.withInitial(() -> new double[][]{new double[size], new double[size]});
+            this.splitCos = null;
+            this.splitSin = null;
+        }
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public Direction getDirection() {
+        return direction;
+    }
+}
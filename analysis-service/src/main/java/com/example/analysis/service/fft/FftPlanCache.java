@@ -0,0 +1,66 @@
+package com.example.analysis.service.fft;
+
+import com.example.analysis.service.cache.BoundedLruCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Thread-safe cache of {@link FftPlan}s keyed by transform length and direction.
+ * <p>
+ * Every analysis works with a handful of transform sizes, so plans are built once and then shared
+ * by all {@code TimeSeriesAnalysis} instances through {@link #shared()}. The cache holds at most
+ * {@code maxPlans} plans and evicts the least recently used, so sizes seen only while histories
+ * fill up age out and the sizes in steady use stay cached.
+ */
+public class FftPlanCache {
+    private static final Logger logger = LoggerFactory.getLogger(FftPlanCache.class);
+    private static final int DEFAULT_MAX_PLANS = 64;
+    private static final FftPlanCache SHARED = new FftPlanCache(DEFAULT_MAX_PLANS);
+
+    private final BoundedLruCache<Long, FftPlan> plans;
+
+    public FftPlanCache(int maxPlans) {
+        this.plans = new BoundedLruCache<>(maxPlans);
+    }
+
+    /**
+     * @return The process-wide plan cache.
+     */
+    public static FftPlanCache shared() {
+        return SHARED;
+    }
+
+    /**
+     * Get the plan for a transform length and direction, building it on first use.
+     *
+     * @param size The real transform length, any positive value.
+     * @param direction The transform direction.
+     * @return The plan.
+     */
+    public FftPlan getPlan(int size, FftPlan.Direction direction) {
+        return plans.get(((long) size << 1) | direction.ordinal(), key -> {
+            logger.debug("Building FFT plan for size {} {}", size, direction);
+            return new FftPlan(size, direction);
+        });
+    }
+
+    public long getHitCount() {
+        return plans.getHitCount();
+    }
+
+    public long getMissCount() {
+        return plans.getMissCount();
+    }
+
+    public long getEvictionCount() {
+        return plans.getEvictionCount();
+    }
+
+    public int size() {
+        return plans.size();
+    }
+
+    public void clear() {
+        plans.clear();
+    }
+}
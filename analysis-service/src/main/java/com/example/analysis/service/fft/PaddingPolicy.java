@@ -0,0 +1,53 @@
+package com.example.analysis.service.fft;
+
+/**
+ * How an input of {@code n} samples is sized up to an FFT length.
+ * <p>
+ * Padding with zeros interpolates the spectrum onto a finer grid but smears it with the implicit
+ * rectangular window and changes the bin spacing, so it is a choice rather than a requirement:
+ * the transform itself handles any length.
+ */
+public enum PaddingPolicy {
+
+    /**
+     * Transform exactly {@code n} samples. Bins fall on multiples of {@code fs / n}.
+     */
+    NONE {
+        @Override
+        public int transformSize(int n) {
+            return n;
+        }
+    },
+
+    /**
+     * Zero-pad to the next power of two, the historical behaviour.
+     */
+    NEXT_POWER_OF_TWO {
+        @Override
+        public int transformSize(int n) {
+            int size = Integer.highestOneBit(n);
+            return size < n ? size << 1 : size;
+        }
+    },
+
+    /**
+     * Zero-pad to the next length whose only prime factors are 2, 3 and 5. Pads far less than
+     * {@link #NEXT_POWER_OF_TWO} while staying on the mixed-radix path.
+     */
+    NEXT_FAST_SIZE {
+        @Override
+        public int transformSize(int n) {
+            int size = n;
+            while (!ComplexFftPlan.isFiveSmooth(size)) {
+                size++;
+            }
+            return size;
+        }
+    };
+
+    /**
+     * @param n The number of input samples, positive.
+     * @return The FFT length to use for {@code n} samples.
+     */
+    public abstract int transformSize(int n);
+}
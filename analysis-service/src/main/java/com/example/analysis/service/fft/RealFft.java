@@ -0,0 +1,421 @@
+package com.example.analysis.service.fft;
+
+import java.nio.DoubleBuffer;
+
+/**
+ * FFT of real-valued input.
+ * <p>
+ * A real sequence of even length {@code n} is packed into a length-{@code n / 2} complex sequence
+ * (even samples as real parts, odd samples as imaginary parts), transformed with a half-length
+ * complex FFT and then split into the {@code n / 2 + 1} non-redundant bins of the real spectrum.
+ * The remaining bins follow from Hermitian symmetry, {@code X[n - k] = conj(X[k])}, and are never
+ * materialized. The inverse runs the same steps backwards. Odd lengths cannot be packed and run as
+ * a full-length complex transform in per-thread scratch owned by the plan.
+ * <p>
+ * Any positive length is supported. Spectra are held in split real/imaginary arrays of at least
+ * {@code n / 2 + 1} elements, which for even lengths are also used as the working buffers, so
+ * neither direction allocates per call. Plans come from the shared {@link FftPlanCache}.
+ * <p>
+ * The forward transform also reads from a {@link DoubleBuffer}, so input held off-heap, such as a
+ * memory-mapped tick column, is transformed without first being copied onto the heap. Each forward
+ * variant can also take a {@link WindowTable}, whose coefficients are multiplied in while the input
+ * is packed, so windowing costs one multiply per sample and no extra pass or buffer.
+ */
+public final class RealFft {
+
+    private RealFft() {
+    }
+
+    /**
+     * The number of non-redundant bins in the spectrum of a length-{@code n} real sequence.
+     *
+     * @param n The transform length.
+     * @return {@code n / 2 + 1}, or 0 for an empty transform.
+     */
+    public static int spectrumSize(int n) {
+        return n <= 0 ? 0 : n / 2 + 1;
+    }
+
+    /**
+     * Forward transform of {@code count} real values, zero-padded to the transform length.
+     * There is no normalization.
+     *
+     * @param input The real input values.
+     * @param offset The index of the first input value.
+     * @param count The number of input values, at most {@code n}.
+     * @param n The transform length.
+     * @param real Output buffer for the real parts of bins {@code 0 .. n / 2}.
+     * @param imag Output buffer for the imaginary parts of bins {@code 0 .. n / 2}.
+     */
+    public static void forward(double[] input, int offset, int count, int n, double[] real, double[] imag) {
+        forward(FftPlanCache.shared().getPlan(n, FftPlan.Direction.FORWARD), input, offset, count, real, imag);
+    }
+
+    /**
+     * Forward transform of {@code count} real values using an explicit plan.
+     *
+     * @param plan A {@link FftPlan.Direction#FORWARD} plan for the transform length.
+     * @param input The real input values.
+     * @param offset The index of the first input value.
+     * @param count The number of input values, at most the plan size.
+     * @param real Output buffer for the real parts of the non-redundant bins.
+     * @param imag Output buffer for the imaginary parts of the non-redundant bins.
+     */
+    public static void forward(FftPlan plan, double[] input, int offset, int count, double[] real, double[] imag) {
+        requireDirection(plan, FftPlan.Direction.FORWARD);
+        int n = plan.getSize();
+        if (!plan.packed) {
+            forwardUnpacked(plan, input, offset, count, real, imag);
+            return;
+        }
+
+        int m = n >> 1;
+        for (int i = 0; i < m; i++) {
+            int even = 2 * i;
+            real[i] = even < count ? input[offset + even] : 0.0;
+            imag[i] = even + 1 < count ? input[offset + even + 1] : 0.0;
+        }
+        forwardPacked(plan, real, imag);
+    }
+
+    /**
+     * Forward transform of {@code count} real values read from {@code input} starting at its
+     * position, zero-padded to the transform length. The buffer's position is not changed.
+     *
+     * @param input The real input values.
+     * @param count The number of input values, at most {@code n} and {@code input.remaining()}.
+     * @param n The transform length.
+     * @param real Output buffer for the real parts of bins {@code 0 .. n / 2}.
+     * @param imag Output buffer for the imaginary parts of bins {@code 0 .. n / 2}.
+     */
+    public static void forward(DoubleBuffer input, int count, int n, double[] real, double[] imag) {
+        forward(FftPlanCache.shared().getPlan(n, FftPlan.Direction.FORWARD), input, count, real, imag);
+    }
+
+    /**
+     * Forward transform of {@code count} real values read from {@code input} using an explicit plan.
+     *
+     * @param plan A {@link FftPlan.Direction#FORWARD} plan for the transform length.
+     * @param input The real input values, starting at the buffer's position.
+     * @param count The number of input values, at most the plan size and {@code input.remaining()}.
+     * @param real Output buffer for the real parts of the non-redundant bins.
+     * @param imag Output buffer for the imaginary parts of the non-redundant bins.
+     */
+    public static void forward(FftPlan plan, DoubleBuffer input, int count, double[] real, double[] imag) {
+        if (input.hasArray()) {
+            forward(plan, input.array(), input.arrayOffset() + input.position(), count, real, imag);
+            return;
+        }
+        requireDirection(plan, FftPlan.Direction.FORWARD);
+        int n = plan.getSize();
+        int offset = input.position();
+        if (!plan.packed) {
+            double[][] work = plan.unpackedScratch.get();
+            int copied = Math.min(count, n);
+            input.get(offset, work[0], 0, copied);
+            forwardUnpacked(plan, copied, real, imag);
+            return;
+        }
+
+        int m = n >> 1;
+        for (int i = 0; i < m; i++) {
+            int even = 2 * i;
+            real[i] = even < count ? input.get(offset + even) : 0.0;
+            imag[i] = even + 1 < count ? input.get(offset + even + 1) : 0.0;
+        }
+        forwardPacked(plan, real, imag);
+    }
+
+    /**
+     * Forward transform of {@code count} real values, each multiplied by its window coefficient as
+     * it is packed into the transform input, so the windowed copy is never materialized.
+     * Zero-padded to the transform length; there is no normalization.
+     *
+     * @param input The real input values.
+     * @param offset The index of the first input value.
+     * @param count The number of input values, at most {@code n}.
+     * @param n The transform length.
+     * @param window A table of exactly {@code count} coefficients.
+     * @param real Output buffer for the real parts of bins {@code 0 .. n / 2}.
+     * @param imag Output buffer for the imaginary parts of bins {@code 0 .. n / 2}.
+     */
+    public static void forward(double[] input, int offset, int count, int n, WindowTable window,
+                               double[] real, double[] imag) {
+        forward(FftPlanCache.shared().getPlan(n, FftPlan.Direction.FORWARD), input, offset, count, window, real, imag);
+    }
+
+    /**
+     * Windowed forward transform of {@code count} real values using an explicit plan.
+     *
+     * @param plan A {@link FftPlan.Direction#FORWARD} plan for the transform length.
+     * @param input The real input values.
+     * @param offset The index of the first input value.
+     * @param count The number of input values, at most the plan size.
+     * @param window A table of exactly {@code count} coefficients.
+     * @param real Output buffer for the real parts of the non-redundant bins.
+     * @param imag Output buffer for the imaginary parts of the non-redundant bins.
+     */
+    public static void forward(FftPlan plan, double[] input, int offset, int count, WindowTable window,
+                               double[] real, double[] imag) {
+        requireDirection(plan, FftPlan.Direction.FORWARD);
+        requireWindowSize(window, count);
+        double[] w = window.coefficients;
+        int n = plan.getSize();
+        if (!plan.packed) {
+            double[] zr = plan.unpackedScratch.get()[0];
+            int copied = Math.min(count, n);
+            for (int i = 0; i < copied; i++) {
+                zr[i] = input[offset + i] * w[i];
+            }
+            forwardUnpacked(plan, copied, real, imag);
+            return;
+        }
+
+        int m = n >> 1;
+        for (int i = 0; i < m; i++) {
+            int even = 2 * i;
+            real[i] = even < count ? input[offset + even] * w[even] : 0.0;
+            imag[i] = even + 1 < count ? input[offset + even + 1] * w[even + 1] : 0.0;
+        }
+        forwardPacked(plan, real, imag);
+    }
+
+    /**
+     * Windowed forward transform of {@code count} real values read from {@code input} starting at
+     * its position. The buffer's position is not changed.
+     *
+     * @param input The real input values.
+     * @param count The number of input values, at most {@code n} and {@code input.remaining()}.
+     * @param n The transform length.
+     * @param window A table of exactly {@code count} coefficients.
+     * @param real Output buffer for the real parts of bins {@code 0 .. n / 2}.
+     * @param imag Output buffer for the imaginary parts of bins {@code 0 .. n / 2}.
+     */
+    public static void forward(DoubleBuffer input, int count, int n, WindowTable window, double[] real, double[] imag) {
+        forward(FftPlanCache.shared().getPlan(n, FftPlan.Direction.FORWARD), input, count, window, real, imag);
+    }
+
+    /**
+     * Windowed forward transform of {@code count} real values read from {@code input} using an
+     * explicit plan.
+     *
+     * @param plan A {@link FftPlan.Direction#FORWARD} plan for the transform length.
+     * @param input The real input values, starting at the buffer's position.
+     * @param count The number of input values, at most the plan size and {@code input.remaining()}.
+     * @param window A table of exactly {@code count} coefficients.
+     * @param real Output buffer for the real parts of the non-redundant bins.
+     * @param imag Output buffer for the imaginary parts of the non-redundant bins.
+     */
+    public static void forward(FftPlan plan, DoubleBuffer input, int count, WindowTable window,
+                               double[] real, double[] imag) {
+        if (input.hasArray()) {
+            forward(plan, input.array(), input.arrayOffset() + input.position(), count, window, real, imag);
+            return;
+        }
+        requireDirection(plan, FftPlan.Direction.FORWARD);
+        requireWindowSize(window, count);
+        double[] w = window.coefficients;
+        int n = plan.getSize();
+        int offset = input.position();
+        if (!plan.packed) {
+            double[] zr = plan.unpackedScratch.get()[0];
+            int copied = Math.min(count, n);
+            for (int i = 0; i < copied; i++) {
+                zr[i] = input.get(offset + i) * w[i];
+            }
+            forwardUnpacked(plan, copied, real, imag);
+            return;
+        }
+
+        int m = n >> 1;
+        for (int i = 0; i < m; i++) {
+            int even = 2 * i;
+            real[i] = even < count ? input.get(offset + even) * w[even] : 0.0;
+            imag[i] = even + 1 < count ? input.get(offset + even + 1) * w[even + 1] : 0.0;
+        }
+        forwardPacked(plan, real, imag);
+    }
+
+    private static void forwardPacked(FftPlan plan, double[] real, double[] imag) {
+        int m = plan.getSize() >> 1;
+        plan.complexPlan.transform(real, imag);
+
+        // Split Z into the spectra of the even (E) and odd (O) samples and combine:
+        // X[k] = E[k] + W^k O[k] and X[m - k] = conj(E[k] - W^k O[k]), with W = e^(-j*2*pi/n)
+        double z0r = real[0];
+        double z0i = imag[0];
+        real[0] = z0r + z0i;
+        imag[0] = 0.0;
+        real[m] = z0r - z0i;
+        imag[m] = 0.0;
+
+        for (int k = 1, mk = m - 1; k <= mk; k++, mk--) {
+            double zkr = real[k];
+            double zki = imag[k];
+            double zmr = real[mk];
+            double zmi = imag[mk];
+
+            double er = 0.5 * (zkr + zmr);
+            double ei = 0.5 * (zki - zmi);
+            double or = 0.5 * (zki + zmi);
+            double oi = -0.5 * (zkr - zmr);
+
+            double wr = plan.splitCos[k];
+            double wi = plan.splitSin[k];
+            double tr = wr * or - wi * oi;
+            double ti = wr * oi + wi * or;
+
+            real[mk] = er - tr;
+            imag[mk] = ti - ei;
+            real[k] = er + tr;
+            imag[k] = ei + ti;
+        }
+    }
+
+    /**
+     * Inverse transform of a real spectrum back to the time domain, normalized by {@code 1 / n}.
+     * The spectrum buffers are used as working space and are overwritten.
+     *
+     * @param real The real parts of bins {@code 0 .. n / 2}.
+     * @param imag The imaginary parts of bins {@code 0 .. n / 2}.
+     * @param n The transform length.
+     * @param output Output buffer for the reconstructed values.
+     * @param count The number of leading values to write to {@code output}, at most {@code n}.
+     */
+    public static void inverse(double[] real, double[] imag, int n, double[] output, int count) {
+        inverse(FftPlanCache.shared().getPlan(n, FftPlan.Direction.INVERSE), real, imag, output, count);
+    }
+
+    /**
+     * Inverse transform of a real spectrum using an explicit plan, normalized by {@code 1 / n}.
+     * The spectrum buffers are used as working space and are overwritten.
+     *
+     * @param plan An {@link FftPlan.Direction#INVERSE} plan for the transform length.
+     * @param real The real parts of the non-redundant bins.
+     * @param imag The imaginary parts of the non-redundant bins.
+     * @param output Output buffer for the reconstructed values.
+     * @param count The number of leading values to write to {@code output}, at most the plan size.
+     */
+    public static void inverse(FftPlan plan, double[] real, double[] imag, double[] output, int count) {
+        requireDirection(plan, FftPlan.Direction.INVERSE);
+        int n = plan.getSize();
+        if (!plan.packed) {
+            inverseUnpacked(plan, real, imag, output, count);
+            return;
+        }
+
+        int m = n >> 1;
+
+        // Rebuild Z = E + jO from the half spectrum, the reverse of the forward split
+        double x0r = real[0];
+        double x0i = imag[0];
+        double xmr = real[m];
+        double xmi = imag[m];
+        double e0r = 0.5 * (x0r + xmr);
+        double e0i = 0.5 * (x0i - xmi);
+        double o0r = 0.5 * (x0r - xmr);
+        double o0i = 0.5 * (x0i + xmi);
+        real[0] = e0r - o0i;
+        imag[0] = e0i + o0r;
+
+        for (int k = 1, mk = m - 1; k <= mk; k++, mk--) {
+            double xkr = real[k];
+            double xki = imag[k];
+            double xjr = real[mk];
+            double xji = imag[mk];
+
+            double er = 0.5 * (xkr + xjr);
+            double ei = 0.5 * (xki - xji);
+            double dr = 0.5 * (xkr - xjr);
+            double di = 0.5 * (xki + xji);
+
+            // O = D * W^-k
+            double c = plan.splitCos[k];
+            double s = plan.splitSin[k];
+            double or = dr * c - di * s;
+            double oi = dr * s + di * c;
+
+            real[mk] = er + oi;
+            imag[mk] = or - ei;
+            real[k] = er - oi;
+            imag[k] = ei + or;
+        }
+
+        plan.complexPlan.transform(real, imag);
+
+        double scale = 1.0 / m;
+        for (int i = 0; i < m; i++) {
+            int even = 2 * i;
+            if (even < count) {
+                output[even] = real[i] * scale;
+            }
+            if (even + 1 < count) {
+                output[even + 1] = imag[i] * scale;
+            }
+        }
+    }
+
+    private static void forwardUnpacked(FftPlan plan, double[] input, int offset, int count,
+                                        double[] real, double[] imag) {
+        double[][] work = plan.unpackedScratch.get();
+        int copied = Math.min(count, plan.getSize());
+        System.arraycopy(input, offset, work[0], 0, copied);
+        forwardUnpacked(plan, copied, real, imag);
+    }
+
+    /**
+     * Transforms the first {@code copied} values already placed in the plan's real scratch array.
+     */
+    private static void forwardUnpacked(FftPlan plan, int copied, double[] real, double[] imag) {
+        int n = plan.getSize();
+        double[][] work = plan.unpackedScratch.get();
+        double[] zr = work[0];
+        double[] zi = work[1];
+        java.util.Arrays.fill(zr, copied, n, 0.0);
+        java.util.Arrays.fill(zi, 0.0);
+
+        plan.complexPlan.transform(zr, zi);
+
+        int bins = spectrumSize(n);
+        System.arraycopy(zr, 0, real, 0, bins);
+        System.arraycopy(zi, 0, imag, 0, bins);
+        imag[0] = 0.0;
+    }
+
+    private static void inverseUnpacked(FftPlan plan, double[] real, double[] imag, double[] output, int count) {
+        int n = plan.getSize();
+        double[][] work = plan.unpackedScratch.get();
+        double[] zr = work[0];
+        double[] zi = work[1];
+
+        // Odd length: bins 1 .. n / 2 and their conjugates fill the whole spectrum, no Nyquist bin
+        zr[0] = real[0];
+        zi[0] = 0.0;
+        for (int k = 1, nk = n - 1; k < nk; k++, nk--) {
+            zr[k] = real[k];
+            zi[k] = imag[k];
+            zr[nk] = real[k];
+            zi[nk] = -imag[k];
+        }
+
+        plan.complexPlan.transform(zr, zi);
+
+        double scale = 1.0 / n;
+        int written = Math.min(count, n);
+        for (int i = 0; i < written; i++) {
+            output[i] = zr[i] * scale;
+        }
+    }
+
+    private static void requireWindowSize(WindowTable window, int count) {
+        if (window.getSize() != count) {
+            throw new IllegalArgumentException("Window of size " + window.getSize() + " cannot weight " + count + " values");
+        }
+    }
+
+    private static void requireDirection(FftPlan plan, FftPlan.Direction direction) {
+        if (plan.getDirection() != direction) {
+            throw new IllegalArgumentException("Expected a " + direction + " plan but got " + plan.getDirection());
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.analysis.service.fft;
+
+/**
+ * The precomputed coefficients of one {@link WindowFunction} at one length, with the gains needed
+ * to correct spectra taken through it. Immutable and safe to share; obtain tables from
+ * {@link WindowTableCache}.
+ */
+public final class WindowTable {
+    private final WindowFunction function;
+    final double[] coefficients;
+    private final double coherentGain;
+    private final double squaredSum;
+
+    WindowTable(WindowFunction function, int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Window length must be positive, got " + size);
+        }
+        this.function = function;
+        this.coefficients = function.coefficients(size);
+        double sum = 0.0;
+        double squares = 0.0;
+        for (double w : coefficients) {
+            sum += w;
+            squares += w * w;
+        }
+        this.coherentGain = sum / size;
+        this.squaredSum = squares;
+    }
+
+    public WindowFunction getFunction() {
+        return function;
+    }
+
+    public int getSize() {
+        return coefficients.length;
+    }
+
+    public double coefficient(int i) {
+        return coefficients[i];
+    }
+
+    /**
+     * @return The mean coefficient, by which the window scales the magnitude of a sinusoid at a
+     * bin frequency. Dividing magnitudes by it restores the scale of an unwindowed transform.
+     */
+    public double getCoherentGain() {
+        return coherentGain;
+    }
+
+    /**
+     * @return The sum of the squared coefficients, which normalizes a windowed power spectral density.
+     */
+    public double getSquaredSum() {
+        return squaredSum;
+    }
+}
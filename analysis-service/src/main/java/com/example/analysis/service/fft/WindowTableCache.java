@@ -0,0 +1,73 @@
+package com.example.analysis.service.fft;
+
+import com.example.analysis.service.cache.BoundedLruCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Thread-safe cache of {@link WindowTable}s keyed by window function and length.
+ * <p>
+ * Spectra are taken at a handful of lengths, so each table is computed once and shared by all
+ * analyses through {@link #shared()} instead of evaluating the window per sample per call. The
+ * cache holds at most {@code maxTables} tables and evicts the least recently used.
+ * <p>
+ * Tables are keyed on the number of windowed samples. That is the transform length under
+ * {@link PaddingPolicy#NONE}; a padded transform tapers only its samples, not the zeros after them,
+ * so its table has the sample count's length. While a history fills up, each length is asked for
+ * once and then ages out, and the table for a full history stays cached.
+ */
+public class WindowTableCache {
+    private static final Logger logger = LoggerFactory.getLogger(WindowTableCache.class);
+    private static final int DEFAULT_MAX_TABLES = 128;
+    private static final WindowTableCache SHARED = new WindowTableCache(DEFAULT_MAX_TABLES);
+
+    private record Key(WindowFunction function, int size) {
+    }
+
+    private final BoundedLruCache<Key, WindowTable> tables;
+
+    public WindowTableCache(int maxTables) {
+        this.tables = new BoundedLruCache<>(maxTables);
+    }
+
+    /**
+     * @return The process-wide window table cache.
+     */
+    public static WindowTableCache shared() {
+        return SHARED;
+    }
+
+    /**
+     * Get the table of a window function at a length, computing it on first use.
+     *
+     * @param function The window function.
+     * @param size The window length, any positive value.
+     * @return The table.
+     */
+    public WindowTable getTable(WindowFunction function, int size) {
+        return tables.get(new Key(function, size), key -> {
+            logger.debug("Computing {} window table of size {}", function, size);
+            return new WindowTable(function, size);
+        });
+    }
+
+    public long getHitCount() {
+        return tables.getHitCount();
+    }
+
+    public long getMissCount() {
+        return tables.getMissCount();
+    }
+
+    public long getEvictionCount() {
+        return tables.getEvictionCount();
+    }
+
+    public int size() {
+        return tables.size();
+    }
+
+    public void clear() {
+        tables.clear();
+    }
+}
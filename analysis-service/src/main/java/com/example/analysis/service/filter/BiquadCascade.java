@@ -0,0 +1,278 @@
+package com.example.analysis.service.filter;
+
+import java.nio.DoubleBuffer;
+
+/**
+ * A time-domain IIR Butterworth filter: cascaded second-order sections designed from the analog
+ * prototype by the bilinear transform, with the cutoffs prewarped so that they land exactly.
+ * <p>
+ * An order-{@code n} low-pass or high-pass is {@code n / 2} biquads plus, for odd {@code n}, one
+ * first-order section. A band-pass is the low-pass at the high cutoff cascaded with the high-pass
+ * at the low cutoff, the same response as the spectral {@link ButterworthFilter} of that type.
+ * <p>
+ * Each section runs in transposed direct form II over two state values held by the caller, so a
+ * sample costs O(order) and one cascade can drive any number of independent streams. Cascades are
+ * immutable and safe to share.
+ */
+public final class BiquadCascade {
+    private static final int COEFFICIENTS_PER_SECTION = 5;
+
+    private final FilterType type;
+    private final double samplingFrequency;
+    private final double lowCutoff;
+    private final double highCutoff;
+    private final int order;
+    // b0, b1, b2, a1, a2 per section, with a0 normalized to 1
+    private final double[] coefficients;
+    private final int sections;
+
+    private BiquadCascade(FilterType type, double samplingFrequency, double lowCutoff, double highCutoff,
+                          int order, double[] coefficients) {
+        this.type = type;
+        this.samplingFrequency = samplingFrequency;
+        this.lowCutoff = lowCutoff;
+        this.highCutoff = highCutoff;
+        this.order = order;
+        this.coefficients = coefficients;
+        this.sections = coefficients.length / COEFFICIENTS_PER_SECTION;
+    }
+
+    /**
+     * Design a Butterworth filter.
+     *
+     * @param type The filter type.
+     * @param samplingFrequency The rate of the filtered samples, in Hz.
+     * @param lowCutoff The lower cutoff frequency, used by high-pass and band-pass filters.
+     * @param highCutoff The higher cutoff frequency, used by low-pass and band-pass filters.
+     * @param order The order of each Butterworth prototype, at least 1.
+     * @return The filter.
+     */
+    public static BiquadCascade butterworth(FilterType type, double samplingFrequency, double lowCutoff,
+                                            double highCutoff, int order) {
+        if (type == null) {
+            throw new IllegalArgumentException("Filter type must not be null");
+        }
+        if (order < 1) {
+            throw new IllegalArgumentException("Filter order must be at least 1, got " + order);
+        }
+        if (!(samplingFrequency > 0) || Double.isInfinite(samplingFrequency)) {
+            throw new IllegalArgumentException("Sampling frequency must be positive, got " + samplingFrequency);
+        }
+        if (type != FilterType.HIGHPASS) {
+            requireCutoff("High", highCutoff, samplingFrequency);
+        }
+        if (type != FilterType.LOWPASS) {
+            requireCutoff("Low", lowCutoff, samplingFrequency);
+        }
+        if (type == FilterType.BANDPASS && lowCutoff >= highCutoff) {
+            throw new IllegalArgumentException("Low cutoff " + lowCutoff + " must be below high cutoff " + highCutoff);
+        }
+
+        int prototypeSections = (order + 1) / 2;
+        int count = type == FilterType.BANDPASS ? 2 * prototypeSections : prototypeSections;
+        double[] coefficients = new double[count * COEFFICIENTS_PER_SECTION];
+        int next = 0;
+        if (type != FilterType.HIGHPASS) {
+            next = designPrototype(false, highCutoff / samplingFrequency, order, coefficients, next);
+        }
+        if (type != FilterType.LOWPASS) {
+            designPrototype(true, lowCutoff / samplingFrequency, order, coefficients, next);
+        }
+        return new BiquadCascade(type, samplingFrequency, type == FilterType.LOWPASS ? 0.0 : lowCutoff,
+                type == FilterType.HIGHPASS ? 0.0 : highCutoff, order, coefficients);
+    }
+
+    private static void requireCutoff(String name, double cutoff, double samplingFrequency) {
+        if (!(cutoff > 0) || cutoff >= samplingFrequency / 2) {
+            throw new IllegalArgumentException(name + " cutoff " + cutoff + " must be between 0 and the Nyquist "
+                    + "frequency " + samplingFrequency / 2);
+        }
+    }
+
+    /**
+     * Write the sections of an order-{@code order} Butterworth low-pass or high-pass with its
+     * cutoff at {@code normalizedCutoff} cycles per sample, starting at section {@code first}.
+     *
+     * @return The index of the next free section.
+     */
+    private static int designPrototype(boolean highPass, double normalizedCutoff, int order, double[] out, int first) {
+        // Bilinear transform with prewarping: s = (1 - z^-1) / (1 + z^-1) maps the analog cutoff K
+        double k = Math.tan(Math.PI * normalizedCutoff);
+        double k2 = k * k;
+        int section = first;
+
+        // Each conjugate pole pair of the prototype s_m = e^(j*pi*(2m + n - 1) / (2n)) is one biquad
+        for (int m = 1; m <= order / 2; m++) {
+            double q = -1.0 / (2 * Math.cos(Math.PI * (2 * m + order - 1) / (2.0 * order)));
+            double norm = 1.0 / (1 + k / q + k2);
+            int c = section * COEFFICIENTS_PER_SECTION;
+            if (highPass) {
+                out[c] = norm;
+                out[c + 1] = -2 * norm;
+                out[c + 2] = norm;
+            } else {
+                out[c] = k2 * norm;
+                out[c + 1] = 2 * k2 * norm;
+                out[c + 2] = k2 * norm;
+            }
+            out[c + 3] = 2 * (k2 - 1) * norm;
+            out[c + 4] = (1 - k / q + k2) * norm;
+            section++;
+        }
+
+        // Odd orders keep the real pole s = -1 as a first-order section
+        if (order % 2 == 1) {
+            double norm = 1.0 / (1 + k);
+            int c = section * COEFFICIENTS_PER_SECTION;
+            out[c] = highPass ? norm : k * norm;
+            out[c + 1] = highPass ? -norm : k * norm;
+            out[c + 2] = 0.0;
+            out[c + 3] = (k - 1) * norm;
+            out[c + 4] = 0.0;
+            section++;
+        }
+        return section;
+    }
+
+    /**
+     * @return A zeroed state for one stream, two values per section.
+     */
+    public double[] newState() {
+        return new double[2 * sections];
+    }
+
+    /**
+     * Filter one sample.
+     *
+     * @param x The input sample.
+     * @param state The stream's state, updated in place.
+     * @return The output sample.
+     */
+    public double process(double x, double[] state) {
+        double[] c = coefficients;
+        double value = x;
+        for (int s = 0, i = 0, z = 0; s < sections; s++, i += COEFFICIENTS_PER_SECTION, z += 2) {
+            double y = c[i] * value + state[z];
+            state[z] = c[i + 1] * value - c[i + 3] * y + state[z + 1];
+            state[z + 1] = c[i + 2] * value - c[i + 4] * y;
+            value = y;
+        }
+        return value;
+    }
+
+    /**
+     * Set a stream's state to the steady state for a constant input, so that filtering a series
+     * from its first value does not start with a step from zero.
+     *
+     * @param x The constant input.
+     * @param state The stream's state, overwritten.
+     */
+    public void settle(double x, double[] state) {
+        double[] c = coefficients;
+        double value = x;
+        for (int s = 0, i = 0, z = 0; s < sections; s++, i += COEFFICIENTS_PER_SECTION, z += 2) {
+            double y = value * (c[i] + c[i + 1] + c[i + 2]) / (1 + c[i + 3] + c[i + 4]);
+            state[z + 1] = c[i + 2] * value - c[i + 4] * y;
+            state[z] = c[i + 1] * value - c[i + 3] * y + state[z + 1];
+            value = y;
+        }
+    }
+
+    /**
+     * Zero-phase filtering: the series is filtered forwards, then the result backwards, which
+     * cancels the phase delay and squares the magnitude response. Each pass starts from the steady
+     * state of its first sample.
+     *
+     * @param input The input values.
+     * @param offset The index of the first input value.
+     * @param n The number of values to filter.
+     * @param output Output buffer for the {@code n} filtered values; may be the input array at the same offset.
+     */
+    public void filtfilt(double[] input, int offset, int n, double[] output) {
+        if (n == 0) {
+            return;
+        }
+        double[] state = newState();
+        settle(input[offset], state);
+        for (int i = 0; i < n; i++) {
+            output[i] = process(input[offset + i], state);
+        }
+        backward(output, n, state);
+    }
+
+    /**
+     * Zero-phase filtering of the remaining values of a buffer, read in place.
+     *
+     * @param input The input values, from the buffer's position to its limit. The position is not changed.
+     * @param output Output buffer for the filtered values.
+     * @return The number of values filtered.
+     */
+    public int filtfilt(DoubleBuffer input, double[] output) {
+        int n = input.remaining();
+        if (n == 0) {
+            return 0;
+        }
+        int first = input.position();
+        double[] state = newState();
+        settle(input.get(first), state);
+        for (int i = 0; i < n; i++) {
+            output[i] = process(input.get(first + i), state);
+        }
+        backward(output, n, state);
+        return n;
+    }
+
+    private void backward(double[] values, int n, double[] state) {
+        settle(values[n - 1], state);
+        for (int i = n - 1; i >= 0; i--) {
+            values[i] = process(values[i], state);
+        }
+    }
+
+    /**
+     * The magnitude of the single-pass frequency response.
+     *
+     * @param frequency The frequency, in Hz.
+     * @return The gain at that frequency.
+     */
+    public double response(double frequency) {
+        double w = 2 * Math.PI * frequency / samplingFrequency;
+        double cos1 = Math.cos(w);
+        double sin1 = Math.sin(w);
+        double cos2 = Math.cos(2 * w);
+        double sin2 = Math.sin(2 * w);
+        double gain = 1.0;
+        for (int i = 0; i < coefficients.length; i += COEFFICIENTS_PER_SECTION) {
+            double nr = coefficients[i] + coefficients[i + 1] * cos1 + coefficients[i + 2] * cos2;
+            double ni = -coefficients[i + 1] * sin1 - coefficients[i + 2] * sin2;
+            double dr = 1 + coefficients[i + 3] * cos1 + coefficients[i + 4] * cos2;
+            double di = -coefficients[i + 3] * sin1 - coefficients[i + 4] * sin2;
+            gain *= Math.sqrt((nr * nr + ni * ni) / (dr * dr + di * di));
+        }
+        return gain;
+    }
+
+    public int getSectionCount() {
+        return sections;
+    }
+
+    public FilterType getType() {
+        return type;
+    }
+
+    public double getSamplingFrequency() {
+        return samplingFrequency;
+    }
+
+    public double getLowCutoff() {
+        return lowCutoff;
+    }
+
+    public double getHighCutoff() {
+        return highCutoff;
+    }
+
+    public int getOrder() {
+        return order;
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.analysis.service.filter;
+
+/**
+ * A Butterworth filter compiled for one transform length and sampling frequency.
+ * <p>
+ * The magnitude response is evaluated once per bin of the half spectrum when the filter is
+ * compiled, so applying it is a single multiply per bin over split real/imaginary buffers with no
+ * allocation. Filters are immutable and safe to share; obtain them from {@link ButterworthFilterCache}.
+ */
+public final class ButterworthFilter {
+    private final FilterType type;
+    private final int size;
+    private final double samplingFrequency;
+    private final double lowCutoff;
+    private final double highCutoff;
+    private final int order;
+    private final double[] gains;
+
+    ButterworthFilter(FilterType type, int size, double samplingFrequency, double lowCutoff, double highCutoff,
+                      int order) {
+        if (type == null) {
+            throw new IllegalArgumentException("Filter type must not be null");
+        }
+        if (size <= 0) {
+            throw new IllegalArgumentException("Transform length must be positive, got " + size);
+        }
+        this.type = type;
+        this.size = size;
+        this.samplingFrequency = samplingFrequency;
+        this.lowCutoff = lowCutoff;
+        this.highCutoff = highCutoff;
+        this.order = order;
+
+        this.gains = new double[size / 2 + 1];
+        double binWidth = samplingFrequency / size;
+        for (int k = 0; k < gains.length; k++) {
+            gains[k] = response(k * binWidth);
+        }
+    }
+
+    /**
+     * The magnitude response at a frequency, between 0 and 1.
+     */
+    private double response(double frequency) {
+        switch (type) {
+            case LOWPASS:
+                return lowPass(frequency);
+            case HIGHPASS:
+                return highPass(frequency);
+            default:
+                return lowPass(frequency) * highPass(frequency);
+        }
+    }
+
+    private double lowPass(double frequency) {
+        return 1.0 / Math.sqrt(1.0 + Math.pow(frequency / highCutoff, 2 * order));
+    }
+
+    private double highPass(double frequency) {
+        return 1.0 / Math.sqrt(1.0 + Math.pow(lowCutoff / frequency, 2 * order));
+    }
+
+    /**
+     * Filter a half spectrum in place.
+     *
+     * @param real The real parts of bins {@code 0 .. size / 2}, filtered in place.
+     * @param imag The imaginary parts of bins {@code 0 .. size / 2}, filtered in place.
+     */
+    public void apply(double[] real, double[] imag) {
+        double[] g = gains;
+        for (int k = 0; k < g.length; k++) {
+            real[k] *= g[k];
+            imag[k] *= g[k];
+        }
+    }
+
+    /**
+     * @param bin A bin of the full spectrum, in {@code [0, size)}.
+     * @return The gain of that bin; the response is symmetric about the Nyquist bin.
+     */
+    public double gain(int bin) {
+        return gains[Math.min(bin, size - bin)];
+    }
+
+    public FilterType getType() {
+        return type;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public double getSamplingFrequency() {
+        return samplingFrequency;
+    }
+
+    public double getLowCutoff() {
+        return lowCutoff;
+    }
+
+    public double getHighCutoff() {
+        return highCutoff;
+    }
+
+    public int getOrder() {
+        return order;
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.analysis.service.filter;
+
+import com.example.analysis.service.cache.BoundedLruCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Thread-safe cache of compiled {@link ButterworthFilter}s keyed by filter spec.
+ * <p>
+ * The same few filter configurations are applied to every symbol, so each is compiled once and
+ * shared through {@link #shared()}. Cutoffs that do not affect the response (the low cutoff of a
+ * low-pass, the high cutoff of a high-pass) are ignored in the key. The cache holds at most
+ * {@code maxFilters} filters and evicts the least recently used.
+ * <p>
+ * Sampling frequencies are measured from each window's timestamps, so tick jitter makes them
+ * differ in the last digits from one call to the next. They are rounded to
+ * {@value #RATE_PRECISION_BITS} significant bits, about 0.1%, before keying and compiling, which
+ * moves every gain's frequency by less than 0.05% and lets a jittery feed reuse its filter.
+ */
+public class ButterworthFilterCache {
+    private static final Logger logger = LoggerFactory.getLogger(ButterworthFilterCache.class);
+    private static final int DEFAULT_MAX_FILTERS = 256;
+    static final int RATE_PRECISION_BITS = 10;
+    private static final ButterworthFilterCache SHARED = new ButterworthFilterCache(DEFAULT_MAX_FILTERS);
+
+    private record Key(FilterType type, int size, double samplingFrequency, double lowCutoff, double highCutoff,
+                       int order) {
+    }
+
+    private final BoundedLruCache<Key, ButterworthFilter> filters;
+
+    public ButterworthFilterCache(int maxFilters) {
+        this.filters = new BoundedLruCache<>(maxFilters);
+    }
+
+    /**
+     * @return The process-wide filter cache.
+     */
+    public static ButterworthFilterCache shared() {
+        return SHARED;
+    }
+
+    /**
+     * Get the compiled filter for a spec, compiling it on first use.
+     *
+     * @param type The filter type.
+     * @param size The transform length the filter is applied to.
+     * @param samplingFrequency The sampling frequency of the filtered data, rounded as described above.
+     * @param lowCutoff The lower cutoff frequency, used by high-pass and band-pass filters.
+     * @param highCutoff The higher cutoff frequency, used by low-pass and band-pass filters.
+     * @param order The order of the Butterworth filter.
+     * @return The compiled filter.
+     */
+    public ButterworthFilter getFilter(FilterType type, int size, double samplingFrequency, double lowCutoff,
+                                       double highCutoff, int order) {
+        double low = type == FilterType.LOWPASS ? 0.0 : lowCutoff;
+        double high = type == FilterType.HIGHPASS ? 0.0 : highCutoff;
+        double rate = quantizeRate(samplingFrequency);
+        return filters.get(new Key(type, size, rate, low, high, order), key -> {
+            logger.debug("Compiling {} filter of order {} for size {} at {} Hz", type, order, size, rate);
+            return new ButterworthFilter(type, size, rate, low, high, order);
+        });
+    }
+
+    /**
+     * Round a sampling frequency to {@link #RATE_PRECISION_BITS} significant bits.
+     */
+    static double quantizeRate(double samplingFrequency) {
+        if (!(samplingFrequency > 0) || Double.isInfinite(samplingFrequency)) {
+            return samplingFrequency;
+        }
+        double step = Math.scalb(1.0, Math.getExponent(samplingFrequency) - RATE_PRECISION_BITS);
+        return Math.rint(samplingFrequency / step) * step;
+    }
+
+    public long getHitCount() {
+        return filters.getHitCount();
+    }
+
+    public long getMissCount() {
+        return filters.getMissCount();
+    }
+
+    public long getEvictionCount() {
+        return filters.getEvictionCount();
+    }
+
+    public int size() {
+        return filters.size();
+    }
+
+    public void clear() {
+        filters.clear();
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.analysis.service.filter;
+
+import java.util.Locale;
+
+/**
+ * The Butterworth filter shapes supported by the spectral filters.
+ */
+public enum FilterType {
+    LOWPASS,
+    HIGHPASS,
+    BANDPASS;
+
+    /**
+     * Parse a filter type name case-insensitively, e.g. {@code "lowpass"}.
+     *
+     * @param name The filter type name.
+     * @return The filter type, or {@code null} if the name is not recognised.
+     */
+    public static FilterType parse(String name) {
+        if (name == null) {
+            return null;
+        }
+        switch (name.toLowerCase(Locale.ROOT)) {
+            case "lowpass":
+                return LOWPASS;
+            case "highpass":
+                return HIGHPASS;
+            case "bandpass":
+                return BANDPASS;
+            default:
+                return null;
+        }
+    }
+}
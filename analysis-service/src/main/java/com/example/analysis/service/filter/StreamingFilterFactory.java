@@ -0,0 +1,76 @@
+package com.example.analysis.service.filter;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * The streaming IIR filter every symbol keeps its prices filtered by, if one is configured. The
+ * cascade is designed once and shared; each symbol only holds its own filter state.
+ */
+@Component
+public class StreamingFilterFactory {
+    private static final Logger logger = LoggerFactory.getLogger(StreamingFilterFactory.class);
+
+    private final BiquadCascade cascade;
+
+    /**
+     * @param type The filter type, e.g. {@code lowpass}, or {@code none} to disable streaming filtering.
+     * @param lowCutoff The lower cutoff frequency, used by high-pass and band-pass filters.
+     * @param highCutoff The higher cutoff frequency, used by low-pass and band-pass filters.
+     * @param order The order of the Butterworth filter.
+     * @param samplingFrequency The nominal rate of each symbol's prices, in Hz.
+     */
+    @Autowired
+    public StreamingFilterFactory(
+            @Value("${timeseries.filter.streaming.type:none}") String type,
+            @Value("${timeseries.filter.streaming.low-cutoff:0}") double lowCutoff,
+            @Value("${timeseries.filter.streaming.high-cutoff:0}") double highCutoff,
+            @Value("${timeseries.filter.streaming.order:4}") int order,
+            @Value("${timeseries.filter.streaming.sampling-frequency:20}") double samplingFrequency
+    ) {
+        if ("none".equalsIgnoreCase(type)) {
+            this.cascade = null;
+            logger.info("Streaming filter: none");
+            return;
+        }
+        FilterType filterType = FilterType.parse(type);
+        if (filterType == null) {
+            throw new IllegalArgumentException("Unknown filter type: " + type);
+        }
+        this.cascade = BiquadCascade.butterworth(filterType, samplingFrequency, lowCutoff, highCutoff, order);
+        logger.info("Streaming filter: {} of order {} at {} Hz with {} sections", filterType, order,
+                samplingFrequency, cascade.getSectionCount());
+    }
+
+    private StreamingFilterFactory(BiquadCascade cascade) {
+        this.cascade = cascade;
+    }
+
+    /**
+     * A factory for symbols without a streaming filter.
+     */
+    public static StreamingFilterFactory disabled() {
+        return new StreamingFilterFactory(null);
+    }
+
+    /**
+     * A factory for symbols that all stream through {@code cascade}.
+     */
+    public static StreamingFilterFactory of(BiquadCascade cascade) {
+        return new StreamingFilterFactory(cascade);
+    }
+
+    public boolean isEnabled() {
+        return cascade != null;
+    }
+
+    /**
+     * @return The shared filter design, or {@code null} if streaming filtering is disabled.
+     */
+    public BiquadCascade getCascade() {
+        return cascade;
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.analysis.service.filter;
+
+import java.util.Arrays;
+
+/**
+ * One stream through a {@link BiquadCascade}: each new sample is filtered in O(order) from the
+ * state left by the previous one. The first sample settles the state as if the input had always
+ * been at that value, so the output does not ramp up from zero.
+ * <p>
+ * This class is not thread-safe.
+ */
+public final class StreamingIirFilter {
+    private final BiquadCascade cascade;
+    private final double[] state;
+    private boolean primed;
+    private double lastOutput = Double.NaN;
+
+    public StreamingIirFilter(BiquadCascade cascade) {
+        this.cascade = cascade;
+        this.state = cascade.newState();
+    }
+
+    /**
+     * Filter the next sample of the stream.
+     *
+     * @return The filtered sample.
+     */
+    public double update(double value) {
+        if (!primed) {
+            cascade.settle(value, state);
+            primed = true;
+        }
+        lastOutput = cascade.process(value, state);
+        return lastOutput;
+    }
+
+    /**
+     * @return The most recent filtered sample, or NaN before the first one.
+     */
+    public double getLastOutput() {
+        return lastOutput;
+    }
+
+    /**
+     * Forget the stream; the next sample settles the state again.
+     */
+    public void reset() {
+        Arrays.fill(state, 0.0);
+        primed = false;
+        lastOutput = Double.NaN;
+    }
+
+    public BiquadCascade getCascade() {
+        return cascade;
+    }
+}
@@ -0,0 +1,295 @@
+package com.example.analysis.service.history;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Append-only {@link TickHistory} kept off the Java heap in memory-mapped files, one directory
+ * per symbol.
+ * <p>
+ * Ticks are written to segment files of {@code segmentTicks} ticks each. A segment is a small
+ * header followed by a timestamp column and a value column, both little-endian, and is mapped
+ * whole, so appends are plain stores into the page cache and window reads are slices of the
+ * mapping that the FFT reads in place. When a segment fills up, the next one starts with a copy
+ * of the last {@code capacity} ticks, so the window of most recent ticks always lies in a single
+ * segment and stays contiguous.
+ * <p>
+ * Segments are never rewritten, so views stay intact however far the writer moves on. The
+ * header records the tick count after each append, and reopening a directory maps the newest
+ * segment and carries on from there, so the history survives a restart without being reloaded.
+ * Ticks are not forced to disk on each append: a process crash loses nothing, an OS crash may lose
+ * the ticks still in the page cache. Older segments are kept, or deleted beyond
+ * {@code retainedSegments} if that is positive.
+ */
+public final class MappedTickStore implements TickHistory {
+    private static final Logger logger = LoggerFactory.getLogger(MappedTickStore.class);
+
+    private static final int MAGIC = 0x544B5331; // "TKS1"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 64;
+    private static final int MAGIC_OFFSET = 0;
+    private static final int VERSION_OFFSET = 4;
+    private static final int TICKS_OFFSET = 8;
+    private static final int FIRST_TICK_OFFSET = 16;
+    private static final int COUNT_OFFSET = 24;
+    private static final String SEGMENT_SUFFIX = ".ticks";
+
+    /**
+     * Each column of a segment is mapped as one buffer, so it must stay below 2 GB.
+     */
+    public static final int MAX_SEGMENT_TICKS = (Integer.MAX_VALUE - HEADER_BYTES) / (2 * Long.BYTES);
+
+    private static final class Segment {
+        final long index;
+        final MappedByteBuffer mapping;
+        final LongBuffer timestamps;
+        final DoubleBuffer values;
+        final int ticks;
+        final long firstTick;
+        volatile int count;
+
+        Segment(long index, MappedByteBuffer mapping, int ticks, long firstTick, int count) {
+            this.index = index;
+            this.mapping = mapping;
+            this.ticks = ticks;
+            this.firstTick = firstTick;
+            this.count = count;
+            int columnBytes = ticks * Long.BYTES;
+            this.timestamps = mapping.slice(HEADER_BYTES, columnBytes).order(ByteOrder.LITTLE_ENDIAN).asLongBuffer();
+            this.values = mapping.slice(HEADER_BYTES + columnBytes, columnBytes)
+                    .order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer();
+        }
+    }
+
+    private final Path directory;
+    private final int capacity;
+    private final int segmentTicks;
+    private final int retainedSegments;
+    private volatile Segment current;
+
+    private MappedTickStore(Path directory, int capacity, int segmentTicks, int retainedSegments, Segment current) {
+        this.directory = directory;
+        this.capacity = capacity;
+        this.segmentTicks = segmentTicks;
+        this.retainedSegments = retainedSegments;
+        this.current = current;
+    }
+
+    /**
+     * Open the store in {@code directory}, creating it if needed.
+     *
+     * @param directory The directory holding this symbol's segment files.
+     * @param capacity The number of most recent ticks available for analysis.
+     * @param segmentTicks The number of ticks per segment file, at least {@code 2 * capacity}.
+     * @param retainedSegments The number of segment files to keep, or 0 to keep them all.
+     */
+    public static MappedTickStore open(Path directory, int capacity, int segmentTicks, int retainedSegments) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("History capacity must be positive, got " + capacity);
+        }
+        if (segmentTicks < 2L * capacity || segmentTicks > MAX_SEGMENT_TICKS) {
+            throw new IllegalArgumentException("Segment size must be between twice the history capacity ("
+                    + 2L * capacity + ") and " + MAX_SEGMENT_TICKS + " ticks, got " + segmentTicks);
+        }
+        if (retainedSegments < 0) {
+            throw new IllegalArgumentException("Retained segments must not be negative, got " + retainedSegments);
+        }
+        try {
+            Files.createDirectories(directory);
+            List<Long> indices = segmentIndices(directory);
+            Segment segment = indices.isEmpty()
+                    ? createSegment(directory, 0, segmentTicks, 0)
+                    : openSegment(directory, indices.get(indices.size() - 1));
+            if (segment.firstTick + segment.count > 0) {
+                logger.info("Reopened tick store {} at {} ticks", directory, segment.firstTick + segment.count);
+            }
+            return new MappedTickStore(directory, capacity, segmentTicks, retainedSegments, segment);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open tick store " + directory, e);
+        }
+    }
+
+    @Override
+    public void append(long timestamp, double value) {
+        Segment segment = current;
+        if (segment.count == segment.ticks) {
+            segment = roll(segment);
+        }
+        int slot = segment.count;
+        segment.timestamps.put(slot, timestamp);
+        segment.values.put(slot, value);
+        segment.mapping.putLong(COUNT_OFFSET, slot + 1);
+        segment.count = slot + 1;
+    }
+
+    private Segment roll(Segment full) {
+        int carried = Math.min(capacity, full.count);
+        int from = full.count - carried;
+        Segment next;
+        try {
+            next = createSegment(directory, full.index + 1, segmentTicks, full.firstTick + from);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create tick segment in " + directory, e);
+        }
+        next.timestamps.put(0, full.timestamps, from, carried);
+        next.values.put(0, full.values, from, carried);
+        next.mapping.putLong(COUNT_OFFSET, carried);
+        next.count = carried;
+        current = next;
+        logger.debug("Rolled tick store {} to segment {}", directory, next.index);
+
+        if (retainedSegments > 0) {
+            deleteSegmentsBefore(next.index - retainedSegments + 1);
+        }
+        return next;
+    }
+
+    private void deleteSegmentsBefore(long firstKept) {
+        try {
+            for (long index : segmentIndices(directory)) {
+                if (index < firstKept) {
+                    Files.deleteIfExists(segmentPath(directory, index));
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("Failed to delete old tick segments in {}", directory, e);
+        }
+    }
+
+    @Override
+    public long getAppendedCount() {
+        Segment segment = current;
+        return segment.firstTick + segment.count;
+    }
+
+    @Override
+    public int size() {
+        // A segment holds at least the last capacity ticks of its predecessor, unless the capacity
+        // was raised since it was written
+        return Math.min(current.count, capacity);
+    }
+
+    @Override
+    public int getCapacity() {
+        return capacity;
+    }
+
+    @Override
+    public double valueFromEnd(int back) {
+        Segment segment = current;
+        return segment.values.get(segment.count - 1 - back);
+    }
+
+    @Override
+    public TickWindow window(int maxCount) {
+        Segment segment = current;
+        int count = segment.count;
+        long appendedCount = segment.firstTick + count;
+        int windowCount = Math.min(maxCount, Math.min(count, capacity));
+        int offset = count - windowCount;
+        return new TickWindow(segment.values.slice(offset, windowCount),
+                segment.timestamps.slice(offset, windowCount), this, appendedCount);
+    }
+
+    /**
+     * Delete every segment file and start over. The mappings of views already taken stay readable.
+     */
+    @Override
+    public TickHistory reset() {
+        close();
+        deleteSegmentsBefore(Long.MAX_VALUE);
+        return open(directory, capacity, segmentTicks, retainedSegments);
+    }
+
+    /**
+     * Flush the current segment to disk.
+     */
+    @Override
+    public void close() {
+        current.mapping.force();
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    private static Segment createSegment(Path directory, long index, int ticks, long firstTick) throws IOException {
+        Path path = segmentPath(directory, index);
+        MappedByteBuffer mapping = map(path, ticks);
+        mapping.order(ByteOrder.LITTLE_ENDIAN);
+        mapping.putInt(MAGIC_OFFSET, MAGIC);
+        mapping.putInt(VERSION_OFFSET, VERSION);
+        mapping.putInt(TICKS_OFFSET, ticks);
+        mapping.putLong(FIRST_TICK_OFFSET, firstTick);
+        mapping.putLong(COUNT_OFFSET, 0);
+        return new Segment(index, mapping, ticks, firstTick, 0);
+    }
+
+    private static Segment openSegment(Path directory, long index) throws IOException {
+        Path path = segmentPath(directory, index);
+        MappedByteBuffer header;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_BYTES) {
+                throw new IOException("Truncated tick segment " + path);
+            }
+            header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES);
+        }
+        header.order(ByteOrder.LITTLE_ENDIAN);
+        if (header.getInt(MAGIC_OFFSET) != MAGIC || header.getInt(VERSION_OFFSET) != VERSION) {
+            throw new IOException("Not a tick segment: " + path);
+        }
+        int ticks = header.getInt(TICKS_OFFSET);
+        long count = header.getLong(COUNT_OFFSET);
+        if (ticks <= 0 || ticks > MAX_SEGMENT_TICKS || count < 0 || count > ticks) {
+            throw new IOException("Corrupt tick segment header in " + path);
+        }
+
+        MappedByteBuffer mapping = map(path, ticks);
+        mapping.order(ByteOrder.LITTLE_ENDIAN);
+        return new Segment(index, mapping, ticks, header.getLong(FIRST_TICK_OFFSET), (int) count);
+    }
+
+    private static MappedByteBuffer map(Path path, int ticks) throws IOException {
+        long bytes = HEADER_BYTES + 2L * ticks * Long.BYTES;
+        // The mapping stays valid after the channel is closed; untouched pages of the file stay sparse
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, bytes);
+        }
+    }
+
+    private static Path segmentPath(Path directory, long index) {
+        return directory.resolve(String.format("%012d%s", index, SEGMENT_SUFFIX));
+    }
+
+    private static List<Long> segmentIndices(Path directory) throws IOException {
+        List<Long> indices = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.endsWith(SEGMENT_SUFFIX))
+                    .forEach(name -> {
+                        try {
+                            indices.add(Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length())));
+                        } catch (NumberFormatException e) {
+                            logger.warn("Ignoring unexpected file {} in {}", name, directory);
+                        }
+                    });
+        }
+        indices.sort(null);
+        return indices;
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.analysis.service.history;
+
+import java.io.Closeable;
+
+/**
+ * The price history of one symbol: an append-only sequence of (timestamp, value) ticks of which
+ * the most recent {@link #getCapacity()} are available for analysis.
+ * <p>
+ * Appends must be serialized by the caller. Reads may run concurrently with an append: a reader
+ * takes a {@link TickWindow} over the most recent ticks, works on it in place and then checks
+ * {@link TickWindow#isIntact()} before trusting what it read.
+ */
+public interface TickHistory extends Closeable {
+
+    /**
+     * Append a tick. Once more than {@link #getCapacity()} ticks have been appended the oldest
+     * ones are no longer available for analysis.
+     */
+    void append(long timestamp, double value);
+
+    /**
+     * @return The total number of ticks appended so far, including ones no longer available.
+     */
+    long getAppendedCount();
+
+    /**
+     * @return The number of ticks available for analysis, at most {@link #getCapacity()}.
+     */
+    int size();
+
+    /**
+     * @return The maximum number of most recent ticks available for analysis.
+     */
+    int getCapacity();
+
+    /**
+     * The value {@code back} ticks before the newest one. Intended for the writer thread.
+     *
+     * @param back 0 for the newest tick, at most {@code size() - 1}.
+     */
+    double valueFromEnd(int back);
+
+    /**
+     * A view of the most recent ticks, without copying them.
+     *
+     * @param maxCount The maximum number of ticks in the view.
+     * @return A view of the {@code min(maxCount, size())} most recent ticks.
+     */
+    TickWindow window(int maxCount);
+
+    /**
+     * Whether a view of {@code count} ticks taken at {@code appendedCount} appends has not been
+     * overwritten since. Append-only storage never overwrites a tick.
+     */
+    default boolean isIntact(long appendedCount, int count) {
+        return true;
+    }
+
+    /**
+     * Discard all ticks. Views already taken stay readable.
+     *
+     * @return An empty history of the same kind and capacity to use from now on in place of this one.
+     */
+    TickHistory reset();
+
+    /**
+     * Release the storage. The default does nothing.
+     */
+    @Override
+    default void close() {
+    }
+}
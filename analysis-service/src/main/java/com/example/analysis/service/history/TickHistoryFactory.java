@@ -0,0 +1,133 @@
+package com.example.analysis.service.history;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Creates the {@link TickHistory} of each symbol, on the heap or in a memory-mapped
+ * {@link MappedTickStore} under a common directory, as configured.
+ */
+@Component
+public class TickHistoryFactory {
+    private static final Logger logger = LoggerFactory.getLogger(TickHistoryFactory.class);
+
+    public enum StoreType {
+        /**
+         * {@link TickRingBuffer}: only the most recent {@code capacity} ticks, lost on restart.
+         */
+        HEAP,
+        /**
+         * {@link MappedTickStore}: the full history off-heap in segment files, kept across restarts.
+         */
+        MAPPED
+    }
+
+    private final int capacity;
+    private final StoreType storeType;
+    private final Path directory;
+    private final int segmentTicks;
+    private final int retainedSegments;
+
+    /**
+     * @param capacity The number of most recent ticks of each symbol available for analysis.
+     * @param storeType Where the ticks are kept.
+     * @param directory The parent directory of the per-symbol stores, for {@link StoreType#MAPPED}.
+     * @param segmentTicks The number of ticks per segment file, for {@link StoreType#MAPPED}.
+     * @param retainedSegments The number of segment files kept per symbol, 0 for all, for {@link StoreType#MAPPED}.
+     */
+    @Autowired
+    public TickHistoryFactory(
+            @Value("${timeseries.history.capacity:8192}") int capacity,
+            @Value("${timeseries.history.store:HEAP}") StoreType storeType,
+            @Value("${timeseries.history.directory:data/ticks}") String directory,
+            @Value("${timeseries.history.segment-ticks:1048576}") int segmentTicks,
+            @Value("${timeseries.history.retained-segments:0}") int retainedSegments
+    ) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("History capacity must be positive, got " + capacity);
+        }
+        this.capacity = capacity;
+        this.storeType = storeType;
+        this.directory = Paths.get(directory);
+        this.segmentTicks = segmentTicks;
+        this.retainedSegments = retainedSegments;
+        logger.info("Tick history: {} with capacity {}{}", storeType, capacity,
+                storeType == StoreType.MAPPED ? " in " + this.directory.toAbsolutePath() : "");
+    }
+
+    /**
+     * A factory for on-heap histories of the given capacity.
+     */
+    public static TickHistoryFactory heap(int capacity) {
+        return new TickHistoryFactory(capacity, StoreType.HEAP, "", 0, 0);
+    }
+
+    /**
+     * A factory for memory-mapped histories under {@code directory}.
+     */
+    public static TickHistoryFactory mapped(int capacity, Path directory, int segmentTicks, int retainedSegments) {
+        return new TickHistoryFactory(capacity, StoreType.MAPPED, directory.toString(), segmentTicks, retainedSegments);
+    }
+
+    /**
+     * Create the history of a symbol. A mapped history opens whatever the symbol already has on disk.
+     */
+    public TickHistory create(String symbol) {
+        if (symbol == null || symbol.isEmpty()) {
+            throw new IllegalArgumentException("Symbol must not be empty");
+        }
+        if (storeType == StoreType.MAPPED) {
+            return MappedTickStore.open(directory.resolve(encode(symbol)), capacity, segmentTicks, retainedSegments);
+        }
+        return new TickRingBuffer(capacity);
+    }
+
+    /**
+     * @return The symbols that already have a history on disk, none for {@link StoreType#HEAP}.
+     */
+    public List<String> storedSymbols() {
+        List<String> symbols = new ArrayList<>();
+        if (storeType != StoreType.MAPPED || !Files.isDirectory(directory)) {
+            return symbols;
+        }
+        try (Stream<Path> entries = Files.list(directory)) {
+            entries.filter(Files::isDirectory)
+                    .forEach(path -> symbols.add(decode(path.getFileName().toString())));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot list tick stores in " + directory, e);
+        }
+        return symbols;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public StoreType getStoreType() {
+        return storeType;
+    }
+
+    // Reversible and free of path separators and dot-only names
+    private static String encode(String symbol) {
+        return URLEncoder.encode(symbol, StandardCharsets.UTF_8).replace(".", "%2E").replace("*", "%2A");
+    }
+
+    private static String decode(String name) {
+        return URLDecoder.decode(name, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.analysis.service.history;
+
+import java.lang.invoke.VarHandle;
+import java.nio.DoubleBuffer;
+import java.nio.LongBuffer;
+
+/**
+ * Fixed-capacity, on-heap {@link TickHistory} with O(1) append and eviction.
+ * <p>
+ * Values and timestamps live in separate primitive arrays. Every slot is stored twice, at
+ * {@code p} and {@code p + ringSize}, so the most recent {@code n} ticks always occupy one
+ * contiguous range {@code [offset, offset + n)} of each array and can be handed to the FFT as they
+ * are, without unwrapping.
+ * <p>
+ * The ring has {@code capacity / 2} spare slots beyond the retained capacity so that a window
+ * view stays intact while the writer keeps appending. Views are validated like a seqlock: the
+ * writer announces each slot it is about to overwrite through {@link #claimed} before storing
+ * and publishes it through {@link #published} afterwards, and a reader checks
+ * {@link #isIntact(long, int)} once it has finished with a view. Appends must be serialized by the
+ * caller; reads may run concurrently with an append.
+ */
+public final class TickRingBuffer implements TickHistory {
+    private final int capacity;
+    private final int ringSize;
+    private final double[] values;
+    private final long[] timestamps;
+
+    // Ticks whose data is fully written / ticks a writer has started writing
+    private volatile long published;
+    private volatile long claimed;
+
+    /**
+     * @param capacity The number of most recent ticks retained.
+     */
+    public TickRingBuffer(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("History capacity must be positive, got " + capacity);
+        }
+        this.capacity = capacity;
+        this.ringSize = capacity + Math.max(capacity / 2, 16);
+        this.values = new double[2 * ringSize];
+        this.timestamps = new long[2 * ringSize];
+    }
+
+    /**
+     * Append a tick, evicting the oldest one once the buffer is full. Not thread-safe with
+     * respect to other appends.
+     */
+    @Override
+    public void append(long timestamp, double value) {
+        long next = published + 1;
+        claimed = next;
+        VarHandle.storeStoreFence();
+
+        int p = (int) ((next - 1) % ringSize);
+        values[p] = value;
+        values[p + ringSize] = value;
+        timestamps[p] = timestamp;
+        timestamps[p + ringSize] = timestamp;
+
+        published = next;
+    }
+
+    /**
+     * @return The total number of ticks appended so far, including evicted ones.
+     */
+    @Override
+    public long getAppendedCount() {
+        return published;
+    }
+
+    /**
+     * @return The number of ticks currently retained.
+     */
+    @Override
+    public int size() {
+        return (int) Math.min(published, capacity);
+    }
+
+    /**
+     * @param appendedCount A value previously returned by {@link #getAppendedCount()}.
+     * @return The number of ticks that were retained at that point.
+     */
+    public int sizeAt(long appendedCount) {
+        return (int) Math.min(appendedCount, capacity);
+    }
+
+    @Override
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * The array index of the oldest of the {@code count} most recent ticks as of {@code appendedCount}
+     * appends, in both {@link #valuesArray()} and {@link #timestampsArray()}.
+     *
+     * @param appendedCount A value previously returned by {@link #getAppendedCount()}.
+     * @param count The window length, at most {@link #sizeAt(long)}.
+     * @return The offset of the window.
+     */
+    public int windowOffset(long appendedCount, int count) {
+        return (int) ((appendedCount - count) % ringSize);
+    }
+
+    /**
+     * Whether a window of {@code count} ticks taken at {@code appendedCount} appends has not been
+     * overwritten since. Call it after reading the window.
+     */
+    @Override
+    public boolean isIntact(long appendedCount, int count) {
+        VarHandle.acquireFence();
+        return claimed - appendedCount <= ringSize - count;
+    }
+
+    /**
+     * The backing value array. Only the ranges described by {@link #windowOffset(long, int)} are meaningful.
+     */
+    public double[] valuesArray() {
+        return values;
+    }
+
+    /**
+     * The backing timestamp array. Only the ranges described by {@link #windowOffset(long, int)} are meaningful.
+     */
+    public long[] timestampsArray() {
+        return timestamps;
+    }
+
+    /**
+     * The value {@code back} ticks before the newest one. Intended for the writer thread.
+     *
+     * @param back 0 for the newest tick, at most {@code size() - 1}.
+     */
+    @Override
+    public double valueFromEnd(int back) {
+        return values[windowOffset(published, back + 1)];
+    }
+
+    @Override
+    public TickWindow window(int maxCount) {
+        long appendedCount = published;
+        int count = Math.min(maxCount, sizeAt(appendedCount));
+        int offset = windowOffset(appendedCount, count);
+        return new TickWindow(DoubleBuffer.wrap(values, offset, count).slice(),
+                LongBuffer.wrap(timestamps, offset, count).slice(), this, appendedCount);
+    }
+
+    /**
+     * @return A new, empty ring buffer; this one's arrays are left to the views still using them.
+     */
+    @Override
+    public TickHistory reset() {
+        return new TickRingBuffer(capacity);
+    }
+}
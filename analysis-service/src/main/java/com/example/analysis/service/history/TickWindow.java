@@ -0,0 +1,75 @@
+package com.example.analysis.service.history;
+
+import java.nio.DoubleBuffer;
+import java.nio.LongBuffer;
+
+/**
+ * A view of consecutive ticks of a {@link TickHistory}, oldest first.
+ * <p>
+ * The buffers are slices of the history's own storage, heap arrays or a file mapping, indexed
+ * from 0 to {@link #size()}. Use absolute {@code get(int)} access only, and check
+ * {@link #isIntact()} once done reading, since a concurrent append may have reused the storage.
+ */
+public final class TickWindow {
+    private final DoubleBuffer values;
+    private final LongBuffer timestamps;
+    private final TickHistory source;
+    private final long appendedCount;
+
+    TickWindow(DoubleBuffer values, LongBuffer timestamps, TickHistory source, long appendedCount) {
+        this.values = values;
+        this.timestamps = timestamps;
+        this.source = source;
+        this.appendedCount = appendedCount;
+    }
+
+    /**
+     * A window over standalone arrays, which is always intact.
+     */
+    public static TickWindow of(double[] values, long[] timestamps) {
+        if (values.length != timestamps.length) {
+            throw new IllegalArgumentException("Values and timestamps must have the same size");
+        }
+        return new TickWindow(DoubleBuffer.wrap(values), LongBuffer.wrap(timestamps), null, values.length);
+    }
+
+    public DoubleBuffer values() {
+        return values;
+    }
+
+    public LongBuffer timestamps() {
+        return timestamps;
+    }
+
+    public int size() {
+        return values.remaining();
+    }
+
+    /**
+     * @return The number of ticks that had been appended to the history when the view was taken.
+     */
+    public long getAppendedCount() {
+        return appendedCount;
+    }
+
+    /**
+     * Whether the viewed ticks are still the ones that were there when the view was taken.
+     */
+    public boolean isIntact() {
+        return source == null || source.isIntact(appendedCount, size());
+    }
+
+    /**
+     * Copy the viewed ticks onto the heap.
+     *
+     * @return A window over the copies, which is always intact and keeps this window's
+     * {@link #getAppendedCount()}.
+     */
+    public TickWindow copy() {
+        double[] valueCopy = new double[size()];
+        long[] timestampCopy = new long[size()];
+        values.get(0, valueCopy);
+        timestamps.get(0, timestampCopy);
+        return new TickWindow(DoubleBuffer.wrap(valueCopy), LongBuffer.wrap(timestampCopy), null, appendedCount);
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.analysis.service.indicator;
+
+import java.util.List;
+
+/**
+ * Wilder's average true range over {@code period} bars. Ticks are aggregated into bars of
+ * {@code barMillis} by their timestamp; each completed bar contributes its true range, the
+ * largest of its high-low range and its extremes' distance from the previous close. With
+ * {@code barMillis} 0 every tick is a bar of its own and the true range is the absolute change.
+ */
+public final class AtrIndicator implements StreamingIndicator {
+    private static final List<String> OUTPUTS = List.of("atr");
+
+    private final int period;
+    private final long barMillis;
+    private final ExponentialAverage trueRange;
+    private long bar = Long.MIN_VALUE;
+    private double high;
+    private double low;
+    private double close = Double.NaN;
+    private double previousClose = Double.NaN;
+
+    public AtrIndicator(int period, long barMillis) {
+        if (period < 1) {
+            throw new IllegalArgumentException("ATR period must be positive, got " + period);
+        }
+        if (barMillis < 0) {
+            throw new IllegalArgumentException("ATR bar length must not be negative, got " + barMillis);
+        }
+        this.period = period;
+        this.barMillis = barMillis;
+        this.trueRange = ExponentialAverage.wilder(period);
+    }
+
+    @Override
+    public String getName() {
+        return barMillis == 0 ? "ATR(" + period + ")" : "ATR(" + period + "," + barMillis + ")";
+    }
+
+    @Override
+    public List<String> getOutputNames() {
+        return OUTPUTS;
+    }
+
+    @Override
+    public void update(double price, double volume, long timestamp) {
+        if (barMillis == 0) {
+            if (!Double.isNaN(close)) {
+                trueRange.update(Math.abs(price - close));
+            }
+            close = price;
+            return;
+        }
+
+        long tickBar = Math.floorDiv(timestamp, barMillis);
+        if (tickBar != bar) {
+            closeBar();
+            bar = tickBar;
+            high = price;
+            low = price;
+        } else {
+            high = Math.max(high, price);
+            low = Math.min(low, price);
+        }
+        close = price;
+    }
+
+    private void closeBar() {
+        if (Double.isNaN(close)) {
+            return;
+        }
+        // The first bar has no previous close; its true range is its own range
+        double range = high - low;
+        if (!Double.isNaN(previousClose)) {
+            range = Math.max(range, Math.max(Math.abs(high - previousClose), Math.abs(low - previousClose)));
+        }
+        trueRange.update(range);
+        previousClose = close;
+    }
+
+    @Override
+    public boolean isReady() {
+        return trueRange.isReady();
+    }
+
+    @Override
+    public double getValue(int output) {
+        return trueRange.getValue();
+    }
+
+    @Override
+    public void reset() {
+        trueRange.reset();
+        bar = Long.MIN_VALUE;
+        close = Double.NaN;
+        previousClose = Double.NaN;
+    }
+}
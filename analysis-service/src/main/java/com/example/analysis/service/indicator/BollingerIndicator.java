@@ -0,0 +1,66 @@
+package com.example.analysis.service.indicator;
+
+import java.util.List;
+
+/**
+ * Bollinger bands: the simple moving average of the last {@code period} prices, and the bands
+ * {@code width} population standard deviations above and below it, from {@link RollingStatistics}
+ * so that the bands stay accurate however long the symbol trades.
+ */
+public final class BollingerIndicator implements StreamingIndicator {
+    private static final List<String> OUTPUTS = List.of("middle", "upper", "lower");
+
+    private final int period;
+    private final double width;
+    private final RollingStatistics statistics;
+
+    public BollingerIndicator(int period, double width) {
+        if (period < 2) {
+            throw new IllegalArgumentException("Bollinger period must be at least 2, got " + period);
+        }
+        if (!(width >= 0) || Double.isInfinite(width)) {
+            throw new IllegalArgumentException("Bollinger band width must not be negative, got " + width);
+        }
+        this.period = period;
+        this.width = width;
+        this.statistics = new RollingStatistics(period);
+    }
+
+    @Override
+    public String getName() {
+        return "BOLLINGER(" + period + "," + IndicatorSpec.format(width) + ")";
+    }
+
+    @Override
+    public List<String> getOutputNames() {
+        return OUTPUTS;
+    }
+
+    @Override
+    public void update(double price, double volume, long timestamp) {
+        statistics.add(price);
+    }
+
+    @Override
+    public boolean isReady() {
+        return statistics.isFull();
+    }
+
+    @Override
+    public double getValue(int output) {
+        if (!isReady()) {
+            return Double.NaN;
+        }
+        double mean = statistics.getMean();
+        if (output == 0) {
+            return mean;
+        }
+        double deviation = statistics.getStdDev();
+        return output == 1 ? mean + width * deviation : mean - width * deviation;
+    }
+
+    @Override
+    public void reset() {
+        statistics.reset();
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.analysis.service.indicator;
+
+/**
+ * An exponential moving average seeded with the simple average of its first {@code period}
+ * inputs, the building block of the EMA-based indicators.
+ */
+final class ExponentialAverage {
+    private final int period;
+    private final double alpha;
+    private int count;
+    private double value;
+
+    private ExponentialAverage(int period, double alpha) {
+        this.period = period;
+        this.alpha = alpha;
+    }
+
+    /**
+     * The usual EMA, weighting each input by {@code 2 / (period + 1)}.
+     */
+    static ExponentialAverage ema(int period) {
+        return new ExponentialAverage(period, 2.0 / (period + 1));
+    }
+
+    /**
+     * Wilder's smoothing, weighting each input by {@code 1 / period}, as used by RSI and ATR.
+     */
+    static ExponentialAverage wilder(int period) {
+        return new ExponentialAverage(period, 1.0 / period);
+    }
+
+    void update(double x) {
+        if (count < period) {
+            value += x;
+            if (++count == period) {
+                value /= period;
+            }
+        } else {
+            value += alpha * (x - value);
+        }
+    }
+
+    boolean isReady() {
+        return count >= period;
+    }
+
+    double getValue() {
+        return count >= period ? value : Double.NaN;
+    }
+
+    void reset() {
+        count = 0;
+        value = 0.0;
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.analysis.service.indicator;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The indicators of one symbol, updated together in one pass per tick.
+ * <p>
+ * Each output is addressed by a key: the indicator's name, followed by {@code .} and the output
+ * name for indicators with more than one output, e.g. {@code RSI(14)} or
+ * {@code MACD(12,26,9).signal}. The keys are built once, so neither updating nor reading into a
+ * caller's buffer allocates.
+ * <p>
+ * Not thread-safe.
+ */
+public final class IndicatorSet {
+    public static final IndicatorSet EMPTY = new IndicatorSet(List.of());
+
+    private final List<IndicatorSpec> specs;
+    private final StreamingIndicator[] indicators;
+    private final List<String> keys;
+
+    /**
+     * @throws IllegalArgumentException If a spec's parameters are out of range.
+     */
+    public IndicatorSet(List<IndicatorSpec> specs) {
+        this.specs = List.copyOf(specs);
+        this.indicators = new StreamingIndicator[this.specs.size()];
+        List<String> keys = new ArrayList<>();
+        for (int i = 0; i < indicators.length; i++) {
+            StreamingIndicator indicator = this.specs.get(i).create();
+            indicators[i] = indicator;
+            List<String> outputs = indicator.getOutputNames();
+            for (String output : outputs) {
+                keys.add(outputs.size() == 1 ? indicator.getName() : indicator.getName() + "." + output);
+            }
+        }
+        this.keys = Collections.unmodifiableList(keys);
+    }
+
+    public void update(double price, double volume, long timestamp) {
+        for (StreamingIndicator indicator : indicators) {
+            indicator.update(price, volume, timestamp);
+        }
+    }
+
+    /**
+     * Copy every output into {@code values}, in the order of {@link #getKeys()}. Outputs of
+     * indicators that are not ready yet are NaN.
+     *
+     * @param values A buffer of at least {@link #getOutputCount()} values.
+     */
+    public void read(double[] values) {
+        int next = 0;
+        for (StreamingIndicator indicator : indicators) {
+            int outputs = indicator.getOutputNames().size();
+            for (int output = 0; output < outputs; output++) {
+                values[next++] = indicator.getValue(output);
+            }
+        }
+    }
+
+    public void reset() {
+        for (StreamingIndicator indicator : indicators) {
+            indicator.reset();
+        }
+    }
+
+    public List<IndicatorSpec> getSpecs() {
+        return specs;
+    }
+
+    public List<String> getKeys() {
+        return keys;
+    }
+
+    public int getOutputCount() {
+        return keys.size();
+    }
+
+    public boolean isEmpty() {
+        return indicators.length == 0;
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.analysis.service.indicator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * An indicator type and its parameters, written like {@code RSI(14)}, {@code MACD(12,26,9)},
+ * {@code BOLLINGER(20,2)}, {@code ATR(14)} or {@code VWAP}. Trailing parameters may be left out
+ * and take the type's defaults, so {@code MACD} is {@code MACD(12,26,9)}.
+ *
+ * @param type The indicator type.
+ * @param parameters All of the type's parameters.
+ */
+public record IndicatorSpec(IndicatorType type, List<Double> parameters) {
+
+    public IndicatorSpec {
+        if (type == null) {
+            throw new IllegalArgumentException("Indicator type must not be null");
+        }
+        if (parameters == null || parameters.size() > type.getParameterCount()) {
+            throw new IllegalArgumentException(type + " takes at most " + type.getParameterCount()
+                    + " parameters, got " + parameters);
+        }
+        List<Double> complete = new ArrayList<>(parameters);
+        for (int i = complete.size(); i < type.getParameterCount(); i++) {
+            complete.add(type.getDefault(i));
+        }
+        parameters = List.copyOf(complete);
+    }
+
+    public static IndicatorSpec of(IndicatorType type, double... parameters) {
+        List<Double> list = new ArrayList<>(parameters.length);
+        for (double parameter : parameters) {
+            list.add(parameter);
+        }
+        return new IndicatorSpec(type, list);
+    }
+
+    /**
+     * Parse one indicator, case-insensitively, e.g. {@code "rsi(14)"}.
+     *
+     * @throws IllegalArgumentException If the text is not a valid indicator.
+     */
+    public static IndicatorSpec parse(String text) {
+        if (text == null || text.isBlank()) {
+            throw new IllegalArgumentException("Indicator must not be empty");
+        }
+        String trimmed = text.trim();
+        int open = trimmed.indexOf('(');
+        String name = open < 0 ? trimmed : trimmed.substring(0, open).trim();
+        IndicatorType type;
+        try {
+            type = IndicatorType.valueOf(name.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown indicator: " + name);
+        }
+
+        List<Double> parameters = new ArrayList<>();
+        if (open >= 0) {
+            if (!trimmed.endsWith(")")) {
+                throw new IllegalArgumentException("Missing ')' in indicator: " + text);
+            }
+            String arguments = trimmed.substring(open + 1, trimmed.length() - 1).trim();
+            if (!arguments.isEmpty()) {
+                for (String argument : arguments.split(",")) {
+                    try {
+                        parameters.add(Double.parseDouble(argument.trim()));
+                    } catch (NumberFormatException e) {
+                        throw new IllegalArgumentException("Invalid parameter '" + argument.trim()
+                                + "' in indicator: " + text);
+                    }
+                }
+            }
+        }
+        return new IndicatorSpec(type, parameters);
+    }
+
+    /**
+     * Parse a list of indicators separated by commas or semicolons outside parentheses, e.g.
+     * {@code "RSI(14), MACD(12,26,9)"}.
+     *
+     * @return The indicators, none for a blank list.
+     */
+    public static List<IndicatorSpec> parseList(String text) {
+        List<IndicatorSpec> specs = new ArrayList<>();
+        if (text == null || text.isBlank()) {
+            return specs;
+        }
+        int depth = 0;
+        int start = 0;
+        for (int i = 0; i <= text.length(); i++) {
+            char c = i < text.length() ? text.charAt(i) : ',';
+            if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth--;
+            } else if ((c == ',' || c == ';') && depth == 0) {
+                if (!text.substring(start, i).isBlank()) {
+                    specs.add(parse(text.substring(start, i)));
+                }
+                start = i + 1;
+            }
+        }
+        return specs;
+    }
+
+    /**
+     * Create a new indicator with this spec and no ticks seen yet.
+     *
+     * @throws IllegalArgumentException If the parameters are out of range for the type.
+     */
+    public StreamingIndicator create() {
+        double[] values = new double[parameters.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = parameters.get(i);
+        }
+        return type.create(values);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder(type.name()).append('(');
+        for (int i = 0; i < parameters.size(); i++) {
+            text.append(i == 0 ? "" : ",").append(format(parameters.get(i)));
+        }
+        return text.append(')').toString();
+    }
+
+    // Whole numbers without a fraction, as they are written in specs
+    static String format(double value) {
+        return value == Math.rint(value) && Math.abs(value) < 1e15 ? Long.toString((long) value) : Double.toString(value);
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.analysis.service.indicator;
+
+/**
+ * The indicators {@link IndicatorSpec} can create, with their parameters and defaults.
+ */
+public enum IndicatorType {
+    /**
+     * {@link RsiIndicator}: period.
+     */
+    RSI(14) {
+        @Override
+        StreamingIndicator create(double[] parameters) {
+            return new RsiIndicator(integer(parameters[0]));
+        }
+    },
+    /**
+     * {@link MacdIndicator}: fast period, slow period, signal period.
+     */
+    MACD(12, 26, 9) {
+        @Override
+        StreamingIndicator create(double[] parameters) {
+            return new MacdIndicator(integer(parameters[0]), integer(parameters[1]), integer(parameters[2]));
+        }
+    },
+    /**
+     * {@link BollingerIndicator}: period, band width in standard deviations.
+     */
+    BOLLINGER(20, 2) {
+        @Override
+        StreamingIndicator create(double[] parameters) {
+            return new BollingerIndicator(integer(parameters[0]), parameters[1]);
+        }
+    },
+    /**
+     * {@link AtrIndicator}: period, bar length in milliseconds (0 for one bar per tick).
+     */
+    ATR(14, 0) {
+        @Override
+        StreamingIndicator create(double[] parameters) {
+            return new AtrIndicator(integer(parameters[0]), (long) integer(parameters[1]));
+        }
+    },
+    /**
+     * {@link VwapIndicator}: session length in milliseconds (0 for no sessions).
+     */
+    VWAP(0) {
+        @Override
+        StreamingIndicator create(double[] parameters) {
+            return new VwapIndicator((long) integer(parameters[0]));
+        }
+    };
+
+    private final double[] defaults;
+
+    IndicatorType(double... defaults) {
+        this.defaults = defaults;
+    }
+
+    /**
+     * @return The number of parameters the indicator takes.
+     */
+    public int getParameterCount() {
+        return defaults.length;
+    }
+
+    /**
+     * @return The value of a parameter that is not given.
+     */
+    public double getDefault(int parameter) {
+        return defaults[parameter];
+    }
+
+    /**
+     * @param parameters Exactly {@link #getParameterCount()} parameters.
+     */
+    abstract StreamingIndicator create(double[] parameters);
+
+    private static int integer(double parameter) {
+        if (parameter != Math.rint(parameter) || Math.abs(parameter) > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Expected a whole number, got " + parameter);
+        }
+        return (int) parameter;
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.analysis.service.indicator;
+
+import java.util.List;
+
+/**
+ * Moving average convergence/divergence: the fast EMA minus the slow EMA of the price, its signal
+ * line (an EMA of the MACD itself) and the histogram between the two.
+ */
+public final class MacdIndicator implements StreamingIndicator {
+    private static final List<String> OUTPUTS = List.of("macd", "signal", "histogram");
+
+    private final int fastPeriod;
+    private final int slowPeriod;
+    private final int signalPeriod;
+    private final ExponentialAverage fast;
+    private final ExponentialAverage slow;
+    private final ExponentialAverage signal;
+    private double macd = Double.NaN;
+
+    public MacdIndicator(int fastPeriod, int slowPeriod, int signalPeriod) {
+        if (fastPeriod < 1 || signalPeriod < 1 || slowPeriod <= fastPeriod) {
+            throw new IllegalArgumentException("MACD periods must be positive with the fast period below the slow "
+                    + "one, got " + fastPeriod + ", " + slowPeriod + ", " + signalPeriod);
+        }
+        this.fastPeriod = fastPeriod;
+        this.slowPeriod = slowPeriod;
+        this.signalPeriod = signalPeriod;
+        this.fast = ExponentialAverage.ema(fastPeriod);
+        this.slow = ExponentialAverage.ema(slowPeriod);
+        this.signal = ExponentialAverage.ema(signalPeriod);
+    }
+
+    @Override
+    public String getName() {
+        return "MACD(" + fastPeriod + "," + slowPeriod + "," + signalPeriod + ")";
+    }
+
+    @Override
+    public List<String> getOutputNames() {
+        return OUTPUTS;
+    }
+
+    @Override
+    public void update(double price, double volume, long timestamp) {
+        fast.update(price);
+        slow.update(price);
+        // The fast average is ready first, so both are once the slow one is
+        if (slow.isReady()) {
+            macd = fast.getValue() - slow.getValue();
+            signal.update(macd);
+        }
+    }
+
+    @Override
+    public boolean isReady() {
+        return signal.isReady();
+    }
+
+    @Override
+    public double getValue(int output) {
+        if (!isReady()) {
+            return Double.NaN;
+        }
+        switch (output) {
+            case 0:
+                return macd;
+            case 1:
+                return signal.getValue();
+            default:
+                return macd - signal.getValue();
+        }
+    }
+
+    @Override
+    public void reset() {
+        fast.reset();
+        slow.reset();
+        signal.reset();
+        macd = Double.NaN;
+    }
+}
@@ -0,0 +1,203 @@
+package com.example.analysis.service.indicator;
+
+/**
+ * Mean and variance of the last {@code period} values, updated in O(1) per value and stable over
+ * any number of updates.
+ * <p>
+ * The running sum and Welford's sum of squared deviations are both accumulated with Neumaier's
+ * compensated summation, so adding a value and subtracting the one leaving the window loses
+ * almost nothing to rounding, and the variance is never computed as a difference of two large
+ * sums. Both work on the values' offsets from a shift near the mean, which are exact for values
+ * close to it, so a price level of millions does not cost the precision of moves of cents.
+ * <p>
+ * What rounding error remains is cleared every {@code resyncInterval} updates by recomputing both
+ * sums from the window, an O(period) pass that costs {@code period / resyncInterval} per update
+ * amortized.
+ * <p>
+ * Not thread-safe.
+ */
+public final class RollingStatistics {
+    /**
+     * Windows recomputed per window length of updates is 1 / this.
+     */
+    public static final int DEFAULT_RESYNC_PERIODS = 64;
+
+    private final int period;
+    private final long resyncInterval;
+    private final double[] window;
+    private int count;
+    private int next;
+    private long sinceResync;
+    private long resyncs;
+    private double latest = Double.NaN;
+    private double shift;
+    // Neumaier-compensated sums: value plus compensation
+    private double sum;
+    private double sumCompensation;
+    private double squaredDeviations;
+    private double squaredDeviationsCompensation;
+
+    public RollingStatistics(int period) {
+        this(period, (long) period * DEFAULT_RESYNC_PERIODS);
+    }
+
+    /**
+     * @param period The number of most recent values covered.
+     * @param resyncInterval The number of updates between two exact recomputations.
+     */
+    public RollingStatistics(int period, long resyncInterval) {
+        if (period < 1) {
+            throw new IllegalArgumentException("Rolling window must be positive, got " + period);
+        }
+        if (resyncInterval < 1) {
+            throw new IllegalArgumentException("Resync interval must be positive, got " + resyncInterval);
+        }
+        this.period = period;
+        this.resyncInterval = resyncInterval;
+        this.window = new double[period];
+    }
+
+    public void add(double value) {
+        if (count == 0) {
+            shift = value;
+        }
+        double offset = value - shift;
+        double oldMean = shiftedMean();
+        if (count == period) {
+            double leaving = window[next] - shift;
+            addToSum(offset - leaving);
+            double newMean = shiftedMean();
+            // Welford's update for replacing one value of a fixed-size window
+            addToSquaredDeviations((offset - leaving) * (offset - newMean + leaving - oldMean));
+        } else {
+            count++;
+            addToSum(offset);
+            addToSquaredDeviations(count == 1 ? 0.0 : (offset - oldMean) * (offset - shiftedMean()));
+        }
+        window[next] = value;
+        next = next + 1 == period ? 0 : next + 1;
+        latest = value;
+
+        if (++sinceResync >= resyncInterval) {
+            resync();
+        }
+    }
+
+    private void addToSum(double value) {
+        double total = sum + value;
+        if (Math.abs(sum) >= Math.abs(value)) {
+            sumCompensation += (sum - total) + value;
+        } else {
+            sumCompensation += (value - total) + sum;
+        }
+        sum = total;
+    }
+
+    private void addToSquaredDeviations(double value) {
+        double total = squaredDeviations + value;
+        if (Math.abs(squaredDeviations) >= Math.abs(value)) {
+            squaredDeviationsCompensation += (squaredDeviations - total) + value;
+        } else {
+            squaredDeviationsCompensation += (value - total) + squaredDeviations;
+        }
+        squaredDeviations = total;
+    }
+
+    /**
+     * Recompute the sums exactly from the values in the window, around their current mean.
+     */
+    public void resync() {
+        // Re-center on the current mean, so that offsets stay small as the level moves
+        shift = getMean();
+        sum = 0.0;
+        sumCompensation = 0.0;
+        for (int i = 0; i < count; i++) {
+            addToSum(window[i] - shift);
+        }
+        squaredDeviations = 0.0;
+        squaredDeviationsCompensation = 0.0;
+        for (int i = 0; i < count; i++) {
+            double deviation = window[i] - shift;
+            addToSquaredDeviations(deviation * deviation);
+        }
+        sinceResync = 0;
+        resyncs++;
+    }
+
+    /**
+     * @return Whether the window holds {@code period} values.
+     */
+    public boolean isFull() {
+        return count == period;
+    }
+
+    /**
+     * @return The number of values in the window, at most {@code period}.
+     */
+    public int getCount() {
+        return count;
+    }
+
+    public int getPeriod() {
+        return period;
+    }
+
+    /**
+     * @return The most recent value, or NaN before the first one.
+     */
+    public double getLatest() {
+        return latest;
+    }
+
+    /**
+     * @return The mean of the values in the window, or NaN if it is empty.
+     */
+    public double getMean() {
+        return count == 0 ? Double.NaN : shift + shiftedMean();
+    }
+
+    private double shiftedMean() {
+        return count == 0 ? 0.0 : (sum + sumCompensation) / count;
+    }
+
+    /**
+     * @return The population variance of the values in the window, or NaN if it is empty.
+     */
+    public double getVariance() {
+        return count == 0 ? Double.NaN : Math.max(0.0, squaredDeviations + squaredDeviationsCompensation) / count;
+    }
+
+    /**
+     * @return The population standard deviation of the values in the window, or NaN if it is empty.
+     */
+    public double getStdDev() {
+        return Math.sqrt(getVariance());
+    }
+
+    /**
+     * @return How many standard deviations {@code value} lies from the mean; 0 if the values in
+     * the window do not vary, NaN if it is empty.
+     */
+    public double zScore(double value) {
+        double stdDev = getStdDev();
+        return stdDev == 0.0 ? 0.0 : (value - getMean()) / stdDev;
+    }
+
+    /**
+     * @return The number of exact recomputations so far.
+     */
+    public long getResyncCount() {
+        return resyncs;
+    }
+
+    public void reset() {
+        count = 0;
+        next = 0;
+        sinceResync = 0;
+        latest = Double.NaN;
+        sum = 0.0;
+        sumCompensation = 0.0;
+        squaredDeviations = 0.0;
+        squaredDeviationsCompensation = 0.0;
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.analysis.service.indicator;
+
+import java.util.List;
+
+/**
+ * Wilder's relative strength index: 100 - 100 / (1 + average gain / average loss), with both
+ * averages smoothed over {@code period} price changes.
+ */
+public final class RsiIndicator implements StreamingIndicator {
+    private static final List<String> OUTPUTS = List.of("rsi");
+
+    private final int period;
+    private final ExponentialAverage gains;
+    private final ExponentialAverage losses;
+    private double previous = Double.NaN;
+
+    public RsiIndicator(int period) {
+        if (period < 1) {
+            throw new IllegalArgumentException("RSI period must be positive, got " + period);
+        }
+        this.period = period;
+        this.gains = ExponentialAverage.wilder(period);
+        this.losses = ExponentialAverage.wilder(period);
+    }
+
+    @Override
+    public String getName() {
+        return "RSI(" + period + ")";
+    }
+
+    @Override
+    public List<String> getOutputNames() {
+        return OUTPUTS;
+    }
+
+    @Override
+    public void update(double price, double volume, long timestamp) {
+        if (!Double.isNaN(previous)) {
+            double change = price - previous;
+            gains.update(Math.max(change, 0.0));
+            losses.update(Math.max(-change, 0.0));
+        }
+        previous = price;
+    }
+
+    @Override
+    public boolean isReady() {
+        return losses.isReady();
+    }
+
+    @Override
+    public double getValue(int output) {
+        if (!isReady()) {
+            return Double.NaN;
+        }
+        double gain = gains.getValue();
+        double loss = losses.getValue();
+        if (loss == 0.0) {
+            return gain == 0.0 ? 50.0 : 100.0;
+        }
+        return 100.0 - 100.0 / (1.0 + gain / loss);
+    }
+
+    @Override
+    public void reset() {
+        gains.reset();
+        losses.reset();
+        previous = Double.NaN;
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.analysis.service.indicator;
+
+import java.util.List;
+
+/**
+ * A technical indicator maintained incrementally, one tick at a time.
+ * <p>
+ * Implementations keep constant-size state, sized when they are created, so that an update costs
+ * O(1) regardless of how much history the symbol has, and never allocate: every output is held in
+ * a primitive field and read back with {@link #getValue(int)}.
+ * <p>
+ * Not thread-safe; {@code TimeSeriesAnalysis} updates its indicators under its writer lock.
+ */
+public interface StreamingIndicator {
+
+    /**
+     * @return The indicator and its parameters, e.g. {@code RSI(14)}.
+     */
+    String getName();
+
+    /**
+     * @return The names of the indicator's outputs, e.g. {@code macd}, {@code signal} and
+     * {@code histogram}; always the same list.
+     */
+    List<String> getOutputNames();
+
+    /**
+     * Take the next tick into account.
+     *
+     * @param price The traded price.
+     * @param volume The traded volume, or 0 if unknown.
+     * @param timestamp The tick time in epoch milliseconds.
+     */
+    void update(double price, double volume, long timestamp);
+
+    /**
+     * @return Whether enough ticks have arrived for the outputs to be defined.
+     */
+    boolean isReady();
+
+    /**
+     * @param output The index of the output in {@link #getOutputNames()}.
+     * @return The output's current value, or NaN while the indicator is not ready.
+     */
+    double getValue(int output);
+
+    /**
+     * Forget every tick seen so far.
+     */
+    void reset();
+}
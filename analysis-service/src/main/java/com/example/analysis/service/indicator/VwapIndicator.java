@@ -0,0 +1,67 @@
+package com.example.analysis.service.indicator;
+
+import java.util.List;
+
+/**
+ * Volume-weighted average price since the start of the current session. Sessions are
+ * {@code sessionMillis} long and aligned to the epoch, so {@code 86400000} restarts the average at
+ * midnight UTC; 0 never restarts it. Ticks without volume do not move the average.
+ */
+public final class VwapIndicator implements StreamingIndicator {
+    private static final List<String> OUTPUTS = List.of("vwap");
+
+    private final long sessionMillis;
+    private long session = Long.MIN_VALUE;
+    private double priceVolume;
+    private double volume;
+
+    public VwapIndicator(long sessionMillis) {
+        if (sessionMillis < 0) {
+            throw new IllegalArgumentException("VWAP session length must not be negative, got " + sessionMillis);
+        }
+        this.sessionMillis = sessionMillis;
+    }
+
+    @Override
+    public String getName() {
+        return sessionMillis == 0 ? "VWAP" : "VWAP(" + sessionMillis + ")";
+    }
+
+    @Override
+    public List<String> getOutputNames() {
+        return OUTPUTS;
+    }
+
+    @Override
+    public void update(double price, double volume, long timestamp) {
+        if (sessionMillis > 0) {
+            long tickSession = Math.floorDiv(timestamp, sessionMillis);
+            if (tickSession != session) {
+                session = tickSession;
+                this.priceVolume = 0.0;
+                this.volume = 0.0;
+            }
+        }
+        if (volume > 0) {
+            this.priceVolume += price * volume;
+            this.volume += volume;
+        }
+    }
+
+    @Override
+    public boolean isReady() {
+        return volume > 0;
+    }
+
+    @Override
+    public double getValue(int output) {
+        return volume > 0 ? priceVolume / volume : Double.NaN;
+    }
+
+    @Override
+    public void reset() {
+        session = Long.MIN_VALUE;
+        priceVolume = 0.0;
+        volume = 0.0;
+    }
+}
@@ -0,0 +1,184 @@
+package com.example.analysis.service.spectrogram;
+
+import com.example.analysis.model.Spectrogram;
+import com.example.analysis.service.fft.FftPlan;
+import com.example.analysis.service.fft.FftPlanCache;
+import com.example.analysis.service.fft.RealFft;
+import com.example.analysis.service.fft.WindowTable;
+import com.example.analysis.service.fft.WindowTableCache;
+import com.example.analysis.service.history.TickWindow;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.DoubleBuffer;
+import java.nio.LongBuffer;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
+
+/**
+ * Computes the spectrogram of a symbol's history for one {@link SpectrogramSpec}, transforming
+ * each segment only once.
+ * <p>
+ * Segments are aligned to absolute tick indices: segment {@code s} covers ticks
+ * {@code [s * hop, s * hop + segmentLength)} of everything ever appended, which a
+ * {@link TickWindow} locates through {@link TickWindow#getAppendedCount()}. A segment's ticks never
+ * change once appended, so its power spectrum is cached by segment index, and when new ticks
+ * arrive only the segments they complete are transformed. Segments that have left the history are
+ * evicted. Missing segments are transformed in parallel on the common fork-join pool, or on the
+ * caller's pool when called from one.
+ * <p>
+ * Cached spectra hold raw windowed power, {@code |X_k|^2}; the scaling to a one-sided density
+ * depends on the sampling frequency of the current history and is applied per call.
+ * <p>
+ * Thread-safe. An engine assumes its windows all come from the same history; use a new engine
+ * after the history is reset.
+ */
+public class SpectrogramEngine {
+    private static final Logger logger = LoggerFactory.getLogger(SpectrogramEngine.class);
+    private static final int PARALLEL_THRESHOLD = 4;
+
+    private final SpectrogramSpec spec;
+    private final WindowTable window;
+    private final double[] binWeights;
+    private final NavigableMap<Long, double[]> segmentPower = new TreeMap<>();
+    private final LongAdder computedSegments = new LongAdder();
+    private final LongAdder reusedSegments = new LongAdder();
+
+    public SpectrogramEngine(SpectrogramSpec spec) {
+        this.spec = spec;
+        int length = spec.segmentLength();
+        this.window = WindowTableCache.shared().getTable(spec.window(), length);
+        // One-sided: every bin but DC and Nyquist also carries the power of its negative frequency
+        this.binWeights = new double[RealFft.spectrumSize(length)];
+        for (int k = 0; k < binWeights.length; k++) {
+            binWeights[k] = k == 0 || 2 * k == length ? 1.0 : 2.0;
+        }
+    }
+
+    public SpectrogramSpec getSpec() {
+        return spec;
+    }
+
+    /**
+     * Compute the spectrogram of every whole segment inside a window of the history. Segments
+     * transformed for this call are only cached if the window was still intact afterwards.
+     *
+     * @param ticks A window of the history, such as the one passed to a reader.
+     * @param samplingFrequency The sampling frequency of the history, in Hz.
+     * @return The density of each segment, or {@link Spectrogram#EMPTY} if no segment fits.
+     */
+    public Spectrogram compute(TickWindow ticks, double samplingFrequency) {
+        int length = spec.segmentLength();
+        int hop = spec.hop();
+        long end = ticks.getAppendedCount();
+        long start = end - ticks.size();
+        long firstSegment = Math.floorDiv(start + hop - 1, hop);
+        long lastSegment = Math.floorDiv(end - length, hop);
+        if (end < length || firstSegment > lastSegment) {
+            return Spectrogram.EMPTY;
+        }
+        if (!(samplingFrequency > 0) || Double.isInfinite(samplingFrequency)) {
+            logger.error("Invalid sampling frequency {} for a spectrogram of {} ticks.", samplingFrequency, ticks.size());
+            return Spectrogram.EMPTY;
+        }
+
+        int segments = (int) (lastSegment - firstSegment + 1);
+        double[][] rows = new double[segments][];
+        int[] missing = new int[segments];
+        int missingCount = 0;
+        synchronized (this) {
+            for (int s = 0; s < segments; s++) {
+                rows[s] = segmentPower.get(firstSegment + s);
+                if (rows[s] == null) {
+                    missing[missingCount++] = s;
+                }
+            }
+        }
+        reusedSegments.add(segments - missingCount);
+
+        if (missingCount > 0) {
+            DoubleBuffer values = ticks.values();
+            FftPlan plan = FftPlanCache.shared().getPlan(length, FftPlan.Direction.FORWARD);
+            IntStream indices = IntStream.range(0, missingCount);
+            if (missingCount >= PARALLEL_THRESHOLD) {
+                indices = indices.parallel();
+            }
+            indices.forEach(j -> {
+                int s = missing[j];
+                rows[s] = transformSegment(plan, values, (int) ((firstSegment + s) * hop - start));
+            });
+            computedSegments.add(missingCount);
+
+            if (ticks.isIntact()) {
+                synchronized (this) {
+                    for (int j = 0; j < missingCount; j++) {
+                        segmentPower.put(firstSegment + missing[j], rows[missing[j]]);
+                    }
+                    segmentPower.headMap(firstSegment).clear();
+                }
+            }
+        }
+        logger.debug("Spectrogram of {} segments: {} transformed, {} reused", segments, missingCount,
+                segments - missingCount);
+        return assemble(ticks.timestamps(), rows, firstSegment * hop - start, samplingFrequency);
+    }
+
+    // The windowed power spectrum of the segment starting at the given index of the window
+    private double[] transformSegment(FftPlan plan, DoubleBuffer values, int from) {
+        int length = spec.segmentLength();
+        double[] real = new double[binWeights.length];
+        double[] imag = new double[binWeights.length];
+        // The window is applied while the segment is packed into the transform input
+        RealFft.forward(plan, values.slice(from, length), length, window, real, imag);
+        for (int k = 0; k < real.length; k++) {
+            real[k] = real[k] * real[k] + imag[k] * imag[k];
+        }
+        return real;
+    }
+
+    private Spectrogram assemble(LongBuffer timestamps, double[][] rows, long firstStart, double samplingFrequency) {
+        int length = spec.segmentLength();
+        int hop = spec.hop();
+        int bins = binWeights.length;
+        double[] frequencies = new double[bins];
+        for (int k = 0; k < bins; k++) {
+            frequencies[k] = k * samplingFrequency / length;
+        }
+
+        double scale = 1.0 / (samplingFrequency * window.getSquaredSum());
+        long[] segmentTimestamps = new long[rows.length];
+        double[] density = new double[rows.length * bins];
+        for (int s = 0; s < rows.length; s++) {
+            segmentTimestamps[s] = timestamps.get((int) (firstStart + (long) s * hop + length / 2));
+            double[] power = rows[s];
+            int row = s * bins;
+            for (int k = 0; k < bins; k++) {
+                density[row + k] = power[k] * binWeights[k] * scale;
+            }
+        }
+        return Spectrogram.wrap(frequencies, segmentTimestamps, density, samplingFrequency);
+    }
+
+    /**
+     * @return The number of segment spectra currently cached.
+     */
+    public synchronized int getCachedSegmentCount() {
+        return segmentPower.size();
+    }
+
+    /**
+     * @return The number of segments transformed so far.
+     */
+    public long getComputedSegmentCount() {
+        return computedSegments.sum();
+    }
+
+    /**
+     * @return The number of segments served from the cache so far.
+     */
+    public long getReusedSegmentCount() {
+        return reusedSegments.sum();
+    }
+}
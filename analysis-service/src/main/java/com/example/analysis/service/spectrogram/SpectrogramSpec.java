@@ -0,0 +1,32 @@
+package com.example.analysis.service.spectrogram;
+
+import com.example.analysis.service.fft.WindowFunction;
+
+/**
+ * How a series is cut into segments for a spectrogram or a Welch PSD.
+ *
+ * @param segmentLength The number of ticks per segment, which is also the transform length.
+ * @param overlap The number of ticks shared by consecutive segments, less than the segment length.
+ * @param window The window applied to each segment before its transform.
+ */
+public record SpectrogramSpec(int segmentLength, int overlap, WindowFunction window) {
+
+    public SpectrogramSpec {
+        if (segmentLength < 2) {
+            throw new IllegalArgumentException("Segment length must be at least 2, got " + segmentLength);
+        }
+        if (overlap < 0 || overlap >= segmentLength) {
+            throw new IllegalArgumentException("Overlap must be in [0, " + segmentLength + "), got " + overlap);
+        }
+        if (window == null) {
+            throw new IllegalArgumentException("A window function is required");
+        }
+    }
+
+    /**
+     * @return The number of ticks between the starts of consecutive segments.
+     */
+    public int hop() {
+        return segmentLength - overlap;
+    }
+}
@@ -0,0 +1,175 @@
+package com.example.analysis.controller;
+
+import com.example.analysis.service.TimeSeriesAnalysis;
+import com.example.shared.codec.ColumnarCodec;
+import com.example.shared.codec.ColumnarHttpMessageConverter;
+import com.example.shared.dto.FourierAnalysisDTO;
+import com.example.shared.dto.TimeSeriesDataDTO;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.support.StaticWebApplicationContext;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AnalysisControllerTest {
+    private static final double DELTA = 1e-9;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private TimeSeriesAnalysis analysis;
+    private AnalysisController controller;
+
+    @BeforeEach
+    void setUp() {
+        analysis = new TimeSeriesAnalysis(3, 3);
+        for (int i = 0; i < 64; i++) {
+            analysis.addPrice(Math.sin(2 * Math.PI * 4 * i / 64.0), 1000L + 50L * i);
+        }
+        controller = new AnalysisController(analysis);
+    }
+
+    @Test
+    void testTimeSeriesJsonMatchesHistory() throws Exception {
+        ResponseEntity<StreamingResponseBody> response =
+                controller.getTimeSeriesData(null, null, null, MediaType.APPLICATION_JSON_VALUE);
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+
+        JsonNode points = objectMapper.readTree(render(response));
+        List<Double> values = analysis.getValues();
+        assertEquals(values.size(), points.size());
+        for (int i = 0; i < points.size(); i++) {
+            assertEquals(analysis.getTimestamps().get(i), points.get(i).get("timestamp").asLong());
+            assertEquals(values.get(i), points.get(i).get("value").asDouble(), DELTA);
+        }
+    }
+
+    @Test
+    void testTimeSeriesRangeAndLimitKeepMostRecent() throws Exception {
+        // Timestamps 2000..3000 are points 20..40; the limit keeps the last five of them
+        JsonNode points = objectMapper.readTree(render(
+                controller.getTimeSeriesData(2000L, 3000L, 5, null)));
+        assertEquals(5, points.size());
+        assertEquals(2800L, points.get(0).get("timestamp").asLong());
+        assertEquals(3000L, points.get(4).get("timestamp").asLong());
+    }
+
+    @Test
+    void testTimeSeriesNdjson() throws Exception {
+        ResponseEntity<StreamingResponseBody> response =
+                controller.getTimeSeriesData(null, null, 3, MediaType.APPLICATION_NDJSON_VALUE);
+        assertEquals(MediaType.APPLICATION_NDJSON, response.getHeaders().getContentType());
+
+        String[] lines = render(response).split("\n");
+        assertEquals(3, lines.length);
+        assertEquals(4150L, objectMapper.readTree(lines[2]).get("timestamp").asLong());
+    }
+
+    @Test
+    void testFormatFollowsAcceptQualityAndOrder() {
+        String columnar = ColumnarCodec.MEDIA_TYPE_VALUE;
+        assertEquals(MediaType.APPLICATION_JSON, contentType("application/json, application/x-ndjson;q=0.1"));
+        assertEquals(MediaType.APPLICATION_NDJSON, contentType("application/json;q=0.2, application/x-ndjson;q=0.5"));
+        assertEquals(MediaType.APPLICATION_NDJSON, contentType("application/x-ndjson, application/json"));
+        assertEquals(ColumnarHttpMessageConverter.MEDIA_TYPE,
+                contentType("application/x-ndjson;q=0.3, " + columnar + ";q=0.9, */*;q=0.1"));
+        assertEquals(MediaType.APPLICATION_JSON, contentType("*/*, application/x-ndjson;q=0.5"));
+        assertEquals(MediaType.APPLICATION_JSON, contentType("application/x-ndjson;q=0, */*;q=0.1"));
+    }
+
+    @Test
+    void testUnlistedAcceptFallsBackToJson() throws Exception {
+        assertEquals(MediaType.APPLICATION_JSON, contentType("text/plain"));
+        assertEquals(MediaType.APPLICATION_JSON,
+                controller.getFrequencyData(null, null, null, null, "text/plain").getHeaders().getContentType());
+
+        // The mappings must not turn the request away with a 406 before the controller negotiates
+        StaticWebApplicationContext context = new StaticWebApplicationContext();
+        context.getBeanFactory().registerSingleton("analysisController", controller);
+        RequestMappingHandlerMapping mapping = new RequestMappingHandlerMapping();
+        mapping.setApplicationContext(context);
+        mapping.afterPropertiesSet();
+        for (String path : List.of("/api/v1/analysis/timeseries", "/api/v1/analysis/frequency")) {
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+            request.addHeader(HttpHeaders.ACCEPT, MediaType.TEXT_PLAIN_VALUE);
+            assertNotNull(mapping.getHandler(request), path);
+        }
+    }
+
+    @Test
+    void testFrequencyJsonMatchesSpectrum() throws Exception {
+        JsonNode bins = objectMapper.readTree(render(controller.getFrequencyData(null, null, null, null, null)));
+        List<Double[]> expected = analysis.getFrequencyMagnitudePairs();
+        assertEquals(expected.size(), bins.size());
+        for (int k = 0; k < bins.size(); k++) {
+            assertEquals(expected.get(k)[0], bins.get(k).get("frequency").asDouble(), DELTA);
+            assertEquals(expected.get(k)[1], bins.get(k).get("magnitude").asDouble(), DELTA);
+        }
+    }
+
+    @Test
+    void testFrequencyRangeAndLimit() throws Exception {
+        JsonNode bins = objectMapper.readTree(render(controller.getFrequencyData(1.0, 5.0, 2, null, null)));
+        assertEquals(2, bins.size());
+        assertTrue(bins.get(0).get("frequency").asDouble() >= 1.0);
+        assertTrue(bins.get(1).get("frequency").asDouble() <= 5.0);
+    }
+
+    @Test
+    void testColumnarTimeSeries() throws Exception {
+        ResponseEntity<StreamingResponseBody> response =
+                controller.getTimeSeriesData(2000L, null, 10, ColumnarCodec.MEDIA_TYPE_VALUE);
+        assertEquals(ColumnarHttpMessageConverter.MEDIA_TYPE, response.getHeaders().getContentType());
+
+        TimeSeriesDataDTO decoded = ColumnarCodec.decodeTimeSeries(renderBytes(response));
+        List<Long> timestamps = analysis.getTimestamps();
+        assertEquals(timestamps.subList(timestamps.size() - 10, timestamps.size()), decoded.getTimestamps());
+        List<Double> values = analysis.getValues();
+        assertEquals(values.subList(values.size() - 10, values.size()), decoded.getValues());
+    }
+
+    @Test
+    void testColumnarSpectrum() throws Exception {
+        FourierAnalysisDTO decoded = ColumnarCodec.decodeFourierAnalysis(renderBytes(
+                controller.getFrequencyData(null, null, null, null, ColumnarCodec.MEDIA_TYPE_VALUE)));
+        List<Double[]> expected = analysis.getFrequencyMagnitudePairs();
+        assertEquals(expected.size(), decoded.getComponents().size());
+        assertEquals(analysis.calculateSamplingFrequency(), decoded.getSamplingFrequency(), DELTA);
+        for (int k = 0; k < expected.size(); k++) {
+            assertEquals(expected.get(k)[0], decoded.getComponents().get(k).getFrequency());
+            assertEquals(expected.get(k)[1], decoded.getComponents().get(k).getMagnitude());
+        }
+    }
+
+    @Test
+    void testInvalidRangesAreRejected() {
+        assertEquals(HttpStatus.BAD_REQUEST, controller.getTimeSeriesData(3000L, 2000L, null, null).getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, controller.getTimeSeriesData(null, null, -1, null).getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, controller.getFrequencyData(5.0, 1.0, null, null, null).getStatusCode());
+    }
+
+    private MediaType contentType(String accept) {
+        return controller.getTimeSeriesData(null, null, null, accept).getHeaders().getContentType();
+    }
+
+    private static String render(ResponseEntity<StreamingResponseBody> response) throws Exception {
+        return new String(renderBytes(response), StandardCharsets.UTF_8);
+    }
+
+    private static byte[] renderBytes(ResponseEntity<StreamingResponseBody> response) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,201 @@
+package com.example.analysis.pipeline;
+
+import com.example.analysis.pipeline.RingBuffer.ProducerType;
+import com.example.analysis.service.FourierTransformerService;
+import com.example.analysis.service.TimeSeriesAnalysisService;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConflatorTest {
+
+    private record Update(String symbol, double open, double high, double low, double close, double volume,
+                          long ticks, long firstTimestamp, long lastTimestamp, boolean endOfDrain) {
+        static Update of(ConflatedTick tick, boolean endOfDrain) {
+            return new Update(tick.getSymbol(), tick.getOpen(), tick.getHigh(), tick.getLow(), tick.getClose(),
+                    tick.getVolume(), tick.getTickCount(), tick.getFirstTimestamp(), tick.getLastTimestamp(),
+                    endOfDrain);
+        }
+    }
+
+    private static Map<String, Update> drain(Conflator conflator) {
+        Map<String, Update> updates = new HashMap<>();
+        conflator.drain(new ConflatedTick(),
+                (tick, endOfDrain) -> updates.put(tick.getSymbol(), Update.of(tick, endOfDrain)), Integer.MAX_VALUE);
+        return updates;
+    }
+
+    @Test
+    void testLatestKeepsTheLastTickOfEachDirtySymbol() {
+        Conflator conflator = new Conflator(ConflationMode.LATEST);
+        conflator.update("A", 10.0, 1.0, 1);
+        conflator.update("A", 12.0, 2.0, 2);
+        conflator.update("A", 11.0, 3.0, 3);
+        conflator.update("B", 50.0, 4.0, 4);
+        assertEquals(2, conflator.getDirtyCount());
+
+        Map<String, Update> updates = drain(conflator);
+        assertEquals(Map.of(
+                "A", new Update("A", 11.0, 11.0, 11.0, 11.0, 3.0, 3, 1, 3, updates.get("A").endOfDrain()),
+                "B", new Update("B", 50.0, 50.0, 50.0, 50.0, 4.0, 1, 4, 4, updates.get("B").endOfDrain())),
+                updates);
+        assertEquals(1, updates.values().stream().filter(Update::endOfDrain).count());
+        assertEquals(4, conflator.getTickCount());
+
+        // Only symbols updated since the drain come back
+        assertTrue(drain(conflator).isEmpty());
+        conflator.update("B", 51.0, 5.0, 5);
+        assertEquals(List.of("B"), List.copyOf(drain(conflator).keySet()));
+    }
+
+    @Test
+    void testOhlcAggregatesTicksBetweenDrains() {
+        Conflator conflator = new Conflator(ConflationMode.OHLC);
+        conflator.update("A", 10.0, 1.0, 100);
+        conflator.update("A", 14.0, 2.0, 200);
+        conflator.update("A", 8.0, 3.0, 300);
+        conflator.update("A", 12.0, 4.0, 400);
+        assertEquals(new Update("A", 10.0, 14.0, 8.0, 12.0, 10.0, 4, 100, 400, true), drain(conflator).get("A"));
+
+        // The next bar starts afresh
+        conflator.update("A", 13.0, 5.0, 500);
+        assertEquals(new Update("A", 13.0, 13.0, 13.0, 13.0, 5.0, 1, 500, 500, true), drain(conflator).get("A"));
+    }
+
+    private static final String[] SYMBOLS = {"A", "B", "C", "D"};
+    private static final int TICKS_PER_SYMBOL = 200_000;
+
+    /**
+     * Each symbol's price counts its ticks, so bars are contiguous exactly when each one opens at the
+     * tick after the previous bar's close.
+     */
+    private static Thread startCountingWriter(Conflator conflator) {
+        Thread writer = new Thread(() -> {
+            for (int i = 1; i <= TICKS_PER_SYMBOL; i++) {
+                for (String symbol : SYMBOLS) {
+                    conflator.update(symbol, i, 1.0, i);
+                }
+            }
+        });
+        writer.start();
+        return writer;
+    }
+
+    private static void assertContiguousBars(Map<String, List<Update>> bars) {
+        for (String symbol : SYMBOLS) {
+            List<Update> symbolBars = new ArrayList<>(bars.get(symbol));
+            symbolBars.sort(Comparator.comparingDouble(Update::open));
+            long expectedOpen = 1;
+            for (Update bar : symbolBars) {
+                assertEquals(expectedOpen, bar.open(), symbol);
+                assertEquals(bar.open(), bar.low(), symbol);
+                assertEquals(bar.close(), bar.high(), symbol);
+                assertEquals(bar.close() - bar.open() + 1, bar.ticks(), symbol);
+                assertEquals(bar.ticks(), bar.volume(), symbol);
+                expectedOpen = (long) bar.close() + 1;
+            }
+            assertEquals(TICKS_PER_SYMBOL + 1, expectedOpen, symbol);
+        }
+    }
+
+    @Test
+    void testConcurrentDrainsSplitTicksIntoContiguousBars() throws Exception {
+        Conflator conflator = new Conflator(ConflationMode.OHLC);
+        Thread writer = startCountingWriter(conflator);
+
+        Map<String, List<Update>> bars = new HashMap<>();
+        ConflatedTick view = new ConflatedTick();
+        ConflatedTickHandler handler = (tick, endOfDrain) ->
+                bars.computeIfAbsent(tick.getSymbol(), s -> new ArrayList<>()).add(Update.of(tick, endOfDrain));
+        while (writer.isAlive()) {
+            conflator.drain(view, handler, 2);
+        }
+        writer.join();
+        conflator.drain(view, handler, Integer.MAX_VALUE);
+
+        assertContiguousBars(bars);
+    }
+
+    @Test
+    void testDrainersEachGetWholeBars() throws Exception {
+        Conflator conflator = new Conflator(ConflationMode.OHLC);
+        Thread writer = startCountingWriter(conflator);
+
+        int drainers = 2;
+        List<Map<String, List<Update>>> barsByDrainer = new ArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+        for (int d = 0; d < drainers; d++) {
+            Map<String, List<Update>> bars = new HashMap<>();
+            barsByDrainer.add(bars);
+            Thread drainer = new Thread(() -> {
+                ConflatedTick view = new ConflatedTick();
+                ConflatedTickHandler handler = (tick, endOfDrain) ->
+                        bars.computeIfAbsent(tick.getSymbol(), s -> new ArrayList<>()).add(Update.of(tick, endOfDrain));
+                while (writer.isAlive()) {
+                    conflator.drain(view, handler, 1);
+                    Thread.yield();
+                }
+            });
+            threads.add(drainer);
+            drainer.start();
+        }
+        writer.join();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        Map<String, List<Update>> bars = new HashMap<>();
+        for (Map<String, List<Update>> drained : barsByDrainer) {
+            drained.forEach((symbol, list) -> bars.computeIfAbsent(symbol, s -> new ArrayList<>()).addAll(list));
+        }
+        Map<String, List<Update>> rest = new HashMap<>();
+        conflator.drain(new ConflatedTick(), (tick, endOfDrain) ->
+                rest.computeIfAbsent(tick.getSymbol(), s -> new ArrayList<>()).add(Update.of(tick, endOfDrain)),
+                Integer.MAX_VALUE);
+        rest.forEach((symbol, list) -> bars.computeIfAbsent(symbol, s -> new ArrayList<>()).addAll(list));
+
+        // Both drainers took bars, and no bar mixes two symbols' or two drains' copies
+        assertTrue(barsByDrainer.stream().allMatch(drained -> !drained.isEmpty()));
+        assertContiguousBars(bars);
+    }
+
+    @Test
+    void testPipelineConflatesForDisplayWhileAnalysisSeesEveryTick() {
+        TimeSeriesAnalysisService service = new TimeSeriesAnalysisService(new FourierTransformerService());
+        TickPipeline pipeline = new TickPipeline(service, 1024, WaitStrategyType.BLOCKING, ProducerType.SINGLE, 1);
+        Conflator latest = pipeline.addConflator(ConflationMode.LATEST);
+        Conflator ohlc = pipeline.addConflator(ConflationMode.OHLC);
+        pipeline.start();
+        try {
+            int ticks = 3_000;
+            for (int i = 0; i < ticks; i++) {
+                pipeline.publish(i % 2 == 0 ? "EVEN" : "ODD", 100.0 + i, 1.0, i);
+            }
+            pipeline.publish("BAD", -1.0, 1.0, ticks);
+            assertTrue(pipeline.awaitProcessed(ticks, TimeUnit.SECONDS.toNanos(30)));
+
+            assertEquals(ticks / 2, service.findAnalysis("EVEN").getValues().size());
+            assertEquals(ticks / 2, service.findAnalysis("ODD").getValues().size());
+
+            Map<String, Update> latestUpdates = drain(latest);
+            assertEquals(2, latestUpdates.size());
+            assertEquals(100.0 + ticks - 1, latestUpdates.get("ODD").close());
+            assertEquals(100.0 + ticks - 2, latestUpdates.get("EVEN").close());
+
+            Update even = drain(ohlc).get("EVEN");
+            assertEquals(ticks / 2, even.ticks());
+            assertEquals(100.0, even.open());
+            assertEquals(100.0 + ticks - 2, even.high());
+            assertEquals(ticks / 2.0, even.volume());
+        } finally {
+            pipeline.stop();
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.example.analysis.pipeline;
+
+import com.example.analysis.pipeline.RingBuffer.ProducerType;
+import com.example.analysis.service.FourierTransformerService;
+import com.example.analysis.service.TimeSeriesAnalysisService;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TickPipelineTest {
+    private static final long TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(30);
+
+    private static TimeSeriesAnalysisService newService() {
+        return new TimeSeriesAnalysisService(new FourierTransformerService());
+    }
+
+    @Test
+    void testEveryWaitStrategyDeliversEveryTickInOrder() throws Exception {
+        for (WaitStrategyType waitStrategy : WaitStrategyType.values()) {
+            TimeSeriesAnalysisService service = newService();
+            // A ring far smaller than the ticks, so producers wrap it many times
+            TickPipeline pipeline = new TickPipeline(service, 64, waitStrategy, ProducerType.MULTI, 2);
+            AtomicInteger batches = new AtomicInteger();
+            pipeline.addListener((event, endOfBatch) -> {
+                if (endOfBatch) {
+                    batches.incrementAndGet();
+                }
+            });
+            pipeline.start();
+
+            int producers = 3;
+            int ticksPerProducer = waitStrategy == WaitStrategyType.BUSY_SPIN ? 500 : 5_000;
+            ExecutorService executor = Executors.newFixedThreadPool(producers);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int p = 0; p < producers; p++) {
+                // Each producer owns its symbols, so their order is defined
+                String[] symbols = {"P" + p + "A", "P" + p + "B"};
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < ticksPerProducer; i++) {
+                        pipeline.publish(symbols[i % 2], 100.0 + i, 1.0, i);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+            executor.shutdown();
+
+            long total = (long) producers * ticksPerProducer;
+            assertTrue(pipeline.awaitProcessed(total - 1, TIMEOUT_NANOS), waitStrategy.name());
+            pipeline.stop();
+            assertEquals(total, pipeline.getProcessedCount());
+            assertEquals(total, pipeline.getLatency().getCount());
+            assertEquals(0, pipeline.getErrorCount());
+            assertTrue(batches.get() > 0 && batches.get() <= total);
+
+            for (int p = 0; p < producers; p++) {
+                List<Long> timestamps = service.findAnalysis("P" + p + "A").getTimestamps();
+                assertEquals(ticksPerProducer / 2, timestamps.size(), waitStrategy.name());
+                for (int i = 0; i < timestamps.size(); i++) {
+                    assertEquals(2L * i, timestamps.get(i));
+                }
+            }
+        }
+    }
+
+    @Test
+    void testMalformedTicksAreRejected() {
+        TimeSeriesAnalysisService service = newService();
+        TickPipeline pipeline = new TickPipeline(service, 16, WaitStrategyType.BLOCKING, ProducerType.SINGLE, 1);
+        AtomicLong accepted = new AtomicLong();
+        pipeline.addListener((event, endOfBatch) -> {
+            if (!event.isRejected()) {
+                assertSame(service.findAnalysis(event.getSymbol()), event.getAnalysis());
+                accepted.incrementAndGet();
+            }
+        });
+        assertThrows(IllegalStateException.class, () -> pipeline.publish("X", 1.0, 0.0, 0));
+        pipeline.start();
+
+        String[] symbols = {"OK", "", null, "NAN", "NEG", "VOL", "OK"};
+        double[] prices = {1.0, 1.0, 1.0, Double.NaN, -1.0, 1.0, 2.0};
+        double[] volumes = {0.0, 0.0, 0.0, 0.0, 0.0, -5.0, 3.0};
+        long[] timestamps = {1, 2, 3, 4, 5, 6, 7};
+        pipeline.publish(symbols, prices, volumes, timestamps, 0, symbols.length);
+        assertTrue(pipeline.awaitProcessed(symbols.length - 1, TIMEOUT_NANOS));
+        pipeline.stop();
+
+        assertEquals(5, pipeline.getRejectedCount());
+        assertEquals(2, accepted.get());
+        assertEquals(List.of(1.0, 2.0), service.findAnalysis("OK").getValues());
+        assertNull(service.findAnalysis("NAN"));
+        assertThrows(IllegalStateException.class, pipeline::start);
+    }
+
+    @Test
+    void testStopKeepsEveryAcceptedTick() throws Exception {
+        TickPipeline pipeline = new TickPipeline(newService(), 64, WaitStrategyType.BLOCKING, ProducerType.MULTI, 1);
+        AtomicLong delivered = new AtomicLong();
+        pipeline.addListener((event, endOfBatch) -> delivered.incrementAndGet());
+        pipeline.start();
+
+        // Producers keep publishing until the pipeline refuses them, so stop() races their publishes
+        int producers = 3;
+        AtomicLong accepted = new AtomicLong();
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            String symbol = "P" + p;
+            futures.add(executor.submit(() -> {
+                for (long i = 0; ; i++) {
+                    try {
+                        pipeline.publish(symbol, 100.0, 1.0, i);
+                    } catch (IllegalStateException e) {
+                        return;
+                    }
+                    accepted.incrementAndGet();
+                }
+            }));
+        }
+        while (accepted.get() < 10_000) {
+            Thread.onSpinWait();
+        }
+        pipeline.stop();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertFalse(pipeline.isRunning());
+        assertEquals(accepted.get(), pipeline.getProcessedCount());
+        assertEquals(accepted.get(), delivered.get());
+    }
+
+    @Test
+    void testStageHaltedBeforeItsThreadStartsExitsAtOnce() throws Exception {
+        RingBuffer<TickEvent> ringBuffer = new RingBuffer<>(16, TickEvent::new, ProducerType.SINGLE,
+                WaitStrategyType.BLOCKING.create());
+        BatchEventProcessor<TickEvent> processor = new BatchEventProcessor<>("test", ringBuffer,
+                ringBuffer.newBarrier(), (event, sequence, endOfBatch) -> { });
+        processor.halt();
+
+        Thread thread = new Thread(processor);
+        thread.start();
+        thread.join(TimeUnit.SECONDS.toMillis(5));
+        assertFalse(thread.isAlive());
+    }
+
+    @Test
+    void testLatencyHistogramBuckets() {
+        for (long value : new long[]{0, 1, 15, 16, 17, 100, 1_000, 123_456, 1L << 40, Long.MAX_VALUE}) {
+            int bucket = LatencyHistogram.bucketOf(value);
+            assertTrue(LatencyHistogram.upperBound(bucket) >= value);
+            if (bucket > 0) {
+                assertTrue(LatencyHistogram.upperBound(bucket - 1) < value);
+            }
+            // Buckets are no wider than an eighth of the values in them
+            assertTrue(LatencyHistogram.upperBound(bucket) - value <= value / 8);
+        }
+
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.getPercentile(50));
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i * 1000L);
+        }
+        assertEquals(1000, histogram.getCount());
+        assertEquals(1_000_000, histogram.getMax());
+        assertEquals(500_000, histogram.getPercentile(50), 500_000 / 8.0);
+        assertEquals(990_000, histogram.getPercentile(99), 990_000 / 8.0);
+        assertEquals(1_000_000, histogram.getPercentile(100));
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.analysis.service;
+
+import com.example.analysis.dto.BatchAnalysisRequest;
+import com.example.analysis.dto.SymbolAnalysisResult;
+import com.example.analysis.model.TimeSeriesData;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchAnalysisServiceTest {
+    private static final double DELTA = 1e-9;
+
+    private TimeSeriesAnalysisService analysisService;
+    private BatchAnalysisService batchService;
+
+    @BeforeEach
+    void setUp() {
+        analysisService = new TimeSeriesAnalysisService(new FourierTransformerService());
+        batchService = new BatchAnalysisService(analysisService, 4);
+        for (int s = 0; s < 20; s++) {
+            String symbol = "SYM" + s;
+            for (int i = 0; i < 300; i++) {
+                analysisService.addPrice(symbol, 100 + s + Math.sin(0.1 * i * (s + 1)), i * 100L);
+            }
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        batchService.shutdown();
+    }
+
+    @Test
+    void testBatchMatchesSingleSymbolAnalysis() throws Exception {
+        List<String> symbols = List.of("SYM0", "SYM5", "SYM19");
+        BatchAnalysisRequest request = new BatchAnalysisRequest(symbols, EnumSet.allOf(AnalysisType.class));
+        request.setLowCutoff(0.0);
+        request.setHighCutoff(1.0);
+        request.setFilterOrder(4);
+        request.setFilterType("lowpass");
+
+        Map<String, SymbolAnalysisResult> results = new ConcurrentHashMap<>();
+        batchService.analyze(request, result -> results.put(result.getSymbol(), result)).get(10, TimeUnit.SECONDS);
+
+        assertEquals(Set.copyOf(symbols), results.keySet());
+        for (String symbol : symbols) {
+            SymbolAnalysisResult result = results.get(symbol);
+            assertNull(result.getError());
+            assertTrue(result.getElapsedMicros() >= 0);
+            assertEquals(analysisService.getLastSMA(symbol), result.getSma(), DELTA);
+            assertEquals(analysisService.getLastEMA(symbol), result.getEma(), DELTA);
+
+            List<Double[]> expectedSpectrum = analysisService.getFourierAnalysis(symbol);
+            assertEquals(expectedSpectrum.size(), result.getSpectrum().size());
+            for (int k = 0; k < expectedSpectrum.size(); k++) {
+                assertEquals(expectedSpectrum.get(k)[1], result.getSpectrum().get(k).getMagnitude(), DELTA);
+            }
+
+            TimeSeriesData expectedFiltered = analysisService.applyFilter(symbol, 0.0, 1.0, 4, "lowpass");
+            assertEquals(expectedFiltered.getTimestamps(), result.getFiltered().getTimestamps());
+            assertEquals(expectedFiltered.getValues().size(), result.getFiltered().getValues().size());
+        }
+    }
+
+    @Test
+    void testOnlyRequestedAnalysesAreComputed() throws Exception {
+        BatchAnalysisRequest request = new BatchAnalysisRequest(List.of("SYM1", "UNKNOWN"), EnumSet.of(AnalysisType.SMA));
+
+        Map<String, SymbolAnalysisResult> results = new ConcurrentHashMap<>();
+        batchService.analyze(request, result -> results.put(result.getSymbol(), result)).get(10, TimeUnit.SECONDS);
+
+        SymbolAnalysisResult known = results.get("SYM1");
+        assertNotNull(known.getSma());
+        assertNull(known.getEma());
+        assertNull(known.getSpectrum());
+        assertNull(known.getFiltered());
+
+        assertNotNull(results.get("UNKNOWN").getError());
+        assertNull(analysisService.findAnalysis("UNKNOWN"));
+    }
+
+    @Test
+    void testBlockedConsumerDoesNotHoldComputeThreads() throws Exception {
+        List<String> symbols = List.of("SYM0", "SYM1", "SYM2", "SYM3", "SYM4", "SYM5", "SYM6", "SYM7");
+        BatchAnalysisRequest request = new BatchAnalysisRequest(symbols, EnumSet.of(AnalysisType.SPECTRUM));
+
+        // A client that stops reading: its consumer blocks until released
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger inConsumer = new AtomicInteger();
+        AtomicBoolean overlapped = new AtomicBoolean();
+        Set<String> consumerThreads = ConcurrentHashMap.newKeySet();
+        Map<String, SymbolAnalysisResult> stalled = new ConcurrentHashMap<>();
+        CompletableFuture<Void> stalledBatch = batchService.analyze(request, result -> {
+            if (inConsumer.incrementAndGet() > 1) {
+                overlapped.set(true);
+            }
+            consumerThreads.add(Thread.currentThread().getName());
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            stalled.put(result.getSymbol(), result);
+            inConsumer.decrementAndGet();
+        });
+
+        // Every compute thread is still free for other requests
+        Map<String, SymbolAnalysisResult> results = new ConcurrentHashMap<>();
+        batchService.analyze(request, result -> results.put(result.getSymbol(), result)).get(10, TimeUnit.SECONDS);
+        assertEquals(Set.copyOf(symbols), results.keySet());
+        assertFalse(stalledBatch.isDone());
+
+        release.countDown();
+        stalledBatch.get(10, TimeUnit.SECONDS);
+        assertEquals(Set.copyOf(symbols), stalled.keySet());
+        assertFalse(overlapped.get());
+        assertTrue(consumerThreads.stream().noneMatch(name -> name.startsWith("batch-analysis-")), consumerThreads::toString);
+    }
+
+    @Test
+    void testFailingConsumerFailsTheBatch() {
+        List<String> symbols = List.of("SYM0", "SYM1", "SYM2");
+        BatchAnalysisRequest request = new BatchAnalysisRequest(symbols, EnumSet.of(AnalysisType.SMA));
+
+        CompletableFuture<Void> batch = batchService.analyze(request, result -> {
+            throw new IllegalStateException("client went away");
+        });
+
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> batch.get(10, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, failure.getCause());
+    }
+
+    @Test
+    void testInvalidRequestsAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> batchService.analyze(
+                new BatchAnalysisRequest(List.of(), EnumSet.of(AnalysisType.SMA)), result -> { }));
+        assertThrows(IllegalArgumentException.class, () -> batchService.analyze(
+                new BatchAnalysisRequest(List.of("SYM1"), EnumSet.noneOf(AnalysisType.class)), result -> { }));
+
+        BatchAnalysisRequest badFilter = new BatchAnalysisRequest(List.of("SYM1"), EnumSet.of(AnalysisType.FILTERED));
+        badFilter.setFilterType("notch");
+        assertThrows(IllegalArgumentException.class, () -> batchService.analyze(badFilter, result -> { }));
+    }
+}
@@ -1,13 +1,16 @@
 package com.example.analysis.service;
 
 import com.example.analysis.model.TimeSeriesData;
+import com.example.analysis.service.filter.FilterType;
 import org.apache.commons.math3.complex.Complex;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import static org.junit.jupiter.api.Assertions.*;
 
 @SpringBootTest
@@ -384,4 +387,105 @@ class FourierTransformerServiceTest {
         assertEquals(-0.40376562589104215, filteredResult.getValues().get(170), DELTA, "Band-pass filter test (1 Hz, 10 Hz, 100 Hz) failed");
 
     }
-}
\ No newline at end of file
+    @Test
+    void testPrimitiveTransformMatchesListTransform() {
+        int numSamples = 1000;
+        double[] values = new double[numSamples];
+        long[] timestamps = new long[numSamples];
+        List<Double> valueList = new ArrayList<>();
+        List<Long> timestampList = new ArrayList<>();
+
+        for (int i = 0; i < numSamples; i++) {
+            double time = i * 10.0;
+            values[i] = Math.sin(2 * Math.PI * 1 * (time / 1000)) + Math.sin(2 * Math.PI * 3 * (time / 1000));
+            timestamps[i] = (long) time;
+            valueList.add(values[i]);
+            timestampList.add(timestamps[i]);
+        }
+
+        Complex[] expected = fourierService.calculateFourierTransform(valueList, timestampList);
+
+        double[] real = new double[fourierService.spectrumSize(numSamples)];
+        double[] imag = new double[fourierService.spectrumSize(numSamples)];
+        int size = fourierService.calculateFourierTransform(values, numSamples, real, imag);
+        assertEquals(1024, size);
+        assertEquals(513, real.length);
+        for (int k = 0; k < real.length; k++) {
+            assertEquals(expected[k].getReal(), real[k], DELTA);
+            assertEquals(expected[k].getImaginary(), imag[k], DELTA);
+        }
+
+        double[] frequencies = new double[size / 2];
+        double[] magnitudes = new double[size / 2];
+        int count = fourierService.getFrequencyMagnitudePairs(real, imag, size,
+                fourierService.calculateSamplingFrequency(timestamps, numSamples), frequencies, magnitudes);
+        List<Double[]> expectedPairs = fourierService.getFrequencyMagnitudePairs(expected,
+                fourierService.calculateSamplingFrequency(timestampList));
+        assertEquals(expectedPairs.size(), count);
+        for (int k = 0; k < count; k++) {
+            assertEquals(expectedPairs.get(k)[0], frequencies[k], DELTA);
+            assertEquals(expectedPairs.get(k)[1], magnitudes[k], DELTA);
+        }
+    }
+
+    @Test
+    void testPrimitiveFilterMatchesListFilter() {
+        int numSamples = 1000;
+        double[] values = new double[numSamples];
+        long[] timestamps = new long[numSamples];
+        List<Double> valueList = new ArrayList<>();
+        List<Long> timestampList = new ArrayList<>();
+
+        for (int i = 0; i < numSamples; i++) {
+            double time = i * 10.0;
+            values[i] = Math.sin(2 * Math.PI * 1 * (time / 1000)) + Math.sin(2 * Math.PI * 3 * (time / 1000));
+            timestamps[i] = (long) time;
+            valueList.add(values[i]);
+            timestampList.add(timestamps[i]);
+        }
+
+        TimeSeriesData expected = fourierService.filterTimeSeries(
+                new TimeSeriesData(valueList, timestampList), 0, 2, 4, "lowpass");
+
+        double[] filteredValues = new double[numSamples];
+        double[] filteredTimestamps = new double[numSamples];
+        int count = fourierService.filterTimeSeries(values, timestamps, numSamples, 0, 2, 4, "lowpass",
+                filteredValues, filteredTimestamps);
+
+        assertEquals(numSamples, count);
+        assertEquals(-0.83528977, filteredValues[170], 0.001);
+        for (int i = 0; i < count; i++) {
+            assertEquals(expected.getValues().get(i), filteredValues[i], DELTA);
+            assertEquals(expected.getTimestamps().get(i), Math.round(filteredTimestamps[i]));
+        }
+    }
+
+    @Test
+    void testBatchFilterMatchesPerSeriesFilter() {
+        int numSamples = 500;
+        Map<String, TimeSeriesData> seriesBySymbol = new LinkedHashMap<>();
+        for (String symbol : List.of("AAA", "BBB", "CCC")) {
+            List<Double> values = new ArrayList<>();
+            List<Long> timestamps = new ArrayList<>();
+            double phase = symbol.charAt(0);
+            for (int i = 0; i < numSamples; i++) {
+                double time = i * 10.0;
+                values.add(Math.sin(2 * Math.PI * (time / 1000) + phase) + Math.sin(2 * Math.PI * 4 * (time / 1000)));
+                timestamps.add((long) time);
+            }
+            seriesBySymbol.put(symbol, new TimeSeriesData(values, timestamps));
+        }
+
+        Map<String, TimeSeriesData> filtered = fourierService.filterTimeSeries(seriesBySymbol, 0, 2, 4, FilterType.LOWPASS);
+
+        assertEquals(List.copyOf(seriesBySymbol.keySet()), List.copyOf(filtered.keySet()));
+        for (Map.Entry<String, TimeSeriesData> entry : seriesBySymbol.entrySet()) {
+            TimeSeriesData expected = fourierService.filterTimeSeries(entry.getValue(), 0, 2, 4, "lowpass");
+            TimeSeriesData actual = filtered.get(entry.getKey());
+            assertEquals(expected.getTimestamps(), actual.getTimestamps());
+            for (int i = 0; i < numSamples; i++) {
+                assertEquals(expected.getValues().get(i), actual.getValues().get(i), DELTA);
+            }
+        }
+    }
+}
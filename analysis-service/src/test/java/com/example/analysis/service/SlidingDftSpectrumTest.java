@@ -0,0 +1,143 @@
+package com.example.analysis.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.ArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SlidingDftSpectrumTest {
+    private static final double DELTA = 1e-6;
+
+    private static double sample(int i) {
+        return 100 + Math.sin(2 * Math.PI * 0.05 * i) + 0.5 * Math.cos(2 * Math.PI * 0.2 * i) + (i % 7) * 0.01;
+    }
+
+    /**
+     * Direct DFT magnitude of bin k over the values window[from, from + n).
+     */
+    private static double directMagnitude(double[] values, int from, int n, int k) {
+        double re = 0.0;
+        double im = 0.0;
+        for (int i = 0; i < n; i++) {
+            double angle = 2 * Math.PI * k * i / n;
+            re += values[from + i] * Math.cos(angle);
+            im -= values[from + i] * Math.sin(angle);
+        }
+        return Math.sqrt(re * re + im * im);
+    }
+
+    @Test
+    void testFullSpectrumMatchesFFTOfWindow() {
+        int windowSize = 64;
+        int numSamples = 300;
+        double[] values = new double[numSamples];
+        SlidingDftSpectrum spectrum = new SlidingDftSpectrum(windowSize);
+
+        for (int i = 0; i < numSamples; i++) {
+            values[i] = sample(i);
+            spectrum.update(values[i]);
+        }
+
+        FourierTransformer transformer = new FourierTransformer();
+        double[] window = new double[windowSize];
+        System.arraycopy(values, numSamples - windowSize, window, 0, windowSize);
+        double[] real = new double[windowSize];
+        double[] imag = new double[windowSize];
+        transformer.calculateFourierTransform(window, windowSize, real, imag);
+        double[] expectedFrequencies = new double[windowSize / 2];
+        double[] expectedMagnitudes = new double[windowSize / 2];
+        transformer.getFrequencyMagnitudePairs(real, imag, windowSize, 10.0, expectedFrequencies, expectedMagnitudes);
+
+        double[] frequencies = new double[spectrum.getBinCount()];
+        double[] magnitudes = new double[spectrum.getBinCount()];
+        int count = spectrum.getFrequencyMagnitudePairs(10.0, frequencies, magnitudes);
+
+        assertEquals(windowSize / 2, count);
+        for (int k = 0; k < count; k++) {
+            assertEquals(expectedFrequencies[k], frequencies[k], DELTA);
+            assertEquals(expectedMagnitudes[k], magnitudes[k], DELTA);
+        }
+    }
+
+    @Test
+    void testTrackedBinsOnNonPowerOfTwoWindow() {
+        int windowSize = 60;
+        int[] bins = {0, 3, 12};
+        int numSamples = 250;
+        double[] values = new double[numSamples];
+        SlidingDftSpectrum spectrum = new SlidingDftSpectrum(windowSize, bins);
+
+        for (int i = 0; i < numSamples; i++) {
+            values[i] = sample(i);
+            spectrum.update(values[i]);
+        }
+
+        double[] frequencies = new double[bins.length];
+        double[] magnitudes = new double[bins.length];
+        assertEquals(bins.length, spectrum.getFrequencyMagnitudePairs(6.0, frequencies, magnitudes));
+        for (int i = 0; i < bins.length; i++) {
+            assertEquals(bins[i] * 6.0 / windowSize, frequencies[i], DELTA);
+            assertEquals(directMagnitude(values, numSamples - windowSize, windowSize, bins[i]), magnitudes[i], DELTA);
+        }
+    }
+
+    @Test
+    void testUnsortedBinsAreTrackedInAscendingOrderOnce() {
+        int windowSize = 32;
+        int numSamples = 100;
+        double[] values = new double[numSamples];
+        SlidingDftSpectrum spectrum = new SlidingDftSpectrum(windowSize, new int[]{12, 3, 16, 3, 0});
+        for (int i = 0; i < numSamples; i++) {
+            values[i] = sample(i);
+            spectrum.update(values[i]);
+        }
+
+        int[] expectedBins = {0, 3, 12, 16};
+        double[] frequencies = new double[5];
+        double[] magnitudes = new double[5];
+        assertEquals(expectedBins.length, spectrum.getFrequencyMagnitudePairs(32.0, frequencies, magnitudes));
+        for (int i = 0; i < expectedBins.length; i++) {
+            assertEquals(expectedBins[i], frequencies[i], DELTA);
+            assertEquals(directMagnitude(values, numSamples - windowSize, windowSize, expectedBins[i]), magnitudes[i],
+                    DELTA);
+        }
+    }
+
+    @Test
+    void testInvalidBinRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new SlidingDftSpectrum(16, new int[]{16}));
+        assertThrows(IllegalArgumentException.class, () -> new SlidingDftSpectrum(16, new int[]{9}));
+        assertThrows(IllegalArgumentException.class, () -> new SlidingDftSpectrum(16, new int[]{-1}));
+        assertThrows(IllegalArgumentException.class, () -> new SlidingDftSpectrum(1));
+    }
+
+    @Test
+    void testStreamingModeInTimeSeriesAnalysis() {
+        int windowSize = 32;
+        TimeSeriesAnalysis streaming = new TimeSeriesAnalysis(3, 3, new ArrayList<>(), new ArrayList<>());
+        TimeSeriesAnalysis reference = new TimeSeriesAnalysis(3, 3, new ArrayList<>(), new ArrayList<>());
+
+        // Enable part-way through so the window is primed from existing history
+        for (int i = 0; i < 100; i++) {
+            streaming.addPrice(sample(i), i * 100L);
+            if (i == 20) {
+                streaming.enableStreamingSpectrum(windowSize);
+            }
+        }
+        for (int i = 100 - windowSize; i < 100; i++) {
+            reference.addPrice(sample(i), i * 100L);
+        }
+
+        List<Double[]> expected = reference.getFrequencyMagnitudePairs();
+        List<Double[]> actual = streaming.getFrequencyMagnitudePairs();
+
+        assertTrue(streaming.isStreamingSpectrumEnabled());
+        assertEquals(expected.size(), actual.size());
+        for (int k = 0; k < expected.size(); k++) {
+            assertEquals(expected.get(k)[0], actual.get(k)[0], DELTA);
+            assertEquals(expected.get(k)[1], actual.get(k)[1], DELTA);
+        }
+    }
+}
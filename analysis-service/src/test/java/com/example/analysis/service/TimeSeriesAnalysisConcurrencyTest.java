@@ -0,0 +1,154 @@
+package com.example.analysis.service;
+
+import com.example.analysis.model.TimeSeriesData;
+import com.example.analysis.service.fft.PaddingPolicy;
+import com.example.analysis.service.filter.FilterType;
+import com.example.analysis.service.history.TickHistory;
+import com.example.analysis.service.history.TickRingBuffer;
+import com.example.analysis.service.history.TickWindow;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimeSeriesAnalysisConcurrencyTest {
+
+    @Test
+    void testConcurrentWritersAndReadersOnOneSymbol() throws Exception {
+        TimeSeriesAnalysisService service = new TimeSeriesAnalysisService(new FourierTransformerService());
+        int writers = 4;
+        int ticksPerWriter = 20_000;
+        AtomicBoolean done = new AtomicBoolean();
+        AtomicLong reads = new AtomicLong();
+        ExecutorService executor = Executors.newFixedThreadPool(writers + 2);
+
+        List<Future<?>> futures = new ArrayList<>();
+        for (int w = 0; w < writers; w++) {
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < ticksPerWriter; i++) {
+                    service.addPrice("SHARED", 100.0, i);
+                }
+            }));
+        }
+        for (int r = 0; r < 2; r++) {
+            futures.add(executor.submit(() -> {
+                while (!done.get()) {
+                    TimeSeriesData data = service.getTimeSeriesData("SHARED");
+                    assertEquals(data.getValues().size(), data.getTimestamps().size());
+                    for (double value : data.getValues()) {
+                        assertEquals(100.0, value);
+                    }
+                    Double sma = service.getLastSMA("SHARED");
+                    if (sma != null) {
+                        assertEquals(100.0, sma, 1e-9);
+                    }
+                    reads.incrementAndGet();
+                }
+            }));
+        }
+
+        for (int w = 0; w < writers; w++) {
+            futures.get(w).get(60, TimeUnit.SECONDS);
+        }
+        done.set(true);
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        // The history is bounded, so readers above also raced with evictions
+        assertEquals(Math.min(writers * ticksPerWriter, TimeSeriesAnalysis.DEFAULT_HISTORY_CAPACITY),
+                service.getOrCreateAnalysis("SHARED").size());
+        assertTrue(reads.get() > 0);
+    }
+
+    @Test
+    void testReaderFailingOnAnOverwrittenViewIsRetried() {
+        TearingHistory history = new TearingHistory(256);
+        TimeSeriesAnalysis analysis = new TimeSeriesAnalysis(3, 3, PaddingPolicy.NEXT_POWER_OF_TWO, history);
+        TimeSeriesAnalysis reference = new TimeSeriesAnalysis(3, 3);
+        for (int i = 0; i < 64; i++) {
+            double price = Math.sin(2 * Math.PI * 4 * i / 64.0);
+            analysis.addPrice(price, 1000L + 50L * i);
+            reference.addPrice(price, 1000L + 50L * i);
+        }
+
+        // The torn views have no time span, so the filter design throws on them
+        history.tears = 3;
+        TimeSeriesData filtered = analysis.applyZeroPhaseFilter(0.0, 2.0, 2, FilterType.LOWPASS);
+        assertEquals(0, history.tears);
+        assertEquals(reference.applyZeroPhaseFilter(0.0, 2.0, 2, FilterType.LOWPASS).getValues(), filtered.getValues());
+
+        // A failure on an intact view is the caller's
+        assertThrows(IllegalArgumentException.class,
+                () -> analysis.applyZeroPhaseFilter(0.0, 50.0, 2, FilterType.LOWPASS));
+    }
+
+    /**
+     * A history whose next {@code tears} views are overwritten by a writer while they are read.
+     */
+    private static final class TearingHistory implements TickHistory {
+        private final TickRingBuffer ticks;
+        private final TickRingBuffer overwritten;
+        int tears;
+
+        TearingHistory(int capacity) {
+            ticks = new TickRingBuffer(capacity);
+            overwritten = new TickRingBuffer(capacity);
+        }
+
+        @Override
+        public TickWindow window(int maxCount) {
+            if (tears == 0) {
+                return ticks.window(maxCount);
+            }
+            tears--;
+            for (int i = 0; i < ticks.size(); i++) {
+                overwritten.append(0L, 0.0);
+            }
+            TickWindow view = overwritten.window(maxCount);
+            for (int i = 0; i < 2 * overwritten.getCapacity(); i++) {
+                overwritten.append(0L, 0.0);
+            }
+            return view;
+        }
+
+        @Override
+        public void append(long timestamp, double value) {
+            ticks.append(timestamp, value);
+        }
+
+        @Override
+        public long getAppendedCount() {
+            return ticks.getAppendedCount();
+        }
+
+        @Override
+        public int size() {
+            return ticks.size();
+        }
+
+        @Override
+        public int getCapacity() {
+            return ticks.getCapacity();
+        }
+
+        @Override
+        public double valueFromEnd(int back) {
+            return ticks.valueFromEnd(back);
+        }
+
+        @Override
+        public TickHistory reset() {
+            return new TearingHistory(ticks.getCapacity());
+        }
+    }
+}
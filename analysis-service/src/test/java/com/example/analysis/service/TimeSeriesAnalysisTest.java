@@ -1,12 +1,25 @@
 package com.example.analysis.service;
 
+import com.example.analysis.model.BollingerBands;
+import com.example.analysis.model.FrequencySpectrum;
 import com.example.analysis.model.TimeSeriesData;
+import com.example.analysis.service.fft.PaddingPolicy;
+import com.example.analysis.service.fft.WindowFunction;
+import com.example.analysis.service.filter.BiquadCascade;
+import com.example.analysis.service.filter.FilterType;
+import com.example.analysis.service.filter.StreamingIirFilter;
+import com.example.analysis.service.history.TickHistoryFactory;
+import com.example.analysis.service.indicator.IndicatorSet;
+import com.example.analysis.service.indicator.IndicatorSpec;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.apache.commons.math3.complex.Complex;
 
+import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.ArrayList;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
@@ -95,6 +108,28 @@ class TimeSeriesAnalysisTest {
         assertEquals(1000, data.getTimestamps().get(0));
     }
 
+    @Test
+    void testTimeSeriesDataIsSharedUntilModified() {
+        tsa.addPrice(10, 1000);
+        tsa.addPrice(20, 2000);
+
+        TimeSeriesData first = tsa.getTimeSeriesData();
+        assertSame(first, tsa.getTimeSeriesData());
+        assertSame(first.getValues(), tsa.getValues());
+        assertThrows(UnsupportedOperationException.class, () -> first.getValues().add(30.0));
+        assertThrows(UnsupportedOperationException.class, () -> first.getTimestamps().set(0, 0L));
+        assertTrue(first.valuesBuffer().isReadOnly());
+
+        tsa.addPrice(30, 3000);
+        TimeSeriesData second = tsa.getTimeSeriesData();
+        assertNotSame(first, second);
+        assertEquals(Arrays.asList(10.0, 20.0), first.getValues());
+        assertEquals(Arrays.asList(10.0, 20.0, 30.0), second.getValues());
+        assertEquals(Arrays.asList(1000L, 2000L, 3000L), second.getTimestamps());
+        assertEquals(30, second.getValue(2), DELTA);
+        assertEquals(3000L, second.timestampsBuffer().get(2));
+    }
+
     @Test
     void testCalculateSamplingFrequency() {
         List<Double> values = Arrays.asList(1.0, 2.0, 3.0, 4.0, 5.0);
@@ -135,6 +170,32 @@ class TimeSeriesAnalysisTest {
         assertEquals(1.0, peak[0], 0.1);
     }
 
+    @Test
+    void testWindowedSpectrumKeepsAmplitudeAndCutsLeakage() {
+        // 3.1 Hz falls between the 0.3125 Hz bins of a 64-point transform at 20 Hz
+        int numSamples = 64;
+        for (int i = 0; i < numSamples; i++) {
+            tsa.addPrice(2.0 * Math.sin(2 * Math.PI * 3.1 * i / 20.0), 50L * i);
+        }
+
+        FrequencySpectrum rectangular = tsa.getFrequencySpectrum();
+        FrequencySpectrum hann = tsa.getFrequencySpectrum(WindowFunction.HANN);
+        assertEquals(rectangular.size(), hann.size());
+
+        // Coherent gain correction keeps the peak near A * N / 2 despite the window
+        double peak = 0.0;
+        for (int k = 0; k < hann.size(); k++) {
+            peak = Math.max(peak, hann.getMagnitude(k));
+        }
+        assertEquals(2.0 * numSamples / 2, peak, 0.2 * 2.0 * numSamples / 2);
+
+        // Far from the tone the window suppresses the leakage by orders of magnitude
+        int far = 28;
+        assertEquals(8.75, hann.getFrequency(far), 1e-9);
+        assertTrue(hann.getMagnitude(far) < rectangular.getMagnitude(far) / 50,
+                hann.getMagnitude(far) + " vs " + rectangular.getMagnitude(far));
+    }
+
     @Test
     void testApplyFilter() {
         // Create a composite signal with two frequencies
@@ -164,4 +225,226 @@ class TimeSeriesAnalysisTest {
         // Max amplitude should be close to 1 (the amplitude of the remaining 1 Hz signal)
         assertEquals(1.0, maxAmplitude, 0.2);
     }
-}
\ No newline at end of file
+
+    @Test
+    void testApplyZeroPhaseFilterKeepsSlowComponentInPhase() {
+        for (int i = 0; i < 200; i++) {
+            double time = i / 20.0;
+            tsa.addPrice(Math.sin(2 * Math.PI * time) + Math.sin(2 * Math.PI * 5.0 * time), i * 50L);
+        }
+
+        TimeSeriesData filtered = tsa.applyZeroPhaseFilter(0.0, 2.0, 4, FilterType.LOWPASS);
+
+        assertEquals(200, filtered.size());
+        assertEquals(tsa.getTimestamps(), filtered.getTimestamps());
+        for (int i = 30; i < 170; i++) {
+            assertEquals(Math.sin(2 * Math.PI * i / 20.0), filtered.getValues().get(i), 0.02);
+        }
+    }
+
+    @Test
+    void testStreamingFilterTracksEveryPrice() {
+        BiquadCascade cascade = BiquadCascade.butterworth(FilterType.LOWPASS, 20.0, 0.0, 2.0, 3);
+        assertNull(tsa.getFilteredTimeSeriesData());
+        for (int i = 0; i < 30; i++) {
+            tsa.addPrice(10 + Math.sin(i), i * 50L);
+        }
+
+        // Enabling filters the history already held, later prices are filtered as they arrive
+        tsa.enableStreamingFilter(cascade);
+        for (int i = 30; i < 60; i++) {
+            tsa.addPrice(10 + Math.sin(i), i * 50L);
+        }
+
+        StreamingIirFilter expected = new StreamingIirFilter(cascade);
+        TimeSeriesData filtered = tsa.getFilteredTimeSeriesData();
+        assertEquals(60, filtered.size());
+        for (int i = 0; i < 60; i++) {
+            assertEquals(expected.update(10 + Math.sin(i)), filtered.getValues().get(i), 0.0);
+            assertEquals(i * 50L, filtered.getTimestamps().get(i));
+        }
+        assertEquals(expected.getLastOutput(), tsa.getLastFilteredValue(), 0.0);
+        assertSame(filtered, tsa.getFilteredTimeSeriesData());
+
+        tsa.disableStreamingFilter();
+        assertFalse(tsa.isStreamingFilterEnabled());
+        assertNull(tsa.getFilteredTimeSeriesData());
+        assertNull(tsa.getLastFilteredValue());
+    }
+
+    @Test
+    void testDerivedResultsAreCachedUntilNextPrice() {
+        for (int i = 0; i < 64; i++) {
+            tsa.addPrice(Math.sin(i / 3.0), i * 50L);
+        }
+
+        FrequencySpectrum spectrum = tsa.getFrequencySpectrum(WindowFunction.HANN);
+        assertSame(spectrum, tsa.getFrequencySpectrum(WindowFunction.HANN));
+        assertNotSame(spectrum, tsa.getFrequencySpectrum(WindowFunction.RECTANGULAR));
+        TimeSeriesData filtered = tsa.applyFilter(0.0, 2.0, 4, FilterType.LOWPASS);
+        assertSame(filtered, tsa.applyFilter(0.0, 2.0, 4, "lowpass"));
+        assertNotSame(filtered, tsa.applyFilter(0.0, 2.0, 3, FilterType.LOWPASS));
+        assertNotSame(filtered, tsa.applyZeroPhaseFilter(0.0, 2.0, 4, FilterType.LOWPASS));
+
+        tsa.addPrice(5.0, 64 * 50L);
+        TimeSeriesData refiltered = tsa.applyFilter(0.0, 2.0, 4, FilterType.LOWPASS);
+        assertNotSame(filtered, refiltered);
+        assertEquals(65, refiltered.size());
+        assertNotSame(spectrum, tsa.getFrequencySpectrum(WindowFunction.HANN));
+
+        tsa.setResultCacheSize(0);
+        assertNotSame(refiltered, tsa.applyFilter(0.0, 2.0, 4, FilterType.LOWPASS));
+        assertNotSame(tsa.getFrequencySpectrum(), tsa.getFrequencySpectrum());
+    }
+
+    @Test
+    void testIndicatorsArePrimedFromHistoryAndUpdatedPerPrice() {
+        List<IndicatorSpec> specs = IndicatorSpec.parseList("RSI(5), MACD(3,6,2), VWAP");
+        IndicatorSet expected = new IndicatorSet(specs);
+        for (int i = 0; i < 20; i++) {
+            tsa.addPrice(50 + Math.sin(i), i * 1000L);
+            expected.update(50 + Math.sin(i), 0.0, i * 1000L);
+        }
+        assertTrue(tsa.getIndicatorValues().isEmpty());
+
+        tsa.setIndicators(specs);
+        for (int i = 20; i < 30; i++) {
+            tsa.addPrice(50 + Math.sin(i), 2.0, i * 1000L);
+            expected.update(50 + Math.sin(i), 2.0, i * 1000L);
+        }
+
+        double[] values = new double[expected.getOutputCount()];
+        expected.read(values);
+        Map<String, Double> actual = tsa.getIndicatorValues();
+        assertEquals(expected.getKeys(), new ArrayList<>(actual.keySet()));
+        for (int i = 0; i < values.length; i++) {
+            assertEquals(values[i], actual.get(expected.getKeys().get(i)), 0.0);
+        }
+        assertEquals(specs, tsa.getIndicatorSpecs());
+    }
+
+    @Test
+    void testHistoryIsBoundedByCapacity() {
+        TimeSeriesAnalysis bounded = new TimeSeriesAnalysis(3, 3, new ArrayList<>(), new ArrayList<>(),
+                PaddingPolicy.NEXT_POWER_OF_TWO, 16);
+        for (int i = 0; i < 40; i++) {
+            bounded.addPrice(i, i * 1000L);
+        }
+
+        assertEquals(16, bounded.size());
+        List<Double> expected = IntStream.range(24, 40).mapToObj(i -> (double) i).collect(Collectors.toList());
+        assertEquals(expected, bounded.getValues());
+        assertEquals(24000L, bounded.getTimestamps().get(0));
+        assertEquals(16, bounded.getTimeSeriesData().getValues().size());
+    }
+
+    @Test
+    void testIndicatorsStayExactAcrossEviction() {
+        int smaPeriod = 5;
+        int emaPeriod = 8;
+        TimeSeriesAnalysis bounded = new TimeSeriesAnalysis(smaPeriod, emaPeriod, new ArrayList<>(), new ArrayList<>(),
+                PaddingPolicy.NEXT_POWER_OF_TWO, emaPeriod);
+        List<Double> prices = new ArrayList<>();
+        Double referenceEma = null;
+
+        for (int i = 0; i < 200; i++) {
+            double price = 100 + 10 * Math.sin(i * 0.3) + (i % 7);
+            prices.add(price);
+            bounded.addPrice(price, i * 1000L);
+
+            // Reference values over the full, unbounded series
+            if (prices.size() >= smaPeriod) {
+                double sum = 0.0;
+                for (int k = prices.size() - smaPeriod; k < prices.size(); k++) {
+                    sum += prices.get(k);
+                }
+                assertEquals(sum / smaPeriod, bounded.getLastSMA(), DELTA);
+            } else {
+                assertNull(bounded.getLastSMA());
+            }
+            if (prices.size() == emaPeriod) {
+                referenceEma = prices.stream().mapToDouble(Double::doubleValue).average().orElseThrow();
+            } else if (prices.size() > emaPeriod) {
+                referenceEma += (price - referenceEma) * 2.0 / (emaPeriod + 1);
+            }
+            if (referenceEma == null) {
+                assertNull(bounded.getLastEMA());
+            } else {
+                assertEquals(referenceEma, bounded.getLastEMA(), DELTA);
+            }
+        }
+        assertEquals(emaPeriod, bounded.size());
+    }
+
+    @Test
+    void testRollingVolatilityOfSmaWindow() {
+        assertNull(tsa.getRollingStdDev());
+        tsa.addPrice(10, 1000);
+        tsa.addPrice(12, 2000);
+        assertNull(tsa.getZScore());
+        assertNull(tsa.getBollingerBands(2));
+        tsa.addPrice(17, 3000);
+
+        // Window 10, 12, 17: mean 13, population variance 26 / 3
+        double stdDev = Math.sqrt(26.0 / 3);
+        assertEquals(stdDev, tsa.getRollingStdDev(), DELTA);
+        assertEquals(4 / stdDev, tsa.getZScore(), DELTA);
+        BollingerBands bands = tsa.getBollingerBands(2);
+        assertEquals(13.0, bands.middle(), DELTA);
+        assertEquals(13 + 2 * stdDev, bands.upper(), DELTA);
+        assertEquals(13 - 2 * stdDev, bands.lower(), DELTA);
+
+        tsa.addPrice(13, 4000);
+        // Window 12, 17, 13: mean 14, population variance 14 / 3
+        assertEquals(Math.sqrt(14.0 / 3), tsa.getRollingStdDev(), DELTA);
+        assertEquals(-1 / Math.sqrt(14.0 / 3), tsa.getZScore(), DELTA);
+    }
+
+    @Test
+    void testInitialDataBeyondCapacityKeepsMostRecent() {
+        List<Double> initialValues = Arrays.asList(1.0, 2.0, 3.0, 4.0, 5.0, 6.0);
+        List<Long> initialTimestamps = Arrays.asList(1000L, 2000L, 3000L, 4000L, 5000L, 6000L);
+        TimeSeriesAnalysis bounded = new TimeSeriesAnalysis(3, 3, initialValues, initialTimestamps,
+                PaddingPolicy.NEXT_POWER_OF_TWO, 4);
+
+        assertEquals(Arrays.asList(3.0, 4.0, 5.0, 6.0), bounded.getValues());
+        assertEquals(5.0, bounded.getLastSMA(), DELTA);
+        assertEquals(5.0, bounded.getLastEMA(), DELTA);
+
+        bounded.addPrice(7.0, 7000L);
+        assertEquals(6.0, bounded.getLastSMA(), DELTA);
+    }
+
+    @Test
+    void testCapacityMustCoverIndicatorPeriods() {
+        assertThrows(IllegalArgumentException.class, () -> new TimeSeriesAnalysis(10, 5, new ArrayList<>(),
+                new ArrayList<>(), PaddingPolicy.NEXT_POWER_OF_TWO, 10));
+        assertThrows(IllegalArgumentException.class, () -> new TimeSeriesAnalysis(5, 20, new ArrayList<>(),
+                new ArrayList<>(), PaddingPolicy.NEXT_POWER_OF_TWO, 10));
+    }
+
+    @Test
+    void testMappedHistoryResumesAfterRestart(@TempDir Path directory) {
+        TickHistoryFactory factory = TickHistoryFactory.mapped(64, directory, 256, 0);
+        TimeSeriesAnalysis before = new TimeSeriesAnalysis(3, 3, PaddingPolicy.NEXT_POWER_OF_TWO,
+                factory.create("EUR/USD"));
+        for (int i = 0; i < 500; i++) {
+            before.addPrice(i, i * 1000L);
+        }
+        List<Double> spectrumBefore = before.getFrequencyMagnitudePairs().stream()
+                .map(pair -> pair[1]).collect(Collectors.toList());
+        before.close();
+
+        assertEquals(List.of("EUR/USD"), factory.storedSymbols());
+        TimeSeriesAnalysis after = new TimeSeriesAnalysis(3, 3, PaddingPolicy.NEXT_POWER_OF_TWO,
+                factory.create("EUR/USD"));
+        assertEquals(64, after.size());
+        assertEquals(498.0, after.getLastSMA(), DELTA);
+        assertEquals(before.getValues(), after.getValues());
+        assertEquals(spectrumBefore, after.getFrequencyMagnitudePairs().stream()
+                .map(pair -> pair[1]).collect(Collectors.toList()));
+
+        after.addPrice(500, 500_000L);
+        assertEquals(499.0, after.getLastSMA(), DELTA);
+    }
+}
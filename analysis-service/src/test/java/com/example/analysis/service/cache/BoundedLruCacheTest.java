@@ -0,0 +1,130 @@
+package com.example.analysis.service.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedLruCacheTest {
+
+    @Test
+    void testLeastRecentlyUsedValueIsEvicted() {
+        BoundedLruCache<String, String> cache = new BoundedLruCache<>(2);
+        AtomicInteger computed = new AtomicInteger();
+        cache.get("a", k -> k + computed.incrementAndGet());
+        cache.get("b", k -> k + computed.incrementAndGet());
+        assertEquals("a1", cache.get("a", k -> "not cached"));
+        cache.get("c", k -> k + computed.incrementAndGet());
+
+        // "b" was the least recently used
+        assertEquals("a1", cache.get("a", k -> "not cached"));
+        assertEquals("c3", cache.get("c", k -> "not cached"));
+        assertEquals("b4", cache.get("b", k -> k + computed.incrementAndGet()));
+        assertEquals(2, cache.size());
+        assertEquals(3, cache.getHitCount());
+        assertEquals(4, cache.getMissCount());
+        assertEquals(2, cache.getEvictionCount());
+    }
+
+    @Test
+    void testKeysInSteadyUseOutliveOneOffKeys() {
+        BoundedLruCache<Integer, Integer> cache = new BoundedLruCache<>(8);
+        // A growing history asks for every length once on its way to a steady one
+        for (int length = 1; length <= 1000; length++) {
+            cache.get(length, k -> k);
+            cache.get(4096, k -> k);
+        }
+        long missesBefore = cache.getMissCount();
+        for (int i = 0; i < 100; i++) {
+            cache.get(4096, k -> k);
+        }
+        assertEquals(missesBefore, cache.getMissCount());
+        assertEquals(8, cache.size());
+    }
+
+    @Test
+    void testZeroBudgetCachesNothing() {
+        BoundedLruCache<String, Object> cache = new BoundedLruCache<>(0);
+        assertNotSame(cache.get("a", k -> new Object()), cache.get("a", k -> new Object()));
+        assertEquals(0, cache.size());
+        assertEquals(2, cache.getMissCount());
+        assertThrows(IllegalArgumentException.class, () -> new BoundedLruCache<>(-1));
+    }
+
+    @Test
+    void testSlowComputationDoesNotBlockOtherKeys() throws Exception {
+        // Every key hashes alike, so a computation under the map's bin lock would block them all
+        BoundedLruCache<CollidingKey, String> cache = new BoundedLruCache<>(4);
+        CountDownLatch computing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<String> slow = executor.submit(() -> cache.get(new CollidingKey(1), k -> {
+            computing.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "slow";
+        }));
+        assertTrue(computing.await(10, TimeUnit.SECONDS));
+
+        assertTimeoutPreemptively(Duration.ofSeconds(5),
+                () -> assertEquals("fast", cache.get(new CollidingKey(2), k -> "fast")));
+        release.countDown();
+        assertEquals("slow", slow.get(10, TimeUnit.SECONDS));
+        executor.shutdown();
+    }
+
+    @Test
+    void testComputationMayUseTheCache() {
+        BoundedLruCache<CollidingKey, Integer> cache = new BoundedLruCache<>(16);
+        Function<CollidingKey, Integer> depth = new Function<>() {
+            @Override
+            public Integer apply(CollidingKey key) {
+                return key.id() == 0 ? 0 : 1 + cache.get(new CollidingKey(key.id() - 1), this);
+            }
+        };
+        assertEquals(8, cache.get(new CollidingKey(8), depth));
+        assertEquals(9, cache.size());
+    }
+
+    @Test
+    void testConcurrentCallersStayWithinBudget() throws Exception {
+        BoundedLruCache<Integer, Integer> cache = new BoundedLruCache<>(16);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            int seed = t;
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < 20_000; i++) {
+                    int key = (i * 31 + seed) % 64;
+                    assertEquals(key * 2, cache.get(key, k -> k * 2));
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+        assertTrue(cache.size() <= 16);
+        assertEquals(80_000, cache.getHitCount() + cache.getMissCount());
+    }
+
+    private record CollidingKey(int id) {
+        @Override
+        public int hashCode() {
+            return 0;
+        }
+    }
+}
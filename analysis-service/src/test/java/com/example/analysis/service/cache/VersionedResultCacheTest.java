@@ -0,0 +1,71 @@
+package com.example.analysis.service.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VersionedResultCacheTest {
+
+    @Test
+    void testResultsAreSharedWithinAVersion() {
+        ResultCacheStats stats = new ResultCacheStats();
+        VersionedResultCache cache = new VersionedResultCache(4, stats);
+        AtomicInteger computed = new AtomicInteger();
+
+        String first = cache.get("a", 1, () -> 1, () -> "a" + computed.incrementAndGet());
+        assertSame(first, cache.get("a", 1, () -> 1, () -> "a" + computed.incrementAndGet()));
+        assertEquals(1, computed.get());
+
+        // A new version misses and replaces every stale entry
+        cache.get("b", 1, () -> 1, () -> "b");
+        assertEquals("a2", cache.get("a", 2, () -> 2, () -> "a" + computed.incrementAndGet()));
+        assertEquals(1, cache.size());
+        assertEquals(1, stats.getEntryCount());
+
+        assertEquals(1, stats.getHitCount());
+        assertEquals(3, stats.getMissCount());
+        assertEquals(0.25, stats.getHitRatio(), 1e-12);
+    }
+
+    @Test
+    void testLeastRecentlyUsedEntryIsEvicted() {
+        ResultCacheStats stats = new ResultCacheStats();
+        VersionedResultCache cache = new VersionedResultCache(2, stats);
+        cache.get("a", 7, () -> 7, () -> "a");
+        cache.get("b", 7, () -> 7, () -> "b");
+        cache.get("a", 7, () -> 7, () -> "not cached");
+        cache.get("c", 7, () -> 7, () -> "c");
+
+        assertEquals(2, cache.size());
+        assertEquals(1, stats.getEvictionCount());
+        assertEquals("a", cache.get("a", 7, () -> 7, () -> "recomputed"));
+        assertEquals("recomputed", cache.get("b", 7, () -> 7, () -> "recomputed"));
+
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertEquals(0, stats.getEntryCount());
+    }
+
+    @Test
+    void testResultsOfAChangedVersionAreNotCached() {
+        VersionedResultCache cache = new VersionedResultCache(4, new ResultCacheStats());
+        cache.get("a", 3, () -> 4, () -> "raced");
+        assertEquals(0, cache.size());
+        assertEquals("fresh", cache.get("a", 3, () -> 3, () -> "fresh"));
+    }
+
+    @Test
+    void testZeroBudgetComputesEveryTime() {
+        ResultCacheStats stats = new ResultCacheStats();
+        VersionedResultCache cache = new VersionedResultCache(0, stats);
+        AtomicInteger computed = new AtomicInteger();
+        cache.get("a", 1, () -> 1, computed::incrementAndGet);
+        cache.get("a", 1, () -> 1, computed::incrementAndGet);
+
+        assertEquals(2, computed.get());
+        assertEquals(0, cache.size());
+        assertThrows(IllegalArgumentException.class, () -> new VersionedResultCache(-1));
+    }
+}
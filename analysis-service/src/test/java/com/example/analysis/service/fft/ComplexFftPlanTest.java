@@ -0,0 +1,84 @@
+package com.example.analysis.service.fft;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ComplexFftPlanTest {
+
+    private static void assertMatchesDirectDft(int n, boolean inverse) {
+        Random random = new Random(n);
+        double[] real = new double[n];
+        double[] imag = new double[n];
+        for (int i = 0; i < n; i++) {
+            real[i] = random.nextGaussian();
+            imag[i] = random.nextGaussian();
+        }
+
+        double sign = inverse ? 1.0 : -1.0;
+        double[] expectedReal = new double[n];
+        double[] expectedImag = new double[n];
+        for (int k = 0; k < n; k++) {
+            for (int t = 0; t < n; t++) {
+                double angle = 2 * Math.PI * (((long) k * t) % n) / n;
+                double c = Math.cos(angle);
+                double s = sign * Math.sin(angle);
+                expectedReal[k] += real[t] * c - imag[t] * s;
+                expectedImag[k] += real[t] * s + imag[t] * c;
+            }
+        }
+
+        new ComplexFftPlan(n, inverse).transform(real, imag);
+
+        double tolerance = 1e-9 * n;
+        for (int k = 0; k < n; k++) {
+            assertEquals(expectedReal[k], real[k], tolerance, "real part of bin " + k + " for n=" + n);
+            assertEquals(expectedImag[k], imag[k], tolerance, "imaginary part of bin " + k + " for n=" + n);
+        }
+    }
+
+    @Test
+    void testAlgorithmSelection() {
+        assertEquals(ComplexFftPlan.Algorithm.RADIX_2, new ComplexFftPlan(1024, false).algorithm);
+        assertEquals(ComplexFftPlan.Algorithm.MIXED_RADIX, new ComplexFftPlan(1000, false).algorithm);
+        assertEquals(ComplexFftPlan.Algorithm.MIXED_RADIX, new ComplexFftPlan(12, false).algorithm);
+        assertEquals(ComplexFftPlan.Algorithm.BLUESTEIN, new ComplexFftPlan(97, false).algorithm);
+        assertEquals(ComplexFftPlan.Algorithm.BLUESTEIN, new ComplexFftPlan(1100, false).algorithm);
+    }
+
+    @Test
+    void testMixedRadixMatchesDirectDft() {
+        for (int n : new int[]{3, 4, 5, 6, 9, 12, 15, 25, 30, 48, 60, 120, 375, 1000}) {
+            assertMatchesDirectDft(n, false);
+            assertMatchesDirectDft(n, true);
+        }
+    }
+
+    @Test
+    void testBluesteinMatchesDirectDft() {
+        for (int n : new int[]{7, 11, 14, 97, 210, 1100}) {
+            assertMatchesDirectDft(n, false);
+            assertMatchesDirectDft(n, true);
+        }
+    }
+
+    @Test
+    void testRadix2MatchesDirectDft() {
+        for (int n = 1; n <= 256; n <<= 1) {
+            assertMatchesDirectDft(n, false);
+            assertMatchesDirectDft(n, true);
+        }
+    }
+
+    @Test
+    void testPaddingPolicies() {
+        assertEquals(1000, PaddingPolicy.NONE.transformSize(1000));
+        assertEquals(1024, PaddingPolicy.NEXT_POWER_OF_TWO.transformSize(1000));
+        assertEquals(1024, PaddingPolicy.NEXT_POWER_OF_TWO.transformSize(1024));
+        assertEquals(1000, PaddingPolicy.NEXT_FAST_SIZE.transformSize(1000));
+        assertEquals(1024, PaddingPolicy.NEXT_FAST_SIZE.transformSize(1001));
+        assertEquals(100, PaddingPolicy.NEXT_FAST_SIZE.transformSize(97));
+    }
+}
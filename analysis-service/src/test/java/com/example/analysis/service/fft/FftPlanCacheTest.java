@@ -0,0 +1,60 @@
+package com.example.analysis.service.fft;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FftPlanCacheTest {
+
+    @Test
+    void testPlansAreReusedPerSizeAndDirection() {
+        FftPlanCache cache = new FftPlanCache(8);
+
+        FftPlan forward = cache.getPlan(256, FftPlan.Direction.FORWARD);
+        FftPlan inverse = cache.getPlan(256, FftPlan.Direction.INVERSE);
+
+        assertNotSame(forward, inverse);
+        assertSame(forward, cache.getPlan(256, FftPlan.Direction.FORWARD));
+        assertSame(inverse, cache.getPlan(256, FftPlan.Direction.INVERSE));
+        assertEquals(2, cache.getHitCount());
+        assertEquals(2, cache.getMissCount());
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    void testLeastRecentlyUsedPlanIsEvicted() {
+        FftPlanCache cache = new FftPlanCache(2);
+        FftPlan small = cache.getPlan(64, FftPlan.Direction.FORWARD);
+        cache.getPlan(128, FftPlan.Direction.FORWARD);
+        assertSame(small, cache.getPlan(64, FftPlan.Direction.FORWARD));
+
+        FftPlan large = cache.getPlan(256, FftPlan.Direction.FORWARD);
+        assertEquals(256, large.getSize());
+        assertSame(large, cache.getPlan(256, FftPlan.Direction.FORWARD));
+        assertSame(small, cache.getPlan(64, FftPlan.Direction.FORWARD));
+        assertEquals(1, cache.getEvictionCount());
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    void testTransformWithExplicitPlanMatchesSharedPlan() {
+        double[] values = new double[64];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = Math.sin(0.3 * i) + 0.1 * i;
+        }
+
+        double[] expectedReal = new double[33];
+        double[] expectedImag = new double[33];
+        RealFft.forward(values, 0, 64, 64, expectedReal, expectedImag);
+
+        FftPlan plan = new FftPlanCache(4).getPlan(64, FftPlan.Direction.FORWARD);
+        double[] real = new double[33];
+        double[] imag = new double[33];
+        RealFft.forward(plan, values, 0, 64, real, imag);
+
+        assertArrayEquals(expectedReal, real, 0.0);
+        assertArrayEquals(expectedImag, imag, 0.0);
+        assertThrows(IllegalArgumentException.class,
+                () -> RealFft.inverse(plan, real, imag, new double[64], 64));
+    }
+}
@@ -0,0 +1,160 @@
+package com.example.analysis.service.fft;
+
+import org.apache.commons.math3.complex.Complex;
+import org.apache.commons.math3.transform.DftNormalization;
+import org.apache.commons.math3.transform.FastFourierTransformer;
+import org.apache.commons.math3.transform.TransformType;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RealFftTest {
+    private static final double DELTA = 1e-9;
+
+    private static double[] randomSignal(int n, long seed) {
+        Random random = new Random(seed);
+        double[] values = new double[n];
+        for (int i = 0; i < n; i++) {
+            values[i] = 100 + random.nextGaussian();
+        }
+        return values;
+    }
+
+    @Test
+    void testForwardMatchesCommonsMathTransform() {
+        FastFourierTransformer reference = new FastFourierTransformer(DftNormalization.STANDARD);
+
+        for (int n = 1; n <= 4096; n <<= 1) {
+            double[] values = randomSignal(n, n);
+            Complex[] expected = reference.transform(values, TransformType.FORWARD);
+
+            double[] real = new double[RealFft.spectrumSize(n)];
+            double[] imag = new double[RealFft.spectrumSize(n)];
+            RealFft.forward(values, 0, n, n, real, imag);
+
+            double tolerance = DELTA * n * 100;
+            for (int k = 0; k <= n / 2; k++) {
+                assertEquals(expected[k].getReal(), real[k], tolerance, "real part of bin " + k + " for n=" + n);
+                assertEquals(expected[k].getImaginary(), imag[k], tolerance, "imaginary part of bin " + k + " for n=" + n);
+            }
+        }
+    }
+
+    @Test
+    void testForwardZeroPadsShortInput() {
+        double[] values = randomSignal(20, 7);
+        double[] padded = new double[32];
+        System.arraycopy(values, 0, padded, 0, values.length);
+        Complex[] expected = new FastFourierTransformer(DftNormalization.STANDARD).transform(padded, TransformType.FORWARD);
+
+        double[] real = new double[17];
+        double[] imag = new double[17];
+        RealFft.forward(values, 0, values.length, 32, real, imag);
+
+        for (int k = 0; k <= 16; k++) {
+            assertEquals(expected[k].getReal(), real[k], 1e-6);
+            assertEquals(expected[k].getImaginary(), imag[k], 1e-6);
+        }
+    }
+
+    @Test
+    void testWindowedForwardMatchesPreWindowedInput() {
+        for (int n : new int[]{64, 45}) {
+            double[] values = randomSignal(n, n);
+            WindowTable window = WindowTableCache.shared().getTable(WindowFunction.BLACKMAN, n);
+            double[] windowed = new double[n];
+            for (int i = 0; i < n; i++) {
+                windowed[i] = values[i] * window.coefficient(i);
+            }
+            double[] expectedReal = new double[RealFft.spectrumSize(2 * n)];
+            double[] expectedImag = new double[RealFft.spectrumSize(2 * n)];
+            RealFft.forward(windowed, 0, n, 2 * n, expectedReal, expectedImag);
+
+            double[] real = new double[RealFft.spectrumSize(2 * n)];
+            double[] imag = new double[RealFft.spectrumSize(2 * n)];
+            RealFft.forward(values, 0, n, 2 * n, window, real, imag);
+            assertArrayEquals(expectedReal, real, DELTA);
+            assertArrayEquals(expectedImag, imag, DELTA);
+
+            // Off-heap input takes the same path without an array
+            java.nio.DoubleBuffer direct = java.nio.ByteBuffer.allocateDirect(8 * n)
+                    .order(java.nio.ByteOrder.nativeOrder()).asDoubleBuffer();
+            direct.put(values).flip();
+            RealFft.forward(direct, n, n, window, real, imag);
+            RealFft.forward(windowed, 0, n, n, expectedReal, expectedImag);
+            for (int k = 0; k < RealFft.spectrumSize(n); k++) {
+                assertEquals(expectedReal[k], real[k], DELTA);
+                assertEquals(expectedImag[k], imag[k], DELTA);
+            }
+        }
+
+        double[] values = randomSignal(32, 1);
+        WindowTable wrongSize = WindowTableCache.shared().getTable(WindowFunction.HANN, 16);
+        assertThrows(IllegalArgumentException.class,
+                () -> RealFft.forward(values, 0, 32, 32, wrongSize, new double[17], new double[17]));
+    }
+
+    @Test
+    void testInverseRoundTrip() {
+        for (int n = 1; n <= 4096; n <<= 1) {
+            double[] values = randomSignal(n, 31 * n);
+            double[] real = new double[RealFft.spectrumSize(n)];
+            double[] imag = new double[RealFft.spectrumSize(n)];
+            RealFft.forward(values, 0, n, n, real, imag);
+
+            double[] reconstructed = new double[n];
+            RealFft.inverse(real, imag, n, reconstructed, n);
+
+            for (int i = 0; i < n; i++) {
+                assertEquals(values[i], reconstructed[i], 1e-9, "sample " + i + " for n=" + n);
+            }
+        }
+    }
+
+    @Test
+    void testForwardMatchesDirectDftForAnyLength() {
+        for (int n : new int[]{3, 5, 6, 12, 15, 30, 97, 100, 1100}) {
+            double[] values = randomSignal(n, n);
+            double[] real = new double[RealFft.spectrumSize(n)];
+            double[] imag = new double[RealFft.spectrumSize(n)];
+            RealFft.forward(values, 0, n, n, real, imag);
+
+            for (int k = 0; k <= n / 2; k++) {
+                double expectedReal = 0.0;
+                double expectedImag = 0.0;
+                for (int t = 0; t < n; t++) {
+                    double angle = 2 * Math.PI * (((long) k * t) % n) / n;
+                    expectedReal += values[t] * Math.cos(angle);
+                    expectedImag -= values[t] * Math.sin(angle);
+                }
+                assertEquals(expectedReal, real[k], 1e-7 * n, "real part of bin " + k + " for n=" + n);
+                assertEquals(expectedImag, imag[k], 1e-7 * n, "imaginary part of bin " + k + " for n=" + n);
+            }
+        }
+    }
+
+    @Test
+    void testInverseRoundTripForAnyLength() {
+        for (int n : new int[]{1, 3, 7, 10, 45, 97, 1000, 1001}) {
+            double[] values = randomSignal(n, 17 * n);
+            double[] real = new double[RealFft.spectrumSize(n)];
+            double[] imag = new double[RealFft.spectrumSize(n)];
+            RealFft.forward(values, 0, n, n, real, imag);
+
+            double[] reconstructed = new double[n];
+            RealFft.inverse(real, imag, n, reconstructed, n);
+
+            for (int i = 0; i < n; i++) {
+                assertEquals(values[i], reconstructed[i], 1e-9, "sample " + i + " for n=" + n);
+            }
+        }
+    }
+
+    @Test
+    void testRejectsNonPositiveLength() {
+        assertThrows(IllegalArgumentException.class,
+                () -> RealFft.forward(new double[1], 0, 0, 0, new double[1], new double[1]));
+    }
+}
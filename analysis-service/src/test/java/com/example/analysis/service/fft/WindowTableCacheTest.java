@@ -0,0 +1,78 @@
+package com.example.analysis.service.fft;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WindowTableCacheTest {
+    private static final double DELTA = 1e-12;
+
+    @Test
+    void testTablesAreReusedPerFunctionAndSize() {
+        WindowTableCache cache = new WindowTableCache(8);
+
+        WindowTable hann = cache.getTable(WindowFunction.HANN, 256);
+        assertNotSame(hann, cache.getTable(WindowFunction.HAMMING, 256));
+        assertNotSame(hann, cache.getTable(WindowFunction.HANN, 128));
+        assertSame(hann, cache.getTable(WindowFunction.HANN, 256));
+        assertEquals(1, cache.getHitCount());
+        assertEquals(3, cache.getMissCount());
+        assertEquals(3, cache.size());
+    }
+
+    @Test
+    void testLeastRecentlyUsedTableIsEvicted() {
+        WindowTableCache cache = new WindowTableCache(1);
+        cache.getTable(WindowFunction.HANN, 64);
+        WindowTable blackman = cache.getTable(WindowFunction.BLACKMAN, 64);
+
+        assertEquals(64, blackman.getSize());
+        assertSame(blackman, cache.getTable(WindowFunction.BLACKMAN, 64));
+        assertEquals(1, cache.getEvictionCount());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void testFullHistoryTableStaysCachedAfterWarmUp() {
+        WindowTableCache cache = new WindowTableCache(128);
+        int capacity = 8192;
+        // A history grows one tick at a time, with a spectrum requested after each
+        for (int n = 1; n <= capacity; n++) {
+            cache.getTable(WindowFunction.HANN, n);
+        }
+        long misses = cache.getMissCount();
+        WindowTable steady = cache.getTable(WindowFunction.HANN, capacity);
+        for (int i = 0; i < 1000; i++) {
+            assertSame(steady, cache.getTable(WindowFunction.HANN, capacity));
+        }
+        assertEquals(misses, cache.getMissCount());
+        assertEquals(128, cache.size());
+    }
+
+    @Test
+    void testCoherentGainIsTheCosineSeriesConstant() {
+        // Periodic cosine-sum windows average to their constant term over a whole period
+        assertEquals(1.0, new WindowTable(WindowFunction.RECTANGULAR, 100).getCoherentGain(), DELTA);
+        assertEquals(0.5, new WindowTable(WindowFunction.HANN, 100).getCoherentGain(), DELTA);
+        assertEquals(0.54, new WindowTable(WindowFunction.HAMMING, 100).getCoherentGain(), DELTA);
+        assertEquals(0.42, new WindowTable(WindowFunction.BLACKMAN, 100).getCoherentGain(), DELTA);
+        assertEquals(0.375 * 100, new WindowTable(WindowFunction.HANN, 100).getSquaredSum(), DELTA);
+    }
+
+    @Test
+    void testKaiserPeaksAtTheCentreAndIsSymmetric() {
+        WindowTable kaiser = new WindowTable(WindowFunction.KAISER, 64);
+        assertEquals(1.0, kaiser.coefficient(32), DELTA);
+        for (int i = 1; i < 32; i++) {
+            assertEquals(kaiser.coefficient(32 - i), kaiser.coefficient(32 + i), DELTA);
+            assertTrue(kaiser.coefficient(i - 1) < kaiser.coefficient(i));
+        }
+        // The edge is 1 / I0(beta), about 0.00135 for beta = 8.6
+        assertEquals(0.00135, kaiser.coefficient(0), 1e-4);
+    }
+
+    @Test
+    void testRejectsNonPositiveSize() {
+        assertThrows(IllegalArgumentException.class, () -> new WindowTable(WindowFunction.HANN, 0));
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.analysis.service.filter;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.DoubleBuffer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BiquadCascadeTest {
+    private static final double SAMPLING_FREQUENCY = 20.0;
+
+    // The analog Butterworth magnitude the bilinear design matches after prewarping
+    private static double butterworth(double frequency, double cutoff, int order, boolean highPass) {
+        double ratio = Math.tan(Math.PI * frequency / SAMPLING_FREQUENCY) / Math.tan(Math.PI * cutoff / SAMPLING_FREQUENCY);
+        if (highPass) {
+            ratio = 1 / ratio;
+        }
+        return 1 / Math.sqrt(1 + Math.pow(ratio, 2 * order));
+    }
+
+    @Test
+    void testResponseMatchesButterworth() {
+        for (int order = 1; order <= 6; order++) {
+            BiquadCascade lowPass = BiquadCascade.butterworth(FilterType.LOWPASS, SAMPLING_FREQUENCY, 0.0, 2.0, order);
+            BiquadCascade highPass = BiquadCascade.butterworth(FilterType.HIGHPASS, SAMPLING_FREQUENCY, 3.0, 0.0, order);
+            assertEquals((order + 1) / 2, lowPass.getSectionCount());
+            assertEquals(1.0, lowPass.response(0.0), 1e-12);
+            assertEquals(Math.sqrt(0.5), lowPass.response(2.0), 1e-12);
+            assertEquals(Math.sqrt(0.5), highPass.response(3.0), 1e-12);
+            for (double f = 0.25; f < SAMPLING_FREQUENCY / 2; f += 0.5) {
+                assertEquals(butterworth(f, 2.0, order, false), lowPass.response(f), 1e-9);
+                assertEquals(butterworth(f, 3.0, order, true), highPass.response(f), 1e-9);
+            }
+        }
+
+        BiquadCascade bandPass = BiquadCascade.butterworth(FilterType.BANDPASS, SAMPLING_FREQUENCY, 1.0, 4.0, 3);
+        assertEquals(4, bandPass.getSectionCount());
+        assertEquals(butterworth(2.0, 4.0, 3, false) * butterworth(2.0, 1.0, 3, true), bandPass.response(2.0), 1e-9);
+    }
+
+    @Test
+    void testStreamingMatchesBatchAndSettlesOnFirstSample() {
+        BiquadCascade cascade = BiquadCascade.butterworth(FilterType.LOWPASS, SAMPLING_FREQUENCY, 0.0, 1.5, 5);
+        StreamingIirFilter filter = new StreamingIirFilter(cascade);
+        assertTrue(Double.isNaN(filter.getLastOutput()));
+
+        // A constant stream comes out unchanged from the first sample on
+        for (int i = 0; i < 10; i++) {
+            assertEquals(42.0, filter.update(42.0), 1e-9);
+        }
+
+        filter.reset();
+        double[] state = cascade.newState();
+        cascade.settle(100.0, state);
+        for (int i = 0; i < 200; i++) {
+            double x = 100.0 + Math.sin(2 * Math.PI * 0.5 * i / SAMPLING_FREQUENCY) + Math.sin(0.9 * i);
+            assertEquals(cascade.process(x, state), filter.update(x), 0.0);
+        }
+    }
+
+    @Test
+    void testFiltfiltHasNoPhaseDelay() {
+        int n = 400;
+        double[] input = new double[n];
+        double[] slow = new double[n];
+        for (int i = 0; i < n; i++) {
+            slow[i] = Math.sin(2 * Math.PI * 0.5 * i / SAMPLING_FREQUENCY);
+            input[i] = slow[i] + 0.5 * Math.sin(2 * Math.PI * 6.0 * i / SAMPLING_FREQUENCY);
+        }
+        BiquadCascade cascade = BiquadCascade.butterworth(FilterType.LOWPASS, SAMPLING_FREQUENCY, 0.0, 2.0, 4);
+
+        double[] output = new double[n];
+        cascade.filtfilt(input, 0, n, output);
+        // Away from the edges the slow component passes in phase, the fast one is gone
+        for (int i = 50; i < n - 50; i++) {
+            assertEquals(slow[i], output[i], 0.01);
+        }
+
+        double[] fromBuffer = new double[n - 100];
+        DoubleBuffer buffer = DoubleBuffer.wrap(input, 100, n - 100).slice();
+        assertEquals(n - 100, cascade.filtfilt(buffer, fromBuffer));
+        assertEquals(0, buffer.position());
+        double[] fromArray = new double[n - 100];
+        cascade.filtfilt(input, 100, n - 100, fromArray);
+        assertArrayEquals(fromArray, fromBuffer, 0.0);
+    }
+
+    @Test
+    void testInvalidDesignsAreRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> BiquadCascade.butterworth(null, SAMPLING_FREQUENCY, 0.0, 2.0, 4));
+        assertThrows(IllegalArgumentException.class,
+                () -> BiquadCascade.butterworth(FilterType.LOWPASS, SAMPLING_FREQUENCY, 0.0, 2.0, 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> BiquadCascade.butterworth(FilterType.LOWPASS, 0.0, 0.0, 2.0, 4));
+        assertThrows(IllegalArgumentException.class,
+                () -> BiquadCascade.butterworth(FilterType.LOWPASS, SAMPLING_FREQUENCY, 0.0, 10.0, 4));
+        assertThrows(IllegalArgumentException.class,
+                () -> BiquadCascade.butterworth(FilterType.HIGHPASS, SAMPLING_FREQUENCY, 0.0, 2.0, 4));
+        assertThrows(IllegalArgumentException.class,
+                () -> BiquadCascade.butterworth(FilterType.BANDPASS, SAMPLING_FREQUENCY, 3.0, 2.0, 4));
+    }
+}
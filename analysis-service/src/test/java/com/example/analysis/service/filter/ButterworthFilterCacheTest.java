@@ -0,0 +1,113 @@
+package com.example.analysis.service.filter;
+
+import com.example.analysis.service.FourierTransformer;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ButterworthFilterCacheTest {
+
+    @Test
+    void testFiltersAreReusedPerSpec() {
+        ButterworthFilterCache cache = new ButterworthFilterCache(8);
+
+        ButterworthFilter lowPass = cache.getFilter(FilterType.LOWPASS, 1024, 100.0, 0.0, 2.0, 4);
+        assertSame(lowPass, cache.getFilter(FilterType.LOWPASS, 1024, 100.0, 0.0, 2.0, 4));
+        // The low cutoff does not affect a low-pass response
+        assertSame(lowPass, cache.getFilter(FilterType.LOWPASS, 1024, 100.0, 1.5, 2.0, 4));
+        assertNotSame(lowPass, cache.getFilter(FilterType.LOWPASS, 1024, 100.0, 0.0, 2.0, 5));
+        assertNotSame(lowPass, cache.getFilter(FilterType.LOWPASS, 512, 100.0, 0.0, 2.0, 4));
+
+        assertEquals(2, cache.getHitCount());
+        assertEquals(3, cache.getMissCount());
+        assertEquals(3, cache.size());
+    }
+
+    @Test
+    void testLeastRecentlyUsedFilterIsEvicted() {
+        ButterworthFilterCache cache = new ButterworthFilterCache(1);
+        cache.getFilter(FilterType.HIGHPASS, 64, 10.0, 1.0, 0.0, 2);
+        ButterworthFilter larger = cache.getFilter(FilterType.HIGHPASS, 128, 10.0, 1.0, 0.0, 2);
+
+        assertEquals(128, larger.getSize());
+        assertSame(larger, cache.getFilter(FilterType.HIGHPASS, 128, 10.0, 1.0, 0.0, 2));
+        assertEquals(1, cache.getEvictionCount());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void testJitteryTimestampsReachASteadyHitRate() {
+        ButterworthFilterCache cache = new ButterworthFilterCache(256);
+        FourierTransformer transformer = new FourierTransformer();
+        SplittableRandom random = new SplittableRandom(42);
+        int window = 1024;
+        int ticks = 20_000;
+        // Nominally 20 Hz, with each tick up to 5 ms early or late
+        long[] timestamps = new long[ticks];
+        for (int i = 0; i < ticks; i++) {
+            timestamps[i] = 50L * i + random.nextLong(-5, 6);
+        }
+
+        long warmUpMisses = 0;
+        for (int end = window; end <= ticks; end++) {
+            double samplingFrequency = transformer.calculateSamplingFrequency(timestamps, end - window, window);
+            ButterworthFilter filter = cache.getFilter(FilterType.LOWPASS, window, samplingFrequency, 0.0, 2.0, 4);
+            assertEquals(samplingFrequency, filter.getSamplingFrequency(), samplingFrequency * 1e-3);
+            if (end == 2 * window) {
+                warmUpMisses = cache.getMissCount();
+            }
+        }
+
+        long steadyLookups = ticks - 2 * window;
+        long steadyMisses = cache.getMissCount() - warmUpMisses;
+        assertTrue(steadyMisses < steadyLookups / 100, steadyMisses + " misses in " + steadyLookups);
+        assertEquals(0, cache.getEvictionCount());
+        assertTrue(cache.size() < 10, cache.size() + " filters");
+    }
+
+    @Test
+    void testQuantizedRatesKeepTenSignificantBits() {
+        assertEquals(100.0, ButterworthFilterCache.quantizeRate(100.0));
+        assertEquals(20.0, ButterworthFilterCache.quantizeRate(20.004));
+        assertEquals(ButterworthFilterCache.quantizeRate(19.999), ButterworthFilterCache.quantizeRate(20.001));
+        assertEquals(0.0, ButterworthFilterCache.quantizeRate(0.0));
+        for (double rate = 0.01; rate < 1e6; rate *= 1.37) {
+            assertEquals(rate, ButterworthFilterCache.quantizeRate(rate), rate * 5e-4);
+        }
+    }
+
+    @Test
+    void testGainsMatchButterworthResponse() {
+        int size = 64;
+        double samplingFrequency = 32.0;
+        ButterworthFilter bandPass = new ButterworthFilterCache(4)
+                .getFilter(FilterType.BANDPASS, size, samplingFrequency, 2.0, 6.0, 3);
+
+        double[] real = new double[size / 2 + 1];
+        double[] imag = new double[size / 2 + 1];
+        java.util.Arrays.fill(real, 1.0);
+        java.util.Arrays.fill(imag, -2.0);
+        bandPass.apply(real, imag);
+
+        for (int k = 1; k <= size / 2; k++) {
+            double frequency = k * samplingFrequency / size;
+            double expected = 1.0 / Math.sqrt(1.0 + Math.pow(frequency / 6.0, 6))
+                    * (1.0 / Math.sqrt(1.0 + Math.pow(2.0 / frequency, 6)));
+            assertEquals(expected, real[k], 1e-15);
+            assertEquals(-2.0 * expected, imag[k], 1e-15);
+            assertEquals(expected, bandPass.gain(k), 1e-15);
+            assertEquals(expected, bandPass.gain(size - k), 1e-15);
+        }
+    }
+
+    @Test
+    void testParseFilterType() {
+        assertEquals(FilterType.LOWPASS, FilterType.parse("lowpass"));
+        assertEquals(FilterType.HIGHPASS, FilterType.parse("HighPass"));
+        assertEquals(FilterType.BANDPASS, FilterType.parse("BANDPASS"));
+        assertNull(FilterType.parse("notch"));
+        assertNull(FilterType.parse(null));
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.analysis.service.history;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MappedTickStoreTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testWindowsAreContiguousSlicesAcrossSegments() {
+        MappedTickStore store = MappedTickStore.open(directory, 8, 16, 0);
+
+        for (int i = 0; i < 100; i++) {
+            store.append(i * 1000L, i);
+
+            TickWindow window = store.window(Integer.MAX_VALUE);
+            assertTrue(window.values().isDirect(), "window should read the mapping in place");
+            assertEquals(Math.min(i + 1, 8), window.size());
+            assertEquals(i + 1, window.getAppendedCount());
+            for (int k = 0; k < window.size(); k++) {
+                long tick = i + 1 - window.size() + k;
+                assertEquals(tick, window.values().get(k), 0.0);
+                assertEquals(tick * 1000L, window.timestamps().get(k));
+            }
+            assertTrue(window.isIntact());
+        }
+        assertEquals(99.0, store.valueFromEnd(0), 0.0);
+        assertEquals(92.0, store.valueFromEnd(7), 0.0);
+    }
+
+    @Test
+    void testHistorySurvivesReopening() {
+        MappedTickStore store = MappedTickStore.open(directory, 4, 8, 0);
+        for (int i = 0; i < 21; i++) {
+            store.append(i, i * 0.5);
+        }
+        store.close();
+
+        MappedTickStore reopened = MappedTickStore.open(directory, 4, 8, 0);
+        assertEquals(21, reopened.getAppendedCount());
+        assertEquals(4, reopened.size());
+        assertEquals(10.0, reopened.valueFromEnd(0), 0.0);
+
+        reopened.append(21, 10.5);
+        TickWindow window = reopened.window(3);
+        assertEquals(9.5, window.values().get(0), 0.0);
+        assertEquals(21L, window.timestamps().get(2));
+    }
+
+    @Test
+    void testOldSegmentsAreDeletedBeyondRetention() throws IOException {
+        MappedTickStore store = MappedTickStore.open(directory, 4, 8, 2);
+        for (int i = 0; i < 100; i++) {
+            store.append(i, i);
+        }
+
+        assertEquals(2, segmentFiles());
+        assertEquals(99.0, store.valueFromEnd(0), 0.0);
+    }
+
+    @Test
+    void testResetStartsAnEmptyStore() throws IOException {
+        MappedTickStore store = MappedTickStore.open(directory, 4, 8, 0);
+        for (int i = 0; i < 30; i++) {
+            store.append(i, i);
+        }
+        TickWindow before = store.window(4);
+
+        TickHistory reset = store.reset();
+        assertEquals(0, reset.getAppendedCount());
+        assertEquals(0, reset.size());
+        assertEquals(1, segmentFiles());
+        // Views taken before the reset keep their data
+        assertEquals(29.0, before.values().get(3), 0.0);
+    }
+
+    @Test
+    void testSegmentsMustHoldTwiceTheCapacity() {
+        assertThrows(IllegalArgumentException.class, () -> MappedTickStore.open(directory, 8, 15, 0));
+    }
+
+    private long segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.toString().endsWith(".ticks")).count();
+        }
+    }
+}
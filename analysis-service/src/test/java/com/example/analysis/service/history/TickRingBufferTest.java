@@ -0,0 +1,67 @@
+package com.example.analysis.service.history;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TickRingBufferTest {
+
+    @Test
+    void testWindowsStayContiguousAcrossWraparound() {
+        TickRingBuffer buffer = new TickRingBuffer(8);
+
+        for (int i = 0; i < 100; i++) {
+            buffer.append(i * 1000L, i);
+
+            long appended = buffer.getAppendedCount();
+            int size = buffer.size();
+            int offset = buffer.windowOffset(appended, size);
+            for (int k = 0; k < size; k++) {
+                long tick = appended - size + k;
+                assertEquals(tick, buffer.valuesArray()[offset + k], 0.0);
+                assertEquals(tick * 1000L, buffer.timestampsArray()[offset + k]);
+            }
+        }
+    }
+
+    @Test
+    void testOldestTicksAreEvictedAtCapacity() {
+        TickRingBuffer buffer = new TickRingBuffer(4);
+        for (int i = 1; i <= 6; i++) {
+            buffer.append(i, i * 10.0);
+        }
+
+        assertEquals(6, buffer.getAppendedCount());
+        assertEquals(4, buffer.size());
+        assertEquals(60.0, buffer.valueFromEnd(0), 0.0);
+        assertEquals(30.0, buffer.valueFromEnd(3), 0.0);
+    }
+
+    @Test
+    void testViewIsIntactUntilItsSlotsAreReused() {
+        TickRingBuffer buffer = new TickRingBuffer(32);
+        for (int i = 0; i < 32; i++) {
+            buffer.append(i, i);
+        }
+        long appended = buffer.getAppendedCount();
+        int size = buffer.size();
+        int offset = buffer.windowOffset(appended, size);
+
+        // The ring has capacity / 2 spare slots, so the writer can run that far ahead of a view
+        for (int i = 0; i < 16; i++) {
+            buffer.append(32 + i, 32 + i);
+            assertTrue(buffer.isIntact(appended, size));
+        }
+        assertEquals(0.0, buffer.valuesArray()[offset], 0.0);
+
+        buffer.append(48, 48);
+        assertFalse(buffer.isIntact(appended, size));
+        // A shorter view of the newest ticks in the same snapshot is still intact
+        assertTrue(buffer.isIntact(appended, size - 1));
+    }
+
+    @Test
+    void testCapacityMustBePositive() {
+        assertThrows(IllegalArgumentException.class, () -> new TickRingBuffer(0));
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.analysis.service.indicator;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RollingStatisticsTest {
+
+    // Exact two-pass mean and population variance of the last period values of xs[0, end)
+    private static double[] twoPass(double[] xs, int end, int period) {
+        double mean = 0.0;
+        for (int i = end - period; i < end; i++) {
+            mean += xs[i];
+        }
+        mean /= period;
+        double variance = 0.0;
+        for (int i = end - period; i < end; i++) {
+            variance += (xs[i] - mean) * (xs[i] - mean);
+        }
+        return new double[]{mean, variance / period};
+    }
+
+    @Test
+    void testMatchesTwoPassWhileFilling() {
+        RollingStatistics statistics = new RollingStatistics(5);
+        assertTrue(Double.isNaN(statistics.getMean()));
+        double[] xs = {3, 1, 4, 1, 5, 9, 2, 6};
+        for (int i = 0; i < xs.length; i++) {
+            statistics.add(xs[i]);
+            int n = Math.min(i + 1, 5);
+            double[] expected = twoPass(xs, i + 1, n);
+            assertEquals(n, statistics.getCount());
+            assertEquals(i >= 4, statistics.isFull());
+            assertEquals(expected[0], statistics.getMean(), 1e-12);
+            assertEquals(expected[1], statistics.getVariance(), 1e-12);
+        }
+        assertEquals(6.0, statistics.getLatest());
+        assertEquals((6 - statistics.getMean()) / statistics.getStdDev(), statistics.zScore(6), 1e-12);
+    }
+
+    @Test
+    void testStaysAccurateOverMillionsOfLargeValues() {
+        int period = 50;
+        int n = 1_000_000;
+        double[] xs = new double[n];
+        Random random = new Random(42);
+        // A large level with small moves: the worst case for sum-of-squares variance
+        double level = 1e7;
+        RollingStatistics statistics = new RollingStatistics(period);
+        for (int i = 0; i < n; i++) {
+            level += random.nextGaussian() * 0.01;
+            xs[i] = level + random.nextGaussian() * 0.001;
+            statistics.add(xs[i]);
+        }
+
+        double[] expected = twoPass(xs, n, period);
+        assertEquals(expected[0], statistics.getMean(), 1e-8);
+        assertEquals(expected[1], statistics.getVariance(), 1e-9 * expected[1] + 1e-12);
+        assertEquals(n / (period * RollingStatistics.DEFAULT_RESYNC_PERIODS), statistics.getResyncCount());
+    }
+
+    @Test
+    void testConstantWindowHasZeroSpread() {
+        RollingStatistics statistics = new RollingStatistics(4, 1_000_000);
+        for (int i = 0; i < 1000; i++) {
+            statistics.add(0.1);
+        }
+        assertEquals(0.1, statistics.getMean(), 1e-15);
+        assertEquals(0.0, statistics.getStdDev(), 1e-9);
+        assertEquals(0.0, statistics.zScore(0.1), 1e-6);
+
+        statistics.reset();
+        assertEquals(0, statistics.getCount());
+        assertThrows(IllegalArgumentException.class, () -> new RollingStatistics(0));
+        assertThrows(IllegalArgumentException.class, () -> new RollingStatistics(3, 0));
+    }
+}
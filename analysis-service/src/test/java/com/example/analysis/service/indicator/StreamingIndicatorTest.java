@@ -0,0 +1,167 @@
+package com.example.analysis.service.indicator;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StreamingIndicatorTest {
+    private static final double DELTA = 1e-9;
+
+    private static double price(int i) {
+        return 100 + 5 * Math.sin(i / 7.0) + Math.cos(1.3 * i);
+    }
+
+    // EMA of xs[from, to) seeded with the SMA of its first period values
+    private static double ema(double[] xs, int from, int to, int period, double alpha) {
+        double value = 0.0;
+        for (int i = from; i < from + period; i++) {
+            value += xs[i];
+        }
+        value /= period;
+        for (int i = from + period; i < to; i++) {
+            value += alpha * (xs[i] - value);
+        }
+        return value;
+    }
+
+    @Test
+    void testRsiMatchesWilderDefinition() {
+        int period = 14;
+        int n = 100;
+        double[] gains = new double[n - 1];
+        double[] losses = new double[n - 1];
+        RsiIndicator rsi = new RsiIndicator(period);
+        rsi.update(price(0), 0, 0);
+        for (int i = 1; i < n; i++) {
+            assertEquals(i - 1 >= period, rsi.isReady());
+            rsi.update(price(i), 0, i);
+            gains[i - 1] = Math.max(0, price(i) - price(i - 1));
+            losses[i - 1] = Math.max(0, price(i - 1) - price(i));
+        }
+
+        double gain = ema(gains, 0, n - 1, period, 1.0 / period);
+        double loss = ema(losses, 0, n - 1, period, 1.0 / period);
+        assertEquals(100 - 100 / (1 + gain / loss), rsi.getValue(0), DELTA);
+
+        RsiIndicator rising = new RsiIndicator(3);
+        for (int i = 0; i < 10; i++) {
+            rising.update(i, 0, i);
+        }
+        assertEquals(100.0, rising.getValue(0));
+    }
+
+    @Test
+    void testMacdMatchesEmaDifference() {
+        int n = 80;
+        double[] prices = new double[n];
+        double[] macd = new double[n];
+        MacdIndicator indicator = new MacdIndicator(12, 26, 9);
+        for (int i = 0; i < n; i++) {
+            prices[i] = price(i);
+            indicator.update(prices[i], 0, i);
+            if (i >= 25) {
+                macd[i] = ema(prices, 0, i + 1, 12, 2.0 / 13) - ema(prices, 0, i + 1, 26, 2.0 / 27);
+            }
+            assertEquals(i >= 25 + 8, indicator.isReady());
+        }
+
+        double signal = ema(macd, 25, n, 9, 0.2);
+        assertEquals(macd[n - 1], indicator.getValue(0), DELTA);
+        assertEquals(signal, indicator.getValue(1), DELTA);
+        assertEquals(macd[n - 1] - signal, indicator.getValue(2), DELTA);
+        assertEquals("MACD(12,26,9)", indicator.getName());
+    }
+
+    @Test
+    void testBollingerMatchesWindowStatistics() {
+        BollingerIndicator bollinger = new BollingerIndicator(20, 2);
+        for (int i = 0; i < 57; i++) {
+            bollinger.update(price(i), 0, i);
+        }
+        double mean = 0.0;
+        for (int i = 37; i < 57; i++) {
+            mean += price(i) / 20;
+        }
+        double variance = 0.0;
+        for (int i = 37; i < 57; i++) {
+            variance += (price(i) - mean) * (price(i) - mean) / 20;
+        }
+        assertEquals(mean, bollinger.getValue(0), DELTA);
+        assertEquals(mean + 2 * Math.sqrt(variance), bollinger.getValue(1), 1e-7);
+        assertEquals(mean - 2 * Math.sqrt(variance), bollinger.getValue(2), 1e-7);
+    }
+
+    @Test
+    void testAtrOfTicksAndBars() {
+        AtrIndicator perTick = new AtrIndicator(2, 0);
+        perTick.update(10, 0, 0);
+        perTick.update(12, 0, 1);
+        assertFalse(perTick.isReady());
+        perTick.update(11, 0, 2);
+        // Seeded with the mean of |12 - 10| and |11 - 12|, then smoothed with |15 - 11|
+        assertEquals(1.5, perTick.getValue(0), DELTA);
+        perTick.update(15, 0, 3);
+        assertEquals(2.75, perTick.getValue(0), DELTA);
+
+        AtrIndicator bars = new AtrIndicator(2, 1000);
+        bars.update(10, 0, 0);
+        bars.update(13, 0, 500);
+        bars.update(11, 0, 900);    // bar 0: high 13, low 10, close 11, range 3
+        bars.update(8, 0, 1000);
+        bars.update(9, 0, 1999);    // bar 1: high 9, low 8, true range |8 - 11| = 3
+        assertFalse(bars.isReady());
+        bars.update(9, 0, 2000);
+        assertEquals(3.0, bars.getValue(0), DELTA);
+    }
+
+    @Test
+    void testVwapRestartsEachSession() {
+        VwapIndicator vwap = new VwapIndicator(1000);
+        vwap.update(10, 0, 0);
+        assertFalse(vwap.isReady());
+        vwap.update(10, 1, 100);
+        vwap.update(20, 3, 200);
+        assertEquals(17.5, vwap.getValue(0), DELTA);
+        vwap.update(30, 2, 1000);
+        assertEquals(30.0, vwap.getValue(0), DELTA);
+    }
+
+    @Test
+    void testSpecsParseWithDefaults() {
+        assertEquals(IndicatorSpec.of(IndicatorType.MACD, 12, 26, 9), IndicatorSpec.parse(" macd "));
+        assertEquals(IndicatorSpec.of(IndicatorType.BOLLINGER, 10, 2.5), IndicatorSpec.parse("Bollinger(10, 2.5)"));
+        assertEquals("ATR(14,0)", IndicatorSpec.parse("ATR").toString());
+        assertEquals(List.of(IndicatorSpec.parse("RSI(7)"), IndicatorSpec.parse("MACD(5,10,3)"),
+                IndicatorSpec.parse("VWAP")), IndicatorSpec.parseList("RSI(7), MACD(5,10,3); VWAP"));
+        assertTrue(IndicatorSpec.parseList(" ").isEmpty());
+
+        assertThrows(IllegalArgumentException.class, () -> IndicatorSpec.parse("FOO(3)"));
+        assertThrows(IllegalArgumentException.class, () -> IndicatorSpec.parse("RSI(3,4)"));
+        assertThrows(IllegalArgumentException.class, () -> IndicatorSpec.parse("RSI(x)"));
+        assertThrows(IllegalArgumentException.class, () -> IndicatorSpec.parse("RSI(2.5)").create());
+        assertThrows(IllegalArgumentException.class, () -> IndicatorSpec.parse("MACD(26,12,9)").create());
+    }
+
+    @Test
+    void testSetReadsEveryOutputInKeyOrder() {
+        IndicatorSet set = new IndicatorSet(IndicatorSpec.parseList("RSI(3), BOLLINGER(4,1)"));
+        assertEquals(List.of("RSI(3)", "BOLLINGER(4,1).middle", "BOLLINGER(4,1).upper", "BOLLINGER(4,1).lower"),
+                set.getKeys());
+        double[] values = new double[set.getOutputCount()];
+        set.update(1, 0, 0);
+        set.read(values);
+        assertTrue(Double.isNaN(values[0]));
+        for (int i = 1; i < 5; i++) {
+            set.update(1 + i, 0, i);
+        }
+        set.read(values);
+        assertEquals(100.0, values[0]);
+        assertEquals(3.5, values[1], DELTA);
+
+        set.reset();
+        set.read(values);
+        assertTrue(Double.isNaN(values[1]));
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.analysis.service.spectrogram;
+
+import com.example.analysis.model.FrequencySpectrum;
+import com.example.analysis.model.Spectrogram;
+import com.example.analysis.service.fft.WindowFunction;
+import com.example.analysis.service.history.TickRingBuffer;
+import com.example.analysis.service.history.TickWindow;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SpectrogramEngineTest {
+    private static final double SAMPLING_FREQUENCY = 20.0;
+    private static final long INTERVAL_MS = 50;
+
+    private static double sample(long i) {
+        return 3.0 * Math.sin(2 * Math.PI * 2.5 * i / SAMPLING_FREQUENCY) + 0.1 * Math.cos(0.37 * i * i);
+    }
+
+    private static TickRingBuffer history(int capacity, int ticks) {
+        TickRingBuffer history = new TickRingBuffer(capacity);
+        append(history, 0, ticks);
+        return history;
+    }
+
+    private static void append(TickRingBuffer history, long from, long to) {
+        for (long i = from; i < to; i++) {
+            history.append(INTERVAL_MS * i, sample(i));
+        }
+    }
+
+    // One-sided PSD of values[from, from + n) by direct DFT
+    private static double directDensity(TickWindow ticks, int from, int n, WindowFunction window, int k) {
+        double re = 0.0;
+        double im = 0.0;
+        double windowPower = 0.0;
+        for (int i = 0; i < n; i++) {
+            double w = window.coefficient(i, n);
+            double angle = 2 * Math.PI * k * i / n;
+            re += ticks.values().get(from + i) * w * Math.cos(angle);
+            im -= ticks.values().get(from + i) * w * Math.sin(angle);
+            windowPower += w * w;
+        }
+        double weight = k == 0 || 2 * k == n ? 1.0 : 2.0;
+        return weight * (re * re + im * im) / (SAMPLING_FREQUENCY * windowPower);
+    }
+
+    @Test
+    void testSegmentsMatchDirectDft() {
+        SpectrogramSpec spec = new SpectrogramSpec(48, 16, WindowFunction.HAMMING);
+        TickWindow ticks = history(1024, 200).window(Integer.MAX_VALUE);
+        Spectrogram spectrogram = new SpectrogramEngine(spec).compute(ticks, SAMPLING_FREQUENCY);
+
+        // Segments start at ticks 0, 32, ..., 128
+        assertEquals(5, spectrogram.getSegmentCount());
+        assertEquals(25, spectrogram.getBinCount());
+        assertEquals(INTERVAL_MS * (32 + 24), spectrogram.getTimestamp(1));
+        assertEquals(2.5, spectrogram.getFrequency(6), 1e-12);
+        for (int s = 0; s < spectrogram.getSegmentCount(); s++) {
+            for (int k = 0; k < spectrogram.getBinCount(); k++) {
+                double expected = directDensity(ticks, 32 * s, 48, WindowFunction.HAMMING, k);
+                assertEquals(expected, spectrogram.getDensity(s, k), 1e-9 * Math.max(1.0, expected));
+            }
+        }
+    }
+
+    @Test
+    void testWelchPsdIntegratesToSignalPower() {
+        SpectrogramSpec spec = new SpectrogramSpec(128, 64, WindowFunction.HANN);
+        Spectrogram spectrogram = new SpectrogramEngine(spec)
+                .compute(history(4096, 4096).window(Integer.MAX_VALUE), SAMPLING_FREQUENCY);
+        FrequencySpectrum psd = spectrogram.welch();
+
+        int peak = 0;
+        double total = 0.0;
+        for (int k = 0; k < psd.size(); k++) {
+            if (psd.getMagnitude(k) > psd.getMagnitude(peak)) {
+                peak = k;
+            }
+            total += psd.getMagnitude(k) * SAMPLING_FREQUENCY / 128;
+        }
+        assertEquals(2.5, psd.getFrequency(peak), 1e-12);
+        // A sine of amplitude 3 carries 4.5 units of power, plus a little from the 0.1 chirp
+        assertEquals(4.5, total, 0.1);
+        assertEquals(63, spectrogram.getSegmentCount());
+    }
+
+    @Test
+    void testNewTicksOnlyTransformCompletedSegments() {
+        SpectrogramSpec spec = new SpectrogramSpec(64, 48, WindowFunction.BLACKMAN);
+        SpectrogramEngine engine = new SpectrogramEngine(spec);
+        TickRingBuffer history = history(512, 500);
+        Spectrogram first = engine.compute(history.window(Integer.MAX_VALUE), SAMPLING_FREQUENCY);
+        long computed = engine.getComputedSegmentCount();
+        assertEquals(first.getSegmentCount(), computed);
+
+        // Wrap the ring buffer: two more segments complete, the oldest ones fall out
+        append(history, 500, 532);
+        Spectrogram second = engine.compute(history.window(Integer.MAX_VALUE), SAMPLING_FREQUENCY);
+        assertEquals(computed + 2, engine.getComputedSegmentCount());
+        assertEquals(second.getSegmentCount(), engine.getCachedSegmentCount());
+
+        Spectrogram fresh = new SpectrogramEngine(spec).compute(history.window(Integer.MAX_VALUE), SAMPLING_FREQUENCY);
+        assertEquals(fresh.getSegmentCount(), second.getSegmentCount());
+        for (int s = 0; s < fresh.getSegmentCount(); s++) {
+            assertEquals(fresh.getTimestamp(s), second.getTimestamp(s));
+            for (int k = 0; k < fresh.getBinCount(); k++) {
+                assertEquals(fresh.getDensity(s, k), second.getDensity(s, k));
+            }
+        }
+    }
+
+    @Test
+    void testCopiedWindowsShareTheCache() {
+        SpectrogramEngine engine = new SpectrogramEngine(new SpectrogramSpec(32, 0, WindowFunction.RECTANGULAR));
+        TickRingBuffer history = history(256, 300);
+        engine.compute(history.window(Integer.MAX_VALUE), SAMPLING_FREQUENCY);
+        long computed = engine.getComputedSegmentCount();
+
+        engine.compute(history.window(Integer.MAX_VALUE).copy(), SAMPLING_FREQUENCY);
+        assertEquals(computed, engine.getComputedSegmentCount());
+        assertEquals(computed, engine.getReusedSegmentCount());
+    }
+
+    @Test
+    void testTooFewTicksGiveAnEmptySpectrogram() {
+        SpectrogramEngine engine = new SpectrogramEngine(new SpectrogramSpec(64, 32, WindowFunction.HANN));
+        assertSame(Spectrogram.EMPTY, engine.compute(history(512, 63).window(Integer.MAX_VALUE), SAMPLING_FREQUENCY));
+        assertSame(FrequencySpectrum.EMPTY, Spectrogram.EMPTY.welch());
+    }
+
+    @Test
+    void testInvalidSpecsAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new SpectrogramSpec(1, 0, WindowFunction.HANN));
+        assertThrows(IllegalArgumentException.class, () -> new SpectrogramSpec(64, 64, WindowFunction.HANN));
+        assertThrows(IllegalArgumentException.class, () -> new SpectrogramSpec(64, -1, WindowFunction.HANN));
+        assertThrows(IllegalArgumentException.class, () -> new SpectrogramSpec(64, 32, null));
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.benchmarks;
+
+import com.example.analysis.controller.AnalysisController;
+import com.example.analysis.service.TimeSeriesAnalysis;
+import com.example.analysis.service.fft.PaddingPolicy;
+import com.example.analysis.service.history.TickRingBuffer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The REST serialization paths of {@link AnalysisController}: taking the snapshot and streaming
+ * the {@code /timeseries} and {@code /frequency} responses into a reused sink, as Spring MVC does
+ * into the servlet output stream.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class AnalysisControllerBenchmark {
+
+    @Param({"1024", "8192"})
+    int historySize;
+
+    private AnalysisController controller;
+    private ByteArrayOutputStream sink;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        TimeSeriesAnalysis analysis = new TimeSeriesAnalysis(10, 20, PaddingPolicy.NEXT_POWER_OF_TWO,
+                new TickRingBuffer(historySize));
+        double[] prices = SignalFixtures.values(historySize);
+        long[] timestamps = SignalFixtures.timestamps(historySize);
+        for (int i = 0; i < historySize; i++) {
+            analysis.addPrice(prices[i], timestamps[i]);
+        }
+        // Measure the transform and rendering of every request, not the result cache
+        analysis.setResultCacheSize(0);
+        controller = new AnalysisController(analysis);
+        sink = new ByteArrayOutputStream(1 << 20);
+    }
+
+    @Benchmark
+    public int timeSeriesJson() throws Exception {
+        return render(controller.getTimeSeriesData(null, null, null, MediaType.APPLICATION_JSON_VALUE));
+    }
+
+    @Benchmark
+    public int timeSeriesNdjson() throws Exception {
+        return render(controller.getTimeSeriesData(null, null, null, MediaType.APPLICATION_NDJSON_VALUE));
+    }
+
+    @Benchmark
+    public int frequencyJson() throws Exception {
+        return render(controller.getFrequencyData(null, null, null, null, MediaType.APPLICATION_JSON_VALUE));
+    }
+
+    private int render(ResponseEntity<StreamingResponseBody> response) throws IOException {
+        sink.reset();
+        response.getBody().writeTo(sink);
+        return sink.size();
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares two JMH JSON result files, a baseline and a candidate, benchmark by benchmark.
+ * <p>
+ * For each benchmark and parameter combination present in both files it prints the primary
+ * score of each run, the relative change and the normalized allocation rate
+ * ({@code gc.alloc.rate.norm}, bytes per operation). A score is a regression when it is worse by
+ * more than the threshold and by more than the two runs' combined error margins; an allocation
+ * rate is a regression when it grows by more than the threshold and by more than
+ * {@value #ALLOCATION_NOISE_BYTES} bytes per operation. The process exits with status 1 if there
+ * is any regression, so it can gate a build.
+ * <p>
+ * Usage: {@code BaselineComparison <baseline.json> <candidate.json> [threshold-percent]}, the
+ * threshold defaulting to {@value #DEFAULT_THRESHOLD_PERCENT}.
+ */
+public final class BaselineComparison {
+    static final double DEFAULT_THRESHOLD_PERCENT = 5.0;
+    static final double ALLOCATION_NOISE_BYTES = 16.0;
+    private static final String ALLOCATION_METRIC = "gc.alloc.rate.norm";
+
+    private static final class Result {
+        final String mode;
+        final String unit;
+        final double score;
+        final double error;
+        final Double allocatedBytes;
+
+        Result(JsonNode node) {
+            JsonNode primary = node.path("primaryMetric");
+            this.mode = node.path("mode").asText();
+            this.unit = primary.path("scoreUnit").asText();
+            this.score = primary.path("score").asDouble();
+            this.error = finiteOrZero(primary.path("scoreError").asDouble());
+            JsonNode allocation = node.path("secondaryMetrics").path(ALLOCATION_METRIC);
+            this.allocatedBytes = allocation.isMissingNode() ? null : allocation.path("score").asDouble();
+        }
+
+        boolean higherIsBetter() {
+            return mode.equals("thrpt");
+        }
+    }
+
+    private BaselineComparison() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2 || args.length > 3) {
+            System.err.println("Usage: BaselineComparison <baseline.json> <candidate.json> [threshold-percent]");
+            System.exit(2);
+        }
+        double threshold = args.length == 3 ? Double.parseDouble(args[2]) : DEFAULT_THRESHOLD_PERCENT;
+        Map<String, Result> baseline = read(new File(args[0]));
+        Map<String, Result> candidate = read(new File(args[1]));
+
+        int regressions = 0;
+        System.out.printf("%-90s %14s %14s %9s %14s %14s%n",
+                "Benchmark", "Baseline", "Candidate", "Change", "Alloc B/op", "Alloc B/op");
+        for (Map.Entry<String, Result> entry : baseline.entrySet()) {
+            Result before = entry.getValue();
+            Result after = candidate.get(entry.getKey());
+            if (after == null) {
+                System.out.printf("%-90s %14.3f %14s%n", entry.getKey(), before.score, "missing");
+                continue;
+            }
+
+            double change = 100.0 * (after.score - before.score) / before.score;
+            double worsening = before.higherIsBetter() ? -change : change;
+            boolean slower = worsening > threshold
+                    && Math.abs(after.score - before.score) > before.error + after.error;
+            boolean allocates = before.allocatedBytes != null && after.allocatedBytes != null
+                    && after.allocatedBytes - before.allocatedBytes > ALLOCATION_NOISE_BYTES
+                    && after.allocatedBytes > before.allocatedBytes * (1 + threshold / 100.0);
+            if (slower || allocates) {
+                regressions++;
+            }
+
+            System.out.printf("%-90s %14.3f %14.3f %+8.1f%% %14s %14s %s%n",
+                    entry.getKey() + " (" + before.unit + ")", before.score, after.score, change,
+                    formatBytes(before.allocatedBytes), formatBytes(after.allocatedBytes),
+                    slower && allocates ? "REGRESSION (time, alloc)"
+                            : slower ? "REGRESSION (time)"
+                            : allocates ? "REGRESSION (alloc)" : "");
+        }
+        for (String key : candidate.keySet()) {
+            if (!baseline.containsKey(key)) {
+                System.out.printf("%-90s %14s %14.3f%n", key, "new", candidate.get(key).score);
+            }
+        }
+
+        System.out.printf("%n%d regression(s) beyond %.1f%%%n", regressions, threshold);
+        if (regressions > 0) {
+            System.exit(1);
+        }
+    }
+
+    private static Map<String, Result> read(File file) throws IOException {
+        Map<String, Result> results = new LinkedHashMap<>();
+        for (JsonNode node : new ObjectMapper().readTree(file)) {
+            results.put(key(node), new Result(node));
+        }
+        return results;
+    }
+
+    // Benchmark method plus its parameters, in a stable order
+    private static String key(JsonNode node) {
+        StringBuilder key = new StringBuilder(node.path("benchmark").asText()
+                .replace(BaselineComparison.class.getPackageName() + ".", ""));
+        Map<String, String> params = new TreeMap<>();
+        Iterator<Map.Entry<String, JsonNode>> fields = node.path("params").fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            params.put(field.getKey(), field.getValue().asText());
+        }
+        params.forEach((name, value) -> key.append(' ').append(name).append('=').append(value));
+        return key.toString();
+    }
+
+    private static String formatBytes(Double bytes) {
+        return bytes == null ? "-" : String.format("%.1f", bytes);
+    }
+
+    private static double finiteOrZero(double value) {
+        return Double.isFinite(value) ? value : 0.0;
+    }
+}
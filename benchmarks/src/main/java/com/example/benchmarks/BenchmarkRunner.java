@@ -0,0 +1,48 @@
+package com.example.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of {@code benchmarks.jar}. Takes the usual JMH command line, and in addition always
+ * enables the GC profiler, so every suite reports allocation rates, and writes JSON results to
+ * {@code jmh-result.json} unless {@code -rf}/{@code -rff} say otherwise. Those results are the input
+ * of {@link BaselineComparison}.
+ */
+public final class BenchmarkRunner {
+    static final String DEFAULT_RESULT_FILE = "jmh-result.json";
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        if (commandLine.shouldHelp()) {
+            commandLine.showHelp();
+            return;
+        }
+        if (commandLine.shouldList()) {
+            new Runner(commandLine).list();
+            return;
+        }
+
+        ChainedOptionsBuilder options = new OptionsBuilder().parent(commandLine);
+        boolean gcProfiled = commandLine.getProfilers().stream()
+                .anyMatch(profiler -> profiler.getKlass().equals("gc")
+                        || profiler.getKlass().equals(GCProfiler.class.getName()));
+        if (!gcProfiled) {
+            options.addProfiler(GCProfiler.class);
+        }
+        if (!commandLine.getResultFormat().hasValue()) {
+            options.resultFormat(ResultFormatType.JSON);
+        }
+        if (!commandLine.getResult().hasValue()) {
+            options.result(DEFAULT_RESULT_FILE);
+        }
+        new Runner(options.build()).run();
+    }
+}
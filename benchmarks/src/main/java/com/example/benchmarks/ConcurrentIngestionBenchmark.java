@@ -0,0 +1,114 @@
+package com.example.benchmarks;
+
+import com.example.analysis.service.FourierTransformerService;
+import com.example.analysis.service.TimeSeriesAnalysisService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * {@code addPrice} throughput of {@link TimeSeriesAnalysisService} with 1, 2, 4 and 8 writer
+ * threads, each feeding a symbol of its own, while a background reader takes the spectrum of every
+ * symbol once a millisecond. Near-linear scaling from one writer to as many as there are cores
+ * shows that writers of different symbols, and the reader, do not contend.
+ */
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ConcurrentIngestionBenchmark {
+    private static final int MAX_WRITERS = 8;
+
+    @State(Scope.Benchmark)
+    public static class Shared {
+        TimeSeriesAnalysisService service;
+        final AtomicInteger nextWriter = new AtomicInteger();
+        private volatile boolean done;
+        private Thread reader;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            service = new TimeSeriesAnalysisService(new FourierTransformerService());
+            for (int w = 0; w < MAX_WRITERS; w++) {
+                service.getOrCreateAnalysis("SYM" + w);
+            }
+            reader = new Thread(() -> {
+                while (!done) {
+                    for (int w = 0; w < MAX_WRITERS; w++) {
+                        service.findAnalysis("SYM" + w).getFrequencyMagnitudePairs();
+                    }
+                    LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+                }
+            }, "spectrum-reader");
+            reader.setDaemon(true);
+            reader.start();
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws InterruptedException {
+            done = true;
+            reader.join();
+            service.close();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Writer {
+        String symbol;
+        double[] prices;
+        long[] timestamps;
+        int next;
+
+        @Setup(Level.Trial)
+        public void setUp(Shared shared) {
+            symbol = "SYM" + shared.nextWriter.getAndIncrement() % MAX_WRITERS;
+            prices = SignalFixtures.values(1024);
+            timestamps = SignalFixtures.timestamps(1024);
+        }
+
+        void addPrice(TimeSeriesAnalysisService service) {
+            int i = next;
+            next = i + 1 == prices.length ? 0 : i + 1;
+            service.addPrice(symbol, prices[i], timestamps[i]);
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void oneWriter(Shared shared, Writer writer) {
+        writer.addPrice(shared.service);
+    }
+
+    @Benchmark
+    @Threads(2)
+    public void twoWriters(Shared shared, Writer writer) {
+        writer.addPrice(shared.service);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void fourWriters(Shared shared, Writer writer) {
+        writer.addPrice(shared.service);
+    }
+
+    @Benchmark
+    @Threads(MAX_WRITERS)
+    public void eightWriters(Shared shared, Writer writer) {
+        writer.addPrice(shared.service);
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.benchmarks;
+
+import com.example.analysis.pipeline.ConflatedTick;
+import com.example.analysis.pipeline.ConflatedTickHandler;
+import com.example.analysis.pipeline.ConflationMode;
+import com.example.analysis.pipeline.Conflator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link Conflator} on a burst of ticks spread over a few symbols: folding in each tick, and the
+ * whole burst followed by the drain a display consumer would run, per tick of the burst.
+ */
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class ConflatorBenchmark {
+    private static final int SYMBOLS = 16;
+    private static final int BURST = 1024;
+
+    @Param({"LATEST", "OHLC"})
+    ConflationMode mode;
+
+    private final ConflatedTick view = new ConflatedTick();
+    private Conflator conflator;
+    private String[] symbols;
+    private double[] prices;
+    private long[] timestamps;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        conflator = new Conflator(mode);
+        symbols = new String[BURST];
+        for (int i = 0; i < BURST; i++) {
+            symbols[i] = "SYM" + (i % SYMBOLS);
+        }
+        prices = SignalFixtures.values(BURST);
+        timestamps = SignalFixtures.timestamps(BURST);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public void update() {
+        int i = next;
+        next = i + 1 == BURST ? 0 : i + 1;
+        conflator.update(symbols[i], prices[i], 1.0, timestamps[i]);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @OperationsPerInvocation(BURST)
+    public int burstThenDrain(Blackhole blackhole) {
+        for (int i = 0; i < BURST; i++) {
+            conflator.update(symbols[i], prices[i], 1.0, timestamps[i]);
+        }
+        ConflatedTickHandler handler = (tick, endOfDrain) -> blackhole.consume(tick.getClose());
+        return conflator.drain(view, handler, Integer.MAX_VALUE);
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.benchmarks;
+
+import com.example.analysis.service.FourierTransformer;
+import com.example.analysis.service.fft.WindowFunction;
+import com.example.analysis.service.filter.FilterType;
+import org.apache.commons.math3.complex.Complex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link FourierTransformer} across window sizes: the forward FFT, applying a Butterworth filter
+ * to a spectrum, and the full filter round trip. The {@code List} variants measure the boxed
+ * adapters that older callers still use.
+ * <p>
+ * Sizes include non-powers of two, which the default padding policy rounds up.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class FourierTransformerBenchmark {
+
+    @Param({"256", "1000", "4096", "16384"})
+    int size;
+
+    private FourierTransformer transformer;
+    private double[] values;
+    private long[] timestamps;
+    private List<Double> valueList;
+    private List<Long> timestampList;
+    private double[] real;
+    private double[] imag;
+    private double[] spectrumReal;
+    private double[] spectrumImag;
+    private int transformSize;
+    private double samplingFrequency;
+    private double[] filteredValues;
+    private double[] filteredTimes;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        transformer = new FourierTransformer();
+        values = SignalFixtures.values(size);
+        timestamps = SignalFixtures.timestamps(size);
+        valueList = SignalFixtures.valueList(size);
+        timestampList = SignalFixtures.timestampList(size);
+        real = new double[transformer.spectrumSize(size)];
+        imag = new double[transformer.spectrumSize(size)];
+        spectrumReal = new double[real.length];
+        spectrumImag = new double[imag.length];
+        transformSize = transformer.calculateFourierTransform(values, size, spectrumReal, spectrumImag);
+        samplingFrequency = transformer.calculateSamplingFrequency(timestamps, size);
+        filteredValues = new double[size];
+        filteredTimes = new double[size];
+    }
+
+    @Benchmark
+    public int calculateFourierTransform() {
+        return transformer.calculateFourierTransform(values, size, real, imag);
+    }
+
+    /**
+     * Hann-windowed transform; the window table is cached, so the difference from
+     * {@link #calculateFourierTransform()} is the fused multiply while packing.
+     */
+    @Benchmark
+    public int calculateWindowedFourierTransform() {
+        return transformer.calculateFourierTransform(values, 0, size, WindowFunction.HANN, real, imag);
+    }
+
+    @Benchmark
+    public Complex[] calculateFourierTransformList() {
+        return transformer.calculateFourierTransform(valueList, timestampList);
+    }
+
+    /**
+     * Filtering works in place, so each call starts from a copy of the precomputed spectrum;
+     * the copy is part of the measured time.
+     */
+    @Benchmark
+    public boolean applyButterworthFilter() {
+        System.arraycopy(spectrumReal, 0, real, 0, real.length);
+        System.arraycopy(spectrumImag, 0, imag, 0, imag.length);
+        return transformer.applyButterworthFilter(real, imag, transformSize, samplingFrequency,
+                0.0, 2.0, 4, FilterType.LOWPASS);
+    }
+
+    @Benchmark
+    public void filterTimeSeries(Blackhole blackhole) {
+        blackhole.consume(transformer.filterTimeSeries(values, timestamps, size, 0.5, 2.0, 4, FilterType.BANDPASS,
+                filteredValues, filteredTimes));
+        blackhole.consume(filteredValues);
+    }
+
+    @Benchmark
+    public List<List<Double>> filterTimeSeriesList() {
+        return transformer.filterTimeSeries(valueList, timestampList, 0.5, 2.0, 4, "bandpass");
+    }
+}
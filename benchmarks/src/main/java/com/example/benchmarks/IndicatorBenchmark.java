@@ -0,0 +1,81 @@
+package com.example.benchmarks;
+
+import com.example.analysis.service.TimeSeriesAnalysis;
+import com.example.analysis.service.fft.PaddingPolicy;
+import com.example.analysis.service.history.TickRingBuffer;
+import com.example.analysis.service.indicator.IndicatorSpec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link TimeSeriesAnalysis#addPrice(double, double, long)} with a growing number of streaming
+ * indicators. The cost per tick should grow with the indicator count and not with the history
+ * size, and allocate nothing.
+ */
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class IndicatorBenchmark {
+    // One of each indicator type, repeated with shifted periods
+    private static final String[] LIBRARY = {"RSI(%d)", "MACD(%d,%d,9)", "BOLLINGER(%d,2)", "ATR(%d)", "VWAP"};
+
+    @Param({"0", "5", "25"})
+    int indicatorCount;
+
+    @Param({"1024", "65536"})
+    int historySize;
+
+    private TimeSeriesAnalysis analysis;
+    private double[] prices;
+    private long[] timestamps;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        analysis = new TimeSeriesAnalysis(20, 50, PaddingPolicy.NEXT_POWER_OF_TWO, new TickRingBuffer(historySize));
+        List<IndicatorSpec> specs = new ArrayList<>();
+        for (int i = 0; i < indicatorCount; i++) {
+            int period = 10 + i / LIBRARY.length;
+            specs.add(IndicatorSpec.parse(String.format(LIBRARY[i % LIBRARY.length], period, 2 * period)));
+        }
+        analysis.setIndicators(specs);
+
+        prices = SignalFixtures.values(historySize);
+        timestamps = SignalFixtures.timestamps(historySize);
+        for (int i = 0; i < historySize; i++) {
+            analysis.addPrice(prices[i], 1.0, timestamps[i]);
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public void addPrice() {
+        int i = next;
+        next = i + 1 == historySize ? 0 : i + 1;
+        analysis.addPrice(prices[i], 1.0, timestamps[i]);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public Map<String, Double> getIndicatorValues() {
+        return analysis.getIndicatorValues();
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic price series shared by the benchmarks, so runs are comparable across builds.
+ */
+final class SignalFixtures {
+    static final long SEED = 42L;
+    static final double SAMPLING_RATE_HZ = 20.0;
+
+    private SignalFixtures() {
+    }
+
+    /**
+     * Two tones at 1 Hz and 5 Hz plus noise, sampled at {@link #SAMPLING_RATE_HZ}.
+     */
+    static double[] values(int n) {
+        Random random = new Random(SEED);
+        double[] values = new double[n];
+        for (int i = 0; i < n; i++) {
+            double time = i / SAMPLING_RATE_HZ;
+            values[i] = 100.0 + Math.sin(2 * Math.PI * time) + 0.5 * Math.sin(2 * Math.PI * 5.0 * time)
+                    + 0.1 * random.nextGaussian();
+        }
+        return values;
+    }
+
+    /**
+     * Millisecond timestamps at {@link #SAMPLING_RATE_HZ}.
+     */
+    static long[] timestamps(int n) {
+        long[] timestamps = new long[n];
+        for (int i = 0; i < n; i++) {
+            timestamps[i] = 1_700_000_000_000L + Math.round(i * 1000.0 / SAMPLING_RATE_HZ);
+        }
+        return timestamps;
+    }
+
+    static List<Double> valueList(int n) {
+        List<Double> list = new ArrayList<>(n);
+        for (double value : values(n)) {
+            list.add(value);
+        }
+        return list;
+    }
+
+    static List<Long> timestampList(int n) {
+        List<Long> list = new ArrayList<>(n);
+        for (long timestamp : timestamps(n)) {
+            list.add(timestamp);
+        }
+        return list;
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.benchmarks;
+
+import com.example.analysis.pipeline.RingBuffer;
+import com.example.analysis.pipeline.TickPipeline;
+import com.example.analysis.pipeline.WaitStrategyType;
+import com.example.analysis.service.FourierTransformerService;
+import com.example.analysis.service.TimeSeriesAnalysisService;
+import com.example.analysis.service.fft.PaddingPolicy;
+import com.example.analysis.service.filter.StreamingFilterFactory;
+import com.example.analysis.service.history.TickHistoryFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ticks through the in-process {@link TickPipeline} into {@link TimeSeriesAnalysisService}, for
+ * each wait strategy: sustained throughput one tick and one batch at a time, the end-to-end latency
+ * of a single tick through an idle pipeline, and {@code addPrice} called directly for reference.
+ * <p>
+ * The stages run on threads of their own, so the busy-spin and yielding strategies need a core per
+ * stage plus one for the benchmark thread to give meaningful numbers.
+ */
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class TickPipelineBenchmark {
+    private static final int SYMBOLS = 16;
+    private static final int HISTORY_SIZE = 1024;
+    private static final int BATCH = 256;
+    private static final long TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    @Param({"BUSY_SPIN", "YIELDING", "BLOCKING"})
+    WaitStrategyType waitStrategy;
+
+    private TimeSeriesAnalysisService service;
+    private TickPipeline pipeline;
+    private String[] symbols;
+    private double[] prices;
+    private double[] volumes;
+    private long[] timestamps;
+    private String[] batchSymbols;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        service = new TimeSeriesAnalysisService(new FourierTransformerService(), 0, PaddingPolicy.NEXT_POWER_OF_TWO,
+                TickHistoryFactory.heap(HISTORY_SIZE), StreamingFilterFactory.disabled(), 0, "");
+        pipeline = new TickPipeline(service, 65536, waitStrategy, RingBuffer.ProducerType.SINGLE, 1);
+        pipeline.start();
+
+        symbols = new String[SYMBOLS];
+        for (int i = 0; i < SYMBOLS; i++) {
+            symbols[i] = "SYM" + i;
+        }
+        prices = SignalFixtures.values(HISTORY_SIZE);
+        timestamps = SignalFixtures.timestamps(HISTORY_SIZE);
+        volumes = new double[HISTORY_SIZE];
+        batchSymbols = new String[HISTORY_SIZE];
+        for (int i = 0; i < HISTORY_SIZE; i++) {
+            volumes[i] = 1.0;
+            batchSymbols[i] = symbols[i % SYMBOLS];
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pipeline.stop();
+        service.close();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public void publish() {
+        int i = next;
+        next = i + 1 == HISTORY_SIZE ? 0 : i + 1;
+        pipeline.publish(batchSymbols[i], prices[i], 1.0, timestamps[i]);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @OperationsPerInvocation(BATCH)
+    public void publishBatch() {
+        int i = next;
+        next = i + BATCH >= HISTORY_SIZE ? 0 : i + BATCH;
+        pipeline.publish(batchSymbols, prices, volumes, timestamps, i, BATCH);
+    }
+
+    /**
+     * One tick from publishing to the end of the publish stage, with nothing else in flight.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public boolean endToEndLatency() {
+        int i = next;
+        next = i + 1 == HISTORY_SIZE ? 0 : i + 1;
+        pipeline.publish(batchSymbols[i], prices[i], 1.0, timestamps[i]);
+        return pipeline.awaitProcessed(pipeline.getPublishedSequence(), TIMEOUT_NANOS);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public void directAddPrice() {
+        int i = next;
+        next = i + 1 == HISTORY_SIZE ? 0 : i + 1;
+        service.addPrice(batchSymbols[i], prices[i], 1.0, timestamps[i]);
+    }
+}
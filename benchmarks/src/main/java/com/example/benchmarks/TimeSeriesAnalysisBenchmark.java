@@ -0,0 +1,106 @@
+package com.example.benchmarks;
+
+import com.example.analysis.service.TimeSeriesAnalysis;
+import com.example.analysis.service.fft.PaddingPolicy;
+import com.example.analysis.service.history.TickHistoryFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * {@link TimeSeriesAnalysis} ingestion throughput and spectrum queries over a full history, for
+ * each kind of history store.
+ */
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class TimeSeriesAnalysisBenchmark {
+    private static final int SMA_PERIOD = 20;
+    private static final int EMA_PERIOD = 50;
+
+    @Param({"1024", "8192"})
+    int historySize;
+
+    @Param({"HEAP", "MAPPED"})
+    TickHistoryFactory.StoreType store;
+
+    // 0 transforms on every call; otherwise repeated calls between two prices hit the result cache
+    @Param({"0", "16"})
+    int resultCacheEntries;
+
+    private TimeSeriesAnalysis analysis;
+    private Path directory;
+    private double[] prices;
+    private long[] timestamps;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        TickHistoryFactory factory;
+        if (store == TickHistoryFactory.StoreType.MAPPED) {
+            directory = Files.createTempDirectory("tick-store-bench");
+            factory = TickHistoryFactory.mapped(historySize, directory, 1 << 20, 2);
+        } else {
+            factory = TickHistoryFactory.heap(historySize);
+        }
+        analysis = new TimeSeriesAnalysis(SMA_PERIOD, EMA_PERIOD, PaddingPolicy.NEXT_POWER_OF_TWO,
+                factory.create("BENCH"));
+        analysis.setResultCacheSize(resultCacheEntries);
+
+        prices = SignalFixtures.values(historySize);
+        timestamps = SignalFixtures.timestamps(historySize);
+        for (int i = 0; i < historySize; i++) {
+            analysis.addPrice(prices[i], timestamps[i]);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        analysis.close();
+        if (directory != null) {
+            try (Stream<Path> paths = Files.walk(directory)) {
+                for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                    Files.deleteIfExists(path);
+                }
+            }
+        }
+    }
+
+    /**
+     * One tick into a full history: append, eviction and the SMA/EMA updates.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public void addPrice() {
+        int i = next;
+        next = i + 1 == historySize ? 0 : i + 1;
+        analysis.addPrice(prices[i], timestamps[i]);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<Double[]> getFrequencyMagnitudePairs() {
+        return analysis.getFrequencyMagnitudePairs();
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.dataingestion.config;
+
+import com.example.dataingestion.dto.MarketTick;
+import com.example.dataingestion.dto.TickFrame;
+import com.example.dataingestion.feed.TickSink;
+import com.example.dataingestion.websocket.BroadcastWebSocketHandler;
+import com.example.dataingestion.websocket.OutboundDrainPool;
+import com.example.dataingestion.websocket.SendWatchdog;
+import com.example.dataingestion.websocket.SlowConsumerPolicy;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.TextMessage;
+
+import java.util.List;
+
+/**
+ * Streams the multi-symbol market feed to every connected WebSocket client, one
+ * {@code {"ticks": [...]}} frame per batch.
+ * <p>
+ * A frame only holds the symbols that ticked in its batch, so a newer frame does not supersede an
+ * older one: {@link SlowConsumerPolicy#CONFLATE} would throw away the latest ticks of every other
+ * symbol, and the feed drops the oldest frames instead.
+ */
+@Component
+public class MarketFeedWebSocketHandler extends BroadcastWebSocketHandler implements TickSink {
+    private static final Logger logger = LoggerFactory.getLogger(MarketFeedWebSocketHandler.class);
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * @param queueCapacity      The number of frames each session may fall behind by.
+     * @param slowConsumerPolicy What happens to a session whose queue is full; {@code CONFLATE} is
+     *                           taken as {@code DROP_OLDEST}.
+     */
+    public MarketFeedWebSocketHandler(
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            OutboundDrainPool drainPool,
+            SendWatchdog watchdog,
+            @Value("${app.websocket.queueCapacity:256}") int queueCapacity,
+            @Value("${app.websocket.slowConsumerPolicy:DROP_OLDEST}") SlowConsumerPolicy slowConsumerPolicy) {
+        super("feed", meterRegistry, drainPool, watchdog, queueCapacity, feedPolicy(slowConsumerPolicy));
+        this.objectMapper = objectMapper;
+    }
+
+    private static SlowConsumerPolicy feedPolicy(SlowConsumerPolicy policy) {
+        if (policy == SlowConsumerPolicy.CONFLATE) {
+            logger.warn("The market feed cannot conflate frames of different symbols; dropping the oldest frames "
+                    + "of slow sessions instead");
+            return SlowConsumerPolicy.DROP_OLDEST;
+        }
+        return policy;
+    }
+
+    @Override
+    public void onTicks(List<MarketTick> ticks) {
+        if (!hasSessions()) {
+            return;
+        }
+
+        try {
+            // Serialized once, however many sessions it goes to
+            broadcast(new TextMessage(objectMapper.writeValueAsString(new TickFrame(ticks))));
+        } catch (JsonProcessingException e) {
+            logger.error("Failed to serialize tick frame", e);
+        }
+    }
+}
@@ -1,55 +1,67 @@
-// src/main/java/com/example/dataingestion/config/TimeSeriesWebSocketHandler.java
 package com.example.dataingestion.config;
 
+import com.example.dataingestion.dto.TimeSeriesPoint;
 import com.example.dataingestion.service.TimeSeriesGeneratorService;
+import com.example.dataingestion.websocket.BroadcastWebSocketHandler;
+import com.example.dataingestion.websocket.OutboundDrainPool;
+import com.example.dataingestion.websocket.SendWatchdog;
+import com.example.dataingestion.websocket.SlowConsumerPolicy;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
-import org.springframework.web.socket.CloseStatus;
 import org.springframework.web.socket.TextMessage;
-import org.springframework.web.socket.WebSocketSession;
-import org.springframework.web.socket.handler.TextWebSocketHandler;
-
-import java.util.concurrent.CopyOnWriteArrayList;
 
+/**
+ * Streams the single generated series, one {@code {timestamp, value}} frame a second, to every
+ * connected WebSocket client, along with any replayed points sent through {@link #sendPoint}.
+ */
 @Component
-public class TimeSeriesWebSocketHandler extends TextWebSocketHandler {
+public class TimeSeriesWebSocketHandler extends BroadcastWebSocketHandler {
+    private static final Logger logger = LoggerFactory.getLogger(TimeSeriesWebSocketHandler.class);
+
     private final TimeSeriesGeneratorService generatorService;
     private final ObjectMapper objectMapper;
-    private final CopyOnWriteArrayList<WebSocketSession> sessions = new CopyOnWriteArrayList<>();
 
-    public TimeSeriesWebSocketHandler(TimeSeriesGeneratorService generatorService, ObjectMapper objectMapper) {
+    /**
+     * @param queueCapacity      The number of messages each session may fall behind by.
+     * @param slowConsumerPolicy What happens to a session whose queue is full.
+     */
+    public TimeSeriesWebSocketHandler(
+            TimeSeriesGeneratorService generatorService,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            OutboundDrainPool drainPool,
+            SendWatchdog watchdog,
+            @Value("${app.websocket.queueCapacity:256}") int queueCapacity,
+            @Value("${app.websocket.slowConsumerPolicy:DROP_OLDEST}") SlowConsumerPolicy slowConsumerPolicy) {
+        super("timeseries", meterRegistry, drainPool, watchdog, queueCapacity, slowConsumerPolicy);
         this.generatorService = generatorService;
         this.objectMapper = objectMapper;
     }
 
-    @Override
-    public void afterConnectionEstablished(WebSocketSession session) {
-        sessions.add(session);
-    }
-
-    @Override
-    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
-        sessions.remove(session);
-    }
-
     @Scheduled(fixedRate = 1000) // Send data every second
     public void sendData() {
-        if (sessions.isEmpty()) {
+        if (!hasSessions()) {
             return;
         }
 
-        try {
-            String data = objectMapper.writeValueAsString(generatorService.generateDataPoint());
-            TextMessage message = new TextMessage(data);
+        sendPoint(generatorService.generateDataPoint());
+    }
 
-            for (WebSocketSession session : sessions) {
-                if (session.isOpen()) {
-                    session.sendMessage(message);
-                }
-            }
-        } catch (Exception e) {
-            e.printStackTrace();
+    /**
+     * Send a point, generated or replayed, to every session.
+     */
+    public void sendPoint(TimeSeriesPoint point) {
+        try {
+            String data = objectMapper.writeValueAsString(point);
+            broadcast(new TextMessage(data));
+        } catch (JsonProcessingException e) {
+            logger.error("Failed to serialize data point", e);
         }
     }
-}
\ No newline at end of file
+}
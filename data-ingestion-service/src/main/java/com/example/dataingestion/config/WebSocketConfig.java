@@ -11,14 +11,19 @@ import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry
 public class WebSocketConfig implements WebSocketConfigurer {
 
     private final TimeSeriesWebSocketHandler timeSeriesHandler;
+    private final MarketFeedWebSocketHandler marketFeedHandler;
 
-    public WebSocketConfig(TimeSeriesWebSocketHandler timeSeriesHandler) {
+    public WebSocketConfig(TimeSeriesWebSocketHandler timeSeriesHandler,
+                           MarketFeedWebSocketHandler marketFeedHandler) {
         this.timeSeriesHandler = timeSeriesHandler;
+        this.marketFeedHandler = marketFeedHandler;
     }
 
     @Override
     public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
         registry.addHandler(timeSeriesHandler, "/api/v1/data/ws")
                 .setAllowedOrigins("*"); // Configure appropriate CORS in production
+        registry.addHandler(marketFeedHandler, "/api/v1/data/ws/feed")
+                .setAllowedOrigins("*");
     }
 }
\ No newline at end of file
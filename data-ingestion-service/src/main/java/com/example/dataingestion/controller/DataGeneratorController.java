@@ -1,8 +1,10 @@
 // data-ingestion-service/src/main/java/com/example/dataingestion/controller/DataGeneratorController.java
 package com.example.dataingestion.controller;
 
+import com.example.dataingestion.config.TimeSeriesWebSocketHandler;
 import com.example.dataingestion.dto.TimeSeriesPoint;
 import com.example.dataingestion.service.TimeSeriesGeneratorService;
+import com.example.dataingestion.websocket.SessionStats;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -15,10 +17,13 @@ import java.util.List;
 @RequestMapping("/api/v1/data")
 public class DataGeneratorController {
     private final TimeSeriesGeneratorService generatorService;
+    private final TimeSeriesWebSocketHandler webSocketHandler;
 
     @Autowired
-    public DataGeneratorController(TimeSeriesGeneratorService generatorService) {
+    public DataGeneratorController(TimeSeriesGeneratorService generatorService,
+                                   TimeSeriesWebSocketHandler webSocketHandler) {
         this.generatorService = generatorService;
+        this.webSocketHandler = webSocketHandler;
     }
 
     @GetMapping("/timeseries")
@@ -31,4 +36,12 @@ public class DataGeneratorController {
     public TimeSeriesPoint getLatestDataPoint() {
         return generatorService.generateDataPoint();
     }
+
+    /**
+     * How far behind each connected WebSocket client is.
+     */
+    @GetMapping("/ws/sessions")
+    public List<SessionStats> getWebSocketSessions() {
+        return webSocketHandler.getSessionStats();
+    }
 }
\ No newline at end of file
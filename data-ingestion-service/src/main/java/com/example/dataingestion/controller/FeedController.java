@@ -0,0 +1,68 @@
+package com.example.dataingestion.controller;
+
+import com.example.dataingestion.config.MarketFeedWebSocketHandler;
+import com.example.dataingestion.dto.MarketTick;
+import com.example.dataingestion.feed.MarketDataFeed;
+import com.example.dataingestion.websocket.SessionStats;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The multi-symbol market feed. Its ticks stream over the {@code /api/v1/data/ws/feed} WebSocket.
+ */
+@RestController
+@RequestMapping("/api/v1/data/feed")
+public class FeedController {
+    private final MarketDataFeed feed;
+    private final MarketFeedWebSocketHandler webSocketHandler;
+
+    @Autowired
+    public FeedController(MarketDataFeed feed, MarketFeedWebSocketHandler webSocketHandler) {
+        this.feed = feed;
+        this.webSocketHandler = webSocketHandler;
+    }
+
+    @GetMapping("/symbols")
+    public List<String> getSymbols() {
+        return feed.getSymbols();
+    }
+
+    @GetMapping("/latest")
+    public Map<String, MarketTick> getLatestTicks() {
+        return feed.getLatest();
+    }
+
+    @GetMapping("/latest/{symbol}")
+    public ResponseEntity<MarketTick> getLatestTick(@PathVariable String symbol) {
+        MarketTick tick = feed.getLatest(symbol);
+        return tick != null ? ResponseEntity.ok(tick) : ResponseEntity.notFound().build();
+    }
+
+    @PostMapping("/start")
+    public boolean start() {
+        feed.start();
+        return feed.isRunning();
+    }
+
+    @PostMapping("/stop")
+    public boolean stop() {
+        feed.stop();
+        return feed.isRunning();
+    }
+
+    /**
+     * How far behind each client of the feed's WebSocket is.
+     */
+    @GetMapping("/ws/sessions")
+    public List<SessionStats> getWebSocketSessions() {
+        return webSocketHandler.getSessionStats();
+    }
+}
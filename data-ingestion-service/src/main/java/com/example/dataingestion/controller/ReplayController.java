@@ -0,0 +1,64 @@
+package com.example.dataingestion.controller;
+
+import com.example.dataingestion.dto.ReplayRequest;
+import com.example.dataingestion.dto.ReplayStatus;
+import com.example.dataingestion.replay.ReplayService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Replays of recorded tick files, e.g. {@code {"files": ["AAPL.tick", "MSFT.tick"], "speed": 100}}.
+ */
+@RestController
+@RequestMapping("/api/v1/data/replay")
+public class ReplayController {
+    private static final Logger logger = LoggerFactory.getLogger(ReplayController.class);
+
+    private final ReplayService replayService;
+
+    @Autowired
+    public ReplayController(ReplayService replayService) {
+        this.replayService = replayService;
+    }
+
+    @PostMapping
+    public ResponseEntity<ReplayStatus> start(@RequestBody ReplayRequest request) {
+        try {
+            return ResponseEntity.ok(replayService.start(request));
+        } catch (IllegalArgumentException e) {
+            logger.warn("Rejected replay of {}: {}", request.files(), e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(replayService.getStatus());
+        }
+    }
+
+    @GetMapping
+    public ReplayStatus getStatus() {
+        return replayService.getStatus();
+    }
+
+    @PutMapping("/speed")
+    public ResponseEntity<ReplayStatus> setSpeed(@RequestParam double speed) {
+        try {
+            return ResponseEntity.ok(replayService.setSpeed(speed));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @PostMapping("/stop")
+    public ReplayStatus stop() {
+        return replayService.stop();
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.dataingestion.dto;
+
+/**
+ * One trade of one symbol.
+ *
+ * @param timestamp The time of the trade, in epoch milliseconds.
+ */
+public record MarketTick(String symbol, long timestamp, double price, double volume) {
+}
@@ -0,0 +1,12 @@
+package com.example.dataingestion.dto;
+
+import java.util.List;
+
+/**
+ * @param files        Tick files relative to the replay directory, {@code .csv} or {@code .tick}.
+ * @param speed        The replay speed, e.g. 1 or 100, or 0 for as fast as possible; 1 if absent.
+ * @param legacySymbol The symbol also sent as {@code {timestamp, value}} frames to the
+ *                     {@code /api/v1/data/ws} endpoint, if any.
+ */
+public record ReplayRequest(List<String> files, Double speed, String legacySymbol) {
+}
@@ -0,0 +1,18 @@
+package com.example.dataingestion.dto;
+
+import java.util.List;
+
+/**
+ * @param lastTimestamp The recorded time of the latest replayed tick, in epoch milliseconds.
+ * @param lagMillis     How far behind the replay clock the latest tick was replayed.
+ */
+public record ReplayStatus(
+        boolean running,
+        List<String> files,
+        double speed,
+        long replayedTicks,
+        long lastTimestamp,
+        double lagMillis
+) {
+    public static final ReplayStatus IDLE = new ReplayStatus(false, List.of(), 0, 0, 0, 0);
+}
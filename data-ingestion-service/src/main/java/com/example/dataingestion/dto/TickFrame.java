@@ -0,0 +1,9 @@
+package com.example.dataingestion.dto;
+
+import java.util.List;
+
+/**
+ * A batch of ticks, sent as one WebSocket frame.
+ */
+public record TickFrame(List<MarketTick> ticks) {
+}
@@ -0,0 +1,69 @@
+package com.example.dataingestion.feed;
+
+import com.example.dataingestion.dto.MarketTick;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Generates the ticks of a fixed subset of symbols on one thread, cycling through them so that
+ * every symbol ticks at the same rate, and publishes them a batch at a time.
+ */
+final class FeedPartition implements Runnable {
+    // Catching up on more than this after a stall would be a burst, not a feed
+    private static final long MAX_BACKLOG_NANOS = 1_000_000_000L;
+
+    private final MarketDataFeed feed;
+    private final String[] symbols;
+    private final PriceGenerator[] generators;
+    private final int maxVolume;
+    private final int batchSize;
+    private final long batchIntervalNanos;
+    private volatile boolean running = true;
+
+    /**
+     * @param ticksPerSecond The rate of this partition, or 0 to generate as fast as the sinks allow.
+     */
+    FeedPartition(MarketDataFeed feed, String[] symbols, PriceGenerator[] generators, int maxVolume,
+                  int batchSize, double ticksPerSecond) {
+        this.feed = feed;
+        this.symbols = symbols;
+        this.generators = generators;
+        this.maxVolume = maxVolume;
+        this.batchSize = batchSize;
+        this.batchIntervalNanos = ticksPerSecond > 0 ? Math.round(batchSize * 1e9 / ticksPerSecond) : 0;
+    }
+
+    @Override
+    public void run() {
+        int cursor = 0;
+        long nextBatch = System.nanoTime();
+        while (running && !Thread.currentThread().isInterrupted()) {
+            long timestamp = System.currentTimeMillis();
+            List<MarketTick> batch = new ArrayList<>(batchSize);
+            for (int i = 0; i < batchSize; i++) {
+                PriceGenerator generator = generators[cursor];
+                batch.add(new MarketTick(symbols[cursor], timestamp, generator.next(), generator.nextVolume(maxVolume)));
+                if (++cursor == generators.length) {
+                    cursor = 0;
+                }
+            }
+            feed.publish(batch);
+
+            if (batchIntervalNanos > 0) {
+                nextBatch += batchIntervalNanos;
+                long wait = nextBatch - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                } else if (wait < -MAX_BACKLOG_NANOS) {
+                    nextBatch = System.nanoTime();
+                }
+            }
+        }
+    }
+
+    void stop() {
+        running = false;
+    }
+}
@@ -0,0 +1,247 @@
+package com.example.dataingestion.feed;
+
+import com.example.dataingestion.dto.MarketTick;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * A market data feed of many symbols, fanned out a batch at a time to every {@link TickSink}.
+ * <p>
+ * The built-in generator splits the symbols across partitions, each a thread with its own
+ * {@link PriceGenerator} per symbol, so the aggregate rate scales with cores and nothing is shared
+ * between partitions but the sinks. With a seed, every symbol's prices are the same on every run,
+ * however the symbols are partitioned. Real feeds enter through {@link #publish(List)}, the same
+ * path the generator takes.
+ * <p>
+ * Each batch holds {@code batchSize} ticks, or fewer at low rates, so that a partition publishes at
+ * least every {@value #MAX_BATCH_INTERVAL_MILLIS} ms.
+ */
+@Service
+public class MarketDataFeed {
+    private static final Logger logger = LoggerFactory.getLogger(MarketDataFeed.class);
+    static final long MAX_BATCH_INTERVAL_MILLIS = 10;
+    private static final int MAX_VOLUME = 100;
+    private static final double MIN_BASE_PRICE = 10.0;
+    private static final double MAX_BASE_PRICE = 500.0;
+
+    private final String[] symbols;
+    private final PriceGenerator[] generators;
+    private final double ticksPerSecond;
+    private final int partitionCount;
+    private final int batchSize;
+    private final List<TickSink> sinks = new CopyOnWriteArrayList<>();
+    private final Map<String, MarketTick> latest = new ConcurrentHashMap<>();
+    private final Counter tickCounter;
+    private final Counter batchCounter;
+    private final boolean enabled;
+    private final List<Thread> threads = new ArrayList<>();
+    private final List<FeedPartition> partitions = new ArrayList<>();
+
+    /**
+     * @param enabled        Whether to start generating when the application starts.
+     * @param symbolCount    The number of generated symbols, named {@code symbolPrefix} and a number.
+     * @param ticksPerSecond The aggregate rate across all symbols, or 0 for as fast as possible.
+     * @param partitions     The number of generating threads, or 0 for one per core.
+     * @param batchSize      The most ticks published at once.
+     * @param volatility     The standard deviation of each tick, as a fraction of the price.
+     * @param seed           The seed of every symbol's prices, or empty for different prices every run.
+     */
+    @Autowired
+    public MarketDataFeed(
+            MeterRegistry meterRegistry,
+            List<TickSink> sinks,
+            @Value("${app.feed.enabled:false}") boolean enabled,
+            @Value("${app.feed.symbolCount:100}") int symbolCount,
+            @Value("${app.feed.symbolPrefix:SYM}") String symbolPrefix,
+            @Value("${app.feed.ticksPerSecond:100000}") double ticksPerSecond,
+            @Value("${app.feed.partitions:0}") int partitions,
+            @Value("${app.feed.batchSize:512}") int batchSize,
+            @Value("${app.feed.volatility:0.0005}") double volatility,
+            @Value("${app.feed.seed:}") Long seed
+    ) {
+        if (symbolCount < 1) {
+            throw new IllegalArgumentException("app.feed.symbolCount must be positive, got " + symbolCount);
+        }
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("app.feed.batchSize must be positive, got " + batchSize);
+        }
+        if (ticksPerSecond < 0) {
+            throw new IllegalArgumentException("app.feed.ticksPerSecond must not be negative, got " + ticksPerSecond);
+        }
+        this.enabled = enabled;
+        this.ticksPerSecond = ticksPerSecond;
+        int cores = Runtime.getRuntime().availableProcessors();
+        this.partitionCount = Math.min(symbolCount, partitions > 0 ? partitions : cores);
+        this.batchSize = batchSize;
+        this.sinks.addAll(sinks);
+
+        long baseSeed = seed != null ? seed : System.nanoTime();
+        this.symbols = new String[symbolCount];
+        this.generators = new PriceGenerator[symbolCount];
+        for (int i = 0; i < symbolCount; i++) {
+            symbols[i] = String.format("%s%04d", symbolPrefix, i);
+            generators[i] = generator(baseSeed, i, volatility);
+        }
+
+        this.tickCounter = Counter.builder("ingestion.feed.ticks")
+                .description("Ticks published to the market feed's sinks")
+                .register(meterRegistry);
+        this.batchCounter = Counter.builder("ingestion.feed.batches")
+                .description("Batches published to the market feed's sinks")
+                .register(meterRegistry);
+        logger.info("Market feed: {} symbols at {} ticks/s over {} partitions, {}", symbolCount,
+                ticksPerSecond > 0 ? ticksPerSecond : "max", partitionCount,
+                seed != null ? "seed " + seed : "unseeded");
+    }
+
+    // Each symbol's generator depends only on the seed and the symbol, not on its partition
+    private static PriceGenerator generator(long baseSeed, int symbol, double volatility) {
+        SplittableRandom random = new SplittableRandom(baseSeed + symbol * 0x9E3779B97F4A7C15L);
+        double basePrice = MIN_BASE_PRICE + random.nextDouble() * (MAX_BASE_PRICE - MIN_BASE_PRICE);
+        return new PriceGenerator(basePrice, volatility, 0.001, 0.02 * basePrice, random.nextLong());
+    }
+
+    @PostConstruct
+    void startIfEnabled() {
+        if (enabled) {
+            start();
+        }
+    }
+
+    /**
+     * Start generating ticks, if not already generating.
+     */
+    public synchronized void start() {
+        if (!threads.isEmpty()) {
+            return;
+        }
+        double partitionRate = ticksPerSecond / partitionCount;
+        for (int p = 0; p < partitionCount; p++) {
+            // Symbols are dealt round-robin, so partitions differ in size by at most one
+            int size = (symbols.length - p + partitionCount - 1) / partitionCount;
+            String[] partitionSymbols = new String[size];
+            PriceGenerator[] partitionGenerators = new PriceGenerator[size];
+            for (int i = 0; i < size; i++) {
+                partitionSymbols[i] = symbols[p + i * partitionCount];
+                partitionGenerators[i] = generators[p + i * partitionCount];
+            }
+            FeedPartition partition = new FeedPartition(this, partitionSymbols, partitionGenerators, MAX_VOLUME,
+                    batchSize(partitionRate), partitionRate);
+            Thread thread = new Thread(partition, "market-feed-" + p);
+            thread.setDaemon(true);
+            partitions.add(partition);
+            threads.add(thread);
+        }
+        threads.forEach(Thread::start);
+        logger.info("Market feed started");
+    }
+
+    private int batchSize(double partitionRate) {
+        if (partitionRate <= 0) {
+            return batchSize;
+        }
+        long perInterval = (long) (partitionRate * MAX_BATCH_INTERVAL_MILLIS / 1000);
+        return (int) Math.max(1, Math.min(batchSize, perInterval));
+    }
+
+    /**
+     * Stop generating ticks and wait for the partitions to finish their current batch.
+     */
+    @PreDestroy
+    public synchronized void stop() {
+        if (threads.isEmpty()) {
+            return;
+        }
+        partitions.forEach(FeedPartition::stop);
+        for (Thread thread : threads) {
+            thread.interrupt();
+            try {
+                thread.join(1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        partitions.clear();
+        threads.clear();
+        logger.info("Market feed stopped");
+    }
+
+    public synchronized boolean isRunning() {
+        return !threads.isEmpty();
+    }
+
+    /**
+     * Publish a batch of ticks to every sink. Safe to call from any number of threads.
+     */
+    public void publish(List<MarketTick> ticks) {
+        if (ticks.isEmpty()) {
+            return;
+        }
+        for (MarketTick tick : ticks) {
+            latest.put(tick.symbol(), tick);
+        }
+        tickCounter.increment(ticks.size());
+        batchCounter.increment();
+        for (TickSink sink : sinks) {
+            try {
+                sink.onTicks(ticks);
+            } catch (RuntimeException e) {
+                logger.warn("Tick sink {} failed: {}", sink.getClass().getSimpleName(), e.getMessage());
+            }
+        }
+    }
+
+    public void addSink(TickSink sink) {
+        sinks.add(sink);
+    }
+
+    public void removeSink(TickSink sink) {
+        sinks.remove(sink);
+    }
+
+    /**
+     * @return The generated symbols.
+     */
+    public List<String> getSymbols() {
+        return Arrays.asList(symbols.clone());
+    }
+
+    /**
+     * @return The most recent tick of a symbol, or {@code null} if it has not ticked.
+     */
+    public MarketTick getLatest(String symbol) {
+        return latest.get(symbol);
+    }
+
+    /**
+     * @return The most recent tick of every symbol that has ticked, by symbol.
+     */
+    public Map<String, MarketTick> getLatest() {
+        return new TreeMap<>(latest);
+    }
+
+    public int getPartitionCount() {
+        return partitionCount;
+    }
+
+    public double getPublishedTickCount() {
+        return tickCounter.count();
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.dataingestion.feed;
+
+import java.util.SplittableRandom;
+
+/**
+ * A random walk around a base price with occasional jumps, mean reversion and some non-linear
+ * noise. Each symbol has its own generator, so symbols can be generated on any thread, and the
+ * same seed always gives the same prices.
+ * <p>
+ * This class is not thread-safe.
+ */
+public final class PriceGenerator {
+    private static final double MEAN_REVERSION = 0.05;
+    private static final double FLOOR_FRACTION = 0.01;
+
+    private final double basePrice;
+    private final double volatility;
+    private final double jumpProbability;
+    private final double maxJumpSize;
+    private final long seed;
+    private SplittableRandom random;
+    private double price;
+
+    /**
+     * @param volatility      The standard deviation of each step, as a fraction of the price.
+     * @param jumpProbability The chance of a jump on each step.
+     * @param maxJumpSize     The largest jump, in price units.
+     */
+    public PriceGenerator(double basePrice, double volatility, double jumpProbability, double maxJumpSize, long seed) {
+        if (!(basePrice > 0)) {
+            throw new IllegalArgumentException("Base price must be positive, got " + basePrice);
+        }
+        this.basePrice = basePrice;
+        this.volatility = volatility;
+        this.jumpProbability = jumpProbability;
+        this.maxJumpSize = maxJumpSize;
+        this.seed = seed;
+        reset();
+    }
+
+    /**
+     * @return The next price.
+     */
+    public double next() {
+        // Add sudden jumps occasionally
+        if (random.nextDouble() < jumpProbability) {
+            price += (random.nextDouble() * 2 - 1) * maxJumpSize;
+        }
+
+        // Random walk with mean reversion towards the base price
+        double change = random.nextGaussian() * volatility * price;
+        double meanReversion = MEAN_REVERSION * (basePrice - price);
+
+        // Add some non-linear noise
+        double noise = Math.sin(price / 10) * volatility * price;
+
+        // Ensure price doesn't go negative
+        price = Math.max(price + change + meanReversion + noise, basePrice * FLOOR_FRACTION);
+        return price;
+    }
+
+    /**
+     * @return The size of the next trade, between 1 and {@code maxVolume}.
+     */
+    public double nextVolume(int maxVolume) {
+        return 1 + random.nextInt(maxVolume);
+    }
+
+    public double getPrice() {
+        return price;
+    }
+
+    /**
+     * Go back to the base price and the start of the seeded sequence.
+     */
+    public void reset() {
+        random = new SplittableRandom(seed);
+        price = basePrice;
+    }
+}
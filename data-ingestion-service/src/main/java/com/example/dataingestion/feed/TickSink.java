@@ -0,0 +1,16 @@
+package com.example.dataingestion.feed;
+
+import com.example.dataingestion.dto.MarketTick;
+
+import java.util.List;
+
+/**
+ * Receives the market feed a batch at a time.
+ * <p>
+ * Batches arrive concurrently from every feed partition, so implementations must be thread-safe,
+ * and since they run on the partition's thread they should hand work off rather than block. A
+ * batch is never modified after it is delivered and may be kept.
+ */
+public interface TickSink {
+    void onTicks(List<MarketTick> ticks);
+}
@@ -0,0 +1,90 @@
+package com.example.dataingestion.replay;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reads a tick file written by {@link BinaryTickWriter}. Windows are mapped on record boundaries,
+ * so no record is ever split between two of them.
+ */
+final class BinaryTickCursor implements TickCursor {
+    private final MappedFile file;
+    private final String symbol;
+    private final long headerBytes;
+    private final int windowRecords;
+    private int position;
+
+    private long timestamp;
+    private double price;
+    private double volume;
+
+    BinaryTickCursor(MappedFile file) throws IOException {
+        this.file = file;
+        ByteBuffer window = file.window();
+        if (window.limit() < Integer.BYTES + 2 * Short.BYTES || window.getInt(0) != BinaryTickWriter.MAGIC) {
+            throw new IllegalArgumentException(file.path() + ": not a binary tick file");
+        }
+        short version = window.getShort(Integer.BYTES);
+        if (version != BinaryTickWriter.VERSION) {
+            throw new IllegalArgumentException(file.path() + ": unsupported binary tick file version " + version);
+        }
+        int symbolBytes = window.getShort(Integer.BYTES + Short.BYTES);
+        this.headerBytes = Integer.BYTES + 2 * Short.BYTES + symbolBytes;
+        this.windowRecords = file.windowBytes() / BinaryTickWriter.RECORD_BYTES;
+        if (windowRecords < 1 || headerBytes > window.limit()) {
+            throw new IllegalArgumentException("Window of " + file.windowBytes() + " bytes is too small for " + file.path());
+        }
+        if ((file.size() - headerBytes) % BinaryTickWriter.RECORD_BYTES != 0) {
+            throw new IllegalArgumentException(file.path() + ": truncated binary tick file");
+        }
+        byte[] symbolData = new byte[symbolBytes];
+        window.get(Integer.BYTES + 2 * Short.BYTES, symbolData);
+        this.symbol = new String(symbolData, StandardCharsets.UTF_8);
+
+        // Every window holds a whole number of records
+        file.map(headerBytes, windowRecords * BinaryTickWriter.RECORD_BYTES);
+    }
+
+    @Override
+    public boolean advance() throws IOException {
+        ByteBuffer window = file.window();
+        if (position + BinaryTickWriter.RECORD_BYTES > window.limit()) {
+            if (!file.map(file.windowStart() + position, windowRecords * BinaryTickWriter.RECORD_BYTES)) {
+                return false;
+            }
+            window = file.window();
+            position = 0;
+        }
+        timestamp = window.getLong(position);
+        price = window.getDouble(position + Long.BYTES);
+        volume = window.getDouble(position + Long.BYTES + Double.BYTES);
+        position += BinaryTickWriter.RECORD_BYTES;
+        return true;
+    }
+
+    @Override
+    public long timestamp() {
+        return timestamp;
+    }
+
+    @Override
+    public double price() {
+        return price;
+    }
+
+    @Override
+    public double volume() {
+        return volume;
+    }
+
+    @Override
+    public String symbol() {
+        return symbol;
+    }
+
+    @Override
+    public void close() throws IOException {
+        file.close();
+    }
+}
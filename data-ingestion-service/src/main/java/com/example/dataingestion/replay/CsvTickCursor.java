@@ -0,0 +1,209 @@
+package com.example.dataingestion.replay;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reads a CSV tick file of one symbol, named after the file: one {@code timestamp,price[,volume]}
+ * line per tick, with the timestamp in epoch milliseconds, in time order. A header line, blank
+ * lines and CRLF line endings are allowed.
+ * <p>
+ * Numbers are parsed straight from the mapped bytes. Plain decimals, which is all a price feed
+ * writes, are parsed exactly without allocating; anything else falls back to
+ * {@link Double#parseDouble(String)}.
+ */
+final class CsvTickCursor implements TickCursor {
+    private static final double[] POWERS_OF_TEN = new double[23];
+    // Mantissas below this are exact doubles, so dividing by an exact power of ten rounds correctly
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+
+    static {
+        POWERS_OF_TEN[0] = 1.0;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    private final MappedFile file;
+    private final String symbol;
+    private int position;
+    private long lineNumber;
+    // The end of the line being parsed, and the parse position within it
+    private int lineEnd;
+    private int field;
+
+    private long timestamp;
+    private double price;
+    private double volume;
+
+    CsvTickCursor(MappedFile file, String symbol) {
+        this.file = file;
+        this.symbol = symbol;
+    }
+
+    @Override
+    public boolean advance() throws IOException {
+        while (true) {
+            ByteBuffer window = file.window();
+            int limit = window.limit();
+            int eol = position;
+            while (eol < limit && window.get(eol) != '\n') {
+                eol++;
+            }
+            if (eol == limit && !file.isLastWindow()) {
+                // The line runs into the next window: map again from its start
+                if (position == 0) {
+                    throw new IOException(file.path() + ":" + (lineNumber + 1) + ": line longer than the "
+                            + file.windowBytes() + " byte window");
+                }
+                file.map(file.windowStart() + position);
+                position = 0;
+                continue;
+            }
+            if (position == limit) {
+                return false;
+            }
+
+            int start = position;
+            position = Math.min(eol + 1, limit);
+            lineNumber++;
+            lineEnd = eol > start && window.get(eol - 1) == '\r' ? eol - 1 : eol;
+            if (lineEnd == start) {
+                continue;
+            }
+            byte first = window.get(start);
+            if (lineNumber == 1 && first != '-' && (first < '0' || first > '9')) {
+                continue; // Header
+            }
+
+            field = start;
+            timestamp = parseLong(window);
+            price = parseDouble(window);
+            volume = field < lineEnd ? parseDouble(window) : 0.0;
+            if (field < lineEnd) {
+                throw malformed(window, start);
+            }
+            return true;
+        }
+    }
+
+    // Parse the field at the parse position and move past its comma
+    private long parseLong(ByteBuffer window) {
+        int start = field;
+        int i = start;
+        boolean negative = i < lineEnd && window.get(i) == '-';
+        if (negative) {
+            i++;
+        }
+        long value = 0;
+        int digits = 0;
+        for (; i < lineEnd; i++, digits++) {
+            byte b = window.get(i);
+            if (b < '0' || b > '9') {
+                break;
+            }
+            value = value * 10 + (b - '0');
+        }
+        if (digits == 0 || digits > 18) {
+            throw malformed(window, start);
+        }
+        endField(window, i, start);
+        return negative ? -value : value;
+    }
+
+    private double parseDouble(ByteBuffer window) {
+        int start = field;
+        int i = start;
+        boolean negative = i < lineEnd && window.get(i) == '-';
+        if (negative) {
+            i++;
+        }
+        long mantissa = 0;
+        int digits = 0;
+        int scale = -1;
+        for (; i < lineEnd; i++) {
+            byte b = window.get(i);
+            if (b >= '0' && b <= '9') {
+                if (digits < 19) {
+                    mantissa = mantissa * 10 + (b - '0');
+                }
+                digits++;
+                if (scale >= 0) {
+                    scale++;
+                }
+            } else if (b == '.' && scale < 0) {
+                scale = 0;
+            } else {
+                break;
+            }
+        }
+        boolean plain = i == lineEnd || window.get(i) == ',';
+        if (plain && digits > 0 && mantissa < MAX_EXACT_MANTISSA && digits < 19
+                && Math.max(scale, 0) < POWERS_OF_TEN.length) {
+            endField(window, i, start);
+            double value = mantissa / POWERS_OF_TEN[Math.max(scale, 0)];
+            return negative ? -value : value;
+        }
+
+        // Exponents, long mantissas and anything malformed
+        while (i < lineEnd && window.get(i) != ',') {
+            i++;
+        }
+        byte[] bytes = new byte[i - start];
+        window.get(start, bytes);
+        try {
+            double value = Double.parseDouble(new String(bytes, StandardCharsets.US_ASCII));
+            endField(window, i, start);
+            return value;
+        } catch (NumberFormatException e) {
+            throw malformed(window, start);
+        }
+    }
+
+    private void endField(ByteBuffer window, int end, int start) {
+        if (end < lineEnd) {
+            if (window.get(end) != ',') {
+                throw malformed(window, start);
+            }
+            end++;
+        }
+        field = end;
+    }
+
+    private IllegalArgumentException malformed(ByteBuffer window, int at) {
+        int lineStart = at;
+        while (lineStart > 0 && window.get(lineStart - 1) != '\n') {
+            lineStart--;
+        }
+        byte[] line = new byte[lineEnd - lineStart];
+        window.get(lineStart, line);
+        return new IllegalArgumentException(file.path() + ":" + lineNumber + ": malformed tick: "
+                + new String(line, StandardCharsets.US_ASCII));
+    }
+
+    @Override
+    public long timestamp() {
+        return timestamp;
+    }
+
+    @Override
+    public double price() {
+        return price;
+    }
+
+    @Override
+    public double volume() {
+        return volume;
+    }
+
+    @Override
+    public String symbol() {
+        return symbol;
+    }
+
+    @Override
+    public void close() throws IOException {
+        file.close();
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.dataingestion.replay;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A read-only file mapped a window at a time, so files far larger than the address space a single
+ * mapping allows can be read without copying. Whenever a window is mapped, the one after it is
+ * loaded into the page cache in the background, so the reader rarely waits on the disk.
+ * <p>
+ * This class is not thread-safe.
+ */
+final class MappedFile implements Closeable {
+    private final Path path;
+    private final FileChannel channel;
+    private final long size;
+    private final int windowBytes;
+    private long windowStart;
+    private MappedByteBuffer window;
+
+    /**
+     * @param windowBytes The most bytes mapped at once.
+     */
+    MappedFile(Path path, int windowBytes) throws IOException {
+        if (windowBytes < 1) {
+            throw new IllegalArgumentException("Window size must be positive, got " + windowBytes);
+        }
+        this.path = path;
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        this.size = channel.size();
+        this.windowBytes = windowBytes;
+        map(0);
+    }
+
+    /**
+     * Map the window starting at {@code position}, which becomes index 0 of {@link #window()}.
+     *
+     * @return {@code false} if the window is empty, at the end of the file.
+     */
+    boolean map(long position) throws IOException {
+        return map(position, windowBytes);
+    }
+
+    /**
+     * Map up to {@code length} bytes from {@code position}, which become the window.
+     *
+     * @return {@code false} if the window is empty, at the end of the file.
+     */
+    boolean map(long position, int length) throws IOException {
+        if (position > size) {
+            throw new IllegalArgumentException("Position " + position + " is past the end of " + path);
+        }
+        windowStart = position;
+        window = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(length, size - position));
+        prefetch(position + window.limit(), length);
+        return window.limit() > 0;
+    }
+
+    private void prefetch(long position, int length) {
+        if (position >= size) {
+            return;
+        }
+        long prefetchLength = Math.min(length, size - position);
+        CompletableFuture.runAsync(() -> {
+            try {
+                channel.map(FileChannel.MapMode.READ_ONLY, position, prefetchLength).load();
+            } catch (IOException e) {
+                // Only a hint; the read itself will report the problem
+            }
+        });
+    }
+
+    /**
+     * @return The current window, positioned at 0. Read it with absolute gets.
+     */
+    MappedByteBuffer window() {
+        return window;
+    }
+
+    long windowStart() {
+        return windowStart;
+    }
+
+    /**
+     * @return Whether the current window reaches the end of the file.
+     */
+    boolean isLastWindow() {
+        return windowStart + window.limit() >= size;
+    }
+
+    int windowBytes() {
+        return windowBytes;
+    }
+
+    long size() {
+        return size;
+    }
+
+    Path path() {
+        return path;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
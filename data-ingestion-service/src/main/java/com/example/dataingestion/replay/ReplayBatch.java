@@ -0,0 +1,93 @@
+package com.example.dataingestion.replay;
+
+import com.example.dataingestion.dto.MarketTick;
+import com.example.dataingestion.dto.TimeSeriesPoint;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Replayed ticks, held column by column in arrays that are reused from one batch to the next, so
+ * replaying allocates nothing per tick until a sink asks for objects.
+ */
+public final class ReplayBatch {
+    private final String[] symbols;
+    private final long[] timestamps;
+    private final double[] prices;
+    private final double[] volumes;
+    private int size;
+
+    ReplayBatch(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Batch size must be positive, got " + capacity);
+        }
+        this.symbols = new String[capacity];
+        this.timestamps = new long[capacity];
+        this.prices = new double[capacity];
+        this.volumes = new double[capacity];
+    }
+
+    void add(TickCursor tick) {
+        symbols[size] = tick.symbol();
+        timestamps[size] = tick.timestamp();
+        prices[size] = tick.price();
+        volumes[size] = tick.volume();
+        size++;
+    }
+
+    boolean isFull() {
+        return size == timestamps.length;
+    }
+
+    void clear() {
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public String symbol(int i) {
+        return symbols[i];
+    }
+
+    /**
+     * @return The recorded time of tick {@code i}, in epoch milliseconds.
+     */
+    public long timestamp(int i) {
+        return timestamps[i];
+    }
+
+    public double price(int i) {
+        return prices[i];
+    }
+
+    public double volume(int i) {
+        return volumes[i];
+    }
+
+    /**
+     * @return The batch as ticks, which unlike the batch may be kept.
+     */
+    public List<MarketTick> toTicks() {
+        List<MarketTick> ticks = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            ticks.add(new MarketTick(symbols[i], timestamps[i], prices[i], volumes[i]));
+        }
+        return ticks;
+    }
+
+    /**
+     * @return The ticks of one symbol as points, which unlike the batch may be kept.
+     */
+    public List<TimeSeriesPoint> toPoints(String symbol) {
+        List<TimeSeriesPoint> points = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            if (symbol.equals(symbols[i])) {
+                points.add(new TimeSeriesPoint(Instant.ofEpochMilli(timestamps[i]), prices[i]));
+            }
+        }
+        return points;
+    }
+}
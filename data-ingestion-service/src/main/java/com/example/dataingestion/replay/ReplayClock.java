@@ -0,0 +1,54 @@
+package com.example.dataingestion.replay;
+
+/**
+ * Maps the time of recorded ticks onto the wall clock at a given speed: at 100, a recorded second
+ * passes in 10 ms. The first tick, and the first after a change of speed, is due immediately.
+ * Speed 0 replays as fast as possible.
+ */
+final class ReplayClock {
+    private volatile double speed;
+    private volatile boolean speedChanged;
+    private boolean anchored;
+    private long anchorTimestamp;
+    private long anchorNanos;
+
+    ReplayClock(double speed) {
+        setSpeed(speed);
+    }
+
+    /**
+     * Change the speed; safe to call from any thread while replaying.
+     */
+    void setSpeed(double speed) {
+        if (!(speed >= 0) || Double.isInfinite(speed)) {
+            throw new IllegalArgumentException("Replay speed must be 0 or positive, got " + speed);
+        }
+        this.speed = speed;
+        this.speedChanged = true;
+    }
+
+    double getSpeed() {
+        return speed;
+    }
+
+    /**
+     * @param timestamp The time of a recorded tick, in epoch milliseconds.
+     * @return The nanoseconds until the tick is due, negative if it is late.
+     */
+    long nanosUntil(long timestamp) {
+        double currentSpeed = speed;
+        if (currentSpeed == 0) {
+            return 0;
+        }
+        long now = System.nanoTime();
+        if (speedChanged || !anchored) {
+            speedChanged = false;
+            anchored = true;
+            anchorTimestamp = timestamp;
+            anchorNanos = now;
+            return 0;
+        }
+        long due = anchorNanos + (long) ((timestamp - anchorTimestamp) * 1_000_000 / currentSpeed);
+        return due - now;
+    }
+}
@@ -0,0 +1,157 @@
+package com.example.dataingestion.replay;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Replays recorded tick files, merged in time order, paced by a {@link ReplayClock}.
+ * <p>
+ * Ticks are gathered into a {@link ReplayBatch} until it is full or the next tick is not yet due,
+ * so at high speeds sinks see full batches and at 1x they see each tick on time. If the sinks
+ * cannot keep up the replay falls behind the clock rather than dropping ticks; the lag is reported
+ * by {@link #getLagMillis()}.
+ */
+public class ReplayEngine implements Runnable {
+    private static final Logger logger = LoggerFactory.getLogger(ReplayEngine.class);
+    // Sleep in steps no longer than this, so stopping and speed changes take effect promptly
+    private static final long MAX_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final List<Path> files;
+    private final List<TickCursor> cursors = new ArrayList<>();
+    private final ReplayClock clock;
+    private final ReplayBatch batch;
+    private final ReplaySink sink;
+    private volatile boolean running = true;
+    private volatile boolean finished;
+    private volatile long replayedCount;
+    private volatile long lastTimestamp;
+    private volatile long lagNanos;
+
+    /**
+     * Open the files, ready to replay.
+     *
+     * @param files       Tick files, {@code .csv} or {@code .tick}, each in time order.
+     * @param speed       The replay speed, e.g. 1 or 100, or 0 for as fast as possible.
+     * @param batchSize   The most ticks passed to the sink at once.
+     * @param windowBytes The most bytes of each file mapped at once.
+     */
+    public ReplayEngine(List<Path> files, double speed, int batchSize, int windowBytes, ReplaySink sink)
+            throws IOException {
+        if (files.isEmpty()) {
+            throw new IllegalArgumentException("No files to replay");
+        }
+        this.files = List.copyOf(files);
+        this.clock = new ReplayClock(speed);
+        this.batch = new ReplayBatch(batchSize);
+        this.sink = sink;
+        try {
+            for (Path file : files) {
+                cursors.add(TickCursor.open(file, windowBytes));
+            }
+        } catch (IOException | RuntimeException e) {
+            close();
+            throw e;
+        }
+    }
+
+    @Override
+    public void run() {
+        try {
+            replay(new TickMerger(cursors));
+        } catch (IOException | RuntimeException e) {
+            logger.error("Replay of {} failed", files, e);
+        } finally {
+            close();
+            finished = true;
+        }
+    }
+
+    private void replay(TickMerger merger) throws IOException {
+        while (running && merger.hasNext()) {
+            TickCursor next = merger.peek();
+            long wait = clock.nanosUntil(next.timestamp());
+            if (wait > 0) {
+                // Nothing more is due: hand over what is and wait for the next tick
+                emit();
+                LockSupport.parkNanos(Math.min(wait, MAX_PARK_NANOS));
+                continue;
+            }
+            lagNanos = -wait;
+            batch.add(next);
+            lastTimestamp = next.timestamp();
+            merger.advance();
+            if (batch.isFull()) {
+                emit();
+            }
+        }
+        emit();
+        logger.info("Replay of {} {} after {} ticks", files, running ? "finished" : "stopped", replayedCount);
+    }
+
+    private void emit() {
+        if (batch.size() == 0) {
+            return;
+        }
+        sink.onBatch(batch);
+        replayedCount += batch.size();
+        batch.clear();
+    }
+
+    private void close() {
+        for (TickCursor cursor : cursors) {
+            try {
+                cursor.close();
+            } catch (IOException e) {
+                logger.warn("Failed to close {}: {}", cursor.symbol(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Stop after the current batch.
+     */
+    public void stop() {
+        running = false;
+    }
+
+    public boolean isFinished() {
+        return finished;
+    }
+
+    public void setSpeed(double speed) {
+        clock.setSpeed(speed);
+    }
+
+    public double getSpeed() {
+        return clock.getSpeed();
+    }
+
+    public List<Path> getFiles() {
+        return files;
+    }
+
+    public long getReplayedCount() {
+        return replayedCount;
+    }
+
+    /**
+     * @return The recorded time of the latest replayed tick, in epoch milliseconds.
+     */
+    public long getLastTimestamp() {
+        return lastTimestamp;
+    }
+
+    /**
+     * @return How far behind the clock the latest tick was replayed.
+     */
+    public double getLagMillis() {
+        return lagNanos / 1e6;
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.dataingestion.replay;
+
+import com.example.dataingestion.config.TimeSeriesWebSocketHandler;
+import com.example.dataingestion.dto.ReplayRequest;
+import com.example.dataingestion.dto.ReplayStatus;
+import com.example.dataingestion.dto.TimeSeriesPoint;
+import com.example.dataingestion.feed.MarketDataFeed;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Replays recorded tick files from the replay directory through the same path as the live feed:
+ * every batch is published to the {@link MarketDataFeed}, and one symbol can also be sent to the
+ * legacy {@code /api/v1/data/ws} clients. One replay runs at a time.
+ */
+@Service
+public class ReplayService {
+    private static final Logger logger = LoggerFactory.getLogger(ReplayService.class);
+
+    private final MarketDataFeed feed;
+    private final TimeSeriesWebSocketHandler legacyHandler;
+    private final Path directory;
+    private final int batchSize;
+    private final int windowBytes;
+    private ReplayEngine engine;
+
+    /**
+     * @param directory   The directory replayed files are read from.
+     * @param batchSize   The most ticks published at once.
+     * @param windowBytes The most bytes of each file mapped at once.
+     */
+    public ReplayService(
+            MarketDataFeed feed,
+            TimeSeriesWebSocketHandler legacyHandler,
+            @Value("${app.replay.directory:replay}") String directory,
+            @Value("${app.replay.batchSize:1024}") int batchSize,
+            @Value("${app.replay.windowBytes:67108864}") int windowBytes
+    ) {
+        this.feed = feed;
+        this.legacyHandler = legacyHandler;
+        this.directory = Path.of(directory).toAbsolutePath().normalize();
+        this.batchSize = batchSize;
+        this.windowBytes = windowBytes;
+    }
+
+    /**
+     * Start replaying on a thread of its own.
+     *
+     * @throws IllegalArgumentException If a file is missing, outside the replay directory or unreadable.
+     * @throws IllegalStateException If a replay is already running.
+     */
+    public synchronized ReplayStatus start(ReplayRequest request) {
+        if (engine != null && !engine.isFinished()) {
+            throw new IllegalStateException("A replay is already running");
+        }
+        if (request.files() == null || request.files().isEmpty()) {
+            throw new IllegalArgumentException("No files to replay");
+        }
+        List<Path> files = new ArrayList<>(request.files().size());
+        for (String file : request.files()) {
+            files.add(resolve(file));
+        }
+        double speed = request.speed() != null ? request.speed() : 1.0;
+        String legacySymbol = request.legacySymbol();
+
+        ReplaySink sink = batch -> {
+            feed.publish(batch.toTicks());
+            if (legacySymbol != null) {
+                for (TimeSeriesPoint point : batch.toPoints(legacySymbol)) {
+                    legacyHandler.sendPoint(point);
+                }
+            }
+        };
+        try {
+            engine = new ReplayEngine(files, speed, batchSize, windowBytes, sink);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Cannot open " + request.files() + ": " + e.getMessage(), e);
+        }
+        Thread thread = new Thread(engine, "replay");
+        thread.setDaemon(true);
+        thread.start();
+        logger.info("Replaying {} at {}", files, speed > 0 ? speed + "x" : "max speed");
+        return getStatus();
+    }
+
+    private Path resolve(String file) {
+        Path path = directory.resolve(file).normalize();
+        if (!path.startsWith(directory)) {
+            throw new IllegalArgumentException("Replay files must be in " + directory + ": " + file);
+        }
+        if (!Files.isRegularFile(path)) {
+            throw new IllegalArgumentException("No such replay file: " + file);
+        }
+        return path;
+    }
+
+    /**
+     * Change the speed of the running replay.
+     */
+    public synchronized ReplayStatus setSpeed(double speed) {
+        if (engine != null) {
+            engine.setSpeed(speed);
+        }
+        return getStatus();
+    }
+
+    @PreDestroy
+    public synchronized ReplayStatus stop() {
+        if (engine != null) {
+            engine.stop();
+        }
+        return getStatus();
+    }
+
+    public synchronized ReplayStatus getStatus() {
+        if (engine == null) {
+            return ReplayStatus.IDLE;
+        }
+        List<String> files = new ArrayList<>();
+        for (Path file : engine.getFiles()) {
+            files.add(directory.relativize(file).toString());
+        }
+        return new ReplayStatus(!engine.isFinished(), files, engine.getSpeed(), engine.getReplayedCount(),
+                engine.getLastTimestamp(), engine.getLagMillis());
+    }
+}
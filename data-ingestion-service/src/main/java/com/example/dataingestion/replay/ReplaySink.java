@@ -0,0 +1,11 @@
+package com.example.dataingestion.replay;
+
+/**
+ * Receives a replay a batch at a time, on the replay's thread.
+ */
+public interface ReplaySink {
+    /**
+     * @param batch Reused for the next batch once this returns, so copy anything to be kept.
+     */
+    void onBatch(ReplayBatch batch);
+}
@@ -0,0 +1,47 @@
+package com.example.dataingestion.replay;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Reads the ticks of one symbol's file in order, one at a time into its own fields, so reading a
+ * file allocates nothing per tick.
+ */
+interface TickCursor extends Closeable {
+    /**
+     * Move to the next tick.
+     *
+     * @return {@code false} at the end of the file.
+     * @throws IllegalArgumentException If the tick is malformed.
+     */
+    boolean advance() throws IOException;
+
+    /**
+     * @return The time of the current tick, in epoch milliseconds.
+     */
+    long timestamp();
+
+    double price();
+
+    double volume();
+
+    String symbol();
+
+    /**
+     * Open a tick file by its extension: {@code .csv} for text, {@code .tick} for
+     * {@link BinaryTickWriter binary}.
+     *
+     * @param windowBytes The most bytes of the file mapped at once.
+     */
+    static TickCursor open(Path path, int windowBytes) throws IOException {
+        String name = path.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        String extension = dot < 0 ? "" : name.substring(dot + 1).toLowerCase();
+        return switch (extension) {
+            case "csv" -> new CsvTickCursor(new MappedFile(path, windowBytes), name.substring(0, dot));
+            case "tick" -> new BinaryTickCursor(new MappedFile(path, windowBytes));
+            default -> throw new IllegalArgumentException("Unknown tick file type: " + path);
+        };
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.dataingestion.replay;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Merges the ticks of many files into one stream in time order, with a binary heap of the files
+ * keyed on their current tick. Ticks at the same time come in the order the files were given.
+ */
+final class TickMerger {
+    private final TickCursor[] cursors;
+    // Indexes of the cursors that have a current tick, as a min-heap
+    private final int[] heap;
+    private int heapSize;
+
+    /**
+     * @param cursors Cursors that have not been advanced yet.
+     */
+    TickMerger(List<TickCursor> cursors) throws IOException {
+        this.cursors = cursors.toArray(new TickCursor[0]);
+        this.heap = new int[this.cursors.length];
+        for (int i = 0; i < this.cursors.length; i++) {
+            if (this.cursors[i].advance()) {
+                heap[heapSize++] = i;
+            }
+        }
+        for (int i = heapSize / 2 - 1; i >= 0; i--) {
+            siftDown(i);
+        }
+    }
+
+    boolean hasNext() {
+        return heapSize > 0;
+    }
+
+    /**
+     * @return The cursor at the earliest tick. Only valid until the next {@link #advance()}.
+     */
+    TickCursor peek() {
+        return cursors[heap[0]];
+    }
+
+    /**
+     * Move past the tick returned by {@link #peek()}.
+     */
+    void advance() throws IOException {
+        if (!cursors[heap[0]].advance()) {
+            heap[0] = heap[--heapSize];
+        }
+        siftDown(0);
+    }
+
+    private boolean before(int a, int b) {
+        long ta = cursors[a].timestamp();
+        long tb = cursors[b].timestamp();
+        return ta < tb || (ta == tb && a < b);
+    }
+
+    private void siftDown(int i) {
+        int cursor = heap[i];
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= heapSize) {
+                break;
+            }
+            if (child + 1 < heapSize && before(heap[child + 1], heap[child])) {
+                child++;
+            }
+            if (!before(heap[child], cursor)) {
+                break;
+            }
+            heap[i] = heap[child];
+            i = child;
+        }
+        if (i < heapSize) {
+            heap[i] = cursor;
+        }
+    }
+}
@@ -2,6 +2,7 @@
 package com.example.dataingestion.service;
 
 import com.example.dataingestion.dto.TimeSeriesPoint;
+import com.example.dataingestion.feed.PriceGenerator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
@@ -9,41 +10,25 @@ import org.springframework.stereotype.Service;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
 
 @Service
 public class TimeSeriesGeneratorService {
     private static final Logger logger = LoggerFactory.getLogger(TimeSeriesGeneratorService.class);
+    // The spacing of the points of a generated series
+    private static final long POINT_INTERVAL_MILLIS = 50;
 
-    private double baseValue = 100.0;
-    private final double volatility = 0.15;
-    private final double jumpProbability = 0.1;
-    private final double maxJumpSize = 5.0;
-    private final Random random = new Random();
+    private final PriceGenerator generator = new PriceGenerator(
+            100.0, 0.15, 0.1, 5.0, ThreadLocalRandom.current().nextLong());
 
     public TimeSeriesPoint generateDataPoint() {
-        // Add sudden jumps occasionally
-        if (random.nextDouble() < jumpProbability) {
-            double jump = (random.nextDouble() * 2 - 1) * maxJumpSize;
-            baseValue += jump;
-            logger.debug("Price jump occurred: {}", jump);
-        }
-
-        // Random walk with increased volatility and reduced mean reversion
-        double change = random.nextGaussian() * volatility * baseValue;
-        double meanReversion = 0.05 * (100 - baseValue);
-
-        // Add some non-linear noise
-        double noise = Math.sin(baseValue / 10) * volatility * baseValue;
-
-        baseValue = baseValue + change + meanReversion + noise;
-
-        // Ensure price doesn't go negative
-        baseValue = Math.max(baseValue, 1.0);
+        return generateDataPoint(Instant.now());
+    }
 
+    private synchronized TimeSeriesPoint generateDataPoint(Instant timestamp) {
         TimeSeriesPoint point = new TimeSeriesPoint(
-                Instant.now(),
-                Math.round(baseValue * 100.0) / 100.0
+                timestamp,
+                Math.round(generator.next() * 100.0) / 100.0
         );
 
         logger.debug("Generated data point: {}", point);
@@ -52,22 +37,17 @@ public class TimeSeriesGeneratorService {
 
     // New method to generate a list of points for REST API
     public List<TimeSeriesPoint> generateTimeSeriesData(int numberOfPoints) {
-        List<TimeSeriesPoint> points = new ArrayList<>();
+        List<TimeSeriesPoint> points = new ArrayList<>(Math.max(numberOfPoints, 0));
+        // Timestamped as if generated over time, ending now, rather than waiting between points
+        Instant start = Instant.now().minusMillis(POINT_INTERVAL_MILLIS * Math.max(numberOfPoints - 1, 0));
         for (int i = 0; i < numberOfPoints; i++) {
-            points.add(generateDataPoint());
-            // Small delay to simulate time passing
-            try {
-                Thread.sleep(50);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                logger.warn("Data generation interrupted", e);
-            }
+            points.add(generateDataPoint(start.plusMillis(POINT_INTERVAL_MILLIS * i)));
         }
         return points;
     }
 
     // Reset method for testing purposes
-    public void resetBaseValue() {
-        this.baseValue = 100.0;
+    public synchronized void resetBaseValue() {
+        generator.reset();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,113 @@
+package com.example.dataingestion.websocket;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+/**
+ * A WebSocket endpoint that sends the same messages to every connected client.
+ * <p>
+ * Each session has its own bounded {@link SessionOutbound} queue, drained by a shared pool, so
+ * broadcasting never waits on a client's socket and one slow client cannot delay the others. The
+ * {@link SendWatchdog} closes sessions whose socket stops accepting messages altogether.
+ */
+public abstract class BroadcastWebSocketHandler extends TextWebSocketHandler {
+    private final ConcurrentHashMap<String, SessionOutbound> sessions = new ConcurrentHashMap<>();
+    private final int queueCapacity;
+    private final SlowConsumerPolicy slowConsumerPolicy;
+    private final Executor drainExecutor;
+    private final SendWatchdog watchdog;
+    private final OutboundMetrics metrics;
+
+    /**
+     * @param endpoint           The {@code endpoint} tag of this handler's meters.
+     * @param queueCapacity      The number of messages each session may fall behind by.
+     * @param slowConsumerPolicy What happens to a session whose queue is full.
+     */
+    protected BroadcastWebSocketHandler(String endpoint, MeterRegistry meterRegistry, Executor drainExecutor,
+                                        SendWatchdog watchdog, int queueCapacity,
+                                        SlowConsumerPolicy slowConsumerPolicy) {
+        if (queueCapacity < 1) {
+            throw new IllegalArgumentException("Outbound queue capacity must be positive, got " + queueCapacity);
+        }
+        this.queueCapacity = queueCapacity;
+        this.slowConsumerPolicy = slowConsumerPolicy;
+        this.drainExecutor = drainExecutor;
+        this.watchdog = watchdog;
+        this.metrics = new OutboundMetrics(meterRegistry, endpoint);
+
+        Gauge.builder("ingestion.websocket.sessions", sessions, ConcurrentHashMap::size)
+                .tag("endpoint", endpoint)
+                .description("Connected WebSocket sessions")
+                .register(meterRegistry);
+        Gauge.builder("ingestion.websocket.outbound.queued.max", this, BroadcastWebSocketHandler::getMaxQueuedCount)
+                .tag("endpoint", endpoint)
+                .description("Messages queued for the WebSocket session furthest behind")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) {
+        SessionOutbound outbound = new SessionOutbound(session, queueCapacity, slowConsumerPolicy, drainExecutor,
+                metrics);
+        sessions.put(session.getId(), outbound);
+        watchdog.watch(outbound);
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        SessionOutbound outbound = sessions.remove(session.getId());
+        if (outbound != null) {
+            watchdog.unwatch(outbound);
+            outbound.close();
+        }
+    }
+
+    /**
+     * Queue a message for every session without waiting for any of them.
+     */
+    public void broadcast(WebSocketMessage<?> message) {
+        for (SessionOutbound outbound : sessions.values()) {
+            if (!outbound.offer(message)) {
+                sessions.remove(outbound.getSession().getId(), outbound);
+                watchdog.unwatch(outbound);
+            }
+        }
+    }
+
+    public boolean hasSessions() {
+        return !sessions.isEmpty();
+    }
+
+    public List<SessionStats> getSessionStats() {
+        List<SessionStats> stats = new ArrayList<>(sessions.size());
+        for (SessionOutbound outbound : sessions.values()) {
+            stats.add(SessionStats.of(outbound));
+        }
+        return stats;
+    }
+
+    private int getMaxQueuedCount() {
+        int max = 0;
+        for (SessionOutbound outbound : sessions.values()) {
+            max = Math.max(max, outbound.getQueuedCount());
+        }
+        return max;
+    }
+
+    public SlowConsumerPolicy getSlowConsumerPolicy() {
+        return slowConsumerPolicy;
+    }
+
+    public OutboundMetrics getMetrics() {
+        return metrics;
+    }
+}
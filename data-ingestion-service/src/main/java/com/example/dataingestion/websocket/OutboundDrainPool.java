@@ -0,0 +1,57 @@
+package com.example.dataingestion.websocket;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The threads that drain every WebSocket session's outbound queue, on every endpoint.
+ */
+@Component
+public class OutboundDrainPool implements Executor {
+    private static final Logger logger = LoggerFactory.getLogger(OutboundDrainPool.class);
+
+    private final ExecutorService executor;
+
+    /**
+     * @param drainThreads The threads sending to sessions, or 0 for one per core.
+     */
+    public OutboundDrainPool(@Value("${app.websocket.drainThreads:0}") int drainThreads) {
+        int threads = drainThreads > 0 ? drainThreads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "ws-outbound-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        this.executor = Executors.newFixedThreadPool(threads, threadFactory);
+        logger.info("WebSocket outbound: {} drain threads", threads);
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        executor.execute(command);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(1, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
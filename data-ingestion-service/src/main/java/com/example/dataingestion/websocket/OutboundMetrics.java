@@ -0,0 +1,74 @@
+package com.example.dataingestion.websocket;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Meters shared by every session's {@link SessionOutbound} on one endpoint: how long messages wait
+ * before they reach the socket, and how many are given up on. Per-session figures are kept by the
+ * sessions themselves, so that thousands of subscribers do not become thousands of meters.
+ */
+public class OutboundMetrics {
+    private final Timer lag;
+    private final Map<SlowConsumerPolicy, Counter> dropped = new EnumMap<>(SlowConsumerPolicy.class);
+    private final Counter disconnects;
+
+    /**
+     * @param endpoint The {@code endpoint} tag of the meters, e.g. {@code timeseries}.
+     */
+    public OutboundMetrics(MeterRegistry registry, String endpoint) {
+        this.lag = Timer.builder("ingestion.websocket.outbound.lag")
+                .tag("endpoint", endpoint)
+                .description("Time from queueing a message for a WebSocket session to handing it to the socket")
+                .publishPercentiles(0.5, 0.99, 0.999)
+                .register(registry);
+        for (SlowConsumerPolicy policy : SlowConsumerPolicy.values()) {
+            dropped.put(policy, Counter.builder("ingestion.websocket.outbound.dropped")
+                    .tag("endpoint", endpoint)
+                    .tag("policy", policy.name())
+                    .description("Messages not delivered because a WebSocket session's queue was full")
+                    .register(registry));
+        }
+        this.disconnects = Counter.builder("ingestion.websocket.outbound.disconnects")
+                .tag("endpoint", endpoint)
+                .description("WebSocket sessions closed for falling too far behind")
+                .register(registry);
+    }
+
+    /**
+     * Metrics that are only kept in memory, for use outside a Spring context.
+     */
+    public static OutboundMetrics unregistered() {
+        return new OutboundMetrics(new SimpleMeterRegistry(), "unregistered");
+    }
+
+    void recordSent(long lagNanos) {
+        lag.record(lagNanos, TimeUnit.NANOSECONDS);
+    }
+
+    void recordDropped(SlowConsumerPolicy policy, int count) {
+        dropped.get(policy).increment(count);
+    }
+
+    void recordDisconnect() {
+        disconnects.increment();
+    }
+
+    public Timer getLag() {
+        return lag;
+    }
+
+    public double getDroppedCount(SlowConsumerPolicy policy) {
+        return dropped.get(policy).count();
+    }
+
+    public double getDisconnectCount() {
+        return disconnects.count();
+    }
+}
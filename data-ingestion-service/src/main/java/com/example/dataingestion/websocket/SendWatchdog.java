@@ -0,0 +1,82 @@
+package com.example.dataingestion.websocket;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Closes WebSocket sessions whose socket has not accepted a message within the send time limit.
+ * <p>
+ * A send to a client that stopped reading blocks its drain thread until the socket gives way, and
+ * enough such clients would hold every thread of the {@link OutboundDrainPool}, delaying every
+ * other session. Closing the session aborts the blocked write and frees the thread. Checks run on a
+ * thread of their own, since the drain threads may be the ones stuck, and closes on another, since
+ * a container may block closing a session with a write in progress.
+ */
+@Component
+public class SendWatchdog {
+    private static final Logger logger = LoggerFactory.getLogger(SendWatchdog.class);
+
+    private final long sendTimeLimitNanos;
+    private final Set<SessionOutbound> outbounds = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService scheduler;
+    private final ExecutorService closer;
+
+    /**
+     * @param sendTimeLimitMs How long one send may block before its session is closed.
+     */
+    public SendWatchdog(@Value("${app.websocket.sendTimeLimitMs:5000}") long sendTimeLimitMs) {
+        if (sendTimeLimitMs < 1) {
+            throw new IllegalArgumentException("Send time limit must be positive, got " + sendTimeLimitMs);
+        }
+        this.sendTimeLimitNanos = TimeUnit.MILLISECONDS.toNanos(sendTimeLimitMs);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> daemon(runnable, "ws-send-watchdog"));
+        this.closer = Executors.newCachedThreadPool(runnable -> daemon(runnable, "ws-send-watchdog-close"));
+        long period = Math.max(1, sendTimeLimitMs / 4);
+        scheduler.scheduleWithFixedDelay(this::check, period, period, TimeUnit.MILLISECONDS);
+        logger.info("WebSocket outbound: {} ms send time limit", sendTimeLimitMs);
+    }
+
+    private static Thread daemon(Runnable runnable, String name) {
+        Thread thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    public void watch(SessionOutbound outbound) {
+        outbounds.add(outbound);
+    }
+
+    public void unwatch(SessionOutbound outbound) {
+        outbounds.remove(outbound);
+    }
+
+    private void check() {
+        long now = System.nanoTime();
+        for (SessionOutbound outbound : outbounds) {
+            try {
+                if (outbound.expireStalledSend(now, sendTimeLimitNanos, closer)) {
+                    outbounds.remove(outbound);
+                }
+            } catch (RuntimeException e) {
+                // An exception would cancel the schedule
+                logger.warn("Failed to check WebSocket session {}", outbound.getSession().getId(), e);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+        closer.shutdown();
+    }
+}
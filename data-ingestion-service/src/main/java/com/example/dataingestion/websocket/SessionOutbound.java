@@ -0,0 +1,266 @@
+package com.example.dataingestion.websocket;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The bounded outbound queue of one WebSocket session.
+ * <p>
+ * {@link #offer(WebSocketMessage)} never blocks: it queues the message and, if the session is not
+ * already being drained, schedules a drain on the shared executor. Only the drain calls
+ * {@link WebSocketSession#sendMessage(WebSocketMessage)}, one message at a time, so a slow or
+ * stalled client holds up nothing but its own queue. When the queue is full, the
+ * {@link SlowConsumerPolicy} decides what gives.
+ * <p>
+ * A drain sends at most {@code DRAIN_BATCH} messages before yielding its thread to other sessions.
+ * A {@link SendWatchdog} closes the session if a single send blocks for too long, so that clients
+ * that stop reading cannot keep the shared threads to themselves.
+ */
+public class SessionOutbound {
+    private static final Logger logger = LoggerFactory.getLogger(SessionOutbound.class);
+    private static final int DRAIN_BATCH = 64;
+
+    private final WebSocketSession session;
+    private final int capacity;
+    private final SlowConsumerPolicy policy;
+    private final Executor executor;
+    private final OutboundMetrics metrics;
+
+    // Guarded by this
+    private final ArrayDeque<Pending> queue;
+    private boolean draining;
+    private boolean closed;
+
+    // Written by the drain only; 0 when no send is in progress
+    private volatile long sendStartedNanos;
+    private volatile long sentCount;
+    private volatile long lastLagNanos;
+    private volatile long maxLagNanos;
+    // Written under this
+    private volatile long droppedCount;
+
+    private record Pending(WebSocketMessage<?> message, long enqueuedNanos) {
+    }
+
+    /**
+     * @param capacity The number of messages that may wait for the client.
+     * @param executor Runs the drains; shared by every session.
+     */
+    public SessionOutbound(WebSocketSession session, int capacity, SlowConsumerPolicy policy, Executor executor,
+                           OutboundMetrics metrics) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Outbound queue capacity must be positive, got " + capacity);
+        }
+        this.session = session;
+        this.capacity = capacity;
+        this.policy = policy;
+        this.executor = executor;
+        this.metrics = metrics;
+        this.queue = new ArrayDeque<>(Math.min(capacity, 1024));
+    }
+
+    /**
+     * Queue a message for the client.
+     *
+     * @return {@code false} if the session is closed, or was closed by the
+     * {@link SlowConsumerPolicy#DISCONNECT} policy because of this message.
+     */
+    public boolean offer(WebSocketMessage<?> message) {
+        boolean disconnect = false;
+        boolean schedule = false;
+        synchronized (this) {
+            if (closed) {
+                return false;
+            }
+            if (queue.size() >= capacity) {
+                switch (policy) {
+                    case DROP_OLDEST -> {
+                        queue.pollFirst();
+                        drop(1);
+                    }
+                    case CONFLATE -> {
+                        drop(queue.size());
+                        queue.clear();
+                    }
+                    case DISCONNECT -> {
+                        disconnect = true;
+                        closed = true;
+                        drop(queue.size() + 1);
+                        queue.clear();
+                    }
+                }
+            }
+            if (!disconnect) {
+                queue.addLast(new Pending(message, System.nanoTime()));
+                if (!draining) {
+                    draining = true;
+                    schedule = true;
+                }
+            }
+        }
+
+        if (disconnect) {
+            logger.warn("Disconnecting slow WebSocket session {}: {} messages queued", session.getId(), capacity);
+            metrics.recordDisconnect();
+            closeQuietly(CloseStatus.SESSION_NOT_RELIABLE);
+            return false;
+        }
+        if (schedule) {
+            scheduleDrain();
+        }
+        return true;
+    }
+
+    private void drop(int count) {
+        droppedCount += count;
+        metrics.recordDropped(policy, count);
+    }
+
+    private void scheduleDrain() {
+        try {
+            executor.execute(this::drain);
+        } catch (RejectedExecutionException e) {
+            // Shutting down
+            synchronized (this) {
+                draining = false;
+            }
+        }
+    }
+
+    private void drain() {
+        for (int sent = 0; sent < DRAIN_BATCH; sent++) {
+            Pending next;
+            synchronized (this) {
+                next = queue.pollFirst();
+                if (next == null || closed) {
+                    draining = false;
+                    return;
+                }
+            }
+            try {
+                if (!session.isOpen()) {
+                    close();
+                    return;
+                }
+                sendStartedNanos = System.nanoTime();
+                session.sendMessage(next.message);
+            } catch (IOException | RuntimeException e) {
+                if (isClosed()) {
+                    // Closed under the send, e.g. by the watchdog
+                    return;
+                }
+                logger.warn("Failed to send to WebSocket session {}, closing it: {}", session.getId(), e.getMessage());
+                close();
+                closeQuietly(CloseStatus.SERVER_ERROR);
+                return;
+            } finally {
+                sendStartedNanos = 0;
+            }
+            long lag = System.nanoTime() - next.enqueuedNanos;
+            lastLagNanos = lag;
+            if (lag > maxLagNanos) {
+                maxLagNanos = lag;
+            }
+            sentCount++;
+            metrics.recordSent(lag);
+        }
+        // Let other sessions have the thread before sending the rest
+        scheduleDrain();
+    }
+
+    /**
+     * Close the session if its current send started more than {@code sendTimeLimitNanos} ago.
+     *
+     * @param closer Runs the close, which may block while the send is stuck.
+     * @return Whether the session is closed.
+     */
+    public boolean expireStalledSend(long now, long sendTimeLimitNanos, Executor closer) {
+        long started = sendStartedNanos;
+        if (started == 0 || now - started <= sendTimeLimitNanos) {
+            return isClosed();
+        }
+        synchronized (this) {
+            if (closed) {
+                return true;
+            }
+            closed = true;
+            queue.clear();
+        }
+        logger.warn("Disconnecting stalled WebSocket session {}: a send has blocked for {} ms", session.getId(),
+                TimeUnit.NANOSECONDS.toMillis(now - started));
+        metrics.recordDisconnect();
+        closer.execute(() -> closeQuietly(CloseStatus.SESSION_NOT_RELIABLE));
+        return true;
+    }
+
+    /**
+     * Stop accepting messages and drop whatever is still queued.
+     */
+    public synchronized void close() {
+        closed = true;
+        queue.clear();
+    }
+
+    private void closeQuietly(CloseStatus status) {
+        try {
+            session.close(status);
+        } catch (IOException e) {
+            logger.debug("Error closing WebSocket session {}: {}", session.getId(), e.getMessage());
+        }
+    }
+
+    public WebSocketSession getSession() {
+        return session;
+    }
+
+    public synchronized int getQueuedCount() {
+        return queue.size();
+    }
+
+    /**
+     * @return How long the oldest queued message has been waiting, in nanoseconds, or 0 if none is.
+     */
+    public long getOldestQueuedAgeNanos() {
+        long enqueued;
+        synchronized (this) {
+            Pending oldest = queue.peekFirst();
+            if (oldest == null) {
+                return 0;
+            }
+            enqueued = oldest.enqueuedNanos;
+        }
+        return System.nanoTime() - enqueued;
+    }
+
+    public long getSentCount() {
+        return sentCount;
+    }
+
+    public long getDroppedCount() {
+        return droppedCount;
+    }
+
+    /**
+     * @return The time the most recently sent message spent queued, in nanoseconds.
+     */
+    public long getLastLagNanos() {
+        return lastLagNanos;
+    }
+
+    public long getMaxLagNanos() {
+        return maxLagNanos;
+    }
+
+    public synchronized boolean isClosed() {
+        return closed;
+    }
+}
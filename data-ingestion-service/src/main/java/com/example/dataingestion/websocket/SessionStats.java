@@ -0,0 +1,33 @@
+package com.example.dataingestion.websocket;
+
+/**
+ * How one WebSocket session is keeping up with the feed.
+ *
+ * @param queued             Messages waiting to be sent.
+ * @param oldestQueuedMillis How long the oldest of them has waited.
+ * @param lastLagMillis      How long the most recently sent message waited.
+ * @param maxLagMillis       The longest any sent message waited.
+ */
+public record SessionStats(
+        String sessionId,
+        int queued,
+        long sent,
+        long dropped,
+        double oldestQueuedMillis,
+        double lastLagMillis,
+        double maxLagMillis
+) {
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    public static SessionStats of(SessionOutbound outbound) {
+        return new SessionStats(
+                outbound.getSession().getId(),
+                outbound.getQueuedCount(),
+                outbound.getSentCount(),
+                outbound.getDroppedCount(),
+                outbound.getOldestQueuedAgeNanos() / NANOS_PER_MILLI,
+                outbound.getLastLagNanos() / NANOS_PER_MILLI,
+                outbound.getMaxLagNanos() / NANOS_PER_MILLI
+        );
+    }
+}
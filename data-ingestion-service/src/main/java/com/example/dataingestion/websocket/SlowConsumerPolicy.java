@@ -0,0 +1,22 @@
+package com.example.dataingestion.websocket;
+
+/**
+ * What a session's outbound queue does with a new message when the client has fallen so far
+ * behind that the queue is full.
+ */
+public enum SlowConsumerPolicy {
+    /**
+     * Drop the oldest queued message to make room: the client sees a gap but stays connected.
+     */
+    DROP_OLDEST,
+    /**
+     * Replace everything queued with the new message: the client skips straight to the latest
+     * data, which is all a live price feed needs. Only for streams where each message supersedes
+     * every earlier one, such as a single series; multi-symbol streams drop the oldest instead.
+     */
+    CONFLATE,
+    /**
+     * Close the session; the client is expected to reconnect and resynchronize.
+     */
+    DISCONNECT
+}
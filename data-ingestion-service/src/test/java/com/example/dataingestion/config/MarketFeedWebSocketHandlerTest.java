@@ -0,0 +1,27 @@
+package com.example.dataingestion.config;
+
+import com.example.dataingestion.websocket.OutboundDrainPool;
+import com.example.dataingestion.websocket.SendWatchdog;
+import com.example.dataingestion.websocket.SlowConsumerPolicy;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class MarketFeedWebSocketHandlerTest {
+
+    private static MarketFeedWebSocketHandler handler(SlowConsumerPolicy policy) {
+        return new MarketFeedWebSocketHandler(new ObjectMapper(), new SimpleMeterRegistry(),
+                mock(OutboundDrainPool.class), mock(SendWatchdog.class), 16, policy);
+    }
+
+    @Test
+    void testFeedNeverConflatesFramesOfDifferentSymbols() {
+        // Conflating to the newest frame would drop the latest ticks of every symbol not in it
+        assertEquals(SlowConsumerPolicy.DROP_OLDEST, handler(SlowConsumerPolicy.CONFLATE).getSlowConsumerPolicy());
+        assertEquals(SlowConsumerPolicy.DROP_OLDEST, handler(SlowConsumerPolicy.DROP_OLDEST).getSlowConsumerPolicy());
+        assertEquals(SlowConsumerPolicy.DISCONNECT, handler(SlowConsumerPolicy.DISCONNECT).getSlowConsumerPolicy());
+    }
+}
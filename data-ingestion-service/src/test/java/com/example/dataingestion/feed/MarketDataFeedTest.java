@@ -0,0 +1,100 @@
+package com.example.dataingestion.feed;
+
+import com.example.dataingestion.dto.MarketTick;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MarketDataFeedTest {
+    private static final int SYMBOLS = 8;
+
+    private static MarketDataFeed feed(List<TickSink> sinks, double ticksPerSecond, int partitions, Long seed) {
+        return new MarketDataFeed(new SimpleMeterRegistry(), sinks, false, SYMBOLS, "T", ticksPerSecond,
+                partitions, 64, 0.001, seed);
+    }
+
+    // The first prices of every symbol, however the symbols are partitioned
+    private static Map<String, List<Double>> firstPrices(int partitions, int count) throws InterruptedException {
+        Map<String, List<Double>> prices = new ConcurrentHashMap<>();
+        CountDownLatch complete = new CountDownLatch(SYMBOLS);
+        TickSink sink = ticks -> {
+            for (MarketTick tick : ticks) {
+                // Each symbol is only ever published by one partition
+                List<Double> symbolPrices = prices.computeIfAbsent(tick.symbol(), symbol -> new ArrayList<>());
+                if (symbolPrices.size() < count) {
+                    symbolPrices.add(tick.price());
+                    if (symbolPrices.size() == count) {
+                        complete.countDown();
+                    }
+                }
+            }
+        };
+        MarketDataFeed feed = feed(List.of(sink), 0, partitions, 42L);
+        assertEquals(partitions, feed.getPartitionCount());
+        feed.start();
+        try {
+            assertTrue(complete.await(10, TimeUnit.SECONDS));
+        } finally {
+            feed.stop();
+        }
+        assertFalse(feed.isRunning());
+        return prices;
+    }
+
+    @Test
+    void testSeededFeedIsDeterministicAcrossPartitionings() throws InterruptedException {
+        Map<String, List<Double>> single = firstPrices(1, 500);
+        Map<String, List<Double>> partitioned = firstPrices(4, 500);
+        assertEquals(SYMBOLS, single.size());
+        assertEquals(single, partitioned);
+        for (List<Double> prices : single.values()) {
+            for (double price : prices) {
+                assertTrue(price > 0);
+            }
+        }
+    }
+
+    @Test
+    void testFeedIsPacedAndBatched() throws InterruptedException {
+        LongAdder ticks = new LongAdder();
+        AtomicInteger largestBatch = new AtomicInteger();
+        TickSink sink = batch -> {
+            ticks.add(batch.size());
+            largestBatch.accumulateAndGet(batch.size(), Math::max);
+        };
+        // 2,500 ticks/s per partition is 25 ticks per 10 ms batch
+        MarketDataFeed feed = feed(List.of(sink), 5_000, 2, null);
+        feed.start();
+        Thread.sleep(1000);
+        feed.stop();
+
+        assertEquals(25, largestBatch.get());
+        assertTrue(ticks.sum() > 2_500 && ticks.sum() < 7_500, "Published " + ticks.sum() + " ticks");
+        assertEquals(ticks.sum(), feed.getPublishedTickCount(), 0.0);
+        assertEquals(SYMBOLS, feed.getLatest().size());
+    }
+
+    @Test
+    void testExternalTicksTakeTheSamePath() {
+        List<MarketTick> received = new ArrayList<>();
+        MarketDataFeed feed = feed(List.of(received::addAll), 0, 1, 1L);
+        List<MarketTick> batch = List.of(new MarketTick("EXT", 1000L, 10.5, 3), new MarketTick("EXT", 1001L, 10.75, 1));
+        feed.publish(batch);
+        feed.publish(List.of());
+
+        assertEquals(batch, received);
+        assertEquals(batch.get(1), feed.getLatest("EXT"));
+        assertEquals(2, feed.getPublishedTickCount(), 0.0);
+        assertNull(feed.getLatest("T0000"));
+    }
+}
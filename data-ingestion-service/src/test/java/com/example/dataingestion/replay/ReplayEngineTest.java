@@ -0,0 +1,120 @@
+package com.example.dataingestion.replay;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReplayEngineTest {
+    @TempDir
+    Path directory;
+
+    private record Tick(String symbol, long timestamp, double price, double volume) {
+    }
+
+    private static List<Tick> replay(List<Path> files, double speed, int batchSize, int windowBytes,
+                                     List<Integer> batchSizes) throws IOException {
+        List<Tick> ticks = new ArrayList<>();
+        ReplayEngine engine = new ReplayEngine(files, speed, batchSize, windowBytes, batch -> {
+            batchSizes.add(batch.size());
+            for (int i = 0; i < batch.size(); i++) {
+                ticks.add(new Tick(batch.symbol(i), batch.timestamp(i), batch.price(i), batch.volume(i)));
+            }
+        });
+        engine.run();
+        assertTrue(engine.isFinished());
+        assertEquals(ticks.size(), engine.getReplayedCount());
+        return ticks;
+    }
+
+    @Test
+    void testMergesCsvAndBinaryFilesInTimeOrder() throws IOException {
+        Path csv = directory.resolve("AAA.csv");
+        StringBuilder text = new StringBuilder("timestamp,price,volume\r\n");
+        Path binary = directory.resolve("bbb.tick");
+        try (BinaryTickWriter writer = new BinaryTickWriter(binary, "BBB")) {
+            for (int i = 0; i < 1000; i++) {
+                text.append(1000 + 2 * i).append(',').append(100 + i * 0.01).append(',').append(i % 7 + 1).append("\r\n");
+                writer.write(1001 + 2 * i, 50.0 + i * 0.25, 10);
+            }
+        }
+        text.append('\n').append("3000,1e2");
+        Files.writeString(csv, text);
+
+        List<Integer> batchSizes = new ArrayList<>();
+        // Windows far smaller than the files, so lines and reads cross many of them
+        List<Tick> ticks = replay(List.of(csv, binary), 0, 64, 100, batchSizes);
+
+        assertEquals(2001, ticks.size());
+        for (int i = 1; i < ticks.size(); i++) {
+            assertTrue(ticks.get(i - 1).timestamp() <= ticks.get(i).timestamp());
+        }
+        assertEquals(new Tick("AAA", 1000, 100.0, 1), ticks.get(0));
+        assertEquals(new Tick("BBB", 1001, 50.0, 10), ticks.get(1));
+        assertEquals(new Tick("AAA", 1000 + 2 * 999, 100 + 999 * 0.01, 999 % 7 + 1), ticks.get(1998));
+        assertEquals(new Tick("AAA", 3000, 100.0, 0.0), ticks.get(2000));
+        for (int i = 0; i < batchSizes.size() - 1; i++) {
+            assertEquals(64, batchSizes.get(i));
+        }
+    }
+
+    @Test
+    void testCsvNumbersParseExactly() throws IOException {
+        String[] prices = {"0.1", "123.456", "99999.99999", "-1.5", "7", "0.30000000000000004", "1234567890.123456789",
+                "6.02e23", "1E-7", ".5"};
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < prices.length; i++) {
+            text.append(i).append(',').append(prices[i]).append('\n');
+        }
+        Path csv = directory.resolve("NUM.csv");
+        Files.writeString(csv, text);
+
+        List<Tick> ticks = replay(List.of(csv), 0, 4, 1 << 16, new ArrayList<>());
+        assertEquals(prices.length, ticks.size());
+        for (int i = 0; i < prices.length; i++) {
+            assertEquals(Double.parseDouble(prices[i]), ticks.get(i).price(), 0.0, prices[i]);
+        }
+    }
+
+    @Test
+    void testMalformedLinesAreRejected() throws IOException {
+        Path csv = directory.resolve("BAD.csv");
+        Files.writeString(csv, "1,2.0\n2,abc\n");
+        try (TickCursor cursor = TickCursor.open(csv, 1024)) {
+            assertTrue(cursor.advance());
+            IllegalArgumentException e = assertThrows(IllegalArgumentException.class, cursor::advance);
+            assertTrue(e.getMessage().contains("BAD.csv:2"), e.getMessage());
+        }
+        assertThrows(IllegalArgumentException.class, () -> TickCursor.open(directory.resolve("x.txt"), 1024));
+
+        Path notBinary = directory.resolve("BAD.tick");
+        Files.writeString(notBinary, "not a tick file");
+        assertThrows(IllegalArgumentException.class, () -> TickCursor.open(notBinary, 1024));
+    }
+
+    @Test
+    void testReplayIsPacedByTheVirtualClock() throws IOException {
+        Path binary = directory.resolve("PACED.tick");
+        try (BinaryTickWriter writer = new BinaryTickWriter(binary, "PACED")) {
+            // Two recorded seconds
+            for (int i = 0; i <= 20; i++) {
+                writer.write(100 * i, 1.0, 1.0);
+            }
+        }
+        long start = System.nanoTime();
+        List<Integer> batchSizes = new ArrayList<>();
+        List<Tick> ticks = replay(List.of(binary), 20, 1024, 4096, batchSizes);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertEquals(21, ticks.size());
+        // At 20x the two seconds take 100 ms, and ticks are handed over as they fall due
+        assertTrue(elapsedMillis >= 95, "Replayed in " + elapsedMillis + " ms");
+        assertTrue(batchSizes.size() > 10);
+    }
+}
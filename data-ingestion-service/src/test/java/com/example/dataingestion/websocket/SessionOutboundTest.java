@@ -0,0 +1,189 @@
+package com.example.dataingestion.websocket;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class SessionOutboundTest {
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+    private final OutboundMetrics metrics = OutboundMetrics.unregistered();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    // A session whose sends block until released, recording what it was sent
+    private static WebSocketSession session(String id, CountDownLatch release, List<String> received) throws Exception {
+        WebSocketSession session = mock(WebSocketSession.class);
+        when(session.getId()).thenReturn(id);
+        when(session.isOpen()).thenReturn(true);
+        doAnswer(invocation -> {
+            release.await();
+            received.add(((TextMessage) invocation.getArgument(0)).getPayload());
+            return null;
+        }).when(session).sendMessage(any());
+        return session;
+    }
+
+    private static void awaitSent(SessionOutbound outbound, long count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (outbound.getSentCount() < count) {
+            assertTrue(System.nanoTime() < deadline, "Timed out waiting for " + count + " messages");
+            Thread.sleep(1);
+        }
+    }
+
+    @Test
+    void testSlowSessionDoesNotDelayOthers() throws Exception {
+        CountDownLatch stalled = new CountDownLatch(1);
+        List<String> slowReceived = new CopyOnWriteArrayList<>();
+        List<String> fastReceived = new CopyOnWriteArrayList<>();
+        SessionOutbound slow = new SessionOutbound(session("slow", stalled, slowReceived), 4,
+                SlowConsumerPolicy.DROP_OLDEST, executor, metrics);
+        SessionOutbound fast = new SessionOutbound(session("fast", new CountDownLatch(0), fastReceived), 4,
+                SlowConsumerPolicy.DROP_OLDEST, executor, metrics);
+
+        for (int i = 0; i < 10; i++) {
+            TextMessage message = new TextMessage(Integer.toString(i));
+            assertTrue(slow.offer(message));
+            assertTrue(fast.offer(message));
+            awaitSent(fast, i + 1);
+        }
+        assertEquals(10, fastReceived.size());
+        assertEquals(0, slowReceived.size());
+
+        // Message 0 is stuck in the socket; 1 to 5 were dropped for 6 to 9
+        assertEquals(4, slow.getQueuedCount());
+        assertEquals(5, slow.getDroppedCount());
+        assertEquals(5, metrics.getDroppedCount(SlowConsumerPolicy.DROP_OLDEST));
+        assertTrue(slow.getOldestQueuedAgeNanos() > 0);
+
+        stalled.countDown();
+        awaitSent(slow, 5);
+        assertEquals(List.of("0", "6", "7", "8", "9"), slowReceived);
+        assertTrue(slow.getMaxLagNanos() > 0);
+        assertEquals(15, metrics.getLag().count());
+    }
+
+    @Test
+    void testConflateKeepsOnlyTheLatest() throws Exception {
+        CountDownLatch stalled = new CountDownLatch(1);
+        List<String> received = new CopyOnWriteArrayList<>();
+        SessionOutbound outbound = new SessionOutbound(session("conflated", stalled, received), 3,
+                SlowConsumerPolicy.CONFLATE, executor, metrics);
+
+        outbound.offer(new TextMessage("0"));
+        // Wait for message 0 to be taken into the stalled send
+        while (outbound.getQueuedCount() > 0) {
+            Thread.sleep(1);
+        }
+        for (int i = 1; i <= 7; i++) {
+            assertTrue(outbound.offer(new TextMessage(Integer.toString(i))));
+        }
+        // 1 to 3 filled the queue, 4 replaced them, 5 and 6 queued behind it, 7 replaced all three
+        assertEquals(1, outbound.getQueuedCount());
+        assertEquals(6, outbound.getDroppedCount());
+
+        stalled.countDown();
+        awaitSent(outbound, 2);
+        assertEquals(List.of("0", "7"), received);
+    }
+
+    @Test
+    void testDisconnectClosesSessionThatFallsBehind() throws Exception {
+        CountDownLatch stalled = new CountDownLatch(1);
+        WebSocketSession session = session("disconnected", stalled, new CopyOnWriteArrayList<>());
+        SessionOutbound outbound = new SessionOutbound(session, 2, SlowConsumerPolicy.DISCONNECT, executor, metrics);
+
+        outbound.offer(new TextMessage("0"));
+        while (outbound.getQueuedCount() > 0) {
+            Thread.sleep(1);
+        }
+        assertTrue(outbound.offer(new TextMessage("1")));
+        assertTrue(outbound.offer(new TextMessage("2")));
+        assertFalse(outbound.offer(new TextMessage("3")));
+
+        assertTrue(outbound.isClosed());
+        assertEquals(0, outbound.getQueuedCount());
+        assertEquals(1, metrics.getDisconnectCount());
+        verify(session).close(CloseStatus.SESSION_NOT_RELIABLE);
+        assertFalse(outbound.offer(new TextMessage("4")));
+        stalled.countDown();
+    }
+
+    // A session whose sends block until it is closed, as a socket the client stopped reading does
+    private static WebSocketSession stalledSession(String id) throws Exception {
+        CountDownLatch closed = new CountDownLatch(1);
+        WebSocketSession session = mock(WebSocketSession.class);
+        when(session.getId()).thenReturn(id);
+        when(session.isOpen()).thenReturn(true);
+        doAnswer(invocation -> {
+            closed.await();
+            throw new IOException("Session closed");
+        }).when(session).sendMessage(any());
+        doAnswer(invocation -> {
+            closed.countDown();
+            return null;
+        }).when(session).close(any(CloseStatus.class));
+        return session;
+    }
+
+    @Test
+    void testWatchdogFreesThreadsHeldByStalledSessions() throws Exception {
+        SendWatchdog watchdog = new SendWatchdog(100);
+        try {
+            // Twice as many stalled sessions as drain threads, connected before the healthy one
+            List<WebSocketSession> stalledSessions = new ArrayList<>();
+            List<SessionOutbound> stalled = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                WebSocketSession session = stalledSession("stalled-" + i);
+                SessionOutbound outbound = new SessionOutbound(session, 4, SlowConsumerPolicy.DROP_OLDEST, executor,
+                        metrics);
+                watchdog.watch(outbound);
+                stalledSessions.add(session);
+                stalled.add(outbound);
+            }
+            List<String> received = new CopyOnWriteArrayList<>();
+            SessionOutbound healthy = new SessionOutbound(session("healthy", new CountDownLatch(0), received), 4,
+                    SlowConsumerPolicy.DROP_OLDEST, executor, metrics);
+            watchdog.watch(healthy);
+
+            TextMessage message = new TextMessage("0");
+            stalled.forEach(outbound -> outbound.offer(message));
+            healthy.offer(message);
+
+            awaitSent(healthy, 1);
+            assertEquals(List.of("0"), received);
+            for (int i = 0; i < stalled.size(); i++) {
+                verify(stalledSessions.get(i), timeout(5000)).close(CloseStatus.SESSION_NOT_RELIABLE);
+                assertTrue(stalled.get(i).isClosed());
+            }
+            assertEquals(4, metrics.getDisconnectCount());
+            assertFalse(healthy.isClosed());
+        } finally {
+            watchdog.shutdown();
+        }
+    }
+
+    @Test
+    void testInvalidCapacityIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new SessionOutbound(mock(WebSocketSession.class), 0,
+                SlowConsumerPolicy.DROP_OLDEST, executor, metrics));
+    }
+}
@@ -1,40 +1,49 @@
 package com.example.monitoring.client;
 
+import com.example.shared.codec.ColumnarCodec;
+import com.example.shared.dto.FourierAnalysisDTO;
+import com.example.shared.dto.TimeSeriesDataDTO;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.stereotype.Component;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.List;
-import java.util.Map;
 import java.util.Collections;
 
+/**
+ * Fetches series and spectra from the analysis service in the binary columnar format, which is
+ * far smaller and faster to decode than the JSON the browser gets.
+ */
 @FeignClient(
         name = "analysis-service",
         fallback = AnalysisServiceClient.AnalysisServiceFallback.class
 )
 public interface AnalysisServiceClient {
-    @GetMapping("/api/v1/analysis/timeseries")
-    List<Map<String, Object>> getTimeSeriesData();
+    /**
+     * @param limit The maximum number of points, keeping the most recent, or {@code null} for all.
+     */
+    @GetMapping(value = "/api/v1/analysis/timeseries", produces = ColumnarCodec.MEDIA_TYPE_VALUE)
+    TimeSeriesDataDTO getTimeSeriesData(@RequestParam(value = "limit", required = false) Integer limit);
 
-    @GetMapping("/api/v1/analysis/frequency")
-    List<Map<String, Object>> getFrequencyData();
+    @GetMapping(value = "/api/v1/analysis/frequency", produces = ColumnarCodec.MEDIA_TYPE_VALUE)
+    FourierAnalysisDTO getFrequencyData();
 
     @Component
     class AnalysisServiceFallback implements AnalysisServiceClient {
         private static final Logger logger = LoggerFactory.getLogger(AnalysisServiceFallback.class);
 
         @Override
-        public List<Map<String, Object>> getTimeSeriesData() {
+        public TimeSeriesDataDTO getTimeSeriesData(Integer limit) {
             logger.warn("Using fallback for time series data");
-            return Collections.emptyList();
+            return new TimeSeriesDataDTO(Collections.emptyList(), Collections.emptyList());
         }
 
         @Override
-        public List<Map<String, Object>> getFrequencyData() {
+        public FourierAnalysisDTO getFrequencyData() {
             logger.warn("Using fallback for frequency data");
-            return Collections.emptyList();
+            return new FourierAnalysisDTO(Collections.emptyList(), 0.0);
         }
     }
-}
\ No newline at end of file
+}
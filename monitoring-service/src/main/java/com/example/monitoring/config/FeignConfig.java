@@ -1,5 +1,6 @@
 package com.example.monitoring.config;
 
+import com.example.shared.codec.ColumnarHttpMessageConverter;
 import feign.Logger;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -12,4 +13,12 @@ public class FeignConfig {
     Logger.Level feignLoggerLevel() {
         return Logger.Level.FULL;
     }
-}
\ No newline at end of file
+
+    /**
+     * Lets Feign clients decode series and spectra in the binary columnar format they ask for.
+     */
+    @Bean
+    ColumnarHttpMessageConverter columnarHttpMessageConverter() {
+        return new ColumnarHttpMessageConverter();
+    }
+}
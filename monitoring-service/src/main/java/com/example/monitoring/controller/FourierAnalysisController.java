@@ -1,6 +1,8 @@
 package com.example.monitoring.controller;
 
 import com.example.monitoring.client.AnalysisServiceClient;
+import com.example.shared.dto.FrequencyComponentDTO;
+import com.example.shared.dto.TimeSeriesDataDTO;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.web.bind.annotation.*;
@@ -15,15 +17,33 @@ public class FourierAnalysisController {
     private final AnalysisServiceClient analysisServiceClient;
 
     @GetMapping("/timeseries")
-    public List<Map<String, Object>> getTimeSeriesData() {
+    public List<Map<String, Object>> getTimeSeriesData(@RequestParam(required = false) Integer limit) {
         log.debug("Requesting time series data from analysis service");
-        return analysisServiceClient.getTimeSeriesData();
+        TimeSeriesDataDTO series = analysisServiceClient.getTimeSeriesData(limit);
+        List<Double> values = series.getValues();
+        List<Long> timestamps = series.getTimestamps();
+        List<Map<String, Object>> result = new ArrayList<>(values.size());
+        for (int i = 0; i < values.size(); i++) {
+            Map<String, Object> dataPoint = new HashMap<>();
+            dataPoint.put("timestamp", timestamps.get(i));
+            dataPoint.put("value", values.get(i));
+            result.add(dataPoint);
+        }
+        return result;
     }
 
     @GetMapping("/frequency")
     public List<Map<String, Object>> getFrequencyData() {
         log.debug("Requesting frequency data from analysis service");
-        return analysisServiceClient.getFrequencyData();
+        List<FrequencyComponentDTO> components = analysisServiceClient.getFrequencyData().getComponents();
+        List<Map<String, Object>> result = new ArrayList<>(components.size());
+        for (FrequencyComponentDTO component : components) {
+            Map<String, Object> dataPoint = new HashMap<>();
+            dataPoint.put("frequency", component.getFrequency());
+            dataPoint.put("magnitude", component.getMagnitude());
+            result.add(dataPoint);
+        }
+        return result;
     }
 
     @GetMapping("/test")
@@ -0,0 +1,307 @@
+package com.example.shared.codec;
+
+import com.example.shared.dto.FourierAnalysisDTO;
+import com.example.shared.dto.FrequencyComponentDTO;
+import com.example.shared.dto.TimeSeriesDataDTO;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compact columnar binary encoding of {@link TimeSeriesDataDTO} and {@link FourierAnalysisDTO}.
+ * <p>
+ * Every payload starts with an 8-byte header: the magic {@code "TSC1"}, a format version, the
+ * payload kind, the {@link DoubleEncoding} of its double columns and a reserved byte. Then, with
+ * all fixed-width numbers little-endian:
+ * <ul>
+ *   <li>a time series holds its point count (int32), then the first timestamp (int64) and each
+ *   later one as the zigzag varint delta from its predecessor, then the value column;</li>
+ *   <li>a Fourier analysis holds its sampling frequency (float64), its component count (int32),
+ *   then the frequency column and the magnitude column.</li>
+ * </ul>
+ * A {@link DoubleEncoding#RAW} column is eight bytes per value. A {@link DoubleEncoding#XOR}
+ * column is a bit stream padded to a whole byte. Ticks a few milliseconds apart take one or two
+ * bytes per timestamp instead of the 13 or so of JSON.
+ */
+public final class ColumnarCodec {
+    public static final String MEDIA_TYPE_VALUE = "application/x-columnar-timeseries";
+
+    private static final int MAGIC = 0x31435354; // "TSC1" read little-endian
+    private static final int VERSION = 1;
+    private static final int KIND_TIME_SERIES = 1;
+    private static final int KIND_FOURIER_ANALYSIS = 2;
+    private static final DoubleEncoding[] ENCODINGS = DoubleEncoding.values();
+
+    private ColumnarCodec() {
+    }
+
+    public static void encode(TimeSeriesDataDTO series, DoubleEncoding encoding, OutputStream out) throws IOException {
+        List<Double> values = series.getValues();
+        List<Long> timestamps = series.getTimestamps();
+        if (values.size() != timestamps.size()) {
+            throw new IllegalArgumentException("Values and timestamps must have the same size");
+        }
+        int count = values.size();
+        ColumnarOutput output = new ColumnarOutput(16 + 2 * count + 8 * count);
+        writeHeader(output, KIND_TIME_SERIES, encoding);
+        output.writeInt(count);
+        if (timestamps instanceof PrimitiveLists.LongArrayList view) {
+            writeTimestamps(output, view.values, view.offset, count);
+        } else {
+            writeTimestamps(output, toLongArray(timestamps), 0, count);
+        }
+        writeDoubles(output, values, encoding);
+        output.writeTo(out);
+    }
+
+    /**
+     * Encode {@code count} points of the given arrays starting at {@code offset}.
+     */
+    public static void encodeTimeSeries(long[] timestamps, double[] values, int offset, int count,
+                                        DoubleEncoding encoding, OutputStream out) throws IOException {
+        encode(new TimeSeriesDataDTO(PrimitiveLists.ofDoubles(values, offset, count),
+                PrimitiveLists.ofLongs(timestamps, offset, count)), encoding, out);
+    }
+
+    public static void encode(FourierAnalysisDTO analysis, DoubleEncoding encoding, OutputStream out)
+            throws IOException {
+        List<FrequencyComponentDTO> components = analysis.getComponents();
+        int count = components.size();
+        double[] frequencies = new double[count];
+        double[] magnitudes = new double[count];
+        for (int i = 0; i < count; i++) {
+            frequencies[i] = components.get(i).getFrequency();
+            magnitudes[i] = components.get(i).getMagnitude();
+        }
+        encodeFourierAnalysis(frequencies, magnitudes, 0, count, analysis.getSamplingFrequency(), encoding, out);
+    }
+
+    /**
+     * Encode {@code count} frequency components of the given arrays starting at {@code offset}.
+     */
+    public static void encodeFourierAnalysis(double[] frequencies, double[] magnitudes, int offset, int count,
+                                             double samplingFrequency, DoubleEncoding encoding, OutputStream out)
+            throws IOException {
+        ColumnarOutput output = new ColumnarOutput(24 + 16 * count);
+        writeHeader(output, KIND_FOURIER_ANALYSIS, encoding);
+        output.writeDouble(samplingFrequency);
+        output.writeInt(count);
+        writeDoubles(output, frequencies, offset, count, encoding);
+        writeDoubles(output, magnitudes, offset, count, encoding);
+        output.writeTo(out);
+    }
+
+    /**
+     * Decode a time series. Its lists are read-only views of primitive arrays.
+     *
+     * @throws IOException If the input is not a well-formed time series payload.
+     */
+    public static TimeSeriesDataDTO decodeTimeSeries(InputStream in) throws IOException {
+        return decodeTimeSeries(in.readAllBytes());
+    }
+
+    public static TimeSeriesDataDTO decodeTimeSeries(byte[] payload) throws IOException {
+        ColumnarInput input = new ColumnarInput(payload);
+        DoubleEncoding encoding = readHeader(input, KIND_TIME_SERIES);
+        // Every timestamp takes at least one byte, so the count cannot exceed the payload
+        int count = readCount(input, input.remaining());
+        long[] timestamps = new long[count];
+        if (count > 0) {
+            timestamps[0] = input.readLong();
+            for (int i = 1; i < count; i++) {
+                timestamps[i] = timestamps[i - 1] + input.readZigZagLong();
+            }
+        }
+        double[] values = readDoubles(input, count, encoding);
+        return new TimeSeriesDataDTO(PrimitiveLists.ofDoubles(values), PrimitiveLists.ofLongs(timestamps));
+    }
+
+    /**
+     * Decode a Fourier analysis.
+     *
+     * @throws IOException If the input is not a well-formed Fourier analysis payload.
+     */
+    public static FourierAnalysisDTO decodeFourierAnalysis(InputStream in) throws IOException {
+        return decodeFourierAnalysis(in.readAllBytes());
+    }
+
+    public static FourierAnalysisDTO decodeFourierAnalysis(byte[] payload) throws IOException {
+        ColumnarInput input = new ColumnarInput(payload);
+        DoubleEncoding encoding = readHeader(input, KIND_FOURIER_ANALYSIS);
+        double samplingFrequency = input.readDouble();
+        // Each component takes at least two bits
+        int count = readCount(input, 4L * input.remaining());
+        double[] frequencies = readDoubles(input, count, encoding);
+        double[] magnitudes = readDoubles(input, count, encoding);
+        List<FrequencyComponentDTO> components = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            components.add(new FrequencyComponentDTO(frequencies[i], magnitudes[i]));
+        }
+        return new FourierAnalysisDTO(components, samplingFrequency);
+    }
+
+    private static void writeHeader(ColumnarOutput output, int kind, DoubleEncoding encoding) {
+        output.writeInt(MAGIC);
+        output.writeByte(VERSION);
+        output.writeByte(kind);
+        output.writeByte(encoding.ordinal());
+        output.writeByte(0);
+    }
+
+    private static DoubleEncoding readHeader(ColumnarInput input, int expectedKind) throws IOException {
+        if (input.remaining() < 8 || input.readInt() != MAGIC) {
+            throw new IOException("Not a columnar time series payload");
+        }
+        int version = input.readByte();
+        if (version != VERSION) {
+            throw new IOException("Unsupported columnar payload version " + version);
+        }
+        int kind = input.readByte();
+        if (kind != expectedKind) {
+            throw new IOException("Expected columnar payload kind " + expectedKind + ", got " + kind);
+        }
+        int encoding = input.readByte();
+        if (encoding >= ENCODINGS.length) {
+            throw new IOException("Unknown double encoding " + encoding);
+        }
+        input.readByte();
+        return ENCODINGS[encoding];
+    }
+
+    private static int readCount(ColumnarInput input, long maxCount) throws IOException {
+        int count = input.readInt();
+        if (count < 0 || count > maxCount) {
+            throw new IOException("Invalid columnar payload count " + count);
+        }
+        return count;
+    }
+
+    private static void writeTimestamps(ColumnarOutput output, long[] timestamps, int offset, int count) {
+        if (count == 0) {
+            return;
+        }
+        output.writeLong(timestamps[offset]);
+        for (int i = offset + 1; i < offset + count; i++) {
+            output.writeZigZagLong(timestamps[i] - timestamps[i - 1]);
+        }
+    }
+
+    private static void writeDoubles(ColumnarOutput output, List<Double> values, DoubleEncoding encoding) {
+        if (values instanceof PrimitiveLists.DoubleArrayList view) {
+            writeDoubles(output, view.values, view.offset, view.size, encoding);
+        } else {
+            writeDoubles(output, toDoubleArray(values), 0, values.size(), encoding);
+        }
+    }
+
+    private static void writeDoubles(ColumnarOutput output, double[] values, int offset, int count,
+                                     DoubleEncoding encoding) {
+        if (encoding == DoubleEncoding.RAW) {
+            for (int i = offset; i < offset + count; i++) {
+                output.writeDouble(values[i]);
+            }
+        } else {
+            writeXorDoubles(output, values, offset, count);
+        }
+    }
+
+    private static double[] readDoubles(ColumnarInput input, int count, DoubleEncoding encoding) throws IOException {
+        double[] values = new double[count];
+        if (encoding == DoubleEncoding.RAW) {
+            for (int i = 0; i < count; i++) {
+                values[i] = input.readDouble();
+            }
+        } else {
+            readXorDoubles(input, values);
+        }
+        return values;
+    }
+
+    /**
+     * Each value after the first is XORed with its predecessor. An identical value is a single 0
+     * bit. Otherwise a 1 bit is followed either by a 0 bit and the meaningful bits inside the
+     * previous leading/trailing-zero window, or by a 1 bit, the number of leading zeros (5 bits),
+     * the number of meaningful bits (6 bits, 0 meaning 64) and those bits.
+     */
+    private static void writeXorDoubles(ColumnarOutput output, double[] values, int offset, int count) {
+        if (count == 0) {
+            return;
+        }
+        long previous = Double.doubleToRawLongBits(values[offset]);
+        output.writeBits(previous, 64);
+        int windowLeading = -1;
+        int windowTrailing = 0;
+        for (int i = offset + 1; i < offset + count; i++) {
+            long bits = Double.doubleToRawLongBits(values[i]);
+            long xor = bits ^ previous;
+            previous = bits;
+            if (xor == 0) {
+                output.writeBit(false);
+                continue;
+            }
+            output.writeBit(true);
+            int leading = Math.min(Long.numberOfLeadingZeros(xor), 31);
+            int trailing = Long.numberOfTrailingZeros(xor);
+            if (windowLeading >= 0 && leading >= windowLeading && trailing >= windowTrailing) {
+                output.writeBit(false);
+                output.writeBits(xor >>> windowTrailing, 64 - windowLeading - windowTrailing);
+            } else {
+                int meaningful = 64 - leading - trailing;
+                output.writeBit(true);
+                output.writeBits(leading, 5);
+                output.writeBits(meaningful & 63, 6);
+                output.writeBits(xor >>> trailing, meaningful);
+                windowLeading = leading;
+                windowTrailing = trailing;
+            }
+        }
+        output.alignBits();
+    }
+
+    private static void readXorDoubles(ColumnarInput input, double[] values) throws IOException {
+        if (values.length == 0) {
+            return;
+        }
+        long previous = input.readBits(64);
+        values[0] = Double.longBitsToDouble(previous);
+        int windowLeading = 0;
+        int windowTrailing = 0;
+        for (int i = 1; i < values.length; i++) {
+            if (input.readBit()) {
+                if (input.readBit()) {
+                    windowLeading = (int) input.readBits(5);
+                    int meaningful = (int) input.readBits(6);
+                    if (meaningful == 0) {
+                        meaningful = 64;
+                    }
+                    windowTrailing = 64 - windowLeading - meaningful;
+                    if (windowTrailing < 0) {
+                        throw new IOException("Corrupt XOR column at value " + i);
+                    }
+                }
+                previous ^= input.readBits(64 - windowLeading - windowTrailing) << windowTrailing;
+            }
+            values[i] = Double.longBitsToDouble(previous);
+        }
+        input.alignBits();
+    }
+
+    private static long[] toLongArray(List<Long> list) {
+        long[] array = new long[list.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = list.get(i);
+        }
+        return array;
+    }
+
+    private static double[] toDoubleArray(List<Double> list) {
+        double[] array = new double[list.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = list.get(i);
+        }
+        return array;
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.shared.codec;
+
+import com.example.shared.dto.FourierAnalysisDTO;
+import com.example.shared.dto.TimeSeriesDataDTO;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.IOException;
+
+/**
+ * Reads and writes {@link TimeSeriesDataDTO} and {@link FourierAnalysisDTO} bodies in the
+ * {@link ColumnarCodec} format, for requests and responses with content type
+ * {@value ColumnarCodec#MEDIA_TYPE_VALUE}. Clients that do not ask for that type keep getting JSON.
+ */
+public class ColumnarHttpMessageConverter extends AbstractHttpMessageConverter<Object> {
+    public static final MediaType MEDIA_TYPE = MediaType.parseMediaType(ColumnarCodec.MEDIA_TYPE_VALUE);
+
+    private final DoubleEncoding valueEncoding;
+
+    public ColumnarHttpMessageConverter() {
+        this(DoubleEncoding.XOR);
+    }
+
+    /**
+     * @param valueEncoding How double columns are written; both encodings are always readable.
+     */
+    public ColumnarHttpMessageConverter(DoubleEncoding valueEncoding) {
+        super(MEDIA_TYPE);
+        this.valueEncoding = valueEncoding;
+    }
+
+    public DoubleEncoding getValueEncoding() {
+        return valueEncoding;
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return TimeSeriesDataDTO.class.isAssignableFrom(clazz) || FourierAnalysisDTO.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) throws IOException {
+        // Read the body first, so that only malformed payloads are reported as unreadable
+        byte[] body = inputMessage.getBody().readAllBytes();
+        try {
+            if (TimeSeriesDataDTO.class.isAssignableFrom(clazz)) {
+                return ColumnarCodec.decodeTimeSeries(body);
+            }
+            return ColumnarCodec.decodeFourierAnalysis(body);
+        } catch (IOException e) {
+            throw new HttpMessageNotReadableException("Could not read columnar body: " + e.getMessage(), e,
+                    inputMessage);
+        }
+    }
+
+    @Override
+    protected void writeInternal(Object body, HttpOutputMessage outputMessage) throws IOException {
+        if (body instanceof TimeSeriesDataDTO series) {
+            ColumnarCodec.encode(series, valueEncoding, outputMessage.getBody());
+        } else {
+            ColumnarCodec.encode((FourierAnalysisDTO) body, valueEncoding, outputMessage.getBody());
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.shared.codec;
+
+import java.io.IOException;
+
+/**
+ * Reads what {@link ColumnarOutput} writes, failing with an {@link IOException} rather than an
+ * index error on truncated input.
+ */
+final class ColumnarInput {
+    private final byte[] bytes;
+    private int position;
+
+    private long bitBuffer;
+    private int bitCount;
+
+    ColumnarInput(byte[] bytes) {
+        this.bytes = bytes;
+    }
+
+    int remaining() {
+        return bytes.length - position;
+    }
+
+    int readByte() throws IOException {
+        require(1);
+        return bytes[position++] & 0xFF;
+    }
+
+    int readInt() throws IOException {
+        require(Integer.BYTES);
+        int value = 0;
+        for (int i = 0; i < Integer.BYTES; i++) {
+            value |= (bytes[position++] & 0xFF) << (8 * i);
+        }
+        return value;
+    }
+
+    long readLong() throws IOException {
+        require(Long.BYTES);
+        long value = 0;
+        for (int i = 0; i < Long.BYTES; i++) {
+            value |= (bytes[position++] & 0xFFL) << (8 * i);
+        }
+        return value;
+    }
+
+    double readDouble() throws IOException {
+        return Double.longBitsToDouble(readLong());
+    }
+
+    long readVarLong() throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed variable-length integer at byte " + position);
+    }
+
+    long readZigZagLong() throws IOException {
+        long value = readVarLong();
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * Read {@code count} bits, most significant first.
+     */
+    long readBits(int count) throws IOException {
+        if (count > 32) {
+            long high = readBits(count - 32);
+            return (high << 32) | readBits(32);
+        }
+        while (bitCount < count) {
+            bitBuffer = (bitBuffer << 8) | readByte();
+            bitCount += 8;
+        }
+        bitCount -= count;
+        return (bitBuffer >>> bitCount) & ((1L << count) - 1);
+    }
+
+    boolean readBit() throws IOException {
+        return readBits(1) != 0;
+    }
+
+    /**
+     * Skip the padding at the end of the current bit run.
+     */
+    void alignBits() {
+        bitCount = 0;
+        bitBuffer = 0;
+    }
+
+    private void require(int count) throws IOException {
+        if (bytes.length - position < count) {
+            throw new IOException("Truncated columnar payload: needed " + count + " more bytes at byte " + position);
+        }
+    }
+}
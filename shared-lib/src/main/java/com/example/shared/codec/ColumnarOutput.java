@@ -0,0 +1,111 @@
+package com.example.shared.codec;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * A growable little-endian byte buffer with variable-length integers and a bit-level writer for
+ * XOR-compressed columns.
+ */
+final class ColumnarOutput {
+    private byte[] bytes;
+    private int length;
+
+    // Pending bits of the current bit run, most significant first
+    private long bitBuffer;
+    private int bitCount;
+
+    ColumnarOutput(int expectedBytes) {
+        this.bytes = new byte[Math.max(64, expectedBytes)];
+    }
+
+    void writeByte(int value) {
+        ensureCapacity(1);
+        bytes[length++] = (byte) value;
+    }
+
+    void writeInt(int value) {
+        ensureCapacity(Integer.BYTES);
+        for (int i = 0; i < Integer.BYTES; i++) {
+            bytes[length++] = (byte) (value >>> (8 * i));
+        }
+    }
+
+    void writeLong(long value) {
+        ensureCapacity(Long.BYTES);
+        for (int i = 0; i < Long.BYTES; i++) {
+            bytes[length++] = (byte) (value >>> (8 * i));
+        }
+    }
+
+    void writeDouble(double value) {
+        writeLong(Double.doubleToRawLongBits(value));
+    }
+
+    /**
+     * Write an unsigned LEB128 variable-length integer.
+     */
+    void writeVarLong(long value) {
+        ensureCapacity(10);
+        while ((value & ~0x7FL) != 0) {
+            bytes[length++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        bytes[length++] = (byte) value;
+    }
+
+    /**
+     * Write a signed value as a zigzag LEB128 variable-length integer, so that small negative
+     * values stay short.
+     */
+    void writeZigZagLong(long value) {
+        writeVarLong((value << 1) ^ (value >> 63));
+    }
+
+    /**
+     * Write the low {@code count} bits of {@code value}, most significant first.
+     */
+    void writeBits(long value, int count) {
+        if (count > 32) {
+            writeBits(value >>> 32, count - 32);
+            writeBits(value, 32);
+            return;
+        }
+        bitBuffer = (bitBuffer << count) | (value & ((1L << count) - 1));
+        bitCount += count;
+        while (bitCount >= 8) {
+            bitCount -= 8;
+            writeByte((int) (bitBuffer >>> bitCount));
+        }
+    }
+
+    void writeBit(boolean bit) {
+        writeBits(bit ? 1 : 0, 1);
+    }
+
+    /**
+     * Pad the current bit run with zeros to a whole byte.
+     */
+    void alignBits() {
+        if (bitCount > 0) {
+            writeByte((int) (bitBuffer << (8 - bitCount)));
+            bitCount = 0;
+        }
+        bitBuffer = 0;
+    }
+
+    int length() {
+        return length;
+    }
+
+    void writeTo(OutputStream out) throws IOException {
+        out.write(bytes, 0, length);
+    }
+
+    private void ensureCapacity(int extra) {
+        if (length + extra > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, length + extra));
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.shared.codec;
+
+/**
+ * How a column of doubles is stored in a {@link ColumnarCodec} payload.
+ */
+public enum DoubleEncoding {
+    /**
+     * Eight little-endian bytes per value: the fastest to encode and decode.
+     */
+    RAW,
+    /**
+     * Each value XORed with the previous one and stored as the meaningful bits of the result, as in
+     * Facebook's Gorilla. Slowly changing series, such as prices or evenly spaced frequencies,
+     * typically shrink to a few bits per value.
+     */
+    XOR
+}
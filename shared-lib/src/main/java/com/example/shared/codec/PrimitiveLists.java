@@ -0,0 +1,86 @@
+package com.example.shared.codec;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * Read-only {@link List} views of primitive arrays, so that series can be handed to list-based
+ * DTOs without boxing them up front. {@link ColumnarCodec} encodes such views straight from their
+ * arrays.
+ */
+public final class PrimitiveLists {
+    private PrimitiveLists() {
+    }
+
+    /**
+     * A read-only view of {@code size} elements of {@code values} starting at {@code offset}. The
+     * caller must not modify that range afterwards.
+     */
+    public static List<Double> ofDoubles(double[] values, int offset, int size) {
+        Objects.checkFromIndexSize(offset, size, values.length);
+        return new DoubleArrayList(values, offset, size);
+    }
+
+    public static List<Double> ofDoubles(double[] values) {
+        return ofDoubles(values, 0, values.length);
+    }
+
+    /**
+     * A read-only view of {@code size} elements of {@code values} starting at {@code offset}. The
+     * caller must not modify that range afterwards.
+     */
+    public static List<Long> ofLongs(long[] values, int offset, int size) {
+        Objects.checkFromIndexSize(offset, size, values.length);
+        return new LongArrayList(values, offset, size);
+    }
+
+    public static List<Long> ofLongs(long[] values) {
+        return ofLongs(values, 0, values.length);
+    }
+
+    static final class DoubleArrayList extends AbstractList<Double> implements RandomAccess {
+        final double[] values;
+        final int offset;
+        final int size;
+
+        DoubleArrayList(double[] values, int offset, int size) {
+            this.values = values;
+            this.offset = offset;
+            this.size = size;
+        }
+
+        @Override
+        public Double get(int index) {
+            return values[offset + Objects.checkIndex(index, size)];
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    static final class LongArrayList extends AbstractList<Long> implements RandomAccess {
+        final long[] values;
+        final int offset;
+        final int size;
+
+        LongArrayList(long[] values, int offset, int size) {
+            this.values = values;
+            this.offset = offset;
+            this.size = size;
+        }
+
+        @Override
+        public Long get(int index) {
+            return values[offset + Objects.checkIndex(index, size)];
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.shared.codec;
+
+import com.example.shared.dto.FourierAnalysisDTO;
+import com.example.shared.dto.FrequencyComponentDTO;
+import com.example.shared.dto.TimeSeriesDataDTO;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ColumnarCodecTest {
+
+    @Test
+    void testTimeSeriesRoundTripsExactly() throws IOException {
+        Random random = new Random(42);
+        int n = 5000;
+        long[] timestamps = new long[n];
+        double[] values = new double[n];
+        long time = 1_700_000_000_000L;
+        double price = 100.0;
+        for (int i = 0; i < n; i++) {
+            // Irregular, occasionally repeated or out-of-order ticks
+            time += random.nextInt(120) - 10;
+            price += random.nextInt(5) == 0 ? 0.0 : random.nextGaussian() * 0.05;
+            timestamps[i] = time;
+            values[i] = price;
+        }
+        values[7] = Double.NaN;
+        values[8] = Double.NEGATIVE_INFINITY;
+        values[9] = -0.0;
+        timestamps[10] = Long.MIN_VALUE;
+
+        for (DoubleEncoding encoding : DoubleEncoding.values()) {
+            byte[] payload = encode(new TimeSeriesDataDTO(PrimitiveLists.ofDoubles(values),
+                    PrimitiveLists.ofLongs(timestamps)), encoding);
+            TimeSeriesDataDTO decoded = ColumnarCodec.decodeTimeSeries(payload);
+            assertEquals(n, decoded.getValues().size());
+            for (int i = 0; i < n; i++) {
+                assertEquals(timestamps[i], decoded.getTimestamps().get(i));
+                assertEquals(Double.doubleToRawLongBits(values[i]),
+                        Double.doubleToRawLongBits(decoded.getValues().get(i)), "value " + i + " with " + encoding);
+            }
+        }
+    }
+
+    @Test
+    void testBoxedListsEncodeLikePrimitiveViews() throws IOException {
+        List<Double> values = Arrays.asList(1.5, 1.5, 1.25, 3.0);
+        List<Long> timestamps = Arrays.asList(1000L, 1050L, 1100L, 1150L);
+        byte[] boxed = encode(new TimeSeriesDataDTO(values, timestamps), DoubleEncoding.XOR);
+        byte[] primitive = encode(new TimeSeriesDataDTO(PrimitiveLists.ofDoubles(new double[]{1.5, 1.5, 1.25, 3.0}),
+                PrimitiveLists.ofLongs(new long[]{1000L, 1050L, 1100L, 1150L})), DoubleEncoding.XOR);
+        assertArrayEquals(boxed, primitive);
+
+        TimeSeriesDataDTO decoded = ColumnarCodec.decodeTimeSeries(boxed);
+        assertEquals(values, decoded.getValues());
+        assertEquals(timestamps, decoded.getTimestamps());
+        assertThrows(UnsupportedOperationException.class, () -> decoded.getValues().add(2.0));
+    }
+
+    @Test
+    void testEmptySeries() throws IOException {
+        for (DoubleEncoding encoding : DoubleEncoding.values()) {
+            TimeSeriesDataDTO decoded = ColumnarCodec.decodeTimeSeries(
+                    encode(new TimeSeriesDataDTO(new ArrayList<>(), new ArrayList<>()), encoding));
+            assertTrue(decoded.getValues().isEmpty());
+            assertTrue(decoded.getTimestamps().isEmpty());
+        }
+    }
+
+    @Test
+    void testRegularSeriesIsMuchSmallerThanRaw() throws IOException {
+        int n = 10_000;
+        long[] timestamps = new long[n];
+        double[] values = new double[n];
+        for (int i = 0; i < n; i++) {
+            timestamps[i] = 1_700_000_000_000L + 50L * i;
+            // A quote that moves by cents every few ticks
+            values[i] = 100.0 + Math.round(Math.sin(i / 5 / 20.0) * 100) / 100.0;
+        }
+        TimeSeriesDataDTO series = new TimeSeriesDataDTO(PrimitiveLists.ofDoubles(values),
+                PrimitiveLists.ofLongs(timestamps));
+
+        int raw = encode(series, DoubleEncoding.RAW).length;
+        int xor = encode(series, DoubleEncoding.XOR).length;
+        // One byte per timestamp delta instead of eight
+        assertTrue(raw < 10 * n, "raw payload " + raw);
+        assertTrue(xor < raw / 2, "XOR payload " + xor + " vs raw " + raw);
+    }
+
+    @Test
+    void testFourierAnalysisRoundTrips() throws IOException {
+        List<FrequencyComponentDTO> components = new ArrayList<>();
+        for (int k = 0; k < 513; k++) {
+            components.add(new FrequencyComponentDTO(k * 20.0 / 1024, Math.abs(Math.sin(k)) * 3));
+        }
+        FourierAnalysisDTO analysis = new FourierAnalysisDTO(components, 20.0);
+
+        for (DoubleEncoding encoding : DoubleEncoding.values()) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            ColumnarCodec.encode(analysis, encoding, out);
+            assertEquals(analysis, ColumnarCodec.decodeFourierAnalysis(out.toByteArray()));
+        }
+    }
+
+    @Test
+    void testMalformedPayloadsAreRejected() throws IOException {
+        byte[] payload = encode(new TimeSeriesDataDTO(Arrays.asList(1.0, 2.0, 3.0), Arrays.asList(1L, 2L, 3L)),
+                DoubleEncoding.RAW);
+
+        assertThrows(IOException.class, () -> ColumnarCodec.decodeTimeSeries(new byte[]{1, 2, 3}));
+        assertThrows(IOException.class, () -> ColumnarCodec.decodeFourierAnalysis(payload));
+        assertThrows(IOException.class,
+                () -> ColumnarCodec.decodeTimeSeries(Arrays.copyOf(payload, payload.length - 1)));
+
+        byte[] hugeCount = payload.clone();
+        hugeCount[8] = (byte) 0xFF;
+        hugeCount[9] = (byte) 0xFF;
+        hugeCount[10] = (byte) 0xFF;
+        hugeCount[11] = (byte) 0x7F;
+        assertThrows(IOException.class, () -> ColumnarCodec.decodeTimeSeries(hugeCount));
+    }
+
+    private static byte[] encode(TimeSeriesDataDTO series, DoubleEncoding encoding) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ColumnarCodec.encode(series, encoding, out);
+        return out.toByteArray();
+    }
+}